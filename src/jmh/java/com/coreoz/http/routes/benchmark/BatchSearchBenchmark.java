@@ -0,0 +1,83 @@
+package com.coreoz.http.routes.benchmark;
+
+import com.coreoz.http.routes.HttpRouter;
+import com.coreoz.http.routes.router.search.BatchSearchConsumer;
+import com.coreoz.http.routes.router.search.RouteMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the search of a batch of requests, like an access log replay,
+ * using {@link HttpRouter#searchAll(String[], CharSequence[], BatchSearchConsumer)}
+ * compared to searching requests one by one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchSearchBenchmark {
+    private static final int REQUESTS_COUNT = 100_000;
+
+    @Param({"1000", "100000"})
+    private int routesCount;
+
+    @Param({"PATTERN_HEAVY", "MIXED"})
+    private RoutesShape shape;
+
+    private HttpRouter<BenchmarkRoute> router;
+    private final RouteMatcher<BenchmarkRoute> matcher = new RouteMatcher<>();
+    private String[] methods;
+    private String[] paths;
+
+    @Setup
+    public void setup() {
+        List<BenchmarkRoute> routes = BenchmarkRoutes.generateRoutes(shape, routesCount);
+        router = new HttpRouter<>(routes);
+        BenchmarkRequest[] requests = BenchmarkRoutes.generateRequests(routes, REQUESTS_COUNT, 42);
+        methods = new String[REQUESTS_COUNT];
+        paths = new String[REQUESTS_COUNT];
+        for (int i = 0; i < REQUESTS_COUNT; i++) {
+            methods[i] = requests[i].method();
+            paths[i] = requests[i].path();
+        }
+    }
+
+    @Benchmark
+    public void searchOneByOne(Blackhole blackhole) {
+        for (int i = 0; i < REQUESTS_COUNT; i++) {
+            router.searchRoute(methods[i], paths[i], matcher);
+            blackhole.consume(matcher.matchingRouteLeaf());
+        }
+    }
+
+    @Benchmark
+    public void searchAll(Blackhole blackhole) {
+        router.searchAll(methods, paths, (requestIndex, matchingRouteLeaf) -> blackhole.consume(matchingRouteLeaf));
+    }
+
+    @Benchmark
+    public void searchAllInParallel(Blackhole blackhole) {
+        router.searchAll(
+            methods,
+            paths,
+            (requestIndex, matchingRouteLeaf) -> blackhole.consume(matchingRouteLeaf),
+            ForkJoinPool.commonPool()
+        );
+    }
+}
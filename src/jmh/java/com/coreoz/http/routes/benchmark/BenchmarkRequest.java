@@ -0,0 +1,11 @@
+package com.coreoz.http.routes.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A request that is searched in the router during benchmarks
+ * @param method The HTTP method
+ * @param path The concrete path, e.g. <code>/users/123</code>
+ */
+public record BenchmarkRequest(@NotNull String method, @NotNull String path) {
+}
@@ -0,0 +1,16 @@
+package com.coreoz.http.routes.benchmark;
+
+import com.coreoz.http.routes.router.HttpRoute;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A route used in benchmarks
+ * @param routeId The route identifier
+ * @param method The HTTP method
+ * @param path The route path in the router, e.g. <code>/users/{userId}</code>
+ * @param destinationPath The path used to rewrite the route, e.g. <code>/backend/users/{userId}</code>
+ */
+public record BenchmarkRoute(
+    @NotNull String routeId, @NotNull String method, @NotNull String path, @NotNull String destinationPath
+) implements HttpRoute {
+}
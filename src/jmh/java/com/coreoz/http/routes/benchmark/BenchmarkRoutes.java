@@ -0,0 +1,107 @@
+package com.coreoz.http.routes.benchmark;
+
+import com.coreoz.http.routes.HttpRoutes;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generate route tables and matching requests for benchmarks.<br>
+ * <br>
+ * Generation is deterministic: the same arguments always produce the same routes and requests,
+ * so results can be compared between releases.
+ */
+public class BenchmarkRoutes {
+    private static final String[] PATTERN_VALUES = {"acme", "123", "9f1c2e", "user-42", "2024", "eu-west"};
+
+    /**
+     * Generate a route table
+     * @param shape The kind of routes to generate
+     * @param routesCount The number of routes to generate, each generated route has a distinct path
+     */
+    public static @NotNull List<BenchmarkRoute> generateRoutes(@NotNull RoutesShape shape, int routesCount) {
+        List<BenchmarkRoute> routes = new ArrayList<>(routesCount);
+        for (int routeIndex = 0; routeIndex < routesCount; routeIndex++) {
+            String path = generatePath(shape, routeIndex);
+            routes.add(new BenchmarkRoute(
+                "route-" + routeIndex,
+                routeIndex % 5 == 4 ? "POST" : "GET",
+                path,
+                "/backend" + path
+            ));
+        }
+        return routes;
+    }
+
+    /**
+     * Generate concrete requests that each match one of the routes
+     * @param routes The routes generated by {@link #generateRoutes(RoutesShape, int)}
+     * @param requestsCount The number of requests to generate
+     * @param seed The random seed used to pick routes and path parameter values
+     */
+    public static @NotNull BenchmarkRequest[] generateRequests(@NotNull List<BenchmarkRoute> routes, int requestsCount, long seed) {
+        Random random = new Random(seed);
+        BenchmarkRequest[] requests = new BenchmarkRequest[requestsCount];
+        for (int requestIndex = 0; requestIndex < requestsCount; requestIndex++) {
+            BenchmarkRoute route = routes.get(random.nextInt(routes.size()));
+            requests[requestIndex] = new BenchmarkRequest(
+                route.method(),
+                HttpRoutes.serializeParsedPath(
+                    HttpRoutes.parsePathAsSegments(route.path()),
+                    patternName -> PATTERN_VALUES[random.nextInt(PATTERN_VALUES.length)]
+                )
+            );
+        }
+        return requests;
+    }
+
+    private static @NotNull String generatePath(@NotNull RoutesShape shape, int routeIndex) {
+        return switch (shape) {
+            case STATIC_HEAVY -> generateStaticHeavyPath(routeIndex);
+            case PATTERN_HEAVY -> generatePatternHeavyPath(routeIndex);
+            case DEEP -> generateDeepPath(routeIndex);
+            case MIXED -> switch (routeIndex % 3) {
+                case 0 -> generateStaticHeavyPath(routeIndex);
+                case 1 -> generatePatternHeavyPath(routeIndex);
+                default -> generateDeepPath(routeIndex);
+            };
+            case OPENAPI -> generateOpenApiPath(routeIndex);
+        };
+    }
+
+    private static @NotNull String generateStaticHeavyPath(int routeIndex) {
+        String path = "/api/v" + (1 + routeIndex % 3) + "/domain-" + (routeIndex % 97) + "/resource-" + routeIndex;
+        return routeIndex % 4 == 3 ? path + "/{id}" : path;
+    }
+
+    private static @NotNull String generatePatternHeavyPath(int routeIndex) {
+        return switch (routeIndex % 4) {
+            case 0 -> "/{tenant}/entity-" + routeIndex + "/{entityId}";
+            case 1 -> "/{tenant}/{scope}/entity-" + routeIndex + "/{entityId}/details";
+            case 2 -> "/{tenant}/entity-" + routeIndex + "/{entityId}/{action}";
+            default -> "/{tenant}/{scope}/{category}/entity-" + routeIndex;
+        };
+    }
+
+    private static @NotNull String generateDeepPath(int routeIndex) {
+        return "/org-" + (routeIndex % 10)
+            + "/{orgId}/team-" + (routeIndex % 100)
+            + "/{teamId}/project-" + routeIndex
+            + "/{projectId}/environments/{env}/deployments/{deploymentId}/logs";
+    }
+
+    private static @NotNull String generateOpenApiPath(int routeIndex) {
+        // each service exposes 4 resources with 6 operations each
+        String resourcePath = "/services/service-" + (routeIndex / 24) + "/api/v2/internal/resource-" + (routeIndex / 6 % 4);
+        return switch (routeIndex % 6) {
+            case 0 -> resourcePath;
+            case 1 -> resourcePath + "/{id}";
+            case 2 -> resourcePath + "/{id}/status/history";
+            case 3 -> resourcePath + "/{id}/attachments";
+            case 4 -> resourcePath + "/{id}/attachments/{attachmentId}/content";
+            default -> resourcePath + "/search/by-owner/{ownerId}";
+        };
+    }
+}
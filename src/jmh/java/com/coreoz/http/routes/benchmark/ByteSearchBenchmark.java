@@ -0,0 +1,122 @@
+package com.coreoz.http.routes.benchmark;
+
+import com.coreoz.http.routes.HttpRouter;
+import com.coreoz.http.routes.router.compiled.CompiledRouter;
+import com.coreoz.http.routes.router.search.RouteMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the search of request lines read as bytes, like an NIO server reads them:<br>
+ * - by decoding the method and the path as {@link String} before the search<br>
+ * - by searching directly in the bytes using {@link HttpRouter#searchRoute(byte[], int, int, int, int, RouteMatcher)}<br>
+ * - by searching directly in a direct {@link ByteBuffer}<br>
+ * <br>
+ * The GC profiler (<code>-prof gc</code>) reports the allocation rate per search.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ByteSearchBenchmark {
+    private static final int REQUESTS_COUNT = 1024;
+
+    @Param({"1000", "100000"})
+    private int routesCount;
+
+    @Param({"PATTERN_HEAVY", "MIXED"})
+    private RoutesShape shape;
+
+    private HttpRouter<BenchmarkRoute> router;
+    private CompiledRouter<BenchmarkRoute> compiledRouter;
+    private final RouteMatcher<BenchmarkRoute> matcher = new RouteMatcher<>();
+    // request lines like "GET /users/123 HTTP/1.1"
+    private byte[][] requestLines;
+    private ByteBuffer[] directRequestLines;
+    private int[] methodLengths;
+    private int requestIndex;
+
+    @Setup
+    public void setup() {
+        List<BenchmarkRoute> routes = BenchmarkRoutes.generateRoutes(shape, routesCount);
+        router = new HttpRouter<>(routes);
+        compiledRouter = router.freeze();
+        BenchmarkRequest[] requests = BenchmarkRoutes.generateRequests(routes, REQUESTS_COUNT, 42);
+        requestLines = new byte[REQUESTS_COUNT][];
+        directRequestLines = new ByteBuffer[REQUESTS_COUNT];
+        methodLengths = new int[REQUESTS_COUNT];
+        for (int i = 0; i < REQUESTS_COUNT; i++) {
+            requestLines[i] = (requests[i].method() + " " + requests[i].path() + " HTTP/1.1").getBytes(StandardCharsets.US_ASCII);
+            directRequestLines[i] = ByteBuffer.allocateDirect(requestLines[i].length).put(requestLines[i]);
+            methodLengths[i] = requests[i].method().length();
+        }
+    }
+
+    @Benchmark
+    public boolean searchDecodedString() {
+        int index = requestIndex++ & (REQUESTS_COUNT - 1);
+        byte[] requestLine = requestLines[index];
+        int methodLength = methodLengths[index];
+        String method = new String(requestLine, 0, methodLength, StandardCharsets.US_ASCII);
+        String path = new String(requestLine, methodLength + 1, pathLength(requestLine, methodLength), StandardCharsets.US_ASCII);
+        return router.searchRoute(method, path, matcher);
+    }
+
+    @Benchmark
+    public boolean searchBytes() {
+        int index = requestIndex++ & (REQUESTS_COUNT - 1);
+        byte[] requestLine = requestLines[index];
+        int methodLength = methodLengths[index];
+        return router.searchRoute(requestLine, 0, methodLength, methodLength + 1, pathLength(requestLine, methodLength), matcher);
+    }
+
+    @Benchmark
+    public boolean searchDirectBuffer() {
+        int index = requestIndex++ & (REQUESTS_COUNT - 1);
+        ByteBuffer requestLine = directRequestLines[index];
+        int methodLength = methodLengths[index];
+        return router.searchRoute(requestLine, 0, methodLength, methodLength + 1, pathLength(requestLines[index], methodLength), matcher);
+    }
+
+    @Benchmark
+    public boolean searchCompiledDecodedString() {
+        int index = requestIndex++ & (REQUESTS_COUNT - 1);
+        byte[] requestLine = requestLines[index];
+        int methodLength = methodLengths[index];
+        String method = new String(requestLine, 0, methodLength, StandardCharsets.US_ASCII);
+        String path = new String(requestLine, methodLength + 1, pathLength(requestLine, methodLength), StandardCharsets.US_ASCII);
+        return compiledRouter.searchRoute(method, path, matcher);
+    }
+
+    @Benchmark
+    public boolean searchCompiledBytes() {
+        int index = requestIndex++ & (REQUESTS_COUNT - 1);
+        byte[] requestLine = requestLines[index];
+        int methodLength = methodLengths[index];
+        return compiledRouter.searchRoute(requestLine, 0, methodLength, methodLength + 1, pathLength(requestLine, methodLength), matcher);
+    }
+
+    /**
+     * Returns the path length in a request line: the path ends with the space before the HTTP version
+     */
+    private static int pathLength(byte[] requestLine, int methodLength) {
+        // " HTTP/1.1" is 9 bytes
+        return requestLine.length - methodLength - 1 - 9;
+    }
+}
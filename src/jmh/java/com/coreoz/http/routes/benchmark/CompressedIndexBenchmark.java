@@ -0,0 +1,108 @@
+package com.coreoz.http.routes.benchmark;
+
+import com.coreoz.http.routes.router.index.IndexedRoutes;
+import com.coreoz.http.routes.router.index.SearchRouteIndexer;
+import com.coreoz.http.routes.router.search.RouteMatcher;
+import com.coreoz.http.routes.router.search.SearchRouteEngine;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the search in a routes index and in the same index compressed using {@link SearchRouteIndexer#compressIndex(Map)}.<br>
+ * <br>
+ * The number of nodes and the heap retained by each index are printed during the setup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressedIndexBenchmark {
+    private static final int REQUESTS_COUNT = 1024;
+
+    @Param({"1000", "100000"})
+    private int routesCount;
+
+    @Param({"OPENAPI", "STATIC_HEAVY", "DEEP"})
+    private RoutesShape shape;
+
+    private Map<String, IndexedRoutes<BenchmarkRoute>> index;
+    private Map<String, IndexedRoutes<BenchmarkRoute>> compressedIndex;
+    private final RouteMatcher<BenchmarkRoute> matcher = new RouteMatcher<>();
+    private BenchmarkRequest[] requests;
+    private int requestIndex;
+
+    @Setup
+    public void setup() {
+        List<BenchmarkRoute> routes = BenchmarkRoutes.generateRoutes(shape, routesCount);
+        long indexBytes = retainedBytes(() -> index = SearchRouteIndexer.indexRoutes(routes));
+        long compressedIndexBytes = retainedBytes(() -> compressedIndex = SearchRouteIndexer.compressIndex(SearchRouteIndexer.indexRoutes(routes)));
+        System.out.printf(
+            "%nIndex: %d nodes, %d KB - Compressed index: %d nodes, %d KB%n",
+            countNodes(index),
+            indexBytes / 1024,
+            countNodes(compressedIndex),
+            compressedIndexBytes / 1024
+        );
+        requests = BenchmarkRoutes.generateRequests(routes, REQUESTS_COUNT, 42);
+    }
+
+    @Benchmark
+    public boolean searchIndex() {
+        BenchmarkRequest request = requests[requestIndex++ & (REQUESTS_COUNT - 1)];
+        return SearchRouteEngine.searchRoute(index.get(request.method()), request.path(), matcher);
+    }
+
+    @Benchmark
+    public boolean searchCompressedIndex() {
+        BenchmarkRequest request = requests[requestIndex++ & (REQUESTS_COUNT - 1)];
+        return SearchRouteEngine.searchRoute(compressedIndex.get(request.method()), request.path(), matcher);
+    }
+
+    private static long countNodes(@NotNull Map<String, IndexedRoutes<BenchmarkRoute>> index) {
+        return index.values().stream().mapToLong(CompressedIndexBenchmark::countNodes).sum();
+    }
+
+    private static long countNodes(@NotNull IndexedRoutes<BenchmarkRoute> node) {
+        long nodesCount = 1;
+        for (IndexedRoutes<BenchmarkRoute> child : node.getSegments().values()) {
+            nodesCount += countNodes(child);
+        }
+        if (node.getPattern() != null) {
+            nodesCount += countNodes(node.getPattern());
+        }
+        return nodesCount;
+    }
+
+    /**
+     * Approximate the heap retained by the objects created by the index builder,
+     * the temporary objects created during the build are collected before the measure
+     */
+    private static long retainedBytes(@NotNull Runnable indexBuilder) {
+        long usedBytesBefore = usedBytesAfterGc();
+        indexBuilder.run();
+        return usedBytesAfterGc() - usedBytesBefore;
+    }
+
+    private static long usedBytesAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+}
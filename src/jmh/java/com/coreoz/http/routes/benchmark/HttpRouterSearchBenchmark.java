@@ -0,0 +1,88 @@
+package com.coreoz.http.routes.benchmark;
+
+import com.coreoz.http.routes.HttpRouter;
+import com.coreoz.http.routes.router.compiled.CompiledRouter;
+import com.coreoz.http.routes.router.metrics.RouterMetrics;
+import com.coreoz.http.routes.router.search.RawMatchingRoute;
+import com.coreoz.http.routes.router.search.RouteMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure {@link HttpRouter#searchRoute(String, String)} and
+ * {@link HttpRouter#searchRoute(String, CharSequence, RouteMatcher)} with and without {@link RouterMetrics},
+ * as well as the search in the {@link CompiledRouter},
+ * for each {@link RoutesShape} and route table size.<br>
+ * <br>
+ * The {@link Mode#SampleTime} mode reports latency percentiles, the GC profiler (<code>-prof gc</code>)
+ * reports the allocation rate per search.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpRouterSearchBenchmark {
+    private static final int REQUESTS_COUNT = 1024;
+
+    @Param({"10", "1000", "100000"})
+    private int routesCount;
+
+    @Param({"STATIC_HEAVY", "PATTERN_HEAVY", "DEEP", "MIXED"})
+    private RoutesShape shape;
+
+    private HttpRouter<BenchmarkRoute> router;
+    private HttpRouter<BenchmarkRoute> instrumentedRouter;
+    private CompiledRouter<BenchmarkRoute> compiledRouter;
+    private final RouteMatcher<BenchmarkRoute> matcher = new RouteMatcher<>();
+    private BenchmarkRequest[] requests;
+    private int requestIndex;
+
+    @Setup
+    public void setup() {
+        List<BenchmarkRoute> routes = BenchmarkRoutes.generateRoutes(shape, routesCount);
+        router = new HttpRouter<>(routes);
+        compiledRouter = router.freeze();
+        instrumentedRouter = new HttpRouter<>(routes);
+        instrumentedRouter.setSearchListener(new RouterMetrics<>());
+        requests = BenchmarkRoutes.generateRequests(routes, REQUESTS_COUNT, 42);
+    }
+
+    @Benchmark
+    public Optional<RawMatchingRoute<BenchmarkRoute>> searchRoute() {
+        BenchmarkRequest request = requests[requestIndex++ & (REQUESTS_COUNT - 1)];
+        return router.searchRoute(request.method(), request.path());
+    }
+
+    @Benchmark
+    public boolean searchRouteWithMatcher() {
+        BenchmarkRequest request = requests[requestIndex++ & (REQUESTS_COUNT - 1)];
+        return router.searchRoute(request.method(), request.path(), matcher);
+    }
+
+    @Benchmark
+    public boolean searchInstrumentedRouteWithMatcher() {
+        BenchmarkRequest request = requests[requestIndex++ & (REQUESTS_COUNT - 1)];
+        return instrumentedRouter.searchRoute(request.method(), request.path(), matcher);
+    }
+
+    @Benchmark
+    public boolean searchCompiledRouteWithMatcher() {
+        BenchmarkRequest request = requests[requestIndex++ & (REQUESTS_COUNT - 1)];
+        return compiledRouter.searchRoute(request.method(), request.path(), matcher);
+    }
+}
@@ -0,0 +1,101 @@
+package com.coreoz.http.routes.benchmark;
+
+import com.coreoz.http.routes.DestinationTemplate;
+import com.coreoz.http.routes.HttpRouter;
+import com.coreoz.http.routes.HttpRoutes;
+import com.coreoz.http.routes.parsing.DestinationRoute;
+import com.coreoz.http.routes.parsing.ParsedSegment;
+import com.coreoz.http.routes.router.search.MatchingRoute;
+import com.coreoz.http.routes.router.search.RawMatchingRoute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the transformation of a search result: {@link HttpRoutes#toMatchingRoute(RawMatchingRoute)}
+ * and {@link HttpRoutes#computeDestinationRoute(RawMatchingRoute, List)}, compared to a {@link DestinationTemplate} compiled for each route.<br>
+ * <br>
+ * Search results are computed during the setup, so only the transformation is measured.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpRoutesRewriteBenchmark {
+    private static final int REQUESTS_COUNT = 1024;
+    private static final int ROUTES_COUNT = 1000;
+
+    @Param({"STATIC_HEAVY", "PATTERN_HEAVY", "DEEP", "MIXED"})
+    private RoutesShape shape;
+
+    private RawMatchingRoute<BenchmarkRoute>[] matchingRoutes;
+    private List<ParsedSegment>[] destinationsSegments;
+    private DestinationTemplate[] destinationTemplates;
+    private final StringBuilder destinationPath = new StringBuilder(256);
+    private final ByteBuffer destinationBuffer = ByteBuffer.allocateDirect(256);
+    private int requestIndex;
+
+    @Setup
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void setup() {
+        List<BenchmarkRoute> routes = BenchmarkRoutes.generateRoutes(shape, ROUTES_COUNT);
+        HttpRouter<BenchmarkRoute> router = new HttpRouter<>(routes);
+        BenchmarkRequest[] requests = BenchmarkRoutes.generateRequests(routes, REQUESTS_COUNT, 42);
+        matchingRoutes = new RawMatchingRoute[REQUESTS_COUNT];
+        destinationsSegments = new List[REQUESTS_COUNT];
+        destinationTemplates = new DestinationTemplate[REQUESTS_COUNT];
+        for (int i = 0; i < REQUESTS_COUNT; i++) {
+            matchingRoutes[i] = router
+                .searchRoute(requests[i].method(), requests[i].path())
+                .orElseThrow(() -> new IllegalStateException("Generated requests must match a route"));
+            destinationsSegments[i] = HttpRoutes.parsePathAsSegments(
+                matchingRoutes[i].matchingRouteLeaf().httpRoute().destinationPath()
+            );
+            destinationTemplates[i] = DestinationTemplate.compile(
+                matchingRoutes[i].matchingRouteLeaf().httpRoute().path(),
+                matchingRoutes[i].matchingRouteLeaf().httpRoute().destinationPath()
+            );
+        }
+    }
+
+    @Benchmark
+    public MatchingRoute<BenchmarkRoute> toMatchingRoute() {
+        return HttpRoutes.toMatchingRoute(matchingRoutes[requestIndex++ & (REQUESTS_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public DestinationRoute computeDestinationRoute() {
+        int index = requestIndex++ & (REQUESTS_COUNT - 1);
+        return HttpRoutes.computeDestinationRoute(matchingRoutes[index], destinationsSegments[index]);
+    }
+
+    @Benchmark
+    public StringBuilder appendDestinationTemplate() {
+        int index = requestIndex++ & (REQUESTS_COUNT - 1);
+        destinationPath.setLength(0);
+        destinationTemplates[index].appendTo(destinationPath, matchingRoutes[index]);
+        return destinationPath;
+    }
+
+    @Benchmark
+    public ByteBuffer writeDestinationTemplateToByteBuffer() {
+        int index = requestIndex++ & (REQUESTS_COUNT - 1);
+        destinationBuffer.clear();
+        destinationTemplates[index].writeTo(destinationBuffer, matchingRoutes[index]);
+        return destinationBuffer;
+    }
+}
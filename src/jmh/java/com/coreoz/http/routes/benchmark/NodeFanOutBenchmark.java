@@ -0,0 +1,101 @@
+package com.coreoz.http.routes.benchmark;
+
+import com.coreoz.http.routes.HttpRouter;
+import com.coreoz.http.routes.router.compiled.CompiledRouter;
+import com.coreoz.http.routes.router.index.IndexedRoutes;
+import com.coreoz.http.routes.router.index.SearchRouteIndexer;
+import com.coreoz.http.routes.router.index.SegmentTable;
+import com.coreoz.http.routes.router.search.RouteMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the search in a node having many static segments, like <code>/t/tenant-1/orders/{orderId}</code>,
+ * <code>/t/tenant-2/orders/{orderId}</code>, etc.<br>
+ * <br>
+ * The lookup in the {@link SegmentTable} of the node is also compared to a lookup in a {@link HashMap},
+ * which requires creating a {@link String} for the searched segment.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NodeFanOutBenchmark {
+    private static final int REQUESTS_COUNT = 1024;
+    // offset of the tenant segment in "/t/tenant-..."
+    private static final int TENANT_SEGMENT_START = 3;
+
+    @Param({"4", "64", "5000"})
+    private int fanOut;
+
+    private HttpRouter<BenchmarkRoute> router;
+    private CompiledRouter<BenchmarkRoute> compiledRouter;
+    private final RouteMatcher<BenchmarkRoute> matcher = new RouteMatcher<>();
+    private SegmentTable<BenchmarkRoute> tenantsTable;
+    private Map<String, IndexedRoutes<BenchmarkRoute>> tenantsHashMap;
+    private String[] requestPaths;
+    private int[] tenantSegmentsEnd;
+    private int requestIndex;
+
+    @Setup
+    public void setup() {
+        List<BenchmarkRoute> routes = new ArrayList<>(fanOut);
+        for (int tenantIndex = 0; tenantIndex < fanOut; tenantIndex++) {
+            String path = "/t/tenant-" + tenantIndex + "/orders/{orderId}";
+            routes.add(new BenchmarkRoute("route-" + tenantIndex, "GET", path, "/backend" + path));
+        }
+        router = new HttpRouter<>(routes);
+        compiledRouter = router.freeze();
+        tenantsTable = SearchRouteIndexer.indexRoutes(routes).get("GET").getSegments().get("t").getSegments();
+        tenantsHashMap = new HashMap<>(tenantsTable);
+
+        Random random = new Random(42);
+        requestPaths = new String[REQUESTS_COUNT];
+        tenantSegmentsEnd = new int[REQUESTS_COUNT];
+        for (int i = 0; i < REQUESTS_COUNT; i++) {
+            String tenant = "tenant-" + random.nextInt(fanOut);
+            requestPaths[i] = "/t/" + tenant + "/orders/" + random.nextInt(100_000);
+            tenantSegmentsEnd[i] = TENANT_SEGMENT_START + tenant.length();
+        }
+    }
+
+    @Benchmark
+    public boolean searchRouteWithMatcher() {
+        return router.searchRoute("GET", requestPaths[requestIndex++ & (REQUESTS_COUNT - 1)], matcher);
+    }
+
+    @Benchmark
+    public boolean searchCompiledRouteWithMatcher() {
+        return compiledRouter.searchRoute("GET", requestPaths[requestIndex++ & (REQUESTS_COUNT - 1)], matcher);
+    }
+
+    @Benchmark
+    public IndexedRoutes<BenchmarkRoute> segmentTableLookup() {
+        int index = requestIndex++ & (REQUESTS_COUNT - 1);
+        return tenantsTable.get(requestPaths[index], TENANT_SEGMENT_START, tenantSegmentsEnd[index]);
+    }
+
+    @Benchmark
+    public IndexedRoutes<BenchmarkRoute> hashMapLookupWithSubstring() {
+        int index = requestIndex++ & (REQUESTS_COUNT - 1);
+        return tenantsHashMap.get(requestPaths[index].substring(TENANT_SEGMENT_START, tenantSegmentsEnd[index]));
+    }
+}
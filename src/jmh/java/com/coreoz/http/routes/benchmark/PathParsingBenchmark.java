@@ -0,0 +1,124 @@
+package com.coreoz.http.routes.benchmark;
+
+import com.coreoz.http.routes.HttpRoutes;
+import com.coreoz.http.routes.HttpRoutesIndex;
+import com.coreoz.http.routes.parsing.ParsedPath;
+import com.coreoz.http.routes.parsing.PathInterner;
+import com.coreoz.http.routes.router.index.SearchRouteIndexer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.ref.Reference;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measure the parsing of route paths by {@link HttpRoutes#parsePath(String)}, with and without a {@link PathInterner}.<br>
+ * <br>
+ * The heap retained by an {@link HttpRoutesIndex} and by a routes index containing all the routes,
+ * with and without a shared {@link PathInterner}, is printed during the setup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathParsingBenchmark {
+    @Param({"1000", "300000"})
+    private int routesCount;
+
+    @Param({"MIXED", "OPENAPI"})
+    private RoutesShape shape;
+
+    private String[] paths;
+    private int pathIndex;
+    // the pool already contains the names of the routes, like when a route table is parsed again
+    private final PathInterner interner = new PathInterner();
+
+    @Setup
+    public void setup() {
+        List<BenchmarkRoute> routes = BenchmarkRoutes.generateRoutes(shape, routesCount);
+        paths = routes.stream().map(BenchmarkRoute::path).toArray(String[]::new);
+        for (String path : paths) {
+            HttpRoutes.parsePath(path, interner);
+        }
+
+        long routesIndexBytes = retainedBytes(() -> indexRoutes(routes, null));
+        long internedRoutesIndexBytes = retainedBytes(() -> indexRoutes(routes, new PathInterner()));
+        long indexBytes = retainedBytes(() -> SearchRouteIndexer.indexRoutes(routes));
+        long internedIndexBytes = retainedBytes(() -> SearchRouteIndexer.indexRoutes(routes, new PathInterner()));
+        long bothIndexesBytes = retainedBytes(() -> List.of(indexRoutes(routes, null), SearchRouteIndexer.indexRoutes(routes)));
+        long internedBothIndexesBytes = retainedBytes(() -> {
+            PathInterner sharedInterner = new PathInterner();
+            return List.of(indexRoutes(routes, sharedInterner), SearchRouteIndexer.indexRoutes(routes, sharedInterner));
+        });
+        System.out.printf(
+            "%nHttpRoutesIndex: %d KB, interned %d KB - Routes index: %d KB, interned %d KB - Both indexes: %d KB, sharing a pool %d KB%n",
+            routesIndexBytes / 1024,
+            internedRoutesIndexBytes / 1024,
+            indexBytes / 1024,
+            internedIndexBytes / 1024,
+            bothIndexesBytes / 1024,
+            internedBothIndexesBytes / 1024
+        );
+    }
+
+    @Benchmark
+    public ParsedPath parsePath() {
+        return HttpRoutes.parsePath(nextPath());
+    }
+
+    @Benchmark
+    public ParsedPath parsePathInterned() {
+        return HttpRoutes.parsePath(nextPath(), interner);
+    }
+
+    private @NotNull String nextPath() {
+        String path = paths[pathIndex++];
+        if (pathIndex == paths.length) {
+            pathIndex = 0;
+        }
+        return path;
+    }
+
+    private static @NotNull HttpRoutesIndex<BenchmarkRoute> indexRoutes(@NotNull List<BenchmarkRoute> routes, @Nullable PathInterner interner) {
+        HttpRoutesIndex<BenchmarkRoute> routesIndex = new HttpRoutesIndex<>(interner);
+        for (BenchmarkRoute route : routes) {
+            routesIndex.addRoute(route);
+        }
+        return routesIndex;
+    }
+
+    /**
+     * Approximate the heap retained by the objects created by the builder,
+     * the temporary objects created during the build are collected before the measure
+     */
+    private static long retainedBytes(@NotNull Supplier<Object> builder) {
+        long usedBytesBefore = usedBytesAfterGc();
+        Object builtObject = builder.get();
+        long retainedBytes = usedBytesAfterGc() - usedBytesBefore;
+        // the built object must be reachable during the measure
+        Reference.reachabilityFence(builtObject);
+        return retainedBytes;
+    }
+
+    private static long usedBytesAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+}
@@ -0,0 +1,84 @@
+package com.coreoz.http.routes.benchmark;
+
+import com.coreoz.http.routes.HttpRouter;
+import com.coreoz.http.routes.router.RoutesDiff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure {@link HttpRouter#reload(Iterable)} of a route table in which a small part of the routes has changed,
+ * compared to the creation of a new router for the same route table.<br>
+ * <br>
+ * The changed routes are evenly split between removed routes, routes which destination path has changed, and added routes.
+ * Each reload switches the router between the initial route table and the changed route table,
+ * so each reload applies the same number of changes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouterReloadBenchmark {
+    @Param({"1000", "100000"})
+    private int routesCount;
+
+    @Param({"MIXED", "OPENAPI"})
+    private RoutesShape shape;
+
+    // the per mille of routes changed between the two route tables
+    @Param({"1"})
+    private int churnPerMille;
+
+    private List<BenchmarkRoute> initialRoutes;
+    private List<BenchmarkRoute> changedRoutes;
+    private HttpRouter<BenchmarkRoute> router;
+    private boolean changedRoutesLoaded;
+
+    @Setup
+    public void setup() {
+        initialRoutes = BenchmarkRoutes.generateRoutes(shape, routesCount);
+        int changesCount = Math.max(3, routesCount * churnPerMille / 1000);
+        // the changed routes are spread in the whole route table
+        int changeStep = routesCount / changesCount;
+        changedRoutes = new ArrayList<>(initialRoutes);
+        List<BenchmarkRoute> addedRoutes = BenchmarkRoutes.generateRoutes(shape, routesCount + changesCount).subList(routesCount, routesCount + changesCount / 3);
+        for (int changeIndex = changesCount - 1; changeIndex >= 0; changeIndex--) {
+            int routeIndex = changeIndex * changeStep;
+            BenchmarkRoute route = changedRoutes.get(routeIndex);
+            if (changeIndex % 3 == 0) {
+                changedRoutes.remove(routeIndex);
+            } else if (changeIndex % 3 == 1) {
+                changedRoutes.set(routeIndex, new BenchmarkRoute(route.routeId(), route.method(), route.path(), "/changed" + route.destinationPath()));
+            }
+        }
+        changedRoutes.addAll(addedRoutes);
+        router = HttpRouter.concurrent(initialRoutes);
+        changedRoutesLoaded = false;
+    }
+
+    @Benchmark
+    public RoutesDiff<BenchmarkRoute> reload() {
+        changedRoutesLoaded = !changedRoutesLoaded;
+        return router.reload(changedRoutesLoaded ? changedRoutes : initialRoutes);
+    }
+
+    @Benchmark
+    public HttpRouter<BenchmarkRoute> createRouter() {
+        changedRoutesLoaded = !changedRoutesLoaded;
+        return HttpRouter.concurrent(changedRoutesLoaded ? changedRoutes : initialRoutes);
+    }
+}
@@ -0,0 +1,94 @@
+package com.coreoz.http.routes.benchmark;
+
+import com.coreoz.http.routes.router.compiled.CompiledRouter;
+import com.coreoz.http.routes.router.compiled.CompiledRouterSnapshot;
+import com.coreoz.http.routes.router.compiled.RouteCodec;
+import com.coreoz.http.routes.router.index.IndexedRoutes;
+import com.coreoz.http.routes.router.index.SearchRouteIndexer;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the time needed to create a router at startup:
+ * by indexing the routes using {@link SearchRouteIndexer#indexRoutes(Iterable)}, optionally followed by the compilation,
+ * or by loading a snapshot using {@link CompiledRouterSnapshot#load(Path, RouteCodec)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouterSnapshotBenchmark {
+    private static final RouteCodec<BenchmarkRoute> ROUTE_CODEC = new BenchmarkRouteCodec();
+
+    @Param({"1000", "100000"})
+    private int routesCount;
+
+    @Param({"OPENAPI", "MIXED"})
+    private RoutesShape shape;
+
+    private List<BenchmarkRoute> routes;
+    private Path snapshotFile;
+
+    @Setup
+    public void setup() throws IOException {
+        routes = BenchmarkRoutes.generateRoutes(shape, routesCount);
+        snapshotFile = Files.createTempFile("router-snapshot", ".bin");
+        CompiledRouterSnapshot.write(CompiledRouter.compile(SearchRouteIndexer.indexRoutes(routes)), snapshotFile, ROUTE_CODEC);
+        System.out.printf("%nSnapshot size: %d KB%n", Files.size(snapshotFile) / 1024);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    @Benchmark
+    public Map<String, IndexedRoutes<BenchmarkRoute>> indexRoutes() {
+        return SearchRouteIndexer.indexRoutes(routes);
+    }
+
+    @Benchmark
+    public CompiledRouter<BenchmarkRoute> indexAndCompileRoutes() {
+        return CompiledRouter.compile(SearchRouteIndexer.indexRoutes(routes));
+    }
+
+    @Benchmark
+    public CompiledRouter<BenchmarkRoute> loadSnapshot() throws IOException {
+        return CompiledRouterSnapshot.load(snapshotFile, ROUTE_CODEC);
+    }
+
+    private static class BenchmarkRouteCodec implements RouteCodec<BenchmarkRoute> {
+        @Override
+        public byte @NotNull [] encode(@NotNull BenchmarkRoute route) {
+            return String.join("\n", route.method(), route.path(), route.destinationPath()).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public @NotNull BenchmarkRoute decode(@NotNull String routeId, @NotNull ByteBuffer payload) {
+            String[] fields = StandardCharsets.UTF_8.decode(payload).toString().split("\n");
+            return new BenchmarkRoute(routeId, fields[0], fields[1], fields[2]);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.coreoz.http.routes.benchmark;
+
+/**
+ * The kind of route tables that are generated by {@link BenchmarkRoutes}
+ */
+public enum RoutesShape {
+    /**
+     * Mostly static segments, e.g. <code>/api/v2/domain-12/resource-1234</code>
+     */
+    STATIC_HEAVY,
+    /**
+     * Many pattern segments that force the search engine to explore multiple branches,
+     * e.g. <code>/{tenant}/{scope}/entity-1234/{entityId}/details</code>
+     */
+    PATTERN_HEAVY,
+    /**
+     * Long paths mixing static and pattern segments,
+     * e.g. <code>/org-3/{orgId}/team-45/{teamId}/project-1234/{projectId}/environments/{env}/...</code>
+     */
+    DEEP,
+    /**
+     * A mix of the other shapes
+     */
+    MIXED,
+    /**
+     * Routes like the ones generated from the OpenAPI specifications of microservices: each service has a long static prefix
+     * and exposes a few resources, e.g. <code>/services/service-12/api/v2/internal/resource-3/{id}/attachments/{attachmentId}/content</code>
+     */
+    OPENAPI,
+}
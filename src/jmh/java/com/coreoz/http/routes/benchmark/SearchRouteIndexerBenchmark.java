@@ -0,0 +1,53 @@
+package com.coreoz.http.routes.benchmark;
+
+import com.coreoz.http.routes.router.index.IndexedRoutes;
+import com.coreoz.http.routes.router.index.SearchRouteIndexer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure {@link SearchRouteIndexer#indexRoutes(Iterable)} and {@link SearchRouteIndexer#indexRoutesInParallel(List)} for each {@link RoutesShape} and route table size.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchRouteIndexerBenchmark {
+    @Param({"10", "1000", "100000"})
+    private int routesCount;
+
+    @Param({"STATIC_HEAVY", "PATTERN_HEAVY", "DEEP", "MIXED"})
+    private RoutesShape shape;
+
+    private List<BenchmarkRoute> routes;
+
+    @Setup
+    public void setup() {
+        routes = BenchmarkRoutes.generateRoutes(shape, routesCount);
+    }
+
+    @Benchmark
+    public Map<String, IndexedRoutes<BenchmarkRoute>> indexRoutes() {
+        return SearchRouteIndexer.indexRoutes(routes);
+    }
+
+    @Benchmark
+    public Map<String, IndexedRoutes<BenchmarkRoute>> indexRoutesInParallel() {
+        return SearchRouteIndexer.indexRoutesInParallel(routes);
+    }
+}
@@ -0,0 +1,87 @@
+package com.coreoz.http.routes;
+
+import com.coreoz.http.routes.router.HttpRoute;
+import com.coreoz.http.routes.router.cache.CacheStats;
+import com.coreoz.http.routes.router.cache.RouteSearchCache;
+import com.coreoz.http.routes.router.metrics.RouterMetrics;
+import com.coreoz.http.routes.router.metrics.SearchListener;
+import com.coreoz.http.routes.router.search.RawMatchingRoute;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * A {@link HttpRouter} with a bounded cache of search results by HTTP method and path, see {@link RouteSearchCache} for details.<br>
+ * This is useful when a small number of distinct paths represents most of the searches.<br>
+ * <br>
+ * Cached results are invalidated when a route is added, removed or replaced, using this class or directly using the router,
+ * e.g. with {@link HttpRouter#addRoute(HttpRoute)}.
+ * The thread safety is the same as the one of the router: to change routes while other threads are searching routes,
+ * the router must be created using {@link HttpRouter#concurrent(Iterable)}.<br>
+ * <br>
+ * Cache hits are not searched in the router, so they are not reported to the listener set by {@link HttpRouter#setSearchListener(SearchListener)}:
+ * e.g. a {@link RouterMetrics} only counts the searches that are not cached, cache hits are counted by {@link #stats()}.
+ * @param <T> The type of {@link HttpRoute} managed by the router
+ */
+public class CachingHttpRouter<T extends HttpRoute> {
+    private final @NotNull HttpRouter<T> router;
+    private final @NotNull RouteSearchCache<T> cache;
+    private final @NotNull BiFunction<String, String, Optional<RawMatchingRoute<T>>> routerSearch;
+
+    /**
+     * @param router The router used when the search result is not cached
+     * @param maximumSize The maximum number of cached search results
+     */
+    public CachingHttpRouter(@NotNull HttpRouter<T> router, int maximumSize) {
+        this.router = router;
+        this.cache = new RouteSearchCache<>(maximumSize);
+        this.routerSearch = router::searchRoute;
+    }
+
+    /**
+     * Add a new route to the router, see {@link HttpRouter#addRoute(HttpRoute)}
+     */
+    public @NotNull T addRoute(@NotNull T route) {
+        return router.addRoute(route);
+    }
+
+    /**
+     * Remove a route from the router, see {@link HttpRouter#removeRoute(String)}
+     */
+    public @Nullable T removeRoute(@NotNull String routeId) {
+        return router.removeRoute(routeId);
+    }
+
+    /**
+     * Replace a route of the router, see {@link HttpRouter#replaceRoute(HttpRoute)}
+     */
+    public @Nullable T replaceRoute(@NotNull T route) {
+        return router.replaceRoute(route);
+    }
+
+    /**
+     * Search a route in the cache, or in the router if the result is not cached
+     * @param method The HTTP method, like GET or POST
+     * @param path The searched path, like /users
+     * @return The optional matching route
+     */
+    public @NotNull Optional<RawMatchingRoute<T>> searchRoute(@NotNull String method, @NotNull String path) {
+        return cache.search(method, path, router.generation(), routerSearch);
+    }
+
+    /**
+     * Returns the cache statistics, to verify that the cache is useful
+     */
+    public @NotNull CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Returns the router used when the search result is not cached
+     */
+    public @NotNull HttpRouter<T> router() {
+        return router;
+    }
+}
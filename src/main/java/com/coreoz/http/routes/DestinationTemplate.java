@@ -0,0 +1,255 @@
+package com.coreoz.http.routes;
+
+import com.coreoz.http.routes.parsing.ParsedSegment;
+import com.coreoz.http.routes.parsing.SegmentTemplate;
+import com.coreoz.http.routes.router.search.MatchedPath;
+import com.coreoz.http.routes.router.search.PathNormalization;
+import com.coreoz.http.routes.router.search.RawMatchingRoute;
+import com.coreoz.http.routes.router.search.RouteMatcher;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A destination path compiled for a route, to rewrite request paths without parsing the destination path for each request.<br>
+ * <br>
+ * It produces the same destination path as {@link HttpRoutes#computeDestinationRoute(RawMatchingRoute, List)}:
+ * the destination path is split at build time in static parts and in captures, and each capture is resolved to the position
+ * of its pattern in the router path. So writing a destination path only copies static parts and request path segments.<br>
+ * <br>
+ * Usage:
+ * <pre>
+ * DestinationTemplate template = DestinationTemplate.compile("/users/{userId}/orders/{orderId}", "/users-orders/{userId}/{orderId}");
+ * if (router.searchRoute("GET", "/users/123/orders/456", matcher)) {
+ *     template.appendTo(destinationPath, matcher); // "/users-orders/123/456" is appended to destinationPath
+ * }
+ * </pre>
+ * Patterns of partial segments, like <code>{name}.{ext}</code>, can be used in the router path and in the destination path:
+ * their values are located in the request path segment when the destination path is written.<br>
+ * Parameter values are copied as they are in the request path, without being percent-decoded,
+ * even if the search has decoded them, see {@link PathNormalization}.<br>
+ * A template is immutable and can be shared between threads.
+ */
+public final class DestinationTemplate {
+    // static parts of the destination path: the part before the first capture, then the part after each capture
+    private final @NotNull String @NotNull [] staticParts;
+    private final byte @NotNull [] @NotNull [] staticPartsBytes;
+    // segment position in the router path of each capture
+    private final int @NotNull [] captureSegmentPositions;
+    // for captures of a partial segment, the template of the segment and the index of the parameter in the template
+    private final @Nullable SegmentTemplate @NotNull [] captureTemplates;
+    private final int @NotNull [] captureParameterIndexes;
+    private final int staticPartsLength;
+
+    private DestinationTemplate(@NotNull List<String> staticParts, @NotNull List<Capture> captures) {
+        this.staticParts = staticParts.toArray(String[]::new);
+        this.staticPartsBytes = new byte[this.staticParts.length][];
+        int partsLength = 0;
+        for (int i = 0; i < this.staticParts.length; i++) {
+            staticPartsBytes[i] = this.staticParts[i].getBytes(StandardCharsets.UTF_8);
+            partsLength += this.staticParts[i].length();
+        }
+        this.staticPartsLength = partsLength;
+        this.captureSegmentPositions = captures.stream().mapToInt(Capture::segmentPosition).toArray();
+        this.captureTemplates = captures.stream().map(Capture::template).toArray(SegmentTemplate[]::new);
+        this.captureParameterIndexes = captures.stream().mapToInt(Capture::parameterIndex).toArray();
+    }
+
+    /**
+     * Compile a destination path for a route
+     * @param routerPath The path of the route in the router, e.g. <code>/users/{userId}/orders/{orderId}</code>
+     * @param destinationPath The destination path, that must use pattern names of the router path, e.g. <code>/users-orders/{userId}/{orderId}</code>
+     * @return The compiled template
+     * @throws IllegalArgumentException If the destination path contains a pattern name that is not in the router path
+     */
+    public static @NotNull DestinationTemplate compile(@NotNull String routerPath, @NotNull String destinationPath) {
+        // same positions as the ones computed by the indexer: if a pattern name is used twice, the last position is used
+        Map<String, Capture> routerPatternCaptures = new HashMap<>();
+        List<ParsedSegment> routerSegments = HttpRoutes.parsePathAsSegments(routerPath);
+        for (int segmentPosition = 1; segmentPosition <= routerSegments.size(); segmentPosition++) {
+            ParsedSegment routerSegment = routerSegments.get(segmentPosition - 1);
+            SegmentTemplate routerTemplate = segmentTemplate(routerSegment);
+            if (routerTemplate != null) {
+                for (int parameterIndex = 0; parameterIndex < routerTemplate.parametersCount(); parameterIndex++) {
+                    routerPatternCaptures.put(
+                        routerTemplate.parameterName(parameterIndex),
+                        new Capture(segmentPosition, routerTemplate, parameterIndex)
+                    );
+                }
+            } else if (routerSegment.isPattern()) {
+                routerPatternCaptures.put(routerSegment.name(), new Capture(segmentPosition, null, -1));
+            }
+        }
+
+        List<ParsedSegment> destinationSegments = HttpRoutes.parsePathAsSegments(destinationPath);
+        if (destinationSegments.isEmpty()) {
+            return new DestinationTemplate(List.of(HttpRoutes.SEGMENT_SEPARATOR), List.of());
+        }
+        List<String> staticParts = new ArrayList<>();
+        List<Capture> captures = new ArrayList<>();
+        StringBuilder staticPart = new StringBuilder();
+        for (ParsedSegment destinationSegment : destinationSegments) {
+            staticPart.append(HttpRoutes.SEGMENT_SEPARATOR);
+            SegmentTemplate destinationTemplate = segmentTemplate(destinationSegment);
+            if (destinationTemplate != null) {
+                for (int parameterIndex = 0; parameterIndex < destinationTemplate.parametersCount(); parameterIndex++) {
+                    staticPart.append(destinationTemplate.literal(parameterIndex));
+                    addCapture(staticParts, captures, staticPart, routerPatternCaptures, destinationTemplate.parameterName(parameterIndex), routerPath, destinationPath);
+                }
+                staticPart.append(destinationTemplate.literal(destinationTemplate.parametersCount()));
+            } else if (destinationSegment.isPattern()) {
+                addCapture(staticParts, captures, staticPart, routerPatternCaptures, destinationSegment.name(), routerPath, destinationPath);
+            } else {
+                staticPart.append(destinationSegment.name());
+            }
+        }
+        staticParts.add(staticPart.toString());
+        return new DestinationTemplate(staticParts, captures);
+    }
+
+    private static void addCapture(
+        @NotNull List<String> staticParts,
+        @NotNull List<Capture> captures,
+        @NotNull StringBuilder staticPart,
+        @NotNull Map<String, Capture> routerPatternCaptures,
+        @NotNull String patternName,
+        @NotNull String routerPath,
+        @NotNull String destinationPath
+    ) {
+        Capture capture = routerPatternCaptures.get(patternName);
+        if (capture == null) {
+            throw new IllegalArgumentException(
+                "The destination path " + destinationPath + " uses the pattern {" + patternName + "} that is not in the router path "
+                    + routerPath
+            );
+        }
+        staticParts.add(staticPart.toString());
+        staticPart.setLength(0);
+        captures.add(capture);
+    }
+
+    private static @Nullable SegmentTemplate segmentTemplate(@NotNull ParsedSegment segment) {
+        return segment.constraint() == null ? null : segment.constraint().template();
+    }
+
+    /**
+     * Returns the length of the destination path for a request path
+     * @param matchedPath The search result, e.g. a {@link RouteMatcher} or a {@link RawMatchingRoute}
+     */
+    public int destinationLength(@NotNull MatchedPath matchedPath) {
+        int destinationLength = staticPartsLength;
+        for (int i = 0; i < captureSegmentPositions.length; i++) {
+            destinationLength += captureEnd(i, matchedPath) - captureStart(i, matchedPath);
+        }
+        return destinationLength;
+    }
+
+    /**
+     * Append the destination path to a {@link StringBuilder}
+     * @param destination The builder to which the destination path is appended
+     * @param matchedPath The search result, e.g. a {@link RouteMatcher} or a {@link RawMatchingRoute}
+     */
+    public void appendTo(@NotNull StringBuilder destination, @NotNull MatchedPath matchedPath) {
+        CharSequence requestPath = matchedPath.requestPath();
+        destination.append(staticParts[0]);
+        for (int i = 0; i < captureSegmentPositions.length; i++) {
+            destination.append(requestPath, captureStart(i, matchedPath), captureEnd(i, matchedPath));
+            destination.append(staticParts[i + 1]);
+        }
+    }
+
+    /**
+     * Write the destination path to a {@link CharBuffer}
+     * @param destination The buffer to which the destination path is written,
+     *                    see {@link #destinationLength(MatchedPath)} to verify the remaining space of the buffer
+     * @param matchedPath The search result, e.g. a {@link RouteMatcher} or a {@link RawMatchingRoute}
+     * @throws java.nio.BufferOverflowException If there is not enough space in the buffer
+     */
+    public void writeTo(@NotNull CharBuffer destination, @NotNull MatchedPath matchedPath) {
+        CharSequence requestPath = matchedPath.requestPath();
+        destination.put(staticParts[0]);
+        for (int i = 0; i < captureSegmentPositions.length; i++) {
+            int captureEnd = captureEnd(i, matchedPath);
+            for (int charIndex = captureStart(i, matchedPath); charIndex < captureEnd; charIndex++) {
+                destination.put(requestPath.charAt(charIndex));
+            }
+            destination.put(staticParts[i + 1]);
+        }
+    }
+
+    /**
+     * Write the destination path to a {@link ByteBuffer} encoded in UTF-8.
+     * Request paths are usually percent-encoded, so each character is written as a single byte.
+     * @param destination The buffer to which the destination path is written,
+     *                    see {@link #destinationLength(MatchedPath)} to verify the remaining space of the buffer for ASCII request paths
+     * @param matchedPath The search result, e.g. a {@link RouteMatcher} or a {@link RawMatchingRoute}
+     * @throws java.nio.BufferOverflowException If there is not enough space in the buffer
+     */
+    public void writeTo(@NotNull ByteBuffer destination, @NotNull MatchedPath matchedPath) {
+        CharSequence requestPath = matchedPath.requestPath();
+        destination.put(staticPartsBytes[0]);
+        for (int i = 0; i < captureSegmentPositions.length; i++) {
+            putUtf8(destination, requestPath, captureStart(i, matchedPath), captureEnd(i, matchedPath));
+            destination.put(staticPartsBytes[i + 1]);
+        }
+    }
+
+    /**
+     * Returns the destination path as a new {@link String}
+     * @param matchedPath The search result, e.g. a {@link RouteMatcher} or a {@link RawMatchingRoute}
+     */
+    public @NotNull String destinationPath(@NotNull MatchedPath matchedPath) {
+        StringBuilder destinationPath = new StringBuilder(destinationLength(matchedPath));
+        appendTo(destinationPath, matchedPath);
+        return destinationPath.toString();
+    }
+
+    private int captureStart(int captureIndex, @NotNull MatchedPath matchedPath) {
+        int segmentPosition = captureSegmentPositions[captureIndex];
+        SegmentTemplate template = captureTemplates[captureIndex];
+        if (template == null) {
+            return matchedPath.segmentStart(segmentPosition);
+        }
+        return template.parameterStart(
+            matchedPath.requestPath(), matchedPath.segmentStart(segmentPosition), matchedPath.segmentEnd(segmentPosition), captureParameterIndexes[captureIndex]
+        );
+    }
+
+    private int captureEnd(int captureIndex, @NotNull MatchedPath matchedPath) {
+        int segmentPosition = captureSegmentPositions[captureIndex];
+        SegmentTemplate template = captureTemplates[captureIndex];
+        if (template == null) {
+            return matchedPath.segmentEnd(segmentPosition);
+        }
+        return template.parameterEnd(
+            matchedPath.requestPath(), matchedPath.segmentStart(segmentPosition), matchedPath.segmentEnd(segmentPosition), captureParameterIndexes[captureIndex]
+        );
+    }
+
+    private record Capture(int segmentPosition, @Nullable SegmentTemplate template, int parameterIndex) {
+    }
+
+    private static void putUtf8(@NotNull ByteBuffer destination, @NotNull CharSequence value, int start, int end) {
+        for (int charIndex = start; charIndex < end; charIndex++) {
+            char valueChar = value.charAt(charIndex);
+            if (valueChar < 0x80) {
+                destination.put((byte) valueChar);
+            } else {
+                // not percent-encoded characters are rare, so the encoder is used only for them
+                int nonAsciiEnd = charIndex + 1;
+                while (nonAsciiEnd < end && value.charAt(nonAsciiEnd) >= 0x80) {
+                    nonAsciiEnd++;
+                }
+                destination.put(StandardCharsets.UTF_8.encode(CharBuffer.wrap(value, charIndex, nonAsciiEnd)));
+                charIndex = nonAsciiEnd - 1;
+            }
+        }
+    }
+}
@@ -1,38 +1,105 @@
 package com.coreoz.http.routes;
 
 import com.coreoz.http.routes.router.HttpRoute;
+import com.coreoz.http.routes.router.RoutesDiff;
+import com.coreoz.http.routes.router.compiled.CompiledRouter;
+import com.coreoz.http.routes.router.index.IndexRouteLeaf;
 import com.coreoz.http.routes.router.index.IndexedRoutes;
 import com.coreoz.http.routes.router.index.SearchRouteIndexer;
+import com.coreoz.http.routes.router.metrics.RouterMetrics;
+import com.coreoz.http.routes.router.metrics.SearchListener;
+import com.coreoz.http.routes.router.search.AsciiBytesSequence;
+import com.coreoz.http.routes.router.search.BatchSearchConsumer;
+import com.coreoz.http.routes.router.search.BatchSearchEngine;
+import com.coreoz.http.routes.router.search.PathNormalization;
 import com.coreoz.http.routes.router.search.RawMatchingRoute;
+import com.coreoz.http.routes.router.search.RouteMatcher;
 import com.coreoz.http.routes.router.search.SearchRouteEngine;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Handle index and search operations for HTTP routing.<br>
  * This should be used:<br>
- * 1. To index the available routes using constructor, and if necessary using {@link #addRoute(HttpRoute)}<br>
- * 2. To search for a route for a method and a path using {@link #searchRoute(String, String)}<br>
+ * 1. To index the available routes using constructor, and if necessary using {@link #addRoute(HttpRoute)},
+ * {@link #removeRoute(String)}, {@link #replaceRoute(HttpRoute)} and {@link #reload(Iterable)}<br>
+ * 2. To search for a route for a method and a path using {@link #searchRoute(String, String)},
+ * or using {@link #searchRoute(String, CharSequence, RouteMatcher)} to avoid allocating objects during the search,
+ * or using {@link #searchRoute(byte[], int, int, int, int, RouteMatcher)} to search a request line read as bytes,
+ * or using {@link #searchAll(String[], CharSequence[], BatchSearchConsumer)} to search a batch of requests<br>
+ * 3. Optionally, to normalize request paths during searches using {@link #setPathNormalization(PathNormalization)},
+ * e.g. to search request targets containing a query string<br>
+ * 4. Optionally, to monitor searches using {@link #setSearchListener(SearchListener)}, e.g. with {@link RouterMetrics}<br>
+ * 5. Optionally, once all routes are indexed, to create an immutable router optimized for search using {@link #freeze()}<br>
  * <br>
- * In case of route rewriting, a destination path can be computed using {@link HttpRoutes#computeDestinationRoute(RawMatchingRoute, List)}
+ * In case of route rewriting, a destination path can be computed using {@link HttpRoutes#computeDestinationRoute(RawMatchingRoute, List)}<br>
+ * <br>
+ * By default, routes must not be added or removed while other threads are searching routes.
+ * If routes are changed at runtime, a concurrent router should be created using {@link #concurrent(Iterable)}.
  *
  * @param <T> The type of {@link HttpRoute} managed by the router. The {@link HttpRoute} can be extracted from a search result, so it can be used to hold custom data.
  */
 public class HttpRouter<T extends HttpRoute> {
-    private final @NotNull Map<String, IndexedRoutes<T>> routerIndex;
+    private final boolean concurrent;
+    private final @NotNull Object writeLock = new Object();
+    // volatile to publish safely to searching threads the routes index updated by a concurrent router
+    private volatile @NotNull Map<String, IndexedRoutes<T>> routerIndex;
+    // incremented each time a route is added, removed or replaced, so search results computed before can be detected as outdated
+    private volatile long generation;
+    // the indexed routes by identifier, created on the first removal or replacement, and then updated with the routes index
+    private @Nullable Map<String, T> routesById;
+    // null when instrumentation is disabled, so searches only pay for reading this field
+    private volatile @Nullable SearchListener<T> searchListener;
+    private volatile @NotNull PathNormalization pathNormalization = PathNormalization.DEFAULT;
 
     public HttpRouter(@NotNull Iterable<T> routes) {
-        this.routerIndex = SearchRouteIndexer.indexRoutes(routes);
+        this(SearchRouteIndexer.indexRoutes(routes), false);
     }
 
     /**
      * @param routesIndex The routes index by HTTP method: <code>{GET: IndexedRoutes, POST: IndexedRoutes, ...}</code>
      */
     public HttpRouter(@NotNull Map<String, IndexedRoutes<T>> routesIndex) {
+        this(routesIndex, false);
+    }
+
+    private HttpRouter(@NotNull Map<String, IndexedRoutes<T>> routesIndex, boolean concurrent) {
         this.routerIndex = routesIndex;
+        this.concurrent = concurrent;
+    }
+
+    /**
+     * Create a router by indexing the routes using multiple threads,
+     * see {@link SearchRouteIndexer#indexRoutesInParallel(List)}.<br>
+     * <br>
+     * This is useful only for large route tables, like more than 10 000 routes.
+     * @param routes The routes of the router
+     */
+    public static <T extends HttpRoute> @NotNull HttpRouter<T> indexInParallel(@NotNull List<T> routes) {
+        return new HttpRouter<>(SearchRouteIndexer.indexRoutesInParallel(routes), false);
+    }
+
+    /**
+     * Create a router in which routes can be added while other threads are searching routes.<br>
+     * <br>
+     * Searches are lock-free and wait-free: they read an immutable version of the routes index.
+     * Route changes are serialized: each addition, removal or replacement copies the index nodes on the path of the route,
+     * the other nodes are shared with the previous version of the index,
+     * then the new version of the index is published atomically.
+     * So changing a route costs more than with a non-concurrent router, see {@link SearchRouteIndexer#addRouteToIndexCopyOnWrite(Map, HttpRoute)}.
+     * @param routes The initial routes of the router
+     */
+    public static <T extends HttpRoute> @NotNull HttpRouter<T> concurrent(@NotNull Iterable<T> routes) {
+        return new HttpRouter<>(SearchRouteIndexer.indexRoutes(routes), true);
     }
 
     /**
@@ -41,7 +108,297 @@ public class HttpRouter<T extends HttpRoute> {
      * for the specified path, then the new route is NOT added and the existing route is returned.
      */
     public @NotNull T addRoute(@NotNull T route) {
-        return SearchRouteIndexer.addRouteToIndex(routerIndex, route).httpRoute();
+        if (!concurrent) {
+            T indexedRoute = addRoute(routerIndex, route, false);
+            if (indexedRoute == route) {
+                generation++;
+            }
+            return indexedRoute;
+        }
+        synchronized (writeLock) {
+            Map<String, IndexedRoutes<T>> updatedRouterIndex = new HashMap<>(routerIndex);
+            T indexedRoute = addRoute(updatedRouterIndex, route, true);
+            if (indexedRoute == route) {
+                routerIndex = updatedRouterIndex;
+                generation++;
+            }
+            return indexedRoute;
+        }
+    }
+
+    private @NotNull T addRoute(@NotNull Map<String, IndexedRoutes<T>> updatedRouterIndex, @NotNull T route, boolean copyOnWrite) {
+        T indexedRoute = copyOnWrite ?
+            SearchRouteIndexer.addRouteToIndexCopyOnWrite(updatedRouterIndex, route).httpRoute()
+            : SearchRouteIndexer.addRouteToIndex(updatedRouterIndex, route).httpRoute();
+        if (indexedRoute == route && routesById != null) {
+            routesById.put(route.routeId(), route);
+        }
+        return indexedRoute;
+    }
+
+    /**
+     * Remove a route from the routes index.
+     * The index nodes that do not lead to any other route are removed,
+     * so removing a route costs about the same as adding it, whatever the number of routes in the index.<br>
+     * <br>
+     * Route identifiers should be unique: if several routes have the same identifier, only one of them can be removed.
+     * @param routeId The identifier of the route, see {@link HttpRoute#routeId()}
+     * @return The removed route, or null if there is no route with this identifier
+     */
+    public @Nullable T removeRoute(@NotNull String routeId) {
+        if (!concurrent) {
+            T removedRoute = removeRoute(routerIndex, routeId, false);
+            if (removedRoute != null) {
+                generation++;
+            }
+            return removedRoute;
+        }
+        synchronized (writeLock) {
+            Map<String, IndexedRoutes<T>> updatedRouterIndex = new HashMap<>(routerIndex);
+            T removedRoute = removeRoute(updatedRouterIndex, routeId, true);
+            if (removedRoute != null) {
+                routerIndex = updatedRouterIndex;
+                generation++;
+            }
+            return removedRoute;
+        }
+    }
+
+    private @Nullable T removeRoute(@NotNull Map<String, IndexedRoutes<T>> updatedRouterIndex, @NotNull String routeId, boolean copyOnWrite) {
+        Map<String, T> indexedRoutesById = routesById();
+        T route = indexedRoutesById.get(routeId);
+        if (route == null) {
+            return null;
+        }
+        IndexRouteLeaf<T> removedLeaf = copyOnWrite ?
+            SearchRouteIndexer.removeRouteFromIndexCopyOnWrite(updatedRouterIndex, route)
+            : SearchRouteIndexer.removeRouteFromIndex(updatedRouterIndex, route);
+        if (removedLeaf == null) {
+            return null;
+        }
+        indexedRoutesById.remove(routeId);
+        return removedLeaf.httpRoute();
+    }
+
+    /**
+     * Replace the route indexed for the same HTTP method and the same path, e.g. to change the data of a route.
+     * Only the leaf of the route is changed in the routes index: the path of the route is not indexed again.<br>
+     * <br>
+     * Paths are compared like in {@link #addRoute(HttpRoute)}: <code>/users/{id}</code> replaces <code>/users/{userId}</code>.
+     * The new route can have another identifier than the replaced route.
+     * @param route The new route
+     * @return The replaced route, or null if there is no route for this HTTP method and this path.
+     * In this case, the route is not added, see {@link #addRoute(HttpRoute)}
+     */
+    public @Nullable T replaceRoute(@NotNull T route) {
+        if (!concurrent) {
+            T replacedRoute = replaceRoute(routerIndex, route, false);
+            if (replacedRoute != null) {
+                generation++;
+            }
+            return replacedRoute;
+        }
+        synchronized (writeLock) {
+            Map<String, IndexedRoutes<T>> updatedRouterIndex = new HashMap<>(routerIndex);
+            T replacedRoute = replaceRoute(updatedRouterIndex, route, true);
+            if (replacedRoute != null) {
+                routerIndex = updatedRouterIndex;
+                generation++;
+            }
+            return replacedRoute;
+        }
+    }
+
+    private @Nullable T replaceRoute(@NotNull Map<String, IndexedRoutes<T>> updatedRouterIndex, @NotNull T route, boolean copyOnWrite) {
+        IndexRouteLeaf<T> replacedLeaf = copyOnWrite ?
+            SearchRouteIndexer.replaceRouteInIndexCopyOnWrite(updatedRouterIndex, route)
+            : SearchRouteIndexer.replaceRouteInIndex(updatedRouterIndex, route);
+        if (replacedLeaf == null) {
+            return null;
+        }
+        if (routesById != null) {
+            routesById.remove(replacedLeaf.httpRoute().routeId(), replacedLeaf.httpRoute());
+            routesById.put(route.routeId(), route);
+        }
+        return replacedLeaf.httpRoute();
+    }
+
+    /**
+     * Returns the indexed routes by identifier, the map is created from the routes index on the first call
+     */
+    private @NotNull Map<String, T> routesById() {
+        if (routesById == null) {
+            Map<String, T> indexedRoutesById = new HashMap<>();
+            SearchRouteIndexer.forEachRouteLeaf(routerIndex, leaf -> indexedRoutesById.put(leaf.httpRoute().routeId(), leaf.httpRoute()));
+            routesById = indexedRoutesById;
+        }
+        return routesById;
+    }
+
+    /**
+     * Replace all the routes of the router by new routes, e.g. when a complete route table is received periodically.<br>
+     * <br>
+     * Only the differences between the routes of the router and the new routes are applied to the routes index,
+     * see {@link RoutesDiff} for details: routes which identifier is not in the new routes are removed,
+     * routes which are not equal to the new route with the same identifier are replaced,
+     * and new routes which identifier is not in the router are added.
+     * So when few routes change, reloading a route table is much faster than indexing it again,
+     * the most expensive part being the comparison of the routes.<br>
+     * <br>
+     * With a concurrent router, see {@link #concurrent(Iterable)}, all the changes are published at once:
+     * searching threads see either all the previous routes or all the new routes.
+     * @param newRoutes The new routes of the router
+     * @return The changes made to the router
+     * @throws IllegalArgumentException If a new route path is not valid, see {@link SearchRouteIndexer#addRouteToIndex(Map, HttpRoute)}.
+     * With a concurrent router, the routes index is then not changed
+     */
+    public @NotNull RoutesDiff<T> reload(@NotNull Iterable<T> newRoutes) {
+        if (!concurrent) {
+            RoutesDiff<T> routesDiff = reload(routerIndex, newRoutes, false);
+            if (routesDiff.hasChanges()) {
+                generation++;
+            }
+            return routesDiff;
+        }
+        synchronized (writeLock) {
+            Map<String, IndexedRoutes<T>> updatedRouterIndex = new HashMap<>(routerIndex);
+            RoutesDiff<T> routesDiff;
+            try {
+                routesDiff = reload(updatedRouterIndex, newRoutes, true);
+            } catch (RuntimeException e) {
+                // the routes by identifier may have been changed for the routes index that will not be published
+                routesById = null;
+                throw e;
+            }
+            if (routesDiff.hasChanges()) {
+                routerIndex = updatedRouterIndex;
+                generation++;
+            }
+            return routesDiff;
+        }
+    }
+
+    private @NotNull RoutesDiff<T> reload(@NotNull Map<String, IndexedRoutes<T>> updatedRouterIndex, @NotNull Iterable<T> newRoutes, boolean copyOnWrite) {
+        List<T> ignoredRoutes = new ArrayList<>();
+        Map<String, T> newRoutesById = new LinkedHashMap<>();
+        for (T newRoute : newRoutes) {
+            if (newRoutesById.putIfAbsent(newRoute.routeId(), newRoute) != null) {
+                ignoredRoutes.add(newRoute);
+            }
+        }
+
+        // 1. removed routes first, so their paths can be used by the added routes
+        List<T> removedRoutes = new ArrayList<>();
+        for (T indexedRoute : new ArrayList<>(routesById().values())) {
+            T newRoute = newRoutesById.get(indexedRoute.routeId());
+            if (newRoute == null || !hasSameGenericPath(indexedRoute, newRoute)) {
+                removeRoute(updatedRouterIndex, indexedRoute.routeId(), copyOnWrite);
+                removedRoutes.add(indexedRoute);
+            }
+        }
+
+        // 2. added and replaced routes, in the order of the new routes
+        List<T> addedRoutes = new ArrayList<>();
+        List<T> replacedRoutes = new ArrayList<>();
+        int unchangedRoutesCount = 0;
+        for (T newRoute : newRoutesById.values()) {
+            T indexedRoute = routesById.get(newRoute.routeId());
+            if (indexedRoute == null) {
+                if (addRoute(updatedRouterIndex, newRoute, copyOnWrite) == newRoute) {
+                    addedRoutes.add(newRoute);
+                } else {
+                    ignoredRoutes.add(newRoute);
+                }
+            } else if (indexedRoute.equals(newRoute)) {
+                unchangedRoutesCount++;
+            } else {
+                replaceRoute(updatedRouterIndex, newRoute, copyOnWrite);
+                replacedRoutes.add(newRoute);
+            }
+        }
+        return new RoutesDiff<>(addedRoutes, removedRoutes, replacedRoutes, ignoredRoutes, unchangedRoutesCount);
+    }
+
+    /**
+     * Returns true if the routes have the same HTTP method and the same generic path,
+     * paths are parsed only if they are not the same strings
+     */
+    private static boolean hasSameGenericPath(@NotNull HttpRoute route, @NotNull HttpRoute otherRoute) {
+        return route.method().equals(otherRoute.method())
+            && (route.path().equals(otherRoute.path())
+            || HttpRoutes.parsePath(route.path()).genericPath().equals(HttpRoutes.parsePath(otherRoute.path()).genericPath()));
+    }
+
+    /**
+     * Returns the number of changes made using {@link #addRoute(HttpRoute)}, {@link #removeRoute(String)}, {@link #replaceRoute(HttpRoute)},
+     * {@link #reload(Iterable)} and {@link #setPathNormalization(PathNormalization)}.
+     * The generation must be read before a search, so if it has changed after the search, the search result may be outdated.
+     */
+    long generation() {
+        return generation;
+    }
+
+    /**
+     * Enable or disable the instrumentation of searches made using {@link #searchRoute(String, String)}
+     * and {@link #searchRoute(String, CharSequence, RouteMatcher)}.
+     * Batch searches are not instrumented.
+     * With a {@link CachingHttpRouter}, the listener is only called for the searches that are not cached:
+     * cache hits are counted by {@link CachingHttpRouter#stats()}.<br>
+     * <br>
+     * When instrumentation is enabled, searches are timed and the listener is called after each search,
+     * e.g. a {@link RouterMetrics} to count route hits.
+     * When it is disabled, searches do not do any additional work.
+     * @param searchListener The listener, or null to disable instrumentation
+     */
+    public void setSearchListener(@Nullable SearchListener<T> searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    /**
+     * Set the rules used to delimit the segments of the searched paths, see {@link PathNormalization}.
+     * By default, {@link PathNormalization#DEFAULT} is used.<br>
+     * <br>
+     * Paths are normalized during the search, without being copied:
+     * e.g. with {@link PathNormalization#REQUEST_TARGET}, <code>/users//123/?details=true</code> matches the route <code>/users/{id}</code>.
+     * @param pathNormalization The rules used by the following searches
+     */
+    public void setPathNormalization(@NotNull PathNormalization pathNormalization) {
+        if (!concurrent) {
+            this.pathNormalization = pathNormalization;
+            generation++;
+            return;
+        }
+        synchronized (writeLock) {
+            this.pathNormalization = pathNormalization;
+            generation++;
+        }
+    }
+
+    /**
+     * Compress the routes index: chains of static segments that lead to a single route are matched by a single node,
+     * see {@link SearchRouteIndexer#compressIndex(Map)}.
+     * This reduces the memory used by the index and speeds up the search for deep static paths.
+     * Routes can still be added, removed or replaced afterward.
+     */
+    public void compressIndex() {
+        if (!concurrent) {
+            routerIndex = SearchRouteIndexer.compressIndex(routerIndex);
+            return;
+        }
+        synchronized (writeLock) {
+            routerIndex = SearchRouteIndexer.compressIndex(routerIndex);
+        }
+    }
+
+    /**
+     * Compile the routes index in an immutable router optimized for search.<br>
+     * <br>
+     * The compiled router can be shared between threads without synchronization.
+     * Routes changed afterward using {@link #addRoute(HttpRoute)} or {@link #removeRoute(String)} are not visible in the compiled router.
+     * The compiled router uses the path normalization of this router.
+     */
+    public @NotNull CompiledRouter<T> freeze() {
+        return CompiledRouter.compile(routerIndex).withPathNormalization(pathNormalization);
     }
 
     // SEARCH
@@ -53,10 +410,126 @@ public class HttpRouter<T extends HttpRoute> {
      * @return The optional matching route
      */
     public @NotNull Optional<RawMatchingRoute<T>> searchRoute(@NotNull String method, @NotNull String path) {
+        if (searchListener != null || pathNormalization != PathNormalization.DEFAULT) {
+            RouteMatcher<T> matcher = new RouteMatcher<>();
+            if (!searchRoute(method, path, matcher)) {
+                return Optional.empty();
+            }
+            return Optional.of(matcher.toRawMatchingRoute());
+        }
         IndexedRoutes<T> methodIndex = routerIndex.get(method);
         if (methodIndex == null) {
             return Optional.empty();
         }
         return SearchRouteEngine.searchRoute(methodIndex, path);
     }
+
+    /**
+     * Search a route in the index without allocating objects.
+     * The matcher can be reused for each search, see {@link RouteMatcher} for details.
+     * @param method The HTTP method, like GET or POST
+     * @param path The searched path, like /users
+     * @param matcher The search context, that will contain the matching route if a route is found
+     * @return True if a route has been found, else false
+     */
+    public boolean searchRoute(@NotNull String method, @NotNull CharSequence path, @NotNull RouteMatcher<T> matcher) {
+        SearchListener<T> listener = searchListener;
+        if (listener == null) {
+            return searchIndex(method, path, matcher);
+        }
+        long searchStartNanos = System.nanoTime();
+        boolean routeFound = searchIndex(method, path, matcher);
+        listener.onSearch(method, matcher, System.nanoTime() - searchStartNanos);
+        return routeFound;
+    }
+
+    private boolean searchIndex(@NotNull String method, @NotNull CharSequence path, @NotNull RouteMatcher<T> matcher) {
+        PathNormalization searchPathNormalization = pathNormalization;
+        IndexedRoutes<T> methodIndex = routerIndex.get(method);
+        if (methodIndex == null) {
+            matcher.reset(path, searchPathNormalization);
+            return false;
+        }
+        return SearchRouteEngine.searchRoute(methodIndex, path, searchPathNormalization, matcher);
+    }
+
+    /**
+     * Search a route for a request line read as bytes, without decoding it as a {@link String} and without allocating objects.
+     * The method and the path are read as ASCII bytes, see {@link AsciiBytesSequence}.<br>
+     * <br>
+     * If a route is found, the byte range of a parameter value in the request line can be read from the matcher,
+     * see {@link RouteMatcher#requestBytes()}.
+     * @param request The bytes containing the HTTP method and the path, e.g. a request line like <code>GET /users HTTP/1.1</code>
+     * @param methodOffset The offset of the first byte of the HTTP method
+     * @param methodLength The number of bytes of the HTTP method
+     * @param pathOffset The offset of the first byte of the path
+     * @param pathLength The number of bytes of the path
+     * @param matcher The search context, that will contain the matching route if a route is found
+     * @return True if a route has been found, else false
+     */
+    public boolean searchRoute(
+        byte @NotNull [] request,
+        int methodOffset,
+        int methodLength,
+        int pathOffset,
+        int pathLength,
+        @NotNull RouteMatcher<T> matcher
+    ) {
+        AsciiBytesSequence requestBytes = matcher.requestBytes();
+        String method = requestBytes.wrap(request, methodOffset, methodLength).toMethod();
+        return searchRoute(method, requestBytes.wrap(request, pathOffset, pathLength), matcher);
+    }
+
+    /**
+     * Search a route for a request line read in a buffer, see {@link #searchRoute(byte[], int, int, int, int, RouteMatcher)}.
+     * The position and the limit of the buffer are neither used nor modified.
+     * @param request The buffer containing the HTTP method and the path, it can be a heap buffer or a direct buffer
+     * @param methodOffset The absolute index in the buffer of the first byte of the HTTP method
+     * @param methodLength The number of bytes of the HTTP method
+     * @param pathOffset The absolute index in the buffer of the first byte of the path
+     * @param pathLength The number of bytes of the path
+     * @param matcher The search context, that will contain the matching route if a route is found
+     * @return True if a route has been found, else false
+     */
+    public boolean searchRoute(
+        @NotNull ByteBuffer request,
+        int methodOffset,
+        int methodLength,
+        int pathOffset,
+        int pathLength,
+        @NotNull RouteMatcher<T> matcher
+    ) {
+        AsciiBytesSequence requestBytes = matcher.requestBytes();
+        String method = requestBytes.wrap(request, methodOffset, methodLength).toMethod();
+        return searchRoute(method, requestBytes.wrap(request, pathOffset, pathLength), matcher);
+    }
+
+    /**
+     * Search routes for a batch of requests, e.g. to replay access logs.
+     * Requests are searched one by one in the current thread, reusing the same {@link RouteMatcher}.
+     * Results are passed to the consumer in the order of the requests.
+     * @param methods The HTTP methods of the requests
+     * @param paths The paths of the requests, the array must have the same length as <code>methods</code>
+     * @param consumer The consumer called once for each request with the route found or null
+     */
+    public void searchAll(@NotNull String @NotNull [] methods, @NotNull CharSequence @NotNull [] paths, @NotNull BatchSearchConsumer<T> consumer) {
+        BatchSearchEngine.searchAll(routerIndex, methods, paths, pathNormalization, consumer);
+    }
+
+    /**
+     * Search routes for a batch of requests, large batches are split in chunks searched in parallel using the pool.
+     * The consumer must be thread safe, see {@link BatchSearchEngine#searchAll(Map, String[], CharSequence[], PathNormalization, BatchSearchConsumer, ForkJoinPool)}.
+     * @param methods The HTTP methods of the requests
+     * @param paths The paths of the requests, the array must have the same length as <code>methods</code>
+     * @param consumer The consumer called once for each request with the route found or null
+     * @param pool The pool used to search requests, e.g. {@link ForkJoinPool#commonPool()}
+     */
+    public void searchAll(
+        @NotNull String @NotNull [] methods,
+        @NotNull CharSequence @NotNull [] paths,
+        @NotNull BatchSearchConsumer<T> consumer,
+        @NotNull ForkJoinPool pool
+    ) {
+        BatchSearchEngine.searchAll(routerIndex, methods, paths, pathNormalization, consumer, pool);
+    }
 }
@@ -5,16 +5,20 @@ import com.coreoz.http.routes.parsing.HttpRouteDefinition;
 import com.coreoz.http.routes.parsing.ParsedPath;
 import com.coreoz.http.routes.parsing.ParsedRoute;
 import com.coreoz.http.routes.parsing.ParsedSegment;
+import com.coreoz.http.routes.parsing.PathInterner;
+import com.coreoz.http.routes.parsing.PatternConstraint;
+import com.coreoz.http.routes.parsing.SegmentTemplate;
 import com.coreoz.http.routes.router.HttpRoute;
-import com.coreoz.http.routes.router.index.IndexRouteLeaf;
 import com.coreoz.http.routes.router.search.MatchingRoute;
 import com.coreoz.http.routes.router.search.RawMatchingRoute;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Provides utility methods to parse/serialize routes and paths configuration, e.g. <code>/path/{arg}/details</code>.<br>
@@ -22,33 +26,104 @@ import java.util.stream.Collectors;
  */
 public class HttpRoutes {
     public static final String SEGMENT_SEPARATOR = "/";
+    /**
+     * The catch-all segment without name, e.g. <code>/static/**</code>. Its pattern name is <code>**</code>
+     */
+    public static final String CATCH_ALL_WILDCARD = "**";
+    private static final String CATCH_ALL_SUFFIX = "...";
 
     /**
      * Parse a complete route. E.g <code>GET /path/{path-arg}/other-path-segment</code>.
      * @param route Route definition
-     * @return An instance of {@link ParsedRoute}. No exception can be raised as long as <code>path</code> and <code>httpMethod</code> are not null
+     * @return An instance of {@link ParsedRoute}
+     * @throws IllegalArgumentException If the path contains an invalid pattern constraint, see {@link PatternConstraint}
      * @param <T> The type of <code>attachedData</code>
      */
     public static @NotNull <T extends HttpRouteDefinition> ParsedRoute<T> parseRoute(@NotNull T route) {
+        return parseRoute(route, null);
+    }
+
+    /**
+     * Same as {@link #parseRoute(HttpRouteDefinition)}, the strings of the parsed path being shared using a pool, see {@link PathInterner}
+     * @param interner The pool of strings, or null to create new strings
+     */
+    public static @NotNull <T extends HttpRouteDefinition> ParsedRoute<T> parseRoute(@NotNull T route, @Nullable PathInterner interner) {
         return new ParsedRoute<>(
-            parsePath(route.path()),
+            parsePath(route.path(), interner),
             route
         );
     }
 
     /**
-     * Parse a path. E.g <code>/path/{path-arg}/other-path-segment</code>.
+     * Parse a path. E.g <code>/path/{path-arg}/other-path-segment</code>.<br>
+     * <br>
+     * In the generic path, pattern names are removed but pattern constraints are kept,
+     * e.g. <code>/items/{id:int}</code> has the generic path <code>/items/{:int}</code>,
+     * so it is not the same route as <code>/items/{slug}</code>.
+     * Catch-all segments have the generic segment <code>{...}</code>, so <code>/static/**</code> is the same route as <code>/static/{path...}</code>.
      * @param path A route path
-     * @return An instance of {@link ParsedPath}. No exception can be raised as long as <code>path</code> is not null
+     * @return An instance of {@link ParsedPath}
+     * @throws IllegalArgumentException If the path contains an invalid pattern constraint, see {@link PatternConstraint}
      */
     public static @NotNull ParsedPath parsePath(@NotNull String path) {
-        List<ParsedSegment> parsedPathSegments = parsePathAsSegments(path);
+        return parsePath(path, null);
+    }
+
+    /**
+     * Same as {@link #parsePath(String)}, the segment names and the generic path being shared using a pool, see {@link PathInterner}
+     * @param interner The pool of strings, or null to create new strings
+     */
+    public static @NotNull ParsedPath parsePath(@NotNull String path, @Nullable PathInterner interner) {
+        List<ParsedSegment> parsedPathSegments = parsePathAsSegments(path, interner);
         return new ParsedPath(
             parsedPathSegments,
-            serializeParsedPath(parsedPathSegments, patternName -> "{}")
+            serializeGenericPath(path, parsedPathSegments, interner)
         );
     }
 
+    private static @NotNull String serializeGenericPath(
+        @NotNull String path, @NotNull List<ParsedSegment> parsedPathSegments, @Nullable PathInterner interner
+    ) {
+        if (parsedPathSegments.isEmpty()) {
+            return SEGMENT_SEPARATOR;
+        }
+        if (isGenericPath(path, parsedPathSegments)) {
+            return interner == null ? path : interner.intern(path);
+        }
+        StringBuilder genericPath = new StringBuilder(path.length());
+        for (ParsedSegment currentSegment : parsedPathSegments) {
+            genericPath.append(SEGMENT_SEPARATOR);
+            if (!currentSegment.isPattern()) {
+                genericPath.append(currentSegment.name());
+            } else if (currentSegment.isCatchAll()) {
+                genericPath.append("{...}");
+            } else if (currentSegment.constraint() != null && currentSegment.constraint().template() != null) {
+                genericPath.append(currentSegment.constraint().definition());
+            } else if (currentSegment.constraint() == null) {
+                genericPath.append("{}");
+            } else {
+                genericPath.append("{:").append(currentSegment.constraint().definition()).append('}');
+            }
+        }
+        return interner == null ? genericPath.toString() : interner.intern(genericPath, 0, genericPath.length());
+    }
+
+    /**
+     * Returns true if a path without pattern is already written like its generic path,
+     * so it starts with a slash and has no trailing slash
+     */
+    private static boolean isGenericPath(@NotNull String path, @NotNull List<ParsedSegment> parsedPathSegments) {
+        if (path.charAt(0) != '/' || path.charAt(path.length() - 1) == '/') {
+            return false;
+        }
+        for (ParsedSegment currentSegment : parsedPathSegments) {
+            if (currentSegment.isPattern()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Make a {@link String} for a {@link ParsedPath}.
      * @param parsedPath The parsed path to serialize
@@ -82,7 +157,14 @@ public class HttpRoutes {
         StringBuilder serializingPathSegments = new StringBuilder();
         for (ParsedSegment currentSegment : parsedPathSegments) {
             serializingPathSegments.append(SEGMENT_SEPARATOR);
-            if (currentSegment.isPattern()) {
+            SegmentTemplate template = currentSegment.constraint() == null ? null : currentSegment.constraint().template();
+            if (template != null) {
+                for (int parameterIndex = 0; parameterIndex < template.parametersCount(); parameterIndex++) {
+                    serializingPathSegments.append(template.literal(parameterIndex));
+                    serializingPathSegments.append(segmentPatternNameMaker.generateSegmentName(template.parameterName(parameterIndex)));
+                }
+                serializingPathSegments.append(template.literal(template.parametersCount()));
+            } else if (currentSegment.isPattern()) {
                 serializingPathSegments.append(segmentPatternNameMaker.generateSegmentName(currentSegment.name()));
             } else {
                 serializingPathSegments.append(currentSegment.name());
@@ -109,28 +191,131 @@ public class HttpRoutes {
      * - <code>/test/{}/other</code> => <code>["test", "" (isPattern), "other"]</code><br>
      * - <code>/test/{unclosed-pattern/other</code> => <code>["test", "{unclosed-pattern", "other"]</code><br>
      * - <code>/test/unclosed-pattern}/other</code> => <code>["test", "unclosed-pattern}", "other"]</code><br>
-     * - <code>/test/unclosed{middle}-pattern/other</code> => <code>["test", "unclosed{middle}-pattern", "other"]</code><br>
+     * - <code>/test/unclosed{middle}-pattern/other</code> => <code>["test", "unclosed{middle}-pattern" (isPattern, template), "other"]</code><br>
+     * <br>
+     * A pattern can have a constraint following its name and a colon, see {@link PatternConstraint}:<br>
+     * - <code>/items/{id:int}</code> => <code>["items", "id" (isPattern, constraint = int)]</code><br>
+     * - <code>/items/{code:[A-Z]{3}}</code> => <code>["items", "code" (isPattern, constraint = [A-Z]{3})]</code><br>
+     * - <code>/items/{id:}</code> => <code>["items", "id" (isPattern)]</code><br>
+     * <br>
+     * A segment mixing literal parts and patterns is a partial segment, its constraint is a {@link SegmentTemplate}:<br>
+     * - <code>/files/{name}.{ext}</code> => <code>["files", "{name}.{ext}" (isPattern, constraint = template {}.{})]</code><br>
+     * - <code>/v{version}/users</code> => <code>["v{version}" (isPattern, constraint = template v{}), "users"]</code><br>
+     * <br>
+     * A pattern which name ends with <code>...</code>, or a <code>**</code> segment, is a catch-all pattern:<br>
+     * - <code>/legacy/{rest...}</code> => <code>["legacy", "rest" (isPattern, isCatchAll)]</code><br>
+     * - <code>/static/**</code> => <code>["static", "**" (isPattern, isCatchAll)]</code><br>
+     * Catch-all patterns are only accepted as the last segment of the routes indexed by a router,
+     * but they can be used anywhere in a destination path, see {@link #computeDestinationRoute(RawMatchingRoute, List)}.<br>
      * <br>
      * See unit tests in HttpRoutesTest for details.
+     * @throws IllegalArgumentException If the path contains an invalid pattern constraint or an invalid partial segment
      */
     public static @NotNull List<ParsedSegment> parsePathAsSegments(@NotNull String path) {
-        if (path.length() <= 1) {
+        return parsePathAsSegments(path, null);
+    }
+
+    /**
+     * Same as {@link #parsePathAsSegments(String)}, the segment names being shared using a pool, see {@link PathInterner}.<br>
+     * <br>
+     * The path is read once: each segment is delimited by its offsets in the path, and a string is created only for the names
+     * that are not in the pool yet.
+     * @param interner The pool of strings, or null to create new strings
+     * @throws IllegalArgumentException If the path contains an invalid pattern constraint or an invalid partial segment
+     */
+    public static @NotNull List<ParsedSegment> parsePathAsSegments(@NotNull String path, @Nullable PathInterner interner) {
+        // like path.substring(1).split("/"): the first character is skipped and the trailing empty segments are ignored
+        int pathEnd = path.length();
+        while (pathEnd > 1 && path.charAt(pathEnd - 1) == '/') {
+            pathEnd--;
+        }
+        if (pathEnd <= 1) {
             return List.of();
         }
-        return Arrays.stream(
-            path
-                // the first slash needs to be removed, else for the route /a/b split("/") would return ['', 'a', 'b']
-                .substring(1)
-                .split(SEGMENT_SEPARATOR)
-            )
-            .map(segment -> {
-                boolean isPattern = segment.length() >= 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}';
-                String name = isPattern ?
-                    segment.substring(1, segment.length() - 1) :
-                    segment;
-                return new ParsedSegment(name, isPattern);
-            })
-            .toList();
+        List<ParsedSegment> segments = new ArrayList<>();
+        int segmentStart = 1;
+        while (segmentStart <= pathEnd) {
+            int segmentEnd = indexOf(path, '/', segmentStart, pathEnd);
+            if (segmentEnd < 0) {
+                segmentEnd = pathEnd;
+            }
+            segments.add(parseSegment(path, segmentStart, segmentEnd, interner));
+            segmentStart = segmentEnd + 1;
+        }
+        return Collections.unmodifiableList(segments);
+    }
+
+    private static @NotNull ParsedSegment parseSegment(@NotNull String path, int start, int end, @Nullable PathInterner interner) {
+        if (end - start == CATCH_ALL_WILDCARD.length() && path.startsWith(CATCH_ALL_WILDCARD, start)) {
+            return new ParsedSegment(CATCH_ALL_WILDCARD, true, null, true);
+        }
+        int constraintSeparator = indexOf(path, ':', start, end);
+        if (!isWholeSegmentPattern(path, start, end, constraintSeparator)) {
+            String segment = substring(path, start, end, interner);
+            SegmentTemplate template = indexOf(path, '{', start, end) < 0 ? null : SegmentTemplate.parse(segment);
+            if (template == null) {
+                return new ParsedSegment(segment, false);
+            }
+            return new ParsedSegment(segment, true, PatternConstraint.of(template));
+        }
+        if (constraintSeparator < 0 && end - start > CATCH_ALL_SUFFIX.length() + 1 && path.startsWith(CATCH_ALL_SUFFIX + "}", end - CATCH_ALL_SUFFIX.length() - 1)) {
+            return new ParsedSegment(substring(path, start + 1, end - 1 - CATCH_ALL_SUFFIX.length(), interner), true, null, true);
+        }
+        if (constraintSeparator < 0) {
+            return new ParsedSegment(substring(path, start + 1, end - 1, interner), true);
+        }
+        return new ParsedSegment(
+            substring(path, start + 1, constraintSeparator, interner),
+            true,
+            constraintSeparator + 2 == end ? null : PatternConstraint.parse(substring(path, constraintSeparator + 1, end - 1, interner))
+        );
+    }
+
+    /**
+     * Returns true if the segment is a single pattern like <code>{id}</code> or <code>{id:int}</code>.
+     * The name of the pattern cannot contain braces, whereas its constraint can, e.g. <code>{code:[A-Z]{3}}</code>:
+     * the braces of the constraint must be balanced, so the last brace of the segment closes the pattern.
+     * Otherwise the segment contains several patterns, e.g. <code>{name:int}.{ext}</code>
+     */
+    private static boolean isWholeSegmentPattern(@NotNull String path, int start, int end, int constraintSeparator) {
+        if (end - start < 2 || path.charAt(start) != '{' || path.charAt(end - 1) != '}') {
+            return false;
+        }
+        int nameEnd = constraintSeparator < 0 ? end - 1 : constraintSeparator;
+        for (int charIndex = start + 1; charIndex < nameEnd; charIndex++) {
+            if (path.charAt(charIndex) == '{' || path.charAt(charIndex) == '}') {
+                return false;
+            }
+        }
+        int bracesDepth = 0;
+        for (int charIndex = nameEnd + 1; charIndex < end - 1; charIndex++) {
+            char constraintChar = path.charAt(charIndex);
+            if (constraintChar == '\\') {
+                // an escaped brace of a regular expression is not counted
+                charIndex++;
+            } else if (constraintChar == '{') {
+                bracesDepth++;
+            } else if (constraintChar == '}' && --bracesDepth < 0) {
+                return false;
+            }
+        }
+        return bracesDepth == 0;
+    }
+
+    /**
+     * Returns the offset of the first occurrence of a character between two offsets, or -1 if the character is not found
+     */
+    private static int indexOf(@NotNull String path, char searchedChar, int start, int end) {
+        for (int charIndex = start; charIndex < end; charIndex++) {
+            if (path.charAt(charIndex) == searchedChar) {
+                return charIndex;
+            }
+        }
+        return -1;
+    }
+
+    private static @NotNull String substring(@NotNull String path, int start, int end, @Nullable PathInterner interner) {
+        return interner == null ? path.substring(start, end) : interner.intern(path, start, end);
     }
 
     /**
@@ -144,20 +329,12 @@ public class HttpRoutes {
      * @param <T> The type of the {@link HttpRoute} stored in the router index
      */
     public static <T extends HttpRoute> @NotNull MatchingRoute<T> toMatchingRoute(@NotNull RawMatchingRoute<T> rawMatchingRoute) {
-        return new MatchingRoute<>(
-            rawMatchingRoute.matchingRouteLeaf().httpRoute(),
-            rawMatchingRoute
-                .matchingRouteLeaf()
-                .routePatternIndexes()
-                .keySet()
-                .stream()
-                .collect(Collectors.toMap(
-                    Function.identity(),
-                    currentSegmentName -> rawMatchingRoute
-                        .parameterByIndex()
-                        .get(rawMatchingRoute.matchingRouteLeaf().routePatternIndexes().get(currentSegmentName))
-                ))
-        );
+        Map<String, Integer> routePatternIndexes = rawMatchingRoute.matchingRouteLeaf().routePatternIndexes();
+        Map<String, String> parameterValues = new HashMap<>(routePatternIndexes.size() * 2);
+        for (String patternName : routePatternIndexes.keySet()) {
+            parameterValues.put(patternName, rawMatchingRoute.parameterValue(patternName));
+        }
+        return new MatchingRoute<>(rawMatchingRoute.matchingRouteLeaf().httpRoute(), parameterValues);
     }
 
     /**
@@ -171,23 +348,62 @@ public class HttpRoutes {
      * <br>
      * The destination path has to use the same pattern names as the names used in the router. So<br>
      * - Correct: <code>router path = /users/{userId}/addresses</code>, <code>destination path = /{userId}/addresses</code><br>
-     * - Incorrect: <code>router path = /users/{userId}/addresses</code>, <code>destination path = /{id}/addresses</code>
+     * - Incorrect: <code>router path = /users/{userId}/addresses</code>, <code>destination path = /{id}/addresses</code><br>
+     * <br>
+     * The value of a catch-all pattern is all the remaining segments of the request path, separators included,
+     * so with the router path <code>/legacy/{rest...}</code> and the destination path <code>/v1/{rest...}</code>,
+     * the request path <code>/legacy/a/b/c</code> is rewritten to <code>/v1/a/b/c</code> with a single copy.<br>
+     * <br>
+     * When the destination path is computed for each request, a {@link DestinationTemplate} should be compiled once per route instead.
      * @param rawMatchingRoute A matching found using @{link {@link HttpRouter#searchRoute(String, String)}}
      * @param destinationPathSegments The destination path segments generated by {@link HttpRoutes#parsePathAsSegments(String)}
      * @return The computed destination path associated with the original routeId
      */
     public static @NotNull DestinationRoute computeDestinationRoute(@NotNull RawMatchingRoute<?> rawMatchingRoute, @NotNull List<ParsedSegment> destinationPathSegments) {
-        IndexRouteLeaf<?> matchingRouteLeaf = rawMatchingRoute.matchingRouteLeaf();
-        @NotNull String serializedParsedPath = HttpRoutes.serializeParsedPath(
-            destinationPathSegments,
-            currentSegmentName -> rawMatchingRoute.parameterByIndex().get(matchingRouteLeaf.routePatternIndexes().get(currentSegmentName))
-        );
         return new DestinationRoute(
-            matchingRouteLeaf.httpRoute().routeId(),
-            serializedParsedPath
+            rawMatchingRoute.matchingRouteLeaf().httpRoute().routeId(),
+            serializeDestinationPath(rawMatchingRoute, destinationPathSegments)
         );
     }
 
+    /**
+     * Same as {@link #serializeParsedPath(List, SegmentPatternNameMaker)}, but parameter values are copied
+     * directly from the request path, so no intermediate {@link String} is created
+     */
+    private static @NotNull String serializeDestinationPath(@NotNull RawMatchingRoute<?> rawMatchingRoute, @NotNull List<ParsedSegment> destinationPathSegments) {
+        if (destinationPathSegments.isEmpty()) {
+            return SEGMENT_SEPARATOR;
+        }
+        StringBuilder destinationPath = new StringBuilder(rawMatchingRoute.requestPath().length() + 16 * destinationPathSegments.size());
+        for (ParsedSegment currentSegment : destinationPathSegments) {
+            destinationPath.append(SEGMENT_SEPARATOR);
+            SegmentTemplate template = currentSegment.constraint() == null ? null : currentSegment.constraint().template();
+            if (template != null) {
+                for (int parameterIndex = 0; parameterIndex < template.parametersCount(); parameterIndex++) {
+                    destinationPath.append(template.literal(parameterIndex));
+                    appendParameterValue(destinationPath, rawMatchingRoute, template.parameterName(parameterIndex));
+                }
+                destinationPath.append(template.literal(template.parametersCount()));
+            } else if (!currentSegment.isPattern()) {
+                destinationPath.append(currentSegment.name());
+            } else {
+                appendParameterValue(destinationPath, rawMatchingRoute, currentSegment.name());
+            }
+        }
+        return destinationPath.toString();
+    }
+
+    private static void appendParameterValue(@NotNull StringBuilder destinationPath, @NotNull RawMatchingRoute<?> rawMatchingRoute, @NotNull String patternName) {
+        int parameterStart = rawMatchingRoute.parameterStart(patternName);
+        if (parameterStart < 0) {
+            // pattern names that are not in the router path have always been serialized as "null"
+            destinationPath.append((String) null);
+        } else {
+            // values are copied raw, even if they are decoded by the matching route, so the destination path stays encoded
+            destinationPath.append(rawMatchingRoute.requestPath(), parameterStart, rawMatchingRoute.parameterEnd(patternName));
+        }
+    }
+
     /**
      * Function to generate the name of a pattern path when serializing a {@link ParsedPath}.
      * See {@link #serializeParsedPath(ParsedPath, SegmentPatternNameMaker)} or
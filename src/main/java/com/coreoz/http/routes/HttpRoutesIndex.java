@@ -3,6 +3,8 @@ package com.coreoz.http.routes;
 import com.coreoz.http.routes.parsing.HttpRouteDefinition;
 import com.coreoz.http.routes.parsing.ParsedPath;
 import com.coreoz.http.routes.parsing.ParsedRoute;
+import com.coreoz.http.routes.parsing.PathInterner;
+import com.coreoz.http.routes.router.index.SearchRouteIndexer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -11,6 +13,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collector;
 
@@ -21,6 +24,20 @@ import java.util.stream.Collector;
  */
 public class HttpRoutesIndex<T extends HttpRouteDefinition> {
     private final Map<String, List<ParsedRoute<T>>> existingRoutes = new HashMap<>();
+    private final @Nullable PathInterner interner;
+
+    public HttpRoutesIndex() {
+        this(null);
+    }
+
+    /**
+     * @param interner The pool sharing the strings of the routes added using {@link #addRoute(HttpRouteDefinition)},
+     *                 e.g. with the routes index of a router, see {@link SearchRouteIndexer#indexRoutes(Iterable, PathInterner)}.
+     *                 Paths searched in the index are not added to the pool
+     */
+    public HttpRoutesIndex(@Nullable PathInterner interner) {
+        this.interner = interner;
+    }
 
     /**
      * Verify if a route exists for a path and an HTTP method
@@ -75,7 +92,7 @@ public class HttpRoutesIndex<T extends HttpRouteDefinition> {
      * If a route already exists, null is returned and the existing route is not changed
      */
     public @Nullable ParsedRoute<T> addRoute(T route) {
-        return addRoute(HttpRoutes.parseRoute(route));
+        return addRoute(HttpRoutes.parseRoute(route, interner));
     }
 
     /**
@@ -99,6 +116,27 @@ public class HttpRoutesIndex<T extends HttpRouteDefinition> {
         return route;
     }
 
+    /**
+     * Add the routes of another index to this index.<br>
+     * <br>
+     * The routes of this index are kept: if a route of the other index already exists in this index,
+     * the route of the other index is not added and is passed to <code>onDuplicate</code>.
+     * The other index is not modified.
+     * @param other The index containing the routes to add
+     * @param onDuplicate Called for each route of the other index that is not added
+     * @return This index
+     */
+    public @NotNull HttpRoutesIndex<T> merge(@NotNull HttpRoutesIndex<T> other, @NotNull Consumer<ParsedRoute<T>> onDuplicate) {
+        for (List<ParsedRoute<T>> otherRoutes : other.existingRoutes.values()) {
+            for (ParsedRoute<T> otherRoute : otherRoutes) {
+                if (addRoute(otherRoute) == null) {
+                    onDuplicate.accept(otherRoute);
+                }
+            }
+        }
+        return this;
+    }
+
     private @NotNull Optional<ParsedRoute<T>> findRoute(@NotNull List<ParsedRoute<T>> availableRoutes, @NotNull String httpMethod) {
         return availableRoutes.stream().filter(route -> route.routeDefinition().method().equals(httpMethod)).findFirst();
     }
@@ -109,14 +147,32 @@ public class HttpRoutesIndex<T extends HttpRouteDefinition> {
      * @param <T> The type of the resulted {@link HttpRoutesIndex}
      */
     public static <T extends HttpRouteDefinition> Collector<ParsedRoute<T>, HttpRoutesIndex<T>, HttpRoutesIndex<T>> collector() {
+        return collector(duplicateRoute -> {});
+    }
+
+    /**
+     * Creates a {@link Collector} to use on a {@link java.util.stream.Stream} of {@link ParsedRoute} to reduce a Stream to a {@link HttpRoutesIndex}.<br>
+     * <br>
+     * The collector supports parallel streams. Like with {@link #addRoute(ParsedRoute)}, if multiple routes have the same path and HTTP method,
+     * the first route in the stream order is kept, the other routes are passed to <code>onDuplicate</code>.
+     * @param onDuplicate Called for each route that is not added to the index because it already exists.
+     *                    In a parallel stream, it can be called concurrently from multiple threads
+     * @return The corresponding {@link HttpRoutesIndex}
+     * @param <T> The type of the resulted {@link HttpRoutesIndex}
+     */
+    public static <T extends HttpRouteDefinition> Collector<ParsedRoute<T>, HttpRoutesIndex<T>, HttpRoutesIndex<T>> collector(
+        @NotNull Consumer<ParsedRoute<T>> onDuplicate
+    ) {
         return Collector.of(
             HttpRoutesIndex::new,
-            HttpRoutesIndex::addRoute,
-            (a, b) -> {
-                throw new RuntimeException("Parallel stream collection is not supported");
+            (index, route) -> {
+                if (index.addRoute(route) == null) {
+                    onDuplicate.accept(route);
+                }
             },
+            (index, otherIndex) -> index.merge(otherIndex, onDuplicate),
             Function.identity(),
-            Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH
+            Collector.Characteristics.IDENTITY_FINISH
         );
     }
 }
@@ -1,10 +1,24 @@
 package com.coreoz.http.routes.parsing;
 
+import org.jetbrains.annotations.Nullable;
+
 /**
  * Represents a path segment.<br>
  * E.g. <code>users</code> in the <code>/users/{userId}</code> route
- * @param name The name of the segment
+ * @param name The name of the segment. For a partial segment like <code>{name}.{ext}</code>, this is the whole segment,
+ *             the parameters being available in the template of the constraint, see {@link PatternConstraint#template()}
  * @param isPattern Indicate whether the route segment is a route pattern or note. For exemple the <code>userId</code> segment is a route pattern in the <code>/users/{userId}</code> route
+ * @param constraint The constraint on the values of a pattern segment, e.g. <code>int</code> in the <code>/users/{userId:int}</code> route,
+ *                   or null if the segment is not a pattern or if the pattern accepts any value
+ * @param isCatchAll Indicate whether the route segment is a catch-all pattern that matches all the remaining segments of a path,
+ *                   e.g. <code>rest</code> in the <code>/legacy/{rest...}</code> route. A catch-all segment is always a pattern
  */
-public record ParsedSegment(String name, boolean isPattern) {
+public record ParsedSegment(String name, boolean isPattern, @Nullable PatternConstraint constraint, boolean isCatchAll) {
+    public ParsedSegment(String name, boolean isPattern, @Nullable PatternConstraint constraint) {
+        this(name, isPattern, constraint, false);
+    }
+
+    public ParsedSegment(String name, boolean isPattern) {
+        this(name, isPattern, null, false);
+    }
 }
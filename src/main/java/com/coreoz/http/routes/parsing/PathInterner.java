@@ -0,0 +1,121 @@
+package com.coreoz.http.routes.parsing;
+
+import com.coreoz.http.routes.HttpRoutes;
+import com.coreoz.http.routes.HttpRoutesIndex;
+import com.coreoz.http.routes.router.index.SearchRouteIndexer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A pool of the strings created while parsing route paths: segment names, pattern names and generic paths.<br>
+ * <br>
+ * In large route tables, the same names are used by many routes, e.g. <code>users</code>, <code>v1</code> or <code>id</code>.
+ * When the paths are parsed using a pool, see {@link HttpRoutes#parsePath(String, PathInterner)}, each name is stored once,
+ * and a name already in the pool is found from its offsets in the path, without creating a new string.
+ * The same pool can be shared by an {@link HttpRoutesIndex} and by {@link SearchRouteIndexer} so they share the same strings.<br>
+ * <br>
+ * The strings are stored in an open addressing hash table. Strings are never removed from the pool:
+ * a pool should be dropped when the routes parsed with it are not used anymore.
+ * The pool is not thread-safe: it must not be used by several threads at the same time.
+ */
+public final class PathInterner {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private @Nullable String @NotNull [] strings;
+    // the hash codes of the strings, so the strings that have another hash code are skipped without being read
+    private int @NotNull [] hashes;
+    private int size;
+
+    public PathInterner() {
+        this.strings = new String[INITIAL_CAPACITY];
+        this.hashes = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the string of the pool equal to a part of a sequence of characters.
+     * If the pool does not contain such a string, it is created and added to the pool
+     * @param chars The characters, e.g. a route path
+     * @param start The offset of the first character
+     * @param end The offset following the last character
+     */
+    public @NotNull String intern(@NotNull CharSequence chars, int start, int end) {
+        int hash = 0;
+        for (int charIndex = start; charIndex < end; charIndex++) {
+            hash = 31 * hash + chars.charAt(charIndex);
+        }
+        return intern(chars, start, end, hash);
+    }
+
+    /**
+     * Returns the string of the pool equal to a string, the string is added to the pool if the pool does not contain it yet
+     */
+    public @NotNull String intern(@NotNull String string) {
+        // the hash code of the string is the same as the one computed from its characters, and it is cached by the string
+        return intern(string, 0, string.length(), string.hashCode());
+    }
+
+    private @NotNull String intern(@NotNull CharSequence chars, int start, int end, int hash) {
+        int mask = strings.length - 1;
+        int index = spread(hash) & mask;
+        String pooledString;
+        while ((pooledString = strings[index]) != null) {
+            if (hashes[index] == hash && regionEquals(pooledString, chars, start, end)) {
+                return pooledString;
+            }
+            index = (index + 1) & mask;
+        }
+        // for a string, subSequence() returns the string itself if it is the whole string
+        String string = chars.subSequence(start, end).toString();
+        strings[index] = string;
+        hashes[index] = hash;
+        size++;
+        if (size * 2 > strings.length) {
+            resize();
+        }
+        return string;
+    }
+
+    private static boolean regionEquals(@NotNull String string, @NotNull CharSequence chars, int start, int end) {
+        if (string.length() != end - start) {
+            return false;
+        }
+        for (int charIndex = 0; charIndex < string.length(); charIndex++) {
+            if (string.charAt(charIndex) != chars.charAt(start + charIndex)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void resize() {
+        String[] previousStrings = strings;
+        int[] previousHashes = hashes;
+        strings = new String[previousStrings.length * 2];
+        hashes = new int[previousStrings.length * 2];
+        int mask = strings.length - 1;
+        for (int previousIndex = 0; previousIndex < previousStrings.length; previousIndex++) {
+            if (previousStrings[previousIndex] != null) {
+                int index = spread(previousHashes[previousIndex]) & mask;
+                while (strings[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                strings[index] = previousStrings[previousIndex];
+                hashes[index] = previousHashes[previousIndex];
+            }
+        }
+    }
+
+    /**
+     * Mix the high bits of the hash code in the low bits, like {@link java.util.HashMap} does
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns the number of strings in the pool
+     */
+    public int size() {
+        return size;
+    }
+}
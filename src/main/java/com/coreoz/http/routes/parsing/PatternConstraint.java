@@ -0,0 +1,418 @@
+package com.coreoz.http.routes.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A constraint on the value of a path pattern, e.g. <code>int</code> in the route <code>/items/{id:int}</code>.<br>
+ * <br>
+ * Supported constraints:<br>
+ * - <code>int</code> and <code>long</code>: a decimal number, optionally negative, in the range of the Java type<br>
+ * - <code>uuid</code>: a UUID written like <code>123e4567-e89b-12d3-a456-426614174000</code>, in lower or upper case<br>
+ * - a character class with an optional quantifier, e.g. <code>[a-z0-9-]+</code>, <code>[^.]{2,8}</code> or <code>\d{4}</code>.
+ * Only ASCII characters, ranges and the <code>\d</code> and <code>\w</code> classes can be used in the class<br>
+ * - <code>length(max)</code> or <code>length(min,max)</code>: a value of any characters which length is in the range<br>
+ * - any other regular expression, matched using {@link Pattern}<br>
+ * <br>
+ * A partial segment like <code>{name}.{ext}</code> is also represented by a constraint of the type {@link Type#TEMPLATE},
+ * created by {@link #of(SegmentTemplate)}: the segment value must match its {@link SegmentTemplate}.<br>
+ * <br>
+ * All constraints but the regular expressions are matched by hand-written matchers
+ * that read the request path directly without allocating objects.<br>
+ * <br>
+ * Constraints are ordered by precedence: when several pattern children of a node match a segment,
+ * the routes of the first constraint in this order are searched first.
+ * The order is the order of the {@link Type} values, then the order of the definitions.
+ * Partial segment templates are first, the templates having the most literal characters being the first ones.
+ */
+public final class PatternConstraint implements Comparable<PatternConstraint> {
+    private static final Pattern QUANTIFIER = Pattern.compile("[+*?]|\\{(\\d+)(,(\\d*))?}");
+    // the characters of int, long and uuid values, as character class bits, see lowCharacters and highCharacters
+    private static final long DIGITS_AND_MINUS = 0x3FFL << '0' | 1L << '-';
+    private static final long HEXADECIMAL_LETTERS = 0x3FL << ('a' - 64) | 0x3FL << ('A' - 64);
+
+    private final @NotNull Type type;
+    private final @NotNull String definition;
+    private final int minLength;
+    private final int maxLength;
+    // allowed ASCII characters of a character class, characters 0 to 63 then 64 to 127
+    private final long lowCharacters;
+    private final long highCharacters;
+    private final boolean negated;
+    private final @Nullable Pattern regex;
+    private final @Nullable SegmentTemplate template;
+
+    private PatternConstraint(
+        @NotNull Type type, @NotNull String definition, int minLength, int maxLength,
+        long lowCharacters, long highCharacters, boolean negated, @Nullable Pattern regex
+    ) {
+        this(type, definition, minLength, maxLength, lowCharacters, highCharacters, negated, regex, null);
+    }
+
+    private PatternConstraint(
+        @NotNull Type type, @NotNull String definition, int minLength, int maxLength,
+        long lowCharacters, long highCharacters, boolean negated, @Nullable Pattern regex, @Nullable SegmentTemplate template
+    ) {
+        this.type = type;
+        this.definition = definition;
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.lowCharacters = lowCharacters;
+        this.highCharacters = highCharacters;
+        this.negated = negated;
+        this.regex = regex;
+        this.template = template;
+    }
+
+    /**
+     * The types of constraints, in the order of their precedence
+     */
+    public enum Type {
+        /**
+         * A partial segment, e.g. <code>v{version}</code>. Templates having more literal characters have precedence
+         */
+        TEMPLATE,
+        UUID,
+        INT,
+        LONG,
+        CHARACTER_CLASS,
+        REGEX,
+        LENGTH,
+    }
+
+    /**
+     * Parse a constraint definition, e.g. <code>int</code> or <code>[a-z]+</code>
+     * @throws IllegalArgumentException If the definition is neither a known constraint nor a valid regular expression
+     */
+    public static @NotNull PatternConstraint parse(@NotNull String definition) {
+        PatternConstraint namedConstraint = switch (definition) {
+            case "uuid" -> new PatternConstraint(Type.UUID, definition, 36, 36, 0, 0, false, null);
+            case "int" -> new PatternConstraint(Type.INT, definition, 1, 11, 0, 0, false, null);
+            case "long" -> new PatternConstraint(Type.LONG, definition, 1, 20, 0, 0, false, null);
+            default -> null;
+        };
+        if (namedConstraint != null) {
+            return namedConstraint;
+        }
+        if (definition.startsWith("length(") && definition.endsWith(")")) {
+            return parseLength(definition);
+        }
+        PatternConstraint characterClass = parseCharacterClass(definition);
+        if (characterClass != null) {
+            return characterClass;
+        }
+        return new PatternConstraint(Type.REGEX, definition, 0, Integer.MAX_VALUE, 0, 0, false, Pattern.compile(definition));
+    }
+
+    /**
+     * Create the constraint of a partial segment: the segment must match the template.
+     * The definition of the constraint is the template without its parameter names, see {@link SegmentTemplate#genericDefinition()},
+     * so templates that differ only by their parameter names are the same constraint.
+     */
+    public static @NotNull PatternConstraint of(@NotNull SegmentTemplate template) {
+        return new PatternConstraint(
+            Type.TEMPLATE, template.genericDefinition(), template.literalsLength() + template.parametersCount(), Integer.MAX_VALUE,
+            0, 0, false, null, template
+        );
+    }
+
+    private static @NotNull PatternConstraint parseLength(@NotNull String definition) {
+        String[] bounds = definition.substring("length(".length(), definition.length() - 1).split(",", -1);
+        try {
+            int minLength = bounds.length == 1 ? 0 : Integer.parseInt(bounds[0].strip());
+            int maxLength = Integer.parseInt(bounds[bounds.length - 1].strip());
+            if (bounds.length <= 2 && minLength >= 0 && minLength <= maxLength) {
+                return new PatternConstraint(Type.LENGTH, definition, minLength, maxLength, 0, 0, false, null);
+            }
+        } catch (NumberFormatException e) {
+            // the exception below is thrown
+        }
+        throw new IllegalArgumentException("Invalid length constraint '" + definition + "', it should be like length(max) or length(min,max)");
+    }
+
+    /**
+     * Parse a character class followed by an optional quantifier
+     * @return The constraint, or null if the definition is not a supported character class, so it is a regular expression
+     */
+    private static @Nullable PatternConstraint parseCharacterClass(@NotNull String definition) {
+        long[] characters = new long[2];
+        boolean negated = false;
+        int classEnd;
+        if (definition.startsWith("\\d") || definition.startsWith("\\w")) {
+            addEscapedClass(characters, definition.charAt(1));
+            classEnd = 2;
+        } else if (definition.startsWith("[")) {
+            int charIndex = 1;
+            if (definition.startsWith("[^")) {
+                negated = true;
+                charIndex++;
+            }
+            int classStart = charIndex;
+            while (charIndex < definition.length() && definition.charAt(charIndex) != ']') {
+                char classChar = definition.charAt(charIndex);
+                if (classChar == '\\') {
+                    if (charIndex + 1 >= definition.length()) {
+                        return null;
+                    }
+                    char escapedChar = definition.charAt(charIndex + 1);
+                    if (escapedChar == 'd' || escapedChar == 'w') {
+                        addEscapedClass(characters, escapedChar);
+                    } else if (!Character.isLetterOrDigit(escapedChar) && escapedChar < 128) {
+                        addCharacters(characters, escapedChar, escapedChar);
+                    } else {
+                        return null;
+                    }
+                    charIndex += 2;
+                } else if (classChar == '[' || classChar >= 128 || definition.startsWith("&&", charIndex)) {
+                    // nested classes, intersections and non-ASCII characters are left to the regular expression engine
+                    return null;
+                } else if (charIndex + 2 < definition.length() && definition.charAt(charIndex + 1) == '-' && definition.charAt(charIndex + 2) != ']') {
+                    char rangeEnd = definition.charAt(charIndex + 2);
+                    if (rangeEnd < classChar || rangeEnd >= 128 || rangeEnd == '\\' || rangeEnd == '[') {
+                        return null;
+                    }
+                    addCharacters(characters, classChar, rangeEnd);
+                    charIndex += 3;
+                } else {
+                    addCharacters(characters, classChar, classChar);
+                    charIndex++;
+                }
+            }
+            if (charIndex >= definition.length() || charIndex == classStart) {
+                return null;
+            }
+            classEnd = charIndex + 1;
+        } else {
+            return null;
+        }
+
+        int minLength = 1;
+        int maxLength = 1;
+        if (classEnd < definition.length()) {
+            Matcher quantifier = QUANTIFIER.matcher(definition).region(classEnd, definition.length());
+            if (!quantifier.matches()) {
+                return null;
+            }
+            switch (definition.charAt(classEnd)) {
+                case '+' -> maxLength = Integer.MAX_VALUE;
+                case '*' -> {
+                    minLength = 0;
+                    maxLength = Integer.MAX_VALUE;
+                }
+                case '?' -> minLength = 0;
+                default -> {
+                    minLength = Integer.parseInt(quantifier.group(1));
+                    maxLength = quantifier.group(2) == null ? minLength
+                        : quantifier.group(3).isEmpty() ? Integer.MAX_VALUE
+                        : Integer.parseInt(quantifier.group(3));
+                    if (maxLength < minLength) {
+                        return null;
+                    }
+                }
+            }
+        }
+        return new PatternConstraint(Type.CHARACTER_CLASS, definition, minLength, maxLength, characters[0], characters[1], negated, null);
+    }
+
+    private static void addEscapedClass(long @NotNull [] characters, char escapedChar) {
+        addCharacters(characters, '0', '9');
+        if (escapedChar == 'w') {
+            addCharacters(characters, 'a', 'z');
+            addCharacters(characters, 'A', 'Z');
+            addCharacters(characters, '_', '_');
+        }
+    }
+
+    private static void addCharacters(long @NotNull [] characters, char first, char last) {
+        for (char character = first; character <= last; character++) {
+            characters[character >> 6] |= 1L << character;
+        }
+    }
+
+    /**
+     * Verify that a part of a request path matches the constraint, without allocating objects
+     * except for regular expressions
+     * @param path The request path
+     * @param start The offset of the first character of the segment
+     * @param end The offset following the last character of the segment
+     */
+    public boolean matches(@NotNull CharSequence path, int start, int end) {
+        int length = end - start;
+        if (length < minLength || length > maxLength) {
+            return false;
+        }
+        return switch (type) {
+            case TEMPLATE -> template.matches(path, start, end);
+            case UUID -> matchesUuid(path, start);
+            case INT -> matchesInteger(path, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            case LONG -> matchesInteger(path, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+            case CHARACTER_CLASS -> matchesCharacterClass(path, start, end);
+            case LENGTH -> true;
+            case REGEX -> regex.matcher(path).region(start, end).matches();
+        };
+    }
+
+    private static boolean matchesUuid(@NotNull CharSequence path, int start) {
+        for (int charIndex = 0; charIndex < 36; charIndex++) {
+            char uuidChar = path.charAt(start + charIndex);
+            if (charIndex == 8 || charIndex == 13 || charIndex == 18 || charIndex == 23) {
+                if (uuidChar != '-') {
+                    return false;
+                }
+            } else if (Character.digit(uuidChar, 16) < 0 || uuidChar >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verify that the value is a decimal number between the bounds, the overflow is detected like in {@link Long#parseLong(String)}
+     */
+    private static boolean matchesInteger(@NotNull CharSequence path, int start, int end, long minValue, long maxValue) {
+        boolean negative = path.charAt(start) == '-';
+        int charIndex = negative ? start + 1 : start;
+        if (charIndex == end) {
+            return false;
+        }
+        // the value is accumulated negatively, since the negative range is larger than the positive range
+        long limit = negative ? minValue : -maxValue;
+        long multiplyMin = limit / 10;
+        long value = 0;
+        for (; charIndex < end; charIndex++) {
+            int digit = path.charAt(charIndex) - '0';
+            if (digit < 0 || digit > 9 || value < multiplyMin) {
+                return false;
+            }
+            value *= 10;
+            if (value < limit + digit) {
+                return false;
+            }
+            value -= digit;
+        }
+        return true;
+    }
+
+    private boolean matchesCharacterClass(@NotNull CharSequence path, int start, int end) {
+        for (int charIndex = start; charIndex < end; charIndex++) {
+            char pathChar = path.charAt(charIndex);
+            boolean inClass = pathChar < 64 ? (lowCharacters & 1L << pathChar) != 0
+                : pathChar < 128 && (highCharacters & 1L << pathChar) != 0;
+            if (inClass == negated) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verify that all the values matched by another constraint are also matched by this constraint, e.g. <code>long</code> covers <code>int</code>.<br>
+     * <br>
+     * The verification is conservative: false is returned when it cannot be proved that this constraint covers the other one,
+     * e.g. for regular expressions. It is exact for the other types, except for partial segment templates that only cover the same template.
+     * @param other The other constraint, or null for a pattern without constraint, that matches any segment
+     */
+    public boolean covers(@Nullable PatternConstraint other) {
+        if (other == null) {
+            // a segment cannot contain a slash
+            return minLength == 0 && maxLength == Integer.MAX_VALUE
+                && (type == Type.LENGTH || (type == Type.CHARACTER_CLASS && negated && (lowCharacters & ~(1L << '/')) == 0 && highCharacters == 0));
+        }
+        if (equals(other)) {
+            return true;
+        }
+        if (other.minLength < minLength || other.maxLength > maxLength) {
+            return false;
+        }
+        return switch (type) {
+            case LENGTH -> true;
+            case LONG -> other.type == Type.INT;
+            case CHARACTER_CLASS -> switch (other.type) {
+                case CHARACTER_CLASS -> coversCharacters(other.lowCharacters, other.highCharacters, other.negated);
+                case INT, LONG -> coversCharacters(DIGITS_AND_MINUS, 0, false);
+                case UUID -> coversCharacters(DIGITS_AND_MINUS, HEXADECIMAL_LETTERS, false);
+                default -> false;
+            };
+            default -> false;
+        };
+    }
+
+    private boolean coversCharacters(long otherLowCharacters, long otherHighCharacters, boolean otherNegated) {
+        if (otherNegated) {
+            // the other class accepts all the characters but a few ones, including non-ASCII characters
+            return negated && (lowCharacters & ~otherLowCharacters) == 0 && (highCharacters & ~otherHighCharacters) == 0;
+        }
+        if (negated) {
+            return (lowCharacters & otherLowCharacters) == 0 && (highCharacters & otherHighCharacters) == 0;
+        }
+        return (otherLowCharacters & ~lowCharacters) == 0 && (otherHighCharacters & ~highCharacters) == 0;
+    }
+
+    /**
+     * Verify whether a value can be matched by this constraint and by another constraint.<br>
+     * <br>
+     * The verification is conservative: true is returned when it cannot be proved that no value is matched by both constraints.
+     * Constraints are disjoint if their lengths are different, or if they are character classes without common characters.
+     * @param other The other constraint
+     */
+    public boolean mayOverlap(@NotNull PatternConstraint other) {
+        if (other.maxLength < minLength || other.minLength > maxLength) {
+            return false;
+        }
+        if (type == Type.CHARACTER_CLASS && other.type == Type.CHARACTER_CLASS && !negated && !other.negated) {
+            // only the empty value can be matched by both classes
+            return ((lowCharacters & other.lowCharacters) != 0 || (highCharacters & other.highCharacters) != 0)
+                || (minLength == 0 && other.minLength == 0);
+        }
+        return true;
+    }
+
+    public @NotNull Type type() {
+        return type;
+    }
+
+    /**
+     * Returns the template of a partial segment constraint, else null
+     */
+    public @Nullable SegmentTemplate template() {
+        return template;
+    }
+
+    /**
+     * Returns the definition of the constraint, as it is written in the route path,
+     * or the template without its parameter names for a partial segment
+     */
+    public @NotNull String definition() {
+        return definition;
+    }
+
+    @Override
+    public int compareTo(@NotNull PatternConstraint other) {
+        int typeComparison = type.compareTo(other.type);
+        if (typeComparison != 0) {
+            return typeComparison;
+        }
+        if (type == Type.TEMPLATE && template.literalsLength() != other.template.literalsLength()) {
+            return Integer.compare(other.template.literalsLength(), template.literalsLength());
+        }
+        return definition.compareTo(other.definition);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof PatternConstraint otherConstraint && definition.equals(otherConstraint.definition));
+    }
+
+    @Override
+    public int hashCode() {
+        return definition.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return definition;
+    }
+}
@@ -0,0 +1,212 @@
+package com.coreoz.http.routes.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A path segment made of literal parts and parameters, e.g. <code>{name}.{ext}</code> or <code>v{version}</code>.<br>
+ * <br>
+ * A segment matches the template if it starts with the first literal part, ends with the last literal part,
+ * and contains the literal parts separating the parameters. Each parameter matches at least one character.
+ * When a separator appears several times in a segment, its last occurrence is used:
+ * for <code>{name}.{ext}</code>, the segment <code>archive.tar.gz</code> gives <code>name = archive.tar</code> and <code>ext = gz</code>.<br>
+ * <br>
+ * Segments are matched by scanning the request path without regular expressions and without allocating objects.
+ * Parameter values are not stored during the match: their offsets are computed again by
+ * {@link #parameterStart(CharSequence, int, int, int)} and {@link #parameterEnd(CharSequence, int, int, int)}
+ * when a parameter value is read.
+ */
+public final class SegmentTemplate {
+    // literal parts around the parameters: literals[i] is before the parameter i, the last literal is after the last parameter
+    private final @NotNull String @NotNull [] literals;
+    private final @NotNull String @NotNull [] names;
+    private final @NotNull String source;
+    private final @NotNull String genericDefinition;
+    private final int literalsLength;
+
+    private SegmentTemplate(@NotNull List<String> literals, @NotNull List<String> names, @NotNull String source) {
+        this.literals = literals.toArray(String[]::new);
+        this.names = names.toArray(String[]::new);
+        this.source = source;
+        this.genericDefinition = String.join("{}", literals);
+        this.literalsLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * Parse a path segment containing parameters between literal parts
+     * @param segment The path segment, e.g. <code>{name}.{ext}</code>
+     * @return The template, or null if the segment does not contain any parameter, so it is a static segment
+     * @throws IllegalArgumentException If two parameters are not separated by a literal part, or if a parameter has a constraint
+     */
+    public static @Nullable SegmentTemplate parse(@NotNull String segment) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int literalStart = 0;
+        int parameterStart = segment.indexOf('{');
+        while (parameterStart >= 0) {
+            int parameterEnd = segment.indexOf('}', parameterStart);
+            if (parameterEnd < 0) {
+                break;
+            }
+            String name = segment.substring(parameterStart + 1, parameterEnd);
+            if (name.indexOf('{') >= 0) {
+                // e.g. "{a{b}", the first brace is a literal
+                parameterStart = segment.indexOf('{', parameterStart + 1);
+                continue;
+            }
+            if (name.indexOf(':') >= 0) {
+                throw new IllegalArgumentException("Constraints are not supported in the parameters of the partial segment '" + segment + "'");
+            }
+            if (!names.isEmpty() && parameterStart == literalStart) {
+                throw new IllegalArgumentException("The parameters of the partial segment '" + segment + "' must be separated by a literal part");
+            }
+            literals.add(segment.substring(literalStart, parameterStart));
+            names.add(name);
+            literalStart = parameterEnd + 1;
+            parameterStart = segment.indexOf('{', literalStart);
+        }
+        if (names.isEmpty()) {
+            return null;
+        }
+        literals.add(segment.substring(literalStart));
+        return new SegmentTemplate(literals, names, segment);
+    }
+
+    /**
+     * Verify that a segment of a request path matches the template
+     * @param path The request path
+     * @param start The offset of the first character of the segment
+     * @param end The offset following the last character of the segment
+     */
+    public boolean matches(@NotNull CharSequence path, int start, int end) {
+        if (end - start < literalsLength + names.length
+            || !regionMatches(path, start, literals[0])
+            || !regionMatches(path, end - literals[names.length].length(), literals[names.length])) {
+            return false;
+        }
+        return literalStart(path, start, end, 1) >= 0;
+    }
+
+    /**
+     * Returns the offset in the request path of the first character of a parameter value,
+     * the segment must match the template
+     * @param parameterIndex The index of the parameter in the template, see {@link #parameterIndex(String)}
+     */
+    public int parameterStart(@NotNull CharSequence path, int start, int end, int parameterIndex) {
+        return literalStart(path, start, end, parameterIndex) + literals[parameterIndex].length();
+    }
+
+    /**
+     * Returns the offset in the request path following the last character of a parameter value,
+     * the segment must match the template
+     * @param parameterIndex The index of the parameter in the template, see {@link #parameterIndex(String)}
+     */
+    public int parameterEnd(@NotNull CharSequence path, int start, int end, int parameterIndex) {
+        return literalStart(path, start, end, parameterIndex + 1);
+    }
+
+    /**
+     * Find the offset of a literal part in the segment: the literal separators are searched from the end of the segment,
+     * each one at its last occurrence leaving at least one character to the parameters before and after it
+     * @return The offset of the literal part, or -1 if a separator is not found
+     */
+    private int literalStart(@NotNull CharSequence path, int start, int end, int literalIndex) {
+        if (literalIndex == 0) {
+            return start;
+        }
+        int cursor = end - literals[names.length].length();
+        if (literalIndex == names.length) {
+            return cursor;
+        }
+        // the minimum offset of a separator: the previous literals and at least one character for each previous parameter
+        int minimumStart = start + literalsLength - literals[names.length].length() + names.length;
+        for (int separatorIndex = names.length - 1; separatorIndex >= literalIndex; separatorIndex--) {
+            String separator = literals[separatorIndex];
+            minimumStart -= separator.length() + 1;
+            int separatorStart = cursor - 1 - separator.length();
+            while (separatorStart >= minimumStart && !regionMatches(path, separatorStart, separator)) {
+                separatorStart--;
+            }
+            if (separatorStart < minimumStart) {
+                return -1;
+            }
+            cursor = separatorStart;
+        }
+        return cursor;
+    }
+
+    private static boolean regionMatches(@NotNull CharSequence path, int offset, @NotNull String literal) {
+        for (int charIndex = 0; charIndex < literal.length(); charIndex++) {
+            if (path.charAt(offset + charIndex) != literal.charAt(charIndex)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of a parameter in the template, or -1 if the template does not have this parameter
+     */
+    public int parameterIndex(@NotNull String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int parametersCount() {
+        return names.length;
+    }
+
+    public @NotNull String parameterName(int parameterIndex) {
+        return names[parameterIndex];
+    }
+
+    /**
+     * Returns the literal part before a parameter, or after the last parameter if <code>literalIndex</code> is the number of parameters
+     */
+    public @NotNull String literal(int literalIndex) {
+        return literals[literalIndex];
+    }
+
+    /**
+     * Returns the number of characters of the literal parts, the templates with more literal characters are more specific
+     */
+    public int literalsLength() {
+        return literalsLength;
+    }
+
+    /**
+     * Returns the template without its parameter names, e.g. <code>{}.{}</code> for <code>{name}.{ext}</code>
+     */
+    public @NotNull String genericDefinition() {
+        return genericDefinition;
+    }
+
+    /**
+     * Returns the segment from which the template has been parsed, e.g. <code>{name}.{ext}</code>
+     */
+    public @NotNull String source() {
+        return source;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof SegmentTemplate otherTemplate && source.equals(otherTemplate.source));
+    }
+
+    @Override
+    public int hashCode() {
+        return source.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,36 @@
+package com.coreoz.http.routes.router;
+
+import com.coreoz.http.routes.HttpRouter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * The changes made to a router by {@link HttpRouter#reload(Iterable)}.<br>
+ * <br>
+ * Routes are compared using their identifier: a route is added if its identifier was not in the router,
+ * and it is removed if its identifier is not in the new routes.
+ * A route which HTTP method or generic path has changed is both removed and added.
+ * @param addedRoutes The new routes added to the router
+ * @param removedRoutes The routes removed from the router
+ * @param replacedRoutes The new routes that have replaced a route with the same identifier, the same HTTP method and the same generic path,
+ *                       but that is not equal to the new route, e.g. because its custom data has changed
+ * @param ignoredRoutes The new routes that have not been added: because another route of the router has the same HTTP method and the same generic path,
+ *                      or because another new route has the same identifier
+ * @param unchangedRoutesCount The number of new routes that are equal to a route of the router
+ * @param <T> The type of {@link HttpRoute} managed by the router
+ */
+public record RoutesDiff<T extends HttpRoute>(
+    @NotNull List<T> addedRoutes,
+    @NotNull List<T> removedRoutes,
+    @NotNull List<T> replacedRoutes,
+    @NotNull List<T> ignoredRoutes,
+    int unchangedRoutesCount
+) {
+    /**
+     * Returns true if a route has been added, removed or replaced
+     */
+    public boolean hasChanges() {
+        return !addedRoutes.isEmpty() || !removedRoutes.isEmpty() || !replacedRoutes.isEmpty();
+    }
+}
@@ -0,0 +1,18 @@
+package com.coreoz.http.routes.router.analysis;
+
+import com.coreoz.http.routes.router.HttpRoute;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Two routes with the same HTTP method that match at least one common request path, e.g. <code>/users/{id}</code> and <code>/users/me</code>
+ * @param preferredRoute The route returned by the router for the request paths matched by both routes
+ * @param otherRoute The route that is not returned for the request paths matched by both routes
+ * @param shadowing True if all the request paths matched by <code>otherRoute</code> are also matched by <code>preferredRoute</code>,
+ *                  so <code>otherRoute</code> can never be returned by the router, e.g. <code>/items/{id:int}</code> and <code>/items/{itemId:int}</code>.
+ *                  <code>/items/{id:int}</code> does not shadow <code>/items/{id:long}</code>: long values that are not int values still match the second route
+ * @param ambiguous True if the precedence between the two routes is decided by the definition of their constraints
+ *                  rather than by their specificity, e.g. <code>/files/{name:[a-z]+}</code> and <code>/files/{name:[0-9a-f]+}</code>
+ * @param <T> The type of {@link HttpRoute}
+ */
+public record RouteOverlap<T extends HttpRoute>(@NotNull T preferredRoute, @NotNull T otherRoute, boolean shadowing, boolean ambiguous) {
+}
@@ -0,0 +1,43 @@
+package com.coreoz.http.routes.router.analysis;
+
+import com.coreoz.http.routes.router.HttpRoute;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The result of {@link RoutesAnalyzer}: the pairs of routes that match common request paths
+ * @param overlaps The overlapping routes, each pair being reported once
+ * @param <T> The type of {@link HttpRoute}
+ */
+public record RoutesAnalysis<T extends HttpRoute>(@NotNull List<RouteOverlap<T>> overlaps) {
+    /**
+     * Returns the routes that can never be returned by the router, because another route matches all their request paths
+     */
+    public @NotNull List<T> shadowedRoutes() {
+        Set<T> shadowedRoutes = new LinkedHashSet<>();
+        for (RouteOverlap<T> overlap : overlaps) {
+            if (overlap.shadowing()) {
+                shadowedRoutes.add(overlap.otherRoute());
+            }
+        }
+        return new ArrayList<>(shadowedRoutes);
+    }
+
+    /**
+     * Returns the overlaps which precedence is decided by the definition of the constraints, see {@link RouteOverlap#ambiguous()}
+     */
+    public @NotNull List<RouteOverlap<T>> ambiguousOverlaps() {
+        return overlaps.stream().filter(RouteOverlap::ambiguous).toList();
+    }
+
+    /**
+     * Returns true if no route overlaps another route
+     */
+    public boolean isEmpty() {
+        return overlaps.isEmpty();
+    }
+}
@@ -0,0 +1,239 @@
+package com.coreoz.http.routes.router.analysis;
+
+import com.coreoz.http.routes.parsing.PatternConstraint;
+import com.coreoz.http.routes.router.HttpRoute;
+import com.coreoz.http.routes.router.index.IndexRouteLeaf;
+import com.coreoz.http.routes.router.index.IndexedRoutes;
+import com.coreoz.http.routes.router.index.SearchRouteIndexer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Find the routes that match common request paths, see {@link RouteOverlap}.<br>
+ * <br>
+ * Paths are never compared by pairs: the index tree is walked once, and at each node, the children that can match the same segment
+ * are walked together, e.g. the static segment <code>me</code> and the pattern <code>{id}</code>.
+ * Two routes overlap if they end at nodes reached together. Segments are compared using the constraints:
+ * a static segment is matched by a constraint if the constraint accepts it, and two constraints can match the same segment
+ * if {@link PatternConstraint#mayOverlap(PatternConstraint)}. So the analysis time depends on the size of the index
+ * and on the number of overlaps found, not on the square of the number of routes.<br>
+ * <br>
+ * A route shadows another route if, from the segment where their paths diverge, each segment of the preferred route
+ * covers the segment of the other route: a pattern covers any segment, a constraint covers the static segments it accepts
+ * and the constraints it covers, see {@link PatternConstraint#covers(PatternConstraint)}.
+ * The verification is made route by route: a route that is shadowed only by several routes together is not reported as shadowed.
+ */
+public class RoutesAnalyzer {
+    /**
+     * Analyze a route table: the routes are indexed, then the index is analyzed.
+     * Routes with the same HTTP method and the same generic path are reported as the first route shadowing the other ones.
+     * @throws IllegalArgumentException If a route has a catch-all pattern that is not its last segment
+     */
+    public static <T extends HttpRoute> @NotNull RoutesAnalysis<T> analyze(@NotNull Iterable<T> routes) {
+        Map<String, IndexedRoutes<T>> indexedRoutes = new HashMap<>();
+        List<RouteOverlap<T>> overlaps = new ArrayList<>();
+        for (T route : routes) {
+            T indexedRoute = SearchRouteIndexer.addRouteToIndex(indexedRoutes, route).httpRoute();
+            if (indexedRoute != route) {
+                overlaps.add(new RouteOverlap<>(indexedRoute, route, true, false));
+            }
+        }
+        analyzeIndex(indexedRoutes, overlaps);
+        return new RoutesAnalysis<>(overlaps);
+    }
+
+    /**
+     * Analyze a routes index
+     * @throws IllegalArgumentException If the index is compressed, see {@link SearchRouteIndexer#compressIndex(Map)}
+     */
+    public static <T extends HttpRoute> @NotNull RoutesAnalysis<T> analyze(@NotNull Map<String, IndexedRoutes<T>> indexedRoutes) {
+        List<RouteOverlap<T>> overlaps = new ArrayList<>();
+        analyzeIndex(indexedRoutes, overlaps);
+        return new RoutesAnalysis<>(overlaps);
+    }
+
+    private static <T extends HttpRoute> void analyzeIndex(
+        @NotNull Map<String, IndexedRoutes<T>> indexedRoutes, @NotNull List<RouteOverlap<T>> overlaps
+    ) {
+        for (IndexedRoutes<T> rootIndex : indexedRoutes.values()) {
+            analyzeNode(rootIndex, overlaps);
+        }
+    }
+
+    /**
+     * Compare the children of a node that can match the same segment, in the search order, then analyze each child
+     */
+    private static <T extends HttpRoute> void analyzeNode(@NotNull IndexedRoutes<T> node, @NotNull List<RouteOverlap<T>> overlaps) {
+        verifyNotCompressed(node);
+        List<IndexedRoutes<T>> constrainedPatterns = constrainedPatterns(node);
+        IndexedRoutes<T> pattern = node.getPattern();
+        for (Map.Entry<String, IndexedRoutes<T>> segment : node.getSegments().entrySet()) {
+            String name = segment.getKey();
+            for (IndexedRoutes<T> constrainedPattern : constrainedPatterns) {
+                if (constrainedPattern.getConstraint().matches(name, 0, name.length())) {
+                    intersect(segment.getValue(), constrainedPattern, false, false, overlaps);
+                }
+            }
+            if (pattern != null) {
+                intersect(segment.getValue(), pattern, false, false, overlaps);
+            }
+        }
+        for (int i = 0; i < constrainedPatterns.size(); i++) {
+            PatternConstraint constraint = constrainedPatterns.get(i).getConstraint();
+            for (int j = i + 1; j < constrainedPatterns.size(); j++) {
+                PatternConstraint otherConstraint = constrainedPatterns.get(j).getConstraint();
+                if (constraint.mayOverlap(otherConstraint)) {
+                    intersect(
+                        constrainedPatterns.get(i), constrainedPatterns.get(j),
+                        constraint.covers(otherConstraint), isAmbiguous(constraint, otherConstraint), overlaps
+                    );
+                }
+            }
+            if (pattern != null) {
+                intersect(constrainedPatterns.get(i), pattern, constraint.covers(null), false, overlaps);
+            }
+        }
+        if (node.getCatchAll() != null) {
+            // the catch-all pattern is tried last, after all the routes having more segments
+            T catchAllRoute = node.getCatchAll().getLastRoute().httpRoute();
+            forEachChildRoute(node, false, route -> overlaps.add(new RouteOverlap<>(route, catchAllRoute, false, false)));
+        }
+
+        for (IndexedRoutes<T> segment : node.getSegments().values()) {
+            analyzeNode(segment, overlaps);
+        }
+        for (IndexedRoutes<T> constrainedPattern : constrainedPatterns) {
+            analyzeNode(constrainedPattern, overlaps);
+        }
+        if (pattern != null) {
+            analyzeNode(pattern, overlaps);
+        }
+    }
+
+    /**
+     * Walk together two nodes that match the same segments
+     * @param preferred The node that is searched first
+     * @param other The node that is searched after <code>preferred</code>
+     * @param covered True if the segments matched by <code>other</code> are all matched by <code>preferred</code>
+     * @param ambiguous True if the precedence of <code>preferred</code> over <code>other</code> is decided by the definition of their constraints
+     */
+    private static <T extends HttpRoute> void intersect(
+        @NotNull IndexedRoutes<T> preferred, @NotNull IndexedRoutes<T> other, boolean covered, boolean ambiguous, @NotNull List<RouteOverlap<T>> overlaps
+    ) {
+        verifyNotCompressed(preferred);
+        verifyNotCompressed(other);
+        if (preferred.getLastRoute() != null && other.getLastRoute() != null) {
+            overlaps.add(new RouteOverlap<>(preferred.getLastRoute().httpRoute(), other.getLastRoute().httpRoute(), covered, ambiguous));
+        }
+        List<IndexedRoutes<T>> otherConstrainedPatterns = constrainedPatterns(other);
+        for (Map.Entry<String, IndexedRoutes<T>> segment : preferred.getSegments().entrySet()) {
+            String name = segment.getKey();
+            IndexedRoutes<T> otherSegment = other.getSegments().get(name);
+            if (otherSegment != null) {
+                intersect(segment.getValue(), otherSegment, covered, ambiguous, overlaps);
+            }
+            for (IndexedRoutes<T> otherConstrainedPattern : otherConstrainedPatterns) {
+                if (otherConstrainedPattern.getConstraint().matches(name, 0, name.length())) {
+                    intersect(segment.getValue(), otherConstrainedPattern, false, ambiguous, overlaps);
+                }
+            }
+            if (other.getPattern() != null) {
+                intersect(segment.getValue(), other.getPattern(), false, ambiguous, overlaps);
+            }
+        }
+        for (IndexedRoutes<T> constrainedPattern : constrainedPatterns(preferred)) {
+            PatternConstraint constraint = constrainedPattern.getConstraint();
+            for (Map.Entry<String, IndexedRoutes<T>> otherSegment : other.getSegments().entrySet()) {
+                String name = otherSegment.getKey();
+                if (constraint.matches(name, 0, name.length())) {
+                    intersect(constrainedPattern, otherSegment.getValue(), covered, ambiguous, overlaps);
+                }
+            }
+            for (IndexedRoutes<T> otherConstrainedPattern : otherConstrainedPatterns) {
+                PatternConstraint otherConstraint = otherConstrainedPattern.getConstraint();
+                if (constraint.mayOverlap(otherConstraint)) {
+                    intersect(constrainedPattern, otherConstrainedPattern, covered && constraint.covers(otherConstraint), ambiguous, overlaps);
+                }
+            }
+            if (other.getPattern() != null) {
+                intersect(constrainedPattern, other.getPattern(), covered && constraint.covers(null), ambiguous, overlaps);
+            }
+        }
+        IndexedRoutes<T> pattern = preferred.getPattern();
+        if (pattern != null) {
+            for (IndexedRoutes<T> otherSegment : other.getSegments().values()) {
+                intersect(pattern, otherSegment, covered, ambiguous, overlaps);
+            }
+            for (IndexedRoutes<T> otherConstrainedPattern : otherConstrainedPatterns) {
+                intersect(pattern, otherConstrainedPattern, covered, ambiguous, overlaps);
+            }
+            if (other.getPattern() != null) {
+                intersect(pattern, other.getPattern(), covered, ambiguous, overlaps);
+            }
+        }
+        if (preferred.getCatchAll() != null) {
+            // a catch-all pattern covers all the remaining segments
+            T catchAllRoute = preferred.getCatchAll().getLastRoute().httpRoute();
+            forEachChildRoute(other, true, route -> overlaps.add(new RouteOverlap<>(catchAllRoute, route, covered, ambiguous)));
+        }
+        if (other.getCatchAll() != null) {
+            T otherCatchAllRoute = other.getCatchAll().getLastRoute().httpRoute();
+            forEachChildRoute(preferred, false, route -> overlaps.add(new RouteOverlap<>(route, otherCatchAllRoute, false, ambiguous)));
+        }
+    }
+
+    /**
+     * The precedence between two constraints of the same node is decided by their definitions if they have the same type,
+     * e.g. two regular expressions, or if they are templates with the same number of literal characters
+     */
+    private static boolean isAmbiguous(@NotNull PatternConstraint constraint, @NotNull PatternConstraint otherConstraint) {
+        if (constraint.type() != otherConstraint.type()) {
+            return false;
+        }
+        return constraint.type() != PatternConstraint.Type.TEMPLATE
+            || constraint.template().literalsLength() == otherConstraint.template().literalsLength();
+    }
+
+    /**
+     * Call the consumer for each route of the children of a node, so for the routes having more segments than the node
+     */
+    private static <T extends HttpRoute> void forEachChildRoute(
+        @NotNull IndexedRoutes<T> node, boolean includeCatchAll, @NotNull Consumer<T> routeConsumer
+    ) {
+        for (IndexedRoutes<T> segment : node.getSegments().values()) {
+            forEachRoute(segment, routeConsumer);
+        }
+        for (IndexedRoutes<T> constrainedPattern : constrainedPatterns(node)) {
+            forEachRoute(constrainedPattern, routeConsumer);
+        }
+        if (node.getPattern() != null) {
+            forEachRoute(node.getPattern(), routeConsumer);
+        }
+        if (includeCatchAll && node.getCatchAll() != null) {
+            routeConsumer.accept(node.getCatchAll().getLastRoute().httpRoute());
+        }
+    }
+
+    private static <T extends HttpRoute> void forEachRoute(@NotNull IndexedRoutes<T> node, @NotNull Consumer<T> routeConsumer) {
+        IndexRouteLeaf<T> lastRoute = node.getLastRoute();
+        if (lastRoute != null) {
+            routeConsumer.accept(lastRoute.httpRoute());
+        }
+        forEachChildRoute(node, true, routeConsumer);
+    }
+
+    private static <T extends HttpRoute> @NotNull List<IndexedRoutes<T>> constrainedPatterns(@NotNull IndexedRoutes<T> node) {
+        return node.getConstrainedPatterns() == null ? List.of() : node.getConstrainedPatterns();
+    }
+
+    private static void verifyNotCompressed(@NotNull IndexedRoutes<?> node) {
+        if (node.getCompressedSegments() != null) {
+            throw new IllegalArgumentException("A compressed routes index cannot be analyzed, the routes must be analyzed before the index is compressed");
+        }
+    }
+}
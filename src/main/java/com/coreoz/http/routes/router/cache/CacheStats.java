@@ -0,0 +1,17 @@
+package com.coreoz.http.routes.router.cache;
+
+/**
+ * Statistics of a {@link RouteSearchCache}
+ * @param hitCount The number of searches that returned a cached result
+ * @param missCount The number of searches that were made in the router because no result was cached
+ * @param evictionCount The number of cached results that were removed to store other results
+ */
+public record CacheStats(long hitCount, long missCount, long evictionCount) {
+    /**
+     * Returns the ratio of searches that returned a cached result, or 1 if no search has been made
+     */
+    public double hitRate() {
+        long searchCount = hitCount + missCount;
+        return searchCount == 0 ? 1 : (double) hitCount / searchCount;
+    }
+}
@@ -0,0 +1,77 @@
+package com.coreoz.http.routes.router.cache;
+
+/**
+ * Estimate how often keys have been recently searched, it is used by {@link RouteSearchCache}
+ * to decide whether a new key should replace a cached key: this is the TinyLFU admission policy.<br>
+ * <br>
+ * This is a count-min sketch: each key increments 4 counters chosen using its hash,
+ * and the frequency of a key is the lowest of its counters.
+ * Counters are limited to 15 and are divided by 2 after a number of increments proportional to the cache size,
+ * so old accesses are forgotten.<br>
+ * <br>
+ * This class is not thread safe.
+ */
+class FrequencySketch {
+    private static final int MAX_FREQUENCY = 15;
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L,
+    };
+
+    private final byte[] counters;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param maximumSize The maximum number of keys of the cache
+     */
+    FrequencySketch(int maximumSize) {
+        int countersCount = Integer.highestOneBit(Math.max(16, maximumSize) - 1) << 5;
+        this.counters = new byte[countersCount];
+        this.mask = countersCount - 1;
+        this.sampleSize = Math.max(16, maximumSize) * 10;
+    }
+
+    void increment(int hash) {
+        int spreadHash = spreadHash(hash);
+        boolean added = false;
+        for (long seed : SEEDS) {
+            int counterIndex = counterIndex(spreadHash, seed);
+            if (counters[counterIndex] < MAX_FREQUENCY) {
+                counters[counterIndex]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(int hash) {
+        int spreadHash = spreadHash(hash);
+        int frequency = MAX_FREQUENCY;
+        for (long seed : SEEDS) {
+            frequency = Math.min(frequency, counters[counterIndex(spreadHash, seed)]);
+        }
+        return frequency;
+    }
+
+    private static int spreadHash(int hash) {
+        // the hashes of similar paths differ only by their low bits
+        int spreadHash = hash * 0x9e3779b9;
+        return spreadHash ^ spreadHash >>> 16;
+    }
+
+    private int counterIndex(int spreadHash, long seed) {
+        long counterHash = (spreadHash + seed) * seed;
+        counterHash += counterHash >>> 32;
+        return (int) counterHash & mask;
+    }
+
+    private void reset() {
+        for (int counterIndex = 0; counterIndex < counters.length; counterIndex++) {
+            counters[counterIndex] >>>= 1;
+        }
+        additions >>>= 1;
+    }
+}
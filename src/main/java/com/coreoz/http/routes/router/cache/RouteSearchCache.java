@@ -0,0 +1,183 @@
+package com.coreoz.http.routes.router.cache;
+
+import com.coreoz.http.routes.router.HttpRoute;
+import com.coreoz.http.routes.router.search.RawMatchingRoute;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+/**
+ * A bounded cache of route search results by HTTP method and path.
+ * Empty results are cached too, so repeated searches of a non-existing path are not made in the router.<br>
+ * <br>
+ * Eviction uses the CLOCK policy: cached results are stored in a ring, and a hit marks the result as referenced.
+ * When the cache is full, the clock hand moves along the ring, clears referenced marks, and stops at the first result
+ * that has not been referenced since the last pass: this result is the eviction candidate.<br>
+ * Admission uses the TinyLFU policy: the new result replaces the eviction candidate only if its key has been searched
+ * more often recently than the key of the candidate, see {@link FrequencySketch}.
+ * To keep hits lock-free, the frequency of a cached key is increased when the clock hand clears its referenced mark,
+ * so hits are sampled once per clock pass.
+ * So a flood of searches of distinct paths does not evict the frequently searched paths.<br>
+ * <br>
+ * Each result is stored with the generation of the router, see {@link #search(String, String, long, BiFunction)}:
+ * a result computed for another generation is never returned.<br>
+ * <br>
+ * This class is thread safe. Hits do not take any lock. Misses store the result only if no other thread is storing a result,
+ * so searches never wait for each other.
+ * @param <T> The type of {@link HttpRoute} stored in the router
+ */
+public class RouteSearchCache<T extends HttpRoute> {
+    private final @NotNull Map<CacheKey, CacheEntry<T>> entries;
+    private final @NotNull CacheEntry<T> @NotNull [] clock;
+    private final @NotNull FrequencySketch sketch;
+    private final @NotNull ReentrantLock writeLock = new ReentrantLock();
+    private final @NotNull LongAdder hitCount = new LongAdder();
+    private final @NotNull LongAdder missCount = new LongAdder();
+    private final @NotNull LongAdder evictionCount = new LongAdder();
+    // fields guarded by writeLock
+    private int clockHand;
+    private int size;
+    private long entriesGeneration;
+
+    /**
+     * @param maximumSize The maximum number of cached results
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public RouteSearchCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive: " + maximumSize);
+        }
+        this.entries = new ConcurrentHashMap<>(maximumSize * 2);
+        this.clock = new CacheEntry[maximumSize];
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Returns the cached search result if there is one for the generation, else search the route and try to cache the result.
+     * @param method The HTTP method, like GET or POST
+     * @param path The searched path, like /users
+     * @param generation The generation of the router, it must be read before the search is made
+     * @param search The function that searches a route for a method and a path
+     * @return The optional matching route
+     */
+    public @NotNull Optional<RawMatchingRoute<T>> search(
+        @NotNull String method,
+        @NotNull String path,
+        long generation,
+        @NotNull BiFunction<String, String, Optional<RawMatchingRoute<T>>> search
+    ) {
+        CacheKey key = new CacheKey(method, path);
+        CacheEntry<T> entry = entries.get(key);
+        if (entry != null && entry.generation == generation) {
+            hitCount.increment();
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.result;
+        }
+        missCount.increment();
+        Optional<RawMatchingRoute<T>> result = search.apply(method, path);
+        if (writeLock.tryLock()) {
+            try {
+                store(key, result, generation);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the hit, miss and eviction counts since the cache creation
+     */
+    public @NotNull CacheStats stats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum());
+    }
+
+    /**
+     * Returns the number of cached results
+     */
+    public int size() {
+        writeLock.lock();
+        try {
+            return size;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void store(@NotNull CacheKey key, @NotNull Optional<RawMatchingRoute<T>> result, long generation) {
+        if (generation < entriesGeneration) {
+            // the result has been computed before a route has been added
+            return;
+        }
+        if (generation > entriesGeneration) {
+            // routes have been added: all cached results are outdated
+            entries.clear();
+            Arrays.fill(clock, null);
+            size = 0;
+            clockHand = 0;
+            entriesGeneration = generation;
+        }
+
+        int keyHash = key.hashCode();
+        sketch.increment(keyHash);
+        if (entries.containsKey(key)) {
+            // the result has been stored by another thread
+            return;
+        }
+
+        int clockIndex;
+        if (size < clock.length) {
+            clockIndex = size++;
+        } else {
+            CacheEntry<T> victim = findVictim();
+            if (sketch.frequency(keyHash) <= sketch.frequency(victim.key.hashCode())) {
+                return;
+            }
+            entries.remove(victim.key);
+            evictionCount.increment();
+            clockIndex = victim.clockIndex;
+        }
+        CacheEntry<T> entry = new CacheEntry<>(key, result, generation, clockIndex);
+        clock[clockIndex] = entry;
+        entries.put(key, entry);
+    }
+
+    private @NotNull CacheEntry<T> findVictim() {
+        while (true) {
+            CacheEntry<T> entry = clock[clockHand];
+            clockHand = clockHand + 1 == clock.length ? 0 : clockHand + 1;
+            if (!entry.referenced) {
+                return entry;
+            }
+            entry.referenced = false;
+            sketch.increment(entry.key.hashCode());
+        }
+    }
+
+    private record CacheKey(@NotNull String method, @NotNull String path) {
+    }
+
+    private static final class CacheEntry<T extends HttpRoute> {
+        private final @NotNull CacheKey key;
+        private final @NotNull Optional<RawMatchingRoute<T>> result;
+        private final long generation;
+        private final int clockIndex;
+        // written without lock by searching threads
+        private volatile boolean referenced;
+
+        private CacheEntry(@NotNull CacheKey key, @NotNull Optional<RawMatchingRoute<T>> result, long generation, int clockIndex) {
+            this.key = key;
+            this.result = result;
+            this.generation = generation;
+            this.clockIndex = clockIndex;
+        }
+    }
+}
@@ -0,0 +1,551 @@
+package com.coreoz.http.routes.router.compiled;
+
+import com.coreoz.http.routes.parsing.PatternConstraint;
+import com.coreoz.http.routes.router.HttpRoute;
+import com.coreoz.http.routes.router.index.IndexRouteLeaf;
+import com.coreoz.http.routes.router.index.IndexedRoutes;
+import com.coreoz.http.routes.router.search.AsciiBytesSequence;
+import com.coreoz.http.routes.router.search.PathNormalization;
+import com.coreoz.http.routes.router.search.RawMatchingRoute;
+import com.coreoz.http.routes.router.search.RouteMatcher;
+import com.coreoz.http.routes.router.search.SearchRouteEngine;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An immutable router compiled from a routes index made of {@link IndexedRoutes}.<br>
+ * <br>
+ * The index trees of all HTTP methods are merged in a single tree indexed by path:
+ * each node contains a bitmask of the HTTP methods having a route ending at this node,
+ * and the routes of the node are stored in a compact block of leaves indexed by method.
+ * Standard HTTP methods always use the same slots, other methods use the next slots.
+ * So a single traversal can find the route for the HTTP method, or the methods allowed for the path,
+ * see {@link #resolve(String, CharSequence, RouteMatcher)}.<br>
+ * <br>
+ * The index tree is flattened in a few arrays:
+ * <pre>
+ * - nodes: [first leaf index, methods bitmask, pattern child node, first static edge, static edges count, hash table offset,
+ *   constrained edges offset, catch-all child node] for each node
+ * - edges: [segment hash, segment name offset, segment name length, child node] for each static segment
+ * - hash tables: open addressing tables of edge indexes, for nodes having many static segments
+ * - constrained edges: [edges count, then constraint index, child node for each edge] for nodes having constrained pattern children
+ * - keys: the characters of all the static segment names
+ * - constraints: the distinct pattern constraints
+ * - leaves: the routes
+ * </pre>
+ * So a search reads int arrays instead of following pointers between objects and hash maps.
+ * The static segments of a node are sorted by hash: they are scanned linearly for small nodes,
+ * and wider nodes have their own hash table.<br>
+ * <br>
+ * Matching rules are exactly the same as {@link SearchRouteEngine}: for a given method,
+ * nodes that do not have any route for this method are skipped.
+ * Since a compiled router cannot be modified, it can be shared between threads without synchronization.
+ * Request paths are normalized during searches following the {@link PathNormalization} of the router,
+ * see {@link #withPathNormalization(PathNormalization)}.
+ * @param <T> The type of {@link HttpRoute} stored in the router
+ */
+public final class CompiledRouter<T extends HttpRoute> {
+    static final int NONE = -1;
+    static final int ROOT_NODE = 0;
+
+    static final int NODE_STRIDE = 8;
+    static final int NODE_LEAVES_START = 0;
+    static final int NODE_METHODS = 1;
+    static final int NODE_PATTERN = 2;
+    static final int NODE_EDGES_START = 3;
+    static final int NODE_EDGES_COUNT = 4;
+    static final int NODE_HASH_TABLE = 5;
+    static final int NODE_CONSTRAINED_EDGES = 6;
+    static final int NODE_CATCH_ALL = 7;
+
+    static final int EDGE_STRIDE = 4;
+    static final int EDGE_HASH = 0;
+    static final int EDGE_KEY_START = 1;
+    static final int EDGE_KEY_LENGTH = 2;
+    static final int EDGE_CHILD = 3;
+
+    static final int LINEAR_SCAN_MAX_EDGES = 8;
+
+    /**
+     * Standard HTTP methods, their slot is their index in this list
+     */
+    static final List<String> STANDARD_METHODS = List.of("GET", "HEAD", "POST", "PUT", "DELETE", "PATCH", "OPTIONS", "TRACE", "CONNECT");
+    static final int MAX_METHODS = Integer.SIZE;
+    private static final int GET_METHOD_BIT = 1;
+    private static final int HEAD_METHOD_BIT = 1 << 1;
+
+    private final @NotNull Map<String, Integer> customMethodSlots;
+    // package-private for CompiledRouterSnapshot
+    final @NotNull String @NotNull [] methodBySlot;
+    final int @NotNull [] nodes;
+    final int @NotNull [] edges;
+    final int @NotNull [] hashTables;
+    final int @NotNull [] constrainedEdges;
+    final char @NotNull [] keys;
+    final @NotNull PatternConstraint @NotNull [] constraints;
+    final IndexRouteLeaf<T> @NotNull [] leaves;
+    // allowed methods sets of each methods bitmask used by a node, sorted by bitmask
+    private final int @NotNull [] allowedMethodsMasks;
+    private final @NotNull Set<String> @NotNull [] allowedMethodsSets;
+    private final @NotNull PathNormalization pathNormalization;
+
+    CompiledRouter(
+        @NotNull Map<String, Integer> customMethodSlots,
+        @NotNull String @NotNull [] methodBySlot,
+        int @NotNull [] nodes,
+        int @NotNull [] edges,
+        int @NotNull [] hashTables,
+        int @NotNull [] constrainedEdges,
+        char @NotNull [] keys,
+        @NotNull PatternConstraint @NotNull [] constraints,
+        IndexRouteLeaf<T> @NotNull [] leaves
+    ) {
+        this.customMethodSlots = customMethodSlots;
+        this.methodBySlot = methodBySlot;
+        this.nodes = nodes;
+        this.edges = edges;
+        this.hashTables = hashTables;
+        this.constrainedEdges = constrainedEdges;
+        this.keys = keys;
+        this.constraints = constraints;
+        this.leaves = leaves;
+
+        TreeMap<Integer, Set<String>> allowedMethodsByMask = new TreeMap<>();
+        for (int nodeOffset = 0; nodeOffset < nodes.length; nodeOffset += NODE_STRIDE) {
+            allowedMethodsByMask.computeIfAbsent(nodes[nodeOffset + NODE_METHODS], this::toAllowedMethods);
+        }
+        this.allowedMethodsMasks = allowedMethodsByMask.keySet().stream().mapToInt(Integer::intValue).toArray();
+        @SuppressWarnings("unchecked")
+        Set<String>[] allowedMethodsSets = allowedMethodsByMask.values().toArray(Set[]::new);
+        this.allowedMethodsSets = allowedMethodsSets;
+        this.pathNormalization = PathNormalization.DEFAULT;
+    }
+
+    private CompiledRouter(@NotNull CompiledRouter<T> router, @NotNull PathNormalization pathNormalization) {
+        this.customMethodSlots = router.customMethodSlots;
+        this.methodBySlot = router.methodBySlot;
+        this.nodes = router.nodes;
+        this.edges = router.edges;
+        this.hashTables = router.hashTables;
+        this.constrainedEdges = router.constrainedEdges;
+        this.keys = router.keys;
+        this.constraints = router.constraints;
+        this.leaves = router.leaves;
+        this.allowedMethodsMasks = router.allowedMethodsMasks;
+        this.allowedMethodsSets = router.allowedMethodsSets;
+        this.pathNormalization = pathNormalization;
+    }
+
+    /**
+     * Compile a routes index
+     * @param routesIndex The routes index by HTTP method: <code>{GET: IndexedRoutes, POST: IndexedRoutes, ...}</code>
+     */
+    public static <T extends HttpRoute> @NotNull CompiledRouter<T> compile(@NotNull Map<String, IndexedRoutes<T>> routesIndex) {
+        return CompiledRouterCompiler.compile(routesIndex);
+    }
+
+    /**
+     * Returns a router using the rules to delimit the segments of the searched paths, see {@link PathNormalization}.
+     * The returned router shares the compiled arrays of this router, so this method is cheap.
+     * @param pathNormalization The rules used by the searches of the returned router
+     */
+    public @NotNull CompiledRouter<T> withPathNormalization(@NotNull PathNormalization pathNormalization) {
+        if (pathNormalization.equals(this.pathNormalization)) {
+            return this;
+        }
+        return new CompiledRouter<>(this, pathNormalization);
+    }
+
+    /**
+     * Returns the rules used to delimit the segments of the searched paths
+     */
+    public @NotNull PathNormalization pathNormalization() {
+        return pathNormalization;
+    }
+
+    /**
+     * Search a route in the router
+     * @param method The HTTP method, like GET or POST
+     * @param path The searched path, like /users
+     * @return The optional matching route
+     */
+    public @NotNull Optional<RawMatchingRoute<T>> searchRoute(@NotNull String method, @NotNull String path) {
+        RouteMatcher<T> matcher = new RouteMatcher<>();
+        if (!searchRoute(method, path, matcher)) {
+            return Optional.empty();
+        }
+        return Optional.of(matcher.toRawMatchingRoute());
+    }
+
+    /**
+     * Search a route in the router without allocating objects.
+     * The matcher can be reused for each search, see {@link RouteMatcher} for details.
+     * @param method The HTTP method, like GET or POST
+     * @param path The searched path, like /users
+     * @param matcher The search context, that will contain the matching route if a route is found
+     * @return True if a route has been found, else false
+     */
+    public boolean searchRoute(@NotNull String method, @NotNull CharSequence path, @NotNull RouteMatcher<T> matcher) {
+        matcher.reset(path, pathNormalization);
+        int methodSlot = methodSlot(method);
+        if (methodSlot == NONE) {
+            return false;
+        }
+        int leafIndex = searchLeaf(ROOT_NODE, 0, 1 << methodSlot, matcher);
+        if (leafIndex == NONE) {
+            return false;
+        }
+        matcher.setMatchingRouteLeaf(leaves[leafIndex]);
+        return true;
+    }
+
+    /**
+     * Search a route for a request line read as bytes, without decoding it as a {@link String} and without allocating objects.
+     * The method and the path are read as ASCII bytes, see {@link AsciiBytesSequence}.<br>
+     * <br>
+     * If a route is found, the byte range of a parameter value in the request line can be read from the matcher,
+     * see {@link RouteMatcher#requestBytes()}.
+     * @param request The bytes containing the HTTP method and the path, e.g. a request line like <code>GET /users HTTP/1.1</code>
+     * @param methodOffset The offset of the first byte of the HTTP method
+     * @param methodLength The number of bytes of the HTTP method
+     * @param pathOffset The offset of the first byte of the path
+     * @param pathLength The number of bytes of the path
+     * @param matcher The search context, that will contain the matching route if a route is found
+     * @return True if a route has been found, else false
+     */
+    public boolean searchRoute(
+        byte @NotNull [] request,
+        int methodOffset,
+        int methodLength,
+        int pathOffset,
+        int pathLength,
+        @NotNull RouteMatcher<T> matcher
+    ) {
+        AsciiBytesSequence requestBytes = matcher.requestBytes();
+        String method = requestBytes.wrap(request, methodOffset, methodLength).toMethod();
+        return searchRoute(method, requestBytes.wrap(request, pathOffset, pathLength), matcher);
+    }
+
+    /**
+     * Search a route for a request line read in a buffer, see {@link #searchRoute(byte[], int, int, int, int, RouteMatcher)}.
+     * The position and the limit of the buffer are neither used nor modified.
+     * @param request The buffer containing the HTTP method and the path, it can be a heap buffer or a direct buffer
+     * @param methodOffset The absolute index in the buffer of the first byte of the HTTP method
+     * @param methodLength The number of bytes of the HTTP method
+     * @param pathOffset The absolute index in the buffer of the first byte of the path
+     * @param pathLength The number of bytes of the path
+     * @param matcher The search context, that will contain the matching route if a route is found
+     * @return True if a route has been found, else false
+     */
+    public boolean searchRoute(
+        @NotNull ByteBuffer request,
+        int methodOffset,
+        int methodLength,
+        int pathOffset,
+        int pathLength,
+        @NotNull RouteMatcher<T> matcher
+    ) {
+        AsciiBytesSequence requestBytes = matcher.requestBytes();
+        String method = requestBytes.wrap(request, methodOffset, methodLength).toMethod();
+        return searchRoute(method, requestBytes.wrap(request, pathOffset, pathLength), matcher);
+    }
+
+    /**
+     * Search a route in the router, and if no route is found for the HTTP method,
+     * find the HTTP methods for which a route matches the path. This is done in a single traversal of the router.<br>
+     * <br>
+     * Resolution rules:<br>
+     * - If a route matches the path for the method, the result is {@link RouteResolution#FOUND}
+     * and the route is available in the matcher, like with {@link #searchRoute(String, CharSequence, RouteMatcher)}<br>
+     * - Else for a <code>HEAD</code> request, if a <code>GET</code> route matches the path,
+     * the result is {@link RouteResolution#FOUND} and the matcher contains the <code>GET</code> route<br>
+     * - Else if routes match the path for other methods, the result is {@link RouteResolution#METHOD_NOT_ALLOWED},
+     * and the methods are available using {@link RouteMatcher#allowedMethods()}, e.g. to write the <code>Allow</code> header
+     * or to answer a CORS preflight <code>OPTIONS</code> request.
+     * <code>HEAD</code> is part of the allowed methods when <code>GET</code> is.<br>
+     * - Else the result is {@link RouteResolution#NOT_FOUND}<br>
+     * <br>
+     * Allowed methods sets are created during the compilation, so no object is allocated
+     * except when several routes with different methods sets match the path.
+     * @param method The HTTP method, like GET or POST
+     * @param path The searched path, like /users
+     * @param matcher The search context, that will contain the matching route or the allowed methods
+     */
+    public @NotNull RouteResolution resolve(@NotNull String method, @NotNull CharSequence path, @NotNull RouteMatcher<T> matcher) {
+        matcher.reset(path, pathNormalization);
+        int methodSlot = methodSlot(method);
+        int methodBit = methodSlot == NONE ? 0 : 1 << methodSlot;
+        int fallbackMethodBit = methodBit == HEAD_METHOD_BIT ? GET_METHOD_BIT : 0;
+        long resolution = resolveLeaf(ROOT_NODE, 0, methodBit, fallbackMethodBit, matcher);
+        if (resolution >= 0) {
+            matcher.setMatchingRouteLeaf(leaves[(int) resolution]);
+            return RouteResolution.FOUND;
+        }
+        if (matcher.matchingRouteLeaf() != null) {
+            // HEAD fallback to GET
+            return RouteResolution.FOUND;
+        }
+        int allowedMethodsMask = (int) (-1 - resolution);
+        if (allowedMethodsMask == 0) {
+            return RouteResolution.NOT_FOUND;
+        }
+        matcher.setAllowedMethods(allowedMethods(allowedMethodsMask));
+        return RouteResolution.METHOD_NOT_ALLOWED;
+    }
+
+    /**
+     * Depth-first search, the static segment is always tried first, then the constrained pattern segments, then the pattern segment,
+     * then the catch-all pattern that matches all the remaining segments
+     * @param methodBit The bit of the searched method in the node methods bitmask
+     * @return The leaf index, or {@link #NONE} if no route matches in this node
+     */
+    private int searchLeaf(int node, int segmentIndex, int methodBit, @NotNull RouteMatcher<T> matcher) {
+        int nodeOffset = node * NODE_STRIDE;
+        if (segmentIndex == matcher.segmentsCount()) {
+            return leafIndex(nodeOffset, methodBit);
+        }
+        int staticChild = findStaticChild(nodeOffset, matcher, segmentIndex + 1);
+        if (staticChild != NONE) {
+            int leafIndex = searchLeaf(staticChild, segmentIndex + 1, methodBit, matcher);
+            if (leafIndex != NONE) {
+                return leafIndex;
+            }
+        }
+        int constrainedEdgesOffset = nodes[nodeOffset + NODE_CONSTRAINED_EDGES];
+        if (constrainedEdgesOffset != NONE) {
+            int constrainedEdgesEnd = constrainedEdgesOffset + 1 + constrainedEdges[constrainedEdgesOffset] * 2;
+            for (int edgeOffset = constrainedEdgesOffset + 1; edgeOffset < constrainedEdgesEnd; edgeOffset += 2) {
+                if (matchesConstraint(constrainedEdges[edgeOffset], matcher, segmentIndex + 1)) {
+                    int leafIndex = searchLeaf(constrainedEdges[edgeOffset + 1], segmentIndex + 1, methodBit, matcher);
+                    if (leafIndex != NONE) {
+                        return leafIndex;
+                    }
+                }
+            }
+        }
+        int patternChild = nodes[nodeOffset + NODE_PATTERN];
+        if (patternChild != NONE) {
+            int leafIndex = searchLeaf(patternChild, segmentIndex + 1, methodBit, matcher);
+            if (leafIndex != NONE) {
+                return leafIndex;
+            }
+        }
+        int catchAllChild = nodes[nodeOffset + NODE_CATCH_ALL];
+        if (catchAllChild != NONE) {
+            return leafIndex(catchAllChild * NODE_STRIDE, methodBit);
+        }
+        return NONE;
+    }
+
+    /**
+     * Same depth-first search as {@link #searchLeaf(int, int, int, RouteMatcher)},
+     * but the methods of the nodes matching the path are collected while no route is found for the searched method.
+     * @param fallbackMethodBit The bit of the method for which the first matching route is put in the matcher, or 0
+     * @return The leaf index if a route is found, else a negative number: <code>-1 - methods bitmask of the matching nodes</code>
+     */
+    private long resolveLeaf(int node, int segmentIndex, int methodBit, int fallbackMethodBit, @NotNull RouteMatcher<T> matcher) {
+        int nodeOffset = node * NODE_STRIDE;
+        if (segmentIndex == matcher.segmentsCount()) {
+            return resolveNodeLeaf(nodeOffset, methodBit, fallbackMethodBit, matcher);
+        }
+        long allowedMethodsMask = 0;
+        int staticChild = findStaticChild(nodeOffset, matcher, segmentIndex + 1);
+        if (staticChild != NONE) {
+            long resolution = resolveLeaf(staticChild, segmentIndex + 1, methodBit, fallbackMethodBit, matcher);
+            if (resolution >= 0) {
+                return resolution;
+            }
+            allowedMethodsMask = -1 - resolution;
+        }
+        int constrainedEdgesOffset = nodes[nodeOffset + NODE_CONSTRAINED_EDGES];
+        if (constrainedEdgesOffset != NONE) {
+            int constrainedEdgesEnd = constrainedEdgesOffset + 1 + constrainedEdges[constrainedEdgesOffset] * 2;
+            for (int edgeOffset = constrainedEdgesOffset + 1; edgeOffset < constrainedEdgesEnd; edgeOffset += 2) {
+                if (matchesConstraint(constrainedEdges[edgeOffset], matcher, segmentIndex + 1)) {
+                    long resolution = resolveLeaf(constrainedEdges[edgeOffset + 1], segmentIndex + 1, methodBit, fallbackMethodBit, matcher);
+                    if (resolution >= 0) {
+                        return resolution;
+                    }
+                    allowedMethodsMask |= -1 - resolution;
+                }
+            }
+        }
+        int patternChild = nodes[nodeOffset + NODE_PATTERN];
+        if (patternChild != NONE) {
+            long resolution = resolveLeaf(patternChild, segmentIndex + 1, methodBit, fallbackMethodBit, matcher);
+            if (resolution >= 0) {
+                return resolution;
+            }
+            allowedMethodsMask |= -1 - resolution;
+        }
+        int catchAllChild = nodes[nodeOffset + NODE_CATCH_ALL];
+        if (catchAllChild != NONE) {
+            long resolution = resolveNodeLeaf(catchAllChild * NODE_STRIDE, methodBit, fallbackMethodBit, matcher);
+            if (resolution >= 0) {
+                return resolution;
+            }
+            allowedMethodsMask |= -1 - resolution;
+        }
+        return -1 - allowedMethodsMask;
+    }
+
+    /**
+     * Resolve the route of a node matching the whole request path,
+     * see {@link #resolveLeaf(int, int, int, int, RouteMatcher)} for the returned value
+     */
+    private long resolveNodeLeaf(int nodeOffset, int methodBit, int fallbackMethodBit, @NotNull RouteMatcher<T> matcher) {
+        int leafIndex = leafIndex(nodeOffset, methodBit);
+        if (leafIndex != NONE) {
+            return leafIndex;
+        }
+        int fallbackLeafIndex = leafIndex(nodeOffset, fallbackMethodBit);
+        if (fallbackLeafIndex != NONE && matcher.matchingRouteLeaf() == null) {
+            matcher.setMatchingRouteLeaf(leaves[fallbackLeafIndex]);
+        }
+        return -1L - Integer.toUnsignedLong(nodes[nodeOffset + NODE_METHODS]);
+    }
+
+    /**
+     * Returns the index of the leaf of a node for a method, or {@link #NONE} if the node has no route for this method
+     */
+    private int leafIndex(int nodeOffset, int methodBit) {
+        int nodeMethods = nodes[nodeOffset + NODE_METHODS];
+        if ((nodeMethods & methodBit) == 0) {
+            return NONE;
+        }
+        // the leaves of a node are ordered by method slot
+        return nodes[nodeOffset + NODE_LEAVES_START] + Integer.bitCount(nodeMethods & (methodBit - 1));
+    }
+
+    private int methodSlot(@NotNull String method) {
+        int standardMethodSlot = standardMethodSlot(method);
+        if (standardMethodSlot != NONE) {
+            return standardMethodSlot;
+        }
+        Integer customMethodSlot = customMethodSlots.get(method);
+        return customMethodSlot == null ? NONE : customMethodSlot;
+    }
+
+    static int standardMethodSlot(@NotNull String method) {
+        return switch (method) {
+            case "GET" -> 0;
+            case "HEAD" -> 1;
+            case "POST" -> 2;
+            case "PUT" -> 3;
+            case "DELETE" -> 4;
+            case "PATCH" -> 5;
+            case "OPTIONS" -> 6;
+            case "TRACE" -> 7;
+            case "CONNECT" -> 8;
+            default -> NONE;
+        };
+    }
+
+    private @NotNull Set<String> allowedMethods(int methodsMask) {
+        int maskIndex = Arrays.binarySearch(allowedMethodsMasks, methodsMask);
+        if (maskIndex >= 0 && allowedMethodsMasks[maskIndex] == methodsMask) {
+            return allowedMethodsSets[maskIndex];
+        }
+        // several nodes with different methods match the path
+        return toAllowedMethods(methodsMask);
+    }
+
+    private @NotNull Set<String> toAllowedMethods(int methodsMask) {
+        Set<String> allowedMethods = new LinkedHashSet<>();
+        for (int slot = 0; slot < methodBySlot.length; slot++) {
+            if ((methodsMask & (1 << slot)) != 0) {
+                allowedMethods.add(methodBySlot[slot]);
+            }
+        }
+        if ((methodsMask & GET_METHOD_BIT) != 0) {
+            allowedMethods.add("HEAD");
+        }
+        return Collections.unmodifiableSet(allowedMethods);
+    }
+
+    private boolean matchesConstraint(int constraintIndex, @NotNull RouteMatcher<T> matcher, int segmentPosition) {
+        return constraints[constraintIndex].matches(matcher.requestPath(), matcher.segmentStart(segmentPosition), matcher.segmentEnd(segmentPosition));
+    }
+
+    private int findStaticChild(int nodeOffset, @NotNull RouteMatcher<T> matcher, int segmentPosition) {
+        int edgesCount = nodes[nodeOffset + NODE_EDGES_COUNT];
+        if (edgesCount == 0) {
+            return NONE;
+        }
+        CharSequence path = matcher.requestPath();
+        int segmentStart = matcher.segmentStart(segmentPosition);
+        int segmentEnd = matcher.segmentEnd(segmentPosition);
+        int segmentHash = 0;
+        for (int i = segmentStart; i < segmentEnd; i++) {
+            segmentHash = 31 * segmentHash + path.charAt(i);
+        }
+
+        if (edgesCount > LINEAR_SCAN_MAX_EDGES) {
+            return findStaticChildInHashTable(nodeOffset, edgesCount, path, segmentStart, segmentEnd, segmentHash);
+        }
+        int edgesEnd = nodes[nodeOffset + NODE_EDGES_START] + edgesCount;
+        for (int edge = nodes[nodeOffset + NODE_EDGES_START]; edge < edgesEnd; edge++) {
+            int edgeOffset = edge * EDGE_STRIDE;
+            int edgeHash = edges[edgeOffset + EDGE_HASH];
+            if (edgeHash == segmentHash && keyEquals(edgeOffset, path, segmentStart, segmentEnd)) {
+                return edges[edgeOffset + EDGE_CHILD];
+            }
+            if (edgeHash > segmentHash) {
+                // edges are sorted by hash
+                return NONE;
+            }
+        }
+        return NONE;
+    }
+
+    private int findStaticChildInHashTable(
+        int nodeOffset, int edgesCount, @NotNull CharSequence path, int segmentStart, int segmentEnd, int segmentHash
+    ) {
+        int hashTableStart = nodes[nodeOffset + NODE_HASH_TABLE];
+        int hashTableMask = hashTableCapacity(edgesCount) - 1;
+        for (int slot = spreadHash(segmentHash) & hashTableMask; ; slot = (slot + 1) & hashTableMask) {
+            int edge = hashTables[hashTableStart + slot];
+            if (edge == NONE) {
+                return NONE;
+            }
+            int edgeOffset = edge * EDGE_STRIDE;
+            if (edges[edgeOffset + EDGE_HASH] == segmentHash && keyEquals(edgeOffset, path, segmentStart, segmentEnd)) {
+                return edges[edgeOffset + EDGE_CHILD];
+            }
+        }
+    }
+
+    /**
+     * Returns the capacity of the hash table of a node: a power of two with a load factor lower than 0.5
+     */
+    static int hashTableCapacity(int edgesCount) {
+        return Integer.highestOneBit(edgesCount) << 2;
+    }
+
+    static int spreadHash(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean keyEquals(int edgeOffset, @NotNull CharSequence path, int segmentStart, int segmentEnd) {
+        int keyLength = edges[edgeOffset + EDGE_KEY_LENGTH];
+        if (keyLength != segmentEnd - segmentStart) {
+            return false;
+        }
+        int keyStart = edges[edgeOffset + EDGE_KEY_START];
+        for (int i = 0; i < keyLength; i++) {
+            if (keys[keyStart + i] != path.charAt(segmentStart + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,256 @@
+package com.coreoz.http.routes.router.compiled;
+
+import com.coreoz.http.routes.parsing.PatternConstraint;
+import com.coreoz.http.routes.router.HttpRoute;
+import com.coreoz.http.routes.router.index.IndexRouteLeaf;
+import com.coreoz.http.routes.router.index.IndexedRoutes;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compile a routes index made of {@link IndexedRoutes} into the flat arrays used by {@link CompiledRouter}.<br>
+ * <br>
+ * The index trees of each HTTP method are first merged in a single tree indexed by path, see {@link MergedNode}.
+ * Then nodes are numbered in depth-first order, so a node and its first static child are stored next to each other.
+ * The static segments of a node are stored in a contiguous block of edges sorted by hash,
+ * wide nodes have in addition an open addressing hash table of their edges,
+ * and static segment names are stored once in a shared characters pool.
+ */
+class CompiledRouterCompiler<T extends HttpRoute> {
+    private int[] nodes = new int[CompiledRouter.NODE_STRIDE * 64];
+    private int nodesCount = 0;
+    private int[] edges = new int[CompiledRouter.EDGE_STRIDE * 64];
+    private int edgesCount = 0;
+    private int[] hashTables = new int[0];
+    private int hashTablesLength = 0;
+    private int[] constrainedEdges = new int[0];
+    private int constrainedEdgesLength = 0;
+    private final StringBuilder keys = new StringBuilder();
+    private final Map<String, Integer> keyOffsets = new HashMap<>();
+    private final Map<PatternConstraint, Integer> constraintIndexes = new HashMap<>();
+    private final List<PatternConstraint> constraints = new ArrayList<>();
+    private final List<IndexRouteLeaf<T>> leaves = new ArrayList<>();
+
+    static <T extends HttpRoute> @NotNull CompiledRouter<T> compile(@NotNull Map<String, IndexedRoutes<T>> routesIndex) {
+        List<String> methodBySlot = new ArrayList<>(CompiledRouter.STANDARD_METHODS);
+        routesIndex
+            .keySet()
+            .stream()
+            .filter(method -> CompiledRouter.standardMethodSlot(method) == CompiledRouter.NONE)
+            .sorted()
+            .forEach(methodBySlot::add);
+        if (methodBySlot.size() > CompiledRouter.MAX_METHODS) {
+            throw new IllegalArgumentException(
+                "A compiled router supports at most " + CompiledRouter.MAX_METHODS + " HTTP methods, but the routes use the methods "
+                    + methodBySlot
+            );
+        }
+        Map<String, Integer> methodSlots = new HashMap<>();
+        for (int slot = 0; slot < methodBySlot.size(); slot++) {
+            methodSlots.put(methodBySlot.get(slot), slot);
+        }
+
+        MergedNode<T> rootNode = new MergedNode<>();
+        for (Map.Entry<String, IndexedRoutes<T>> methodIndex : routesIndex.entrySet()) {
+            rootNode.merge(methodIndex.getValue(), methodSlots.get(methodIndex.getKey()));
+        }
+
+        CompiledRouterCompiler<T> compiler = new CompiledRouterCompiler<>();
+        compiler.compileNode(rootNode);
+        @SuppressWarnings("unchecked")
+        IndexRouteLeaf<T>[] leaves = compiler.leaves.toArray(IndexRouteLeaf[]::new);
+        Map<String, Integer> customMethodSlots = new HashMap<>(methodSlots);
+        customMethodSlots.keySet().removeAll(CompiledRouter.STANDARD_METHODS);
+        return new CompiledRouter<>(
+            Map.copyOf(customMethodSlots),
+            methodBySlot.toArray(String[]::new),
+            Arrays.copyOf(compiler.nodes, compiler.nodesCount * CompiledRouter.NODE_STRIDE),
+            Arrays.copyOf(compiler.edges, compiler.edgesCount * CompiledRouter.EDGE_STRIDE),
+            Arrays.copyOf(compiler.hashTables, compiler.hashTablesLength),
+            Arrays.copyOf(compiler.constrainedEdges, compiler.constrainedEdgesLength),
+            compiler.keys.toString().toCharArray(),
+            compiler.constraints.toArray(PatternConstraint[]::new),
+            leaves
+        );
+    }
+
+    private int compileNode(@NotNull MergedNode<T> mergedNode) {
+        int nodeId = nodesCount++;
+        nodes = ensureCapacity(nodes, nodesCount * CompiledRouter.NODE_STRIDE);
+        int nodeOffset = nodeId * CompiledRouter.NODE_STRIDE;
+
+        compileLeaves(nodeOffset, mergedNode.leafByMethodSlot);
+
+        List<Map.Entry<String, MergedNode<T>>> segments = new ArrayList<>(mergedNode.segments.entrySet());
+        segments.sort(Comparator
+            .comparingInt((Map.Entry<String, MergedNode<T>> segment) -> segment.getKey().hashCode())
+            .thenComparing(Map.Entry::getKey)
+        );
+        int edgesStart = edgesCount;
+        edgesCount += segments.size();
+        edges = ensureCapacity(edges, edgesCount * CompiledRouter.EDGE_STRIDE);
+        nodes[nodeOffset + CompiledRouter.NODE_EDGES_START] = edgesStart;
+        nodes[nodeOffset + CompiledRouter.NODE_EDGES_COUNT] = segments.size();
+        for (int i = 0; i < segments.size(); i++) {
+            String segmentName = segments.get(i).getKey();
+            int edgeOffset = (edgesStart + i) * CompiledRouter.EDGE_STRIDE;
+            edges[edgeOffset + CompiledRouter.EDGE_HASH] = segmentName.hashCode();
+            edges[edgeOffset + CompiledRouter.EDGE_KEY_START] = compileKey(segmentName);
+            edges[edgeOffset + CompiledRouter.EDGE_KEY_LENGTH] = segmentName.length();
+            // the child must be compiled after the edge block of the current node has been reserved,
+            // and before writing to the edges array since it may be reallocated by the child compilation
+            int childNode = compileNode(segments.get(i).getValue());
+            edges[edgeOffset + CompiledRouter.EDGE_CHILD] = childNode;
+        }
+
+        nodes[nodeOffset + CompiledRouter.NODE_HASH_TABLE] = segments.size() > CompiledRouter.LINEAR_SCAN_MAX_EDGES ?
+            compileHashTable(edgesStart, segments.size()) :
+            CompiledRouter.NONE;
+
+        int patternNode = mergedNode.pattern == null ?
+            CompiledRouter.NONE :
+            compileNode(mergedNode.pattern);
+        nodes[nodeOffset + CompiledRouter.NODE_PATTERN] = patternNode;
+
+        int constrainedEdgesOffset = mergedNode.constrainedPatterns.isEmpty() ?
+            CompiledRouter.NONE :
+            compileConstrainedEdges(mergedNode.constrainedPatterns);
+        nodes[nodeOffset + CompiledRouter.NODE_CONSTRAINED_EDGES] = constrainedEdgesOffset;
+
+        int catchAllNode = mergedNode.catchAll == null ?
+            CompiledRouter.NONE :
+            compileNode(mergedNode.catchAll);
+        nodes[nodeOffset + CompiledRouter.NODE_CATCH_ALL] = catchAllNode;
+
+        return nodeId;
+    }
+
+    /**
+     * Store the constrained pattern children of a node, in the order of their precedence
+     */
+    private int compileConstrainedEdges(@NotNull TreeMap<PatternConstraint, MergedNode<T>> constrainedPatterns) {
+        int constrainedEdgesStart = constrainedEdgesLength;
+        constrainedEdgesLength += 1 + constrainedPatterns.size() * 2;
+        constrainedEdges = ensureCapacity(constrainedEdges, constrainedEdgesLength);
+        constrainedEdges[constrainedEdgesStart] = constrainedPatterns.size();
+        int edgeOffset = constrainedEdgesStart + 1;
+        for (Map.Entry<PatternConstraint, MergedNode<T>> constrainedPattern : constrainedPatterns.entrySet()) {
+            constrainedEdges[edgeOffset] = constraintIndexes.computeIfAbsent(constrainedPattern.getKey(), constraint -> {
+                constraints.add(constraint);
+                return constraints.size() - 1;
+            });
+            // like for static edges, the array may be reallocated by the child compilation
+            int childNode = compileNode(constrainedPattern.getValue());
+            constrainedEdges[edgeOffset + 1] = childNode;
+            edgeOffset += 2;
+        }
+        return constrainedEdgesStart;
+    }
+
+    private int compileHashTable(int edgesStart, int edgesCount) {
+        int hashTableStart = hashTablesLength;
+        int hashTableCapacity = CompiledRouter.hashTableCapacity(edgesCount);
+        hashTablesLength += hashTableCapacity;
+        hashTables = ensureCapacity(hashTables, hashTablesLength);
+        Arrays.fill(hashTables, hashTableStart, hashTablesLength, CompiledRouter.NONE);
+        for (int edge = edgesStart; edge < edgesStart + edgesCount; edge++) {
+            int slot = CompiledRouter.spreadHash(edges[edge * CompiledRouter.EDGE_STRIDE + CompiledRouter.EDGE_HASH]) & (hashTableCapacity - 1);
+            while (hashTables[hashTableStart + slot] != CompiledRouter.NONE) {
+                slot = (slot + 1) & (hashTableCapacity - 1);
+            }
+            hashTables[hashTableStart + slot] = edge;
+        }
+        return hashTableStart;
+    }
+
+    /**
+     * Store the leaves of a node ordered by method slot, and the bitmask of the methods of the node
+     */
+    private void compileLeaves(int nodeOffset, @NotNull TreeMap<Integer, IndexRouteLeaf<T>> leafByMethodSlot) {
+        int methodsMask = 0;
+        nodes[nodeOffset + CompiledRouter.NODE_LEAVES_START] = leaves.size();
+        for (Map.Entry<Integer, IndexRouteLeaf<T>> methodLeaf : leafByMethodSlot.entrySet()) {
+            methodsMask |= 1 << methodLeaf.getKey();
+            IndexRouteLeaf<T> leaf = methodLeaf.getValue();
+            leaves.add(new IndexRouteLeaf<>(
+                Map.copyOf(leaf.routePatternIndexes()), leaf.httpRoute(), leaf.catchAllPosition(), Map.copyOf(leaf.segmentTemplates())
+            ));
+        }
+        nodes[nodeOffset + CompiledRouter.NODE_METHODS] = methodsMask;
+    }
+
+    private int compileKey(@NotNull String segmentName) {
+        return keyOffsets.computeIfAbsent(segmentName, name -> {
+            int keyOffset = keys.length();
+            keys.append(name);
+            return keyOffset;
+        });
+    }
+
+    private static int @NotNull [] ensureCapacity(int @NotNull [] array, int minimumLength) {
+        if (array.length >= minimumLength) {
+            return array;
+        }
+        return Arrays.copyOf(array, Math.max(minimumLength, array.length * 2));
+    }
+
+    /**
+     * A node of the tree indexed by path, in which the routes of all HTTP methods are merged
+     */
+    private static class MergedNode<T extends HttpRoute> {
+        private final TreeMap<Integer, IndexRouteLeaf<T>> leafByMethodSlot = new TreeMap<>();
+        private final Map<String, MergedNode<T>> segments = new HashMap<>();
+        private MergedNode<T> pattern;
+        // sorted by precedence
+        private final TreeMap<PatternConstraint, MergedNode<T>> constrainedPatterns = new TreeMap<>();
+        private MergedNode<T> catchAll;
+
+        void merge(@NotNull IndexedRoutes<T> indexedRoutes, int methodSlot) {
+            if (indexedRoutes.getLastRoute() != null) {
+                leafByMethodSlot.put(methodSlot, indexedRoutes.getLastRoute());
+            }
+            for (Map.Entry<String, IndexedRoutes<T>> segment : indexedRoutes.getSegments().entrySet()) {
+                segments.computeIfAbsent(segment.getKey(), segmentName -> new MergedNode<>()).mergeChild(segment.getValue(), methodSlot);
+            }
+            if (indexedRoutes.getPattern() != null) {
+                if (pattern == null) {
+                    pattern = new MergedNode<>();
+                }
+                pattern.mergeChild(indexedRoutes.getPattern(), methodSlot);
+            }
+            if (indexedRoutes.getConstrainedPatterns() != null) {
+                for (IndexedRoutes<T> constrainedPattern : indexedRoutes.getConstrainedPatterns()) {
+                    constrainedPatterns
+                        .computeIfAbsent(constrainedPattern.getConstraint(), constraint -> new MergedNode<>())
+                        .mergeChild(constrainedPattern, methodSlot);
+                }
+            }
+            if (indexedRoutes.getCatchAll() != null) {
+                if (catchAll == null) {
+                    catchAll = new MergedNode<>();
+                }
+                catchAll.merge(indexedRoutes.getCatchAll(), methodSlot);
+            }
+        }
+
+        /**
+         * Merge a child node: if it is compressed, a merged node is created for each of its compressed segments
+         */
+        private void mergeChild(@NotNull IndexedRoutes<T> childRoutes, int methodSlot) {
+            MergedNode<T> mergedNode = this;
+            if (childRoutes.getCompressedSegments() != null) {
+                for (String compressedSegment : childRoutes.getCompressedSegments()) {
+                    mergedNode = mergedNode.segments.computeIfAbsent(compressedSegment, segmentName -> new MergedNode<>());
+                }
+            }
+            mergedNode.merge(childRoutes, methodSlot);
+        }
+    }
+}
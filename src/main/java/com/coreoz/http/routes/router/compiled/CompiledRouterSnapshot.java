@@ -0,0 +1,231 @@
+package com.coreoz.http.routes.router.compiled;
+
+import com.coreoz.http.routes.parsing.PatternConstraint;
+import com.coreoz.http.routes.parsing.SegmentTemplate;
+import com.coreoz.http.routes.router.HttpRoute;
+import com.coreoz.http.routes.router.index.IndexRouteLeaf;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Save a {@link CompiledRouter} to a binary file, and load it without indexing the routes again.
+ * This is useful to start quickly an application that has a large number of routes.<br>
+ * <br>
+ * Since a compiled router is made of a few arrays, the snapshot mostly contains these arrays,
+ * and loading a snapshot copies them from a memory-mapped file: no object is created for each index node.
+ * Objects are only created for each route: its leaf, its pattern indexes, and the route itself that is rebuilt using a {@link RouteCodec}.<br>
+ * <br>
+ * File format, all numbers are big-endian:
+ * <pre>
+ * - header: magic number "HRIX", format version
+ * - methods: count, then each method by slot
+ * - nodes, edges, hash tables, constrained edges: length, then the int values
+ * - keys: length, then the chars
+ * - constraints: count, then for each constraint: a template flag, then the partial segment if it is a template, else the definition
+ * - leaves: count, then for each leaf: route identifier, pattern indexes count, pattern names and positions, catch-all position,
+ *   segment templates count, positions and partial segments of the segment templates, payload
+ * </pre>
+ * Strings are stored as their length followed by their UTF-8 bytes, and payloads as their length followed by their bytes.
+ * The format version changes each time the format or the layout of the compiled router arrays changes,
+ * so a snapshot must be created again when this library is upgraded.
+ */
+public class CompiledRouterSnapshot {
+    private static final int MAGIC_NUMBER = 0x48524958;
+    static final int FORMAT_VERSION = 4;
+
+    /**
+     * Write a router to a snapshot file. The file is replaced if it exists.
+     * @param router The router to save
+     * @param snapshotFile The file in which the snapshot is written
+     * @param routeCodec The codec used to write the routes
+     * @throws IOException If the file cannot be written
+     */
+    public static <T extends HttpRoute> void write(
+        @NotNull CompiledRouter<T> router, @NotNull Path snapshotFile, @NotNull RouteCodec<T> routeCodec
+    ) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(snapshotFile)))) {
+            output.writeInt(MAGIC_NUMBER);
+            output.writeInt(FORMAT_VERSION);
+            output.writeInt(router.methodBySlot.length);
+            for (String method : router.methodBySlot) {
+                writeString(output, method);
+            }
+            writeInts(output, router.nodes);
+            writeInts(output, router.edges);
+            writeInts(output, router.hashTables);
+            writeInts(output, router.constrainedEdges);
+            output.writeInt(router.keys.length);
+            for (char key : router.keys) {
+                output.writeChar(key);
+            }
+            output.writeInt(router.constraints.length);
+            for (PatternConstraint constraint : router.constraints) {
+                SegmentTemplate template = constraint.template();
+                output.writeBoolean(template != null);
+                writeString(output, template != null ? template.source() : constraint.definition());
+            }
+            output.writeInt(router.leaves.length);
+            for (IndexRouteLeaf<T> leaf : router.leaves) {
+                writeString(output, leaf.httpRoute().routeId());
+                output.writeInt(leaf.routePatternIndexes().size());
+                for (Map.Entry<String, Integer> patternIndex : leaf.routePatternIndexes().entrySet()) {
+                    writeString(output, patternIndex.getKey());
+                    output.writeInt(patternIndex.getValue());
+                }
+                output.writeInt(leaf.catchAllPosition());
+                output.writeInt(leaf.segmentTemplates().size());
+                for (Map.Entry<Integer, SegmentTemplate> segmentTemplate : leaf.segmentTemplates().entrySet()) {
+                    output.writeInt(segmentTemplate.getKey());
+                    writeString(output, segmentTemplate.getValue().source());
+                }
+                byte[] payload = routeCodec.encode(leaf.httpRoute());
+                output.writeInt(payload.length);
+                output.write(payload);
+            }
+        }
+    }
+
+    /**
+     * Load a router from a snapshot file
+     * @param snapshotFile The snapshot file written by {@link #write(CompiledRouter, Path, RouteCodec)}
+     * @param routeCodec The codec used to rebuild the routes
+     * @return The router, that is the same as the router that has been saved
+     * @throws IOException If the file cannot be read, or if it is not a snapshot written with the same format version
+     */
+    public static <T extends HttpRoute> @NotNull CompiledRouter<T> load(
+        @NotNull Path snapshotFile, @NotNull RouteCodec<T> routeCodec
+    ) throws IOException {
+        MappedByteBuffer snapshot;
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            snapshot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            CompiledRouter<T> router = read(snapshot, routeCodec);
+            if (snapshot.hasRemaining()) {
+                throw new IOException("The file " + snapshotFile + " is not a valid router snapshot: " + snapshot.remaining() + " trailing bytes");
+            }
+            return router;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("The file " + snapshotFile + " is not a valid router snapshot: it is truncated or corrupted", e);
+        }
+    }
+
+    private static <T extends HttpRoute> @NotNull CompiledRouter<T> read(
+        @NotNull ByteBuffer snapshot, @NotNull RouteCodec<T> routeCodec
+    ) throws IOException {
+        if (snapshot.remaining() < Integer.BYTES * 2 || snapshot.getInt() != MAGIC_NUMBER) {
+            throw new IOException("The file is not a router snapshot");
+        }
+        int formatVersion = snapshot.getInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException(
+                "The router snapshot format version is " + formatVersion + " whereas the supported version is " + FORMAT_VERSION
+                    + ", the snapshot must be created again"
+            );
+        }
+
+        String[] methodBySlot = new String[readLength(snapshot)];
+        Map<String, Integer> customMethodSlots = new HashMap<>();
+        for (int slot = 0; slot < methodBySlot.length; slot++) {
+            methodBySlot[slot] = readString(snapshot);
+            if (slot >= CompiledRouter.STANDARD_METHODS.size()) {
+                customMethodSlots.put(methodBySlot[slot], slot);
+            }
+        }
+        int[] nodes = readInts(snapshot);
+        int[] edges = readInts(snapshot);
+        int[] hashTables = readInts(snapshot);
+        int[] constrainedEdges = readInts(snapshot);
+        char[] keys = new char[readLength(snapshot)];
+        snapshot.asCharBuffer().get(keys);
+        snapshot.position(snapshot.position() + keys.length * Character.BYTES);
+        PatternConstraint[] constraints = new PatternConstraint[readLength(snapshot)];
+        for (int i = 0; i < constraints.length; i++) {
+            constraints[i] = snapshot.get() != 0 ? PatternConstraint.of(readTemplate(snapshot)) : PatternConstraint.parse(readString(snapshot));
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        IndexRouteLeaf<T>[] leaves = new IndexRouteLeaf[readLength(snapshot)];
+        // most routes use the same pattern names, like "id", so a single instance of each name is kept
+        Map<String, String> patternNames = new HashMap<>();
+        for (int leafIndex = 0; leafIndex < leaves.length; leafIndex++) {
+            String routeId = readString(snapshot);
+            int patternIndexesCount = readLength(snapshot);
+            Map<String, Integer> routePatternIndexes = new HashMap<>();
+            for (int i = 0; i < patternIndexesCount; i++) {
+                String patternName = patternNames.computeIfAbsent(readString(snapshot), name -> name);
+                routePatternIndexes.put(patternName, snapshot.getInt());
+            }
+            int catchAllPosition = snapshot.getInt();
+            int segmentTemplatesCount = readLength(snapshot);
+            Map<Integer, SegmentTemplate> segmentTemplates = new HashMap<>();
+            for (int i = 0; i < segmentTemplatesCount; i++) {
+                segmentTemplates.put(snapshot.getInt(), readTemplate(snapshot));
+            }
+            int payloadLength = readLength(snapshot);
+            T route = routeCodec.decode(routeId, snapshot.slice(snapshot.position(), payloadLength).asReadOnlyBuffer());
+            snapshot.position(snapshot.position() + payloadLength);
+            leaves[leafIndex] = new IndexRouteLeaf<>(Map.copyOf(routePatternIndexes), route, catchAllPosition, Map.copyOf(segmentTemplates));
+        }
+        return new CompiledRouter<>(
+            Map.copyOf(customMethodSlots), methodBySlot, nodes, edges, hashTables, constrainedEdges, keys, constraints, leaves
+        );
+    }
+
+    private static void writeInts(@NotNull DataOutputStream output, int @NotNull [] values) throws IOException {
+        output.writeInt(values.length);
+        for (int value : values) {
+            output.writeInt(value);
+        }
+    }
+
+    private static void writeString(@NotNull DataOutputStream output, @NotNull String value) throws IOException {
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(valueBytes.length);
+        output.write(valueBytes);
+    }
+
+    private static int @NotNull [] readInts(@NotNull ByteBuffer snapshot) {
+        int[] values = new int[readLength(snapshot)];
+        snapshot.asIntBuffer().get(values);
+        snapshot.position(snapshot.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    private static @NotNull String readString(@NotNull ByteBuffer snapshot) {
+        byte[] valueBytes = new byte[readLength(snapshot)];
+        snapshot.get(valueBytes);
+        return new String(valueBytes, StandardCharsets.UTF_8);
+    }
+
+    private static @NotNull SegmentTemplate readTemplate(@NotNull ByteBuffer snapshot) {
+        SegmentTemplate template = SegmentTemplate.parse(readString(snapshot));
+        if (template == null) {
+            throw new IllegalArgumentException("A segment template of the snapshot does not contain any parameter");
+        }
+        return template;
+    }
+
+    private static int readLength(@NotNull ByteBuffer snapshot) {
+        int length = snapshot.getInt();
+        if (length < 0 || length > snapshot.remaining()) {
+            // a corrupted length must not lead to the allocation of a huge array
+            throw new BufferUnderflowException();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,29 @@
+package com.coreoz.http.routes.router.compiled;
+
+import com.coreoz.http.routes.router.HttpRoute;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Write and read the routes stored in a router snapshot, see {@link CompiledRouterSnapshot}.<br>
+ * <br>
+ * Routes are identified by their {@link HttpRoute#routeId()}: if the routes are available elsewhere when the snapshot is loaded,
+ * e.g. in a configuration, the payload can be empty and routes can be found by their identifier.
+ * @param <T> The type of {@link HttpRoute} stored in the router
+ */
+public interface RouteCodec<T extends HttpRoute> {
+    /**
+     * Returns the payload of a route, that is stored in the snapshot with the route identifier
+     */
+    byte @NotNull [] encode(@NotNull T route);
+
+    /**
+     * Rebuild a route when a snapshot is loaded
+     * @param routeId The identifier of the route
+     * @param payload The payload returned by {@link #encode(HttpRoute)}, it is a read-only view of the snapshot file
+     *                that must not be kept after the call
+     * @return The route, with the same identifier
+     */
+    @NotNull T decode(@NotNull String routeId, @NotNull ByteBuffer payload);
+}
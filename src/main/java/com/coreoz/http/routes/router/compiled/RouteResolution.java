@@ -0,0 +1,19 @@
+package com.coreoz.http.routes.router.compiled;
+
+/**
+ * The result of {@link CompiledRouter#resolve(String, CharSequence, com.coreoz.http.routes.router.search.RouteMatcher)}
+ */
+public enum RouteResolution {
+    /**
+     * A route has been found for the HTTP method and the path
+     */
+    FOUND,
+    /**
+     * No route has been found for the HTTP method, but routes have been found for the path with other HTTP methods
+     */
+    METHOD_NOT_ALLOWED,
+    /**
+     * No route has been found for the path
+     */
+    NOT_FOUND,
+}
@@ -1,5 +1,6 @@
 package com.coreoz.http.routes.router.index;
 
+import com.coreoz.http.routes.parsing.SegmentTemplate;
 import com.coreoz.http.routes.router.HttpRoute;
 
 import java.util.Map;
@@ -8,6 +9,21 @@ import java.util.Map;
  * A route in a route index, see {@link IndexedRoutes}
  * @param routePatternIndexes A <code>Map</code> associating pattern names with their positions in the path. The position indexes starts at 1, so for example for the path <code>/users/{userId}/orders/{orderId}</code>, the indexes will be <code>[userId => 2, orderId => 4]</code>
  * @param httpRoute The base route represented by this index leaf
+ * @param catchAllPosition The position of the catch-all pattern that ends the path, e.g. 2 for the path <code>/legacy/{rest...}</code>,
+ *                         or 0 if the route does not end with a catch-all pattern.
+ *                         The value of this pattern spans from the start of the segment at this position to the end of the last segment of the request path
+ * @param segmentTemplates The templates of the partial segments of the path by position, e.g. <code>[2 => {name}.{ext}]</code>
+ *                         for the path <code>/files/{name}.{ext}</code>. The patterns of a partial segment share the position of the segment
+ *                         in <code>routePatternIndexes</code>, and their values are found in the segment using the template
  */
-public record IndexRouteLeaf<T extends HttpRoute>(Map<String, Integer> routePatternIndexes, T httpRoute) {
+public record IndexRouteLeaf<T extends HttpRoute>(
+    Map<String, Integer> routePatternIndexes, T httpRoute, int catchAllPosition, Map<Integer, SegmentTemplate> segmentTemplates
+) {
+    public IndexRouteLeaf(Map<String, Integer> routePatternIndexes, T httpRoute, int catchAllPosition) {
+        this(routePatternIndexes, httpRoute, catchAllPosition, Map.of());
+    }
+
+    public IndexRouteLeaf(Map<String, Integer> routePatternIndexes, T httpRoute) {
+        this(routePatternIndexes, httpRoute, 0, Map.of());
+    }
 }
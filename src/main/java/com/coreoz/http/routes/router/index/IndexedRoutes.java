@@ -1,23 +1,144 @@
 package com.coreoz.http.routes.router.index;
 
+import com.coreoz.http.routes.parsing.PatternConstraint;
 import com.coreoz.http.routes.router.HttpRoute;
-import lombok.AllArgsConstructor;
+import com.coreoz.http.routes.router.search.SearchRouteEngine;
 import lombok.Data;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
  * A routes index (or node in the index tree).
  * A route index is partitioned by HTTP method (GET, POST, etc.),
  * so a routes index contains only routes for the same HTTP method.<br>
+ * <br>
+ * In a compressed index, see {@link SearchRouteIndexer#compressIndex(Map)}, a node can match several segments:
+ * the segment of its parent static segment or pattern, then its <code>compressedSegments</code>.
+ * The other fields of the node apply after the compressed segments.<br>
+ * <br>
+ * Besides the <code>pattern</code> child that matches any segment, a node can have <code>constrainedPatterns</code> children
+ * that match only the segments accepted by their <code>constraint</code>, e.g. for the route <code>/items/{id:int}</code>.
+ * They are sorted by precedence, see {@link PatternConstraint}, and they are searched after the static segments
+ * and before the <code>pattern</code> child.<br>
+ * <br>
+ * The <code>catchAll</code> child holds the route which path ends with a catch-all pattern at this position, e.g. <code>/legacy/{rest...}</code>:
+ * it matches all the remaining segments of a request path, so it has no child, and it is searched after all the other children.<br>
  * See {@link SearchRouteIndexer} for usage.
  */
-@AllArgsConstructor
 @Data
 public class IndexedRoutes<T extends HttpRoute> {
     private IndexRouteLeaf<T> lastRoute;
-    private long rating;
     private int depth;
-    private Map<String, IndexedRoutes<T>> segments;
+    private SegmentTable<T> segments;
     private IndexedRoutes<T> pattern;
+    // the pattern children having a constraint sorted by precedence, or null if the node has none
+    private List<IndexedRoutes<T>> constrainedPatterns;
+    // the constraint of the segment of the node if it is a constrained pattern child, else null
+    private PatternConstraint constraint;
+    // the node of the route ending with a catch-all pattern, or null
+    private IndexedRoutes<T> catchAll;
+    // the static segments that must follow the segment of the node, or null if the node is not compressed
+    private String[] compressedSegments;
+
+    /**
+     * @param segments The static segments of the node. If it is not a {@link SegmentTable}, the segments are copied in a new {@link SegmentTable}
+     */
+    public IndexedRoutes(IndexRouteLeaf<T> lastRoute, int depth, Map<String, IndexedRoutes<T>> segments, IndexedRoutes<T> pattern) {
+        this.lastRoute = lastRoute;
+        this.depth = depth;
+        this.segments = SegmentTable.of(segments);
+        this.pattern = pattern;
+    }
+
+    /**
+     * @param rating Ignored, see {@link #getRating()}
+     * @deprecated The rating is not used anymore, {@link #IndexedRoutes(IndexRouteLeaf, int, Map, IndexedRoutes)} should be used instead
+     */
+    @Deprecated
+    public IndexedRoutes(IndexRouteLeaf<T> lastRoute, long rating, int depth, Map<String, IndexedRoutes<T>> segments, IndexedRoutes<T> pattern) {
+        this(lastRoute, depth, segments, pattern);
+    }
+
+    /**
+     * Returns 0: the precedence of the routes is decided by the order in which {@link SearchRouteEngine} searches the children of a node,
+     * static segments first, so the nodes are not rated anymore
+     * @deprecated The rating is not used anymore
+     */
+    @Deprecated
+    public long getRating() {
+        return 0;
+    }
+
+    /**
+     * @param segments The static segments of the node. If it is not a {@link SegmentTable}, the segments are copied in a new {@link SegmentTable}
+     */
+    public void setSegments(Map<String, IndexedRoutes<T>> segments) {
+        this.segments = SegmentTable.of(segments);
+    }
+
+    /**
+     * Make a shallow copy of the node: the segments table is copied, but not the child nodes
+     */
+    IndexedRoutes<T> copy() {
+        IndexedRoutes<T> copy = new IndexedRoutes<>(lastRoute, depth, new SegmentTable<>(segments), pattern);
+        copy.setCompressedSegments(compressedSegments);
+        copy.setConstrainedPatterns(constrainedPatterns == null ? null : new ArrayList<>(constrainedPatterns));
+        copy.setConstraint(constraint);
+        copy.setCatchAll(catchAll);
+        return copy;
+    }
+
+    /**
+     * Verify that the segments of a request path are the compressed segments of the node.
+     * @param path The request path
+     * @param segmentsOffsets The start and end offsets of the request path segments: <code>[start segment 1, end segment 1, start segment 2, ...]</code>
+     * @param segmentIndex The index in <code>segmentsOffsets</code> of the first segment to verify, starting at 0
+     * @param segmentsCount The number of segments available from <code>segmentIndex</code>
+     * @return True if the node is not compressed or if the segments match the compressed segments, else false
+     */
+    public boolean matchesCompressedSegments(CharSequence path, int[] segmentsOffsets, int segmentIndex, int segmentsCount) {
+        if (compressedSegments == null) {
+            return true;
+        }
+        if (compressedSegments.length > segmentsCount) {
+            return false;
+        }
+        for (int i = 0; i < compressedSegments.length; i++) {
+            String compressedSegment = compressedSegments[i];
+            int segmentStart = segmentsOffsets[(segmentIndex + i) * 2];
+            if (segmentsOffsets[(segmentIndex + i) * 2 + 1] - segmentStart != compressedSegment.length()) {
+                return false;
+            }
+            for (int charIndex = 0; charIndex < compressedSegment.length(); charIndex++) {
+                if (path.charAt(segmentStart + charIndex) != compressedSegment.charAt(charIndex)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the constrained pattern child having the constraint, or null if the node has no such child
+     */
+    public IndexedRoutes<T> getConstrainedPattern(PatternConstraint constraint) {
+        if (constrainedPatterns == null) {
+            return null;
+        }
+        for (IndexedRoutes<T> constrainedPattern : constrainedPatterns) {
+            if (constrainedPattern.getConstraint().equals(constraint)) {
+                return constrainedPattern;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of compressed segments of the node, 0 if the node is not compressed
+     */
+    public int compressedSegmentsCount() {
+        return compressedSegments == null ? 0 : compressedSegments.length;
+    }
 }
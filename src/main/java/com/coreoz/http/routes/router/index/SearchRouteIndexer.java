@@ -1,14 +1,22 @@
 package com.coreoz.http.routes.router.index;
 
 import com.coreoz.http.routes.HttpRoutes;
+import com.coreoz.http.routes.HttpRoutesIndex;
 import com.coreoz.http.routes.parsing.ParsedSegment;
+import com.coreoz.http.routes.parsing.PathInterner;
+import com.coreoz.http.routes.parsing.PatternConstraint;
+import com.coreoz.http.routes.parsing.SegmentTemplate;
 import com.coreoz.http.routes.router.HttpRoute;
 import com.coreoz.http.routes.router.search.SearchRouteEngine;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Handle route indexing in an {@link IndexedRoutes}. Some examples of routes:<br>
@@ -17,38 +25,104 @@ import java.util.Map;
  * - /users/{id}
  * - /users/{id}/addresses
  * - /users/{id}/addresses/{idAddress}
+ * - /static/{path...}
+ * - /files/{name}.{ext}
  * </pre>
+ * A catch-all pattern, like <code>{path...}</code> or <code>**</code>, can only be the last segment of a route.
  * {@link SearchRouteEngine} enables route search in the {@link IndexedRoutes}.
  */
 public class SearchRouteIndexer {
-    private static final Integer MAX_LONG_OFFSET_FOR_POSITIVE_NUMBERS = 62;
-
     /**
      * Add a new route to the routes index tree.<br>
      * <br>
      * Returns the new route added to the tree or the existing route that is already present in the tree.
+     * @throws IllegalArgumentException If the route has a catch-all pattern that is not its last segment
      */
     public static <T extends HttpRoute> @NotNull IndexRouteLeaf<T> addRouteToIndex(@NotNull Map<String, IndexedRoutes<T>> indexedRoutes, @NotNull T route) {
-        IndexedRoutes<T> rootIndex = indexedRoutes.computeIfAbsent(route.method(), method -> new IndexedRoutes<>(
-            null,
-            1L << MAX_LONG_OFFSET_FOR_POSITIVE_NUMBERS,
-            0,
-            new HashMap<>(),
-            null
-        ));
+        return addRouteToIndex(indexedRoutes, route, false);
+    }
+
+    /**
+     * Same as {@link #addRouteToIndex(Map, HttpRoute)}, the segment and pattern names stored in the index being shared using a pool,
+     * see {@link PathInterner}
+     */
+    public static <T extends HttpRoute> @NotNull IndexRouteLeaf<T> addRouteToIndex(
+        @NotNull Map<String, IndexedRoutes<T>> indexedRoutes, @NotNull T route, @NotNull PathInterner interner
+    ) {
+        return addRouteToIndex(indexedRoutes, route, HttpRoutes.parsePathAsSegments(route.path(), interner), false);
+    }
+
+    /**
+     * Add a new route to the routes index tree without modifying the existing {@link IndexedRoutes} nodes.<br>
+     * <br>
+     * The nodes on the path of the route are copied and the copies are put in the <code>indexedRoutes</code> map,
+     * the other nodes are shared with the previous version of the index.
+     * So the nodes referenced by the <code>indexedRoutes</code> map before the call can still be read by other threads.
+     * The <code>indexedRoutes</code> map itself is modified, so it should be a copy of the map used by other threads.<br>
+     * <br>
+     * Returns the new route added to the tree or the existing route that is already present in the tree.
+     */
+    public static <T extends HttpRoute> @NotNull IndexRouteLeaf<T> addRouteToIndexCopyOnWrite(@NotNull Map<String, IndexedRoutes<T>> indexedRoutes, @NotNull T route) {
+        return addRouteToIndex(indexedRoutes, route, true);
+    }
+
+    private static <T extends HttpRoute> @NotNull IndexRouteLeaf<T> addRouteToIndex(
+        @NotNull Map<String, IndexedRoutes<T>> indexedRoutes, @NotNull T route, boolean copyOnWrite
+    ) {
+        return addRouteToIndex(indexedRoutes, route, HttpRoutes.parsePathAsSegments(route.path()), copyOnWrite);
+    }
+
+    private static <T extends HttpRoute> @NotNull IndexRouteLeaf<T> addRouteToIndex(
+        @NotNull Map<String, IndexedRoutes<T>> indexedRoutes, @NotNull T route, @NotNull List<ParsedSegment> pathSegments,
+        boolean copyOnWrite
+    ) {
+        for (int i = 0; i < pathSegments.size() - 1; i++) {
+            if (pathSegments.get(i).isCatchAll()) {
+                throw new IllegalArgumentException(
+                    "The route " + route + " has a catch-all pattern that is not its last segment: {" + pathSegments.get(i).name() + "...}"
+                );
+            }
+        }
+        IndexedRoutes<T> rootIndex = indexedRoutes.get(route.method());
+        if (rootIndex == null) {
+            rootIndex = new IndexedRoutes<>(
+                null,
+                0,
+                new SegmentTable<>(),
+                null
+            );
+            indexedRoutes.put(route.method(), rootIndex);
+        } else if (copyOnWrite) {
+            rootIndex = rootIndex.copy();
+            indexedRoutes.put(route.method(), rootIndex);
+        }
 
-        List<ParsedSegment> pathSegments = HttpRoutes.parsePathAsSegments(route.path());
         // initialise patternIndexes map
         Map<String, Integer> patternIndexes = new HashMap<>();
+        Map<Integer, SegmentTemplate> segmentTemplates = Map.of();
 
         IndexedRoutes<T> currentIndex = rootIndex;
-        for (int segmentIndex = 1; segmentIndex <= pathSegments.size(); segmentIndex++) {
+        int segmentIndex = 1;
+        while (segmentIndex <= pathSegments.size()) {
             ParsedSegment parsedSegmentToAdd = pathSegments.get(segmentIndex - 1);
-            if (parsedSegmentToAdd.isPattern()) {
-                currentIndex = computePatternIndex(currentIndex, parsedSegmentToAdd.name(), segmentIndex, patternIndexes);
+            if (parsedSegmentToAdd.isCatchAll()) {
+                currentIndex = computeCatchAllIndex(currentIndex, parsedSegmentToAdd.name(), segmentIndex, patternIndexes, copyOnWrite);
+            } else if (parsedSegmentToAdd.isPattern() && parsedSegmentToAdd.constraint() != null) {
+                currentIndex = computeConstrainedPatternIndex(
+                    currentIndex, parsedSegmentToAdd, segmentIndex, patternIndexes, copyOnWrite
+                );
+                if (parsedSegmentToAdd.constraint().template() != null) {
+                    if (segmentTemplates.isEmpty()) {
+                        segmentTemplates = new HashMap<>();
+                    }
+                    segmentTemplates.put(segmentIndex, parsedSegmentToAdd.constraint().template());
+                }
+            } else if (parsedSegmentToAdd.isPattern()) {
+                currentIndex = computePatternIndex(currentIndex, parsedSegmentToAdd.name(), segmentIndex, patternIndexes, copyOnWrite);
             } else {
-                currentIndex = computeSegmentIndex(currentIndex, parsedSegmentToAdd.name(), segmentIndex);
+                currentIndex = computeSegmentIndex(currentIndex, parsedSegmentToAdd.name(), segmentIndex, copyOnWrite);
             }
+            segmentIndex += matchCompressedSegments(currentIndex, pathSegments, segmentIndex);
 
             // final stop condition
             if (segmentIndex == pathSegments.size()) {
@@ -61,36 +135,116 @@ public class SearchRouteIndexer {
                 }
                 IndexRouteLeaf<T> newRouteLeaf = new IndexRouteLeaf<>(
                     patternIndexes,
-                    route
+                    route,
+                    parsedSegmentToAdd.isCatchAll() ? segmentIndex : 0,
+                    segmentTemplates
                 );
                 currentIndex.setLastRoute(newRouteLeaf);
                 return newRouteLeaf;
             }
+            segmentIndex++;
         }
 
         throw new RuntimeException("The route " + route + " could not be added, this is a bug");
     }
 
-    private static <T extends HttpRoute> @NotNull IndexedRoutes<T> computeSegmentIndex(@NotNull IndexedRoutes<T> currentIndex, @NotNull String segmentName, int segmentIndex) {
+    /**
+     * Match the compressed segments of a node with the next segments of the route.
+     * If only the first compressed segments match, the node is split, so the route can be added after the matching segments.
+     * @param segmentIndex The index of the segment of the node in the route, starting at 1
+     * @return The number of compressed segments matched, that are also the compressed segments of the node after the split
+     */
+    private static <T extends HttpRoute> int matchCompressedSegments(
+        @NotNull IndexedRoutes<T> currentIndex, @NotNull List<ParsedSegment> pathSegments, int segmentIndex
+    ) {
+        String[] compressedSegments = currentIndex.getCompressedSegments();
+        if (compressedSegments == null) {
+            return 0;
+        }
+        int matchingSegmentsCount = 0;
+        while (matchingSegmentsCount < compressedSegments.length && segmentIndex + matchingSegmentsCount < pathSegments.size()) {
+            ParsedSegment nextSegment = pathSegments.get(segmentIndex + matchingSegmentsCount);
+            if (nextSegment.isPattern() || !nextSegment.name().equals(compressedSegments[matchingSegmentsCount])) {
+                break;
+            }
+            matchingSegmentsCount++;
+        }
+        if (matchingSegmentsCount < compressedSegments.length) {
+            splitCompressedNode(currentIndex, matchingSegmentsCount);
+        }
+        return matchingSegmentsCount;
+    }
+
+    /**
+     * Split a compressed node after its <code>keptSegmentsCount</code> first compressed segments:
+     * the next compressed segment becomes the single static segment of the node,
+     * and the content of the node is moved to the child node of this segment with the remaining compressed segments.
+     */
+    private static <T extends HttpRoute> void splitCompressedNode(@NotNull IndexedRoutes<T> compressedNode, int keptSegmentsCount) {
+        String[] compressedSegments = compressedNode.getCompressedSegments();
+        IndexedRoutes<T> suffixNode = new IndexedRoutes<>(
+            compressedNode.getLastRoute(),
+            compressedNode.getDepth(),
+            compressedNode.getSegments(),
+            compressedNode.getPattern()
+        );
+        suffixNode.setConstrainedPatterns(compressedNode.getConstrainedPatterns());
+        suffixNode.setCatchAll(compressedNode.getCatchAll());
+        suffixNode.setCompressedSegments(keptSegmentsCount + 1 < compressedSegments.length ?
+            Arrays.copyOfRange(compressedSegments, keptSegmentsCount + 1, compressedSegments.length)
+            : null
+        );
+
+        int splitDepth = compressedNode.getDepth() - (compressedSegments.length - keptSegmentsCount);
+        compressedNode.setLastRoute(null);
+        compressedNode.setPattern(null);
+        compressedNode.setConstrainedPatterns(null);
+        compressedNode.setCatchAll(null);
+        compressedNode.setSegments(new SegmentTable<>());
+        compressedNode.getSegments().put(compressedSegments[keptSegmentsCount], suffixNode);
+        compressedNode.setDepth(splitDepth);
+        compressedNode.setCompressedSegments(keptSegmentsCount > 0 ? Arrays.copyOf(compressedSegments, keptSegmentsCount) : null);
+    }
+
+    /**
+     * Returns the static child node of the current node.
+     * If <code>copyOnWrite</code> is true, the current node must be a copy owned by the caller,
+     * and an existing child node is copied before being returned.
+     */
+    private static <T extends HttpRoute> @NotNull IndexedRoutes<T> computeSegmentIndex(
+        @NotNull IndexedRoutes<T> currentIndex, @NotNull String segmentName, int segmentIndex, boolean copyOnWrite
+    ) {
+        if (copyOnWrite) {
+            IndexedRoutes<T> existingSegment = currentIndex.getSegments().get(segmentName);
+            if (existingSegment != null) {
+                IndexedRoutes<T> segmentCopy = existingSegment.copy();
+                currentIndex.getSegments().put(segmentName, segmentCopy);
+                return segmentCopy;
+            }
+        }
         return currentIndex.getSegments().computeIfAbsent(segmentName, segmentNameToAdd -> new IndexedRoutes<>(
             null,
-            currentIndex.getRating() | 1L << (MAX_LONG_OFFSET_FOR_POSITIVE_NUMBERS - segmentIndex),
             segmentIndex,
-            new HashMap<>(),
+            new SegmentTable<>(),
             null
         ));
     }
 
     private static <T extends HttpRoute> @NotNull IndexedRoutes<T> computePatternIndex(
-        @NotNull IndexedRoutes<T> currentIndex, @NotNull String segmentName, int segmentIndex, @NotNull Map<String, Integer> patterns
+        @NotNull IndexedRoutes<T> currentIndex, @NotNull String segmentName, int segmentIndex, @NotNull Map<String, Integer> patterns,
+        boolean copyOnWrite
     ) {
         patterns.put(segmentName, segmentIndex);
+        if (copyOnWrite && currentIndex.getPattern() != null) {
+            IndexedRoutes<T> patternCopy = currentIndex.getPattern().copy();
+            currentIndex.setPattern(patternCopy);
+            return patternCopy;
+        }
         if (currentIndex.getPattern() == null) {
             IndexedRoutes<T> pattern = new IndexedRoutes<>(
                 null,
-                currentIndex.getRating(),
                 segmentIndex,
-                new HashMap<>(),
+                new SegmentTable<>(),
                 null
             );
             currentIndex.setPattern(pattern);
@@ -99,6 +253,345 @@ public class SearchRouteIndexer {
         return currentIndex.getPattern();
     }
 
+    /**
+     * Returns the pattern child of the current node having the constraint of the segment,
+     * which is also used for partial segments, see {@link PatternConstraint#of(SegmentTemplate)}.
+     * A new child is inserted at the position of its precedence, see {@link PatternConstraint#compareTo(PatternConstraint)}.
+     * If <code>copyOnWrite</code> is true, the current node must be a copy owned by the caller,
+     * and an existing child node is copied before being returned.
+     */
+    private static <T extends HttpRoute> @NotNull IndexedRoutes<T> computeConstrainedPatternIndex(
+        @NotNull IndexedRoutes<T> currentIndex, @NotNull ParsedSegment segment, int segmentIndex, @NotNull Map<String, Integer> patterns,
+        boolean copyOnWrite
+    ) {
+        SegmentTemplate template = segment.constraint().template();
+        if (template == null) {
+            patterns.put(segment.name(), segmentIndex);
+        } else {
+            for (int parameterIndex = 0; parameterIndex < template.parametersCount(); parameterIndex++) {
+                patterns.put(template.parameterName(parameterIndex), segmentIndex);
+            }
+        }
+        if (currentIndex.getConstrainedPatterns() == null) {
+            currentIndex.setConstrainedPatterns(new ArrayList<>());
+        }
+        List<IndexedRoutes<T>> constrainedPatterns = currentIndex.getConstrainedPatterns();
+        int position = 0;
+        while (position < constrainedPatterns.size()) {
+            int comparison = constrainedPatterns.get(position).getConstraint().compareTo(segment.constraint());
+            if (comparison == 0) {
+                if (copyOnWrite) {
+                    constrainedPatterns.set(position, constrainedPatterns.get(position).copy());
+                }
+                return constrainedPatterns.get(position);
+            }
+            if (comparison > 0) {
+                break;
+            }
+            position++;
+        }
+        IndexedRoutes<T> constrainedPattern = new IndexedRoutes<>(
+            null,
+            segmentIndex,
+            new SegmentTable<>(),
+            null
+        );
+        constrainedPattern.setConstraint(segment.constraint());
+        constrainedPatterns.add(position, constrainedPattern);
+        return constrainedPattern;
+    }
+
+    /**
+     * Returns the catch-all child of the current node, that ends the route.
+     * If <code>copyOnWrite</code> is true, the current node must be a copy owned by the caller,
+     * and an existing child node is copied before being returned.
+     */
+    private static <T extends HttpRoute> @NotNull IndexedRoutes<T> computeCatchAllIndex(
+        @NotNull IndexedRoutes<T> currentIndex, @NotNull String segmentName, int segmentIndex, @NotNull Map<String, Integer> patterns,
+        boolean copyOnWrite
+    ) {
+        patterns.put(segmentName, segmentIndex);
+        if (copyOnWrite && currentIndex.getCatchAll() != null) {
+            IndexedRoutes<T> catchAllCopy = currentIndex.getCatchAll().copy();
+            currentIndex.setCatchAll(catchAllCopy);
+            return catchAllCopy;
+        }
+        if (currentIndex.getCatchAll() == null) {
+            IndexedRoutes<T> catchAll = new IndexedRoutes<>(
+                null,
+                segmentIndex,
+                new SegmentTable<>(),
+                null
+            );
+            currentIndex.setCatchAll(catchAll);
+            return catchAll;
+        }
+        return currentIndex.getCatchAll();
+    }
+
+    /**
+     * Remove a route from the routes index tree.<br>
+     * <br>
+     * The route is found using its HTTP method and its path, and it is removed only if the indexed route has the same identifier.
+     * Nodes that do not contain any route after the removal are removed from the tree,
+     * so the cost of a removal depends on the number of segments of the route, not on the number of routes in the index.<br>
+     * <br>
+     * Returns the removed route leaf, or null if the route is not in the tree.
+     */
+    public static <T extends HttpRoute> @Nullable IndexRouteLeaf<T> removeRouteFromIndex(@NotNull Map<String, IndexedRoutes<T>> indexedRoutes, @NotNull T route) {
+        return removeRouteFromIndex(indexedRoutes, route, false);
+    }
+
+    /**
+     * Remove a route from the routes index tree without modifying the existing {@link IndexedRoutes} nodes,
+     * see {@link #removeRouteFromIndex(Map, HttpRoute)} and {@link #addRouteToIndexCopyOnWrite(Map, HttpRoute)}.<br>
+     * <br>
+     * Returns the removed route leaf, or null if the route is not in the tree. In this case, the <code>indexedRoutes</code> map is not modified.
+     */
+    public static <T extends HttpRoute> @Nullable IndexRouteLeaf<T> removeRouteFromIndexCopyOnWrite(@NotNull Map<String, IndexedRoutes<T>> indexedRoutes, @NotNull T route) {
+        return removeRouteFromIndex(indexedRoutes, route, true);
+    }
+
+    private static <T extends HttpRoute> @Nullable IndexRouteLeaf<T> removeRouteFromIndex(
+        @NotNull Map<String, IndexedRoutes<T>> indexedRoutes, @NotNull T route, boolean copyOnWrite
+    ) {
+        List<ParsedSegment> childSegments = new ArrayList<>();
+        List<IndexedRoutes<T>> routeNodes = findRouteNodes(
+            indexedRoutes, route.method(), HttpRoutes.parsePathAsSegments(route.path()), childSegments
+        );
+        if (routeNodes == null) {
+            return null;
+        }
+        IndexedRoutes<T> routeNode = routeNodes.get(routeNodes.size() - 1);
+        IndexRouteLeaf<T> removedLeaf = routeNode.getLastRoute();
+        if (!removedLeaf.httpRoute().routeId().equals(route.routeId())) {
+            return null;
+        }
+        if (copyOnWrite) {
+            routeNodes = copyRouteNodes(indexedRoutes, route.method(), routeNodes, childSegments);
+            routeNode = routeNodes.get(routeNodes.size() - 1);
+        }
+        routeNode.setLastRoute(null);
+        // prune the nodes left without any route, from the deepest one
+        int nodeIndex = routeNodes.size() - 1;
+        while (nodeIndex > 0 && isEmpty(routeNodes.get(nodeIndex))) {
+            setChild(routeNodes.get(nodeIndex - 1), childSegments.get(nodeIndex - 1), null);
+            nodeIndex--;
+        }
+        if (nodeIndex == 0 && isEmpty(routeNodes.get(0))) {
+            indexedRoutes.remove(route.method());
+        }
+        return removedLeaf;
+    }
+
+    /**
+     * Replace the route indexed for the HTTP method and the generic path of a route, e.g. to change the data of the route.
+     * The other nodes of the tree are not modified.<br>
+     * <br>
+     * Returns the replaced route leaf, or null if there is no route for this HTTP method and this generic path.
+     * In this case, the route is not added.
+     */
+    public static <T extends HttpRoute> @Nullable IndexRouteLeaf<T> replaceRouteInIndex(@NotNull Map<String, IndexedRoutes<T>> indexedRoutes, @NotNull T route) {
+        return replaceRouteInIndex(indexedRoutes, route, false);
+    }
+
+    /**
+     * Replace a route in the routes index tree without modifying the existing {@link IndexedRoutes} nodes,
+     * see {@link #replaceRouteInIndex(Map, HttpRoute)} and {@link #addRouteToIndexCopyOnWrite(Map, HttpRoute)}.<br>
+     * <br>
+     * Returns the replaced route leaf, or null if there is no route for this HTTP method and this generic path.
+     * In this case, the <code>indexedRoutes</code> map is not modified.
+     */
+    public static <T extends HttpRoute> @Nullable IndexRouteLeaf<T> replaceRouteInIndexCopyOnWrite(@NotNull Map<String, IndexedRoutes<T>> indexedRoutes, @NotNull T route) {
+        return replaceRouteInIndex(indexedRoutes, route, true);
+    }
+
+    private static <T extends HttpRoute> @Nullable IndexRouteLeaf<T> replaceRouteInIndex(
+        @NotNull Map<String, IndexedRoutes<T>> indexedRoutes, @NotNull T route, boolean copyOnWrite
+    ) {
+        List<ParsedSegment> pathSegments = HttpRoutes.parsePathAsSegments(route.path());
+        List<ParsedSegment> childSegments = new ArrayList<>();
+        List<IndexedRoutes<T>> routeNodes = findRouteNodes(indexedRoutes, route.method(), pathSegments, childSegments);
+        if (routeNodes == null) {
+            return null;
+        }
+        if (copyOnWrite) {
+            routeNodes = copyRouteNodes(indexedRoutes, route.method(), routeNodes, childSegments);
+        }
+        IndexedRoutes<T> routeNode = routeNodes.get(routeNodes.size() - 1);
+        IndexRouteLeaf<T> replacedLeaf = routeNode.getLastRoute();
+        routeNode.setLastRoute(createRouteLeaf(route, pathSegments));
+        return replacedLeaf;
+    }
+
+    /**
+     * Find the nodes from the root node to the node of a route, without modifying the tree
+     * @param childSegments The list to which are added the segments leading to each node after the root node,
+     *                      so <code>childSegments[i]</code> is the segment of <code>nodes[i + 1]</code> in <code>nodes[i]</code>
+     * @return The nodes, or null if the tree does not contain a route for the HTTP method and the path segments
+     */
+    private static <T extends HttpRoute> @Nullable List<IndexedRoutes<T>> findRouteNodes(
+        @NotNull Map<String, IndexedRoutes<T>> indexedRoutes, @NotNull String method, @NotNull List<ParsedSegment> pathSegments,
+        @NotNull List<ParsedSegment> childSegments
+    ) {
+        IndexedRoutes<T> currentIndex = indexedRoutes.get(method);
+        if (currentIndex == null) {
+            return null;
+        }
+        List<IndexedRoutes<T>> routeNodes = new ArrayList<>();
+        routeNodes.add(currentIndex);
+        int segmentIndex = 0;
+        while (segmentIndex < pathSegments.size()) {
+            ParsedSegment segment = pathSegments.get(segmentIndex);
+            currentIndex = child(currentIndex, segment);
+            if (currentIndex == null) {
+                return null;
+            }
+            routeNodes.add(currentIndex);
+            childSegments.add(segment);
+            segmentIndex++;
+            // the compressed segments of the node must be the next segments of the path
+            for (int i = 0; i < currentIndex.compressedSegmentsCount(); i++, segmentIndex++) {
+                if (segmentIndex >= pathSegments.size()
+                    || pathSegments.get(segmentIndex).isPattern()
+                    || !pathSegments.get(segmentIndex).name().equals(currentIndex.getCompressedSegments()[i])) {
+                    return null;
+                }
+            }
+        }
+        return currentIndex.getLastRoute() == null ? null : routeNodes;
+    }
+
+    /**
+     * Copy the nodes found by {@link #findRouteNodes(Map, String, List, List)}, each copy replacing the copied node in the copy of its parent node
+     * @return The copied nodes, the other nodes of the tree are shared with the previous version of the tree
+     */
+    private static <T extends HttpRoute> @NotNull List<IndexedRoutes<T>> copyRouteNodes(
+        @NotNull Map<String, IndexedRoutes<T>> indexedRoutes, @NotNull String method, @NotNull List<IndexedRoutes<T>> routeNodes,
+        @NotNull List<ParsedSegment> childSegments
+    ) {
+        List<IndexedRoutes<T>> copiedNodes = new ArrayList<>(routeNodes.size());
+        copiedNodes.add(routeNodes.get(0).copy());
+        indexedRoutes.put(method, copiedNodes.get(0));
+        for (int nodeIndex = 1; nodeIndex < routeNodes.size(); nodeIndex++) {
+            IndexedRoutes<T> nodeCopy = routeNodes.get(nodeIndex).copy();
+            setChild(copiedNodes.get(nodeIndex - 1), childSegments.get(nodeIndex - 1), nodeCopy);
+            copiedNodes.add(nodeCopy);
+        }
+        return copiedNodes;
+    }
+
+    /**
+     * Returns the child node of a node for a segment of a route, or null if the node has no such child
+     */
+    private static <T extends HttpRoute> @Nullable IndexedRoutes<T> child(@NotNull IndexedRoutes<T> node, @NotNull ParsedSegment segment) {
+        if (segment.isCatchAll()) {
+            return node.getCatchAll();
+        }
+        if (segment.isPattern() && segment.constraint() != null) {
+            return node.getConstrainedPattern(segment.constraint());
+        }
+        if (segment.isPattern()) {
+            return node.getPattern();
+        }
+        return node.getSegments().get(segment.name());
+    }
+
+    /**
+     * Replace the child node of a node for a segment of a route
+     * @param child The new child node, or null to remove the child node
+     */
+    private static <T extends HttpRoute> void setChild(@NotNull IndexedRoutes<T> node, @NotNull ParsedSegment segment, @Nullable IndexedRoutes<T> child) {
+        if (segment.isCatchAll()) {
+            node.setCatchAll(child);
+        } else if (segment.isPattern() && segment.constraint() != null) {
+            List<IndexedRoutes<T>> constrainedPatterns = node.getConstrainedPatterns();
+            for (int position = 0; position < constrainedPatterns.size(); position++) {
+                if (constrainedPatterns.get(position).getConstraint().equals(segment.constraint())) {
+                    if (child != null) {
+                        constrainedPatterns.set(position, child);
+                    } else {
+                        constrainedPatterns.remove(position);
+                    }
+                    break;
+                }
+            }
+            if (constrainedPatterns.isEmpty()) {
+                node.setConstrainedPatterns(null);
+            }
+        } else if (segment.isPattern()) {
+            node.setPattern(child);
+        } else if (child != null) {
+            node.getSegments().put(segment.name(), child);
+        } else {
+            node.getSegments().remove(segment.name());
+        }
+    }
+
+    private static boolean isEmpty(@NotNull IndexedRoutes<?> node) {
+        return node.getLastRoute() == null
+            && node.getSegments().isEmpty()
+            && node.getPattern() == null
+            && node.getConstrainedPatterns() == null
+            && node.getCatchAll() == null;
+    }
+
+    /**
+     * Create the leaf of a route: the positions of the patterns of a route only depend on its path segments
+     */
+    private static <T extends HttpRoute> @NotNull IndexRouteLeaf<T> createRouteLeaf(@NotNull T route, @NotNull List<ParsedSegment> pathSegments) {
+        Map<String, Integer> patternIndexes = new HashMap<>();
+        Map<Integer, SegmentTemplate> segmentTemplates = Map.of();
+        for (int segmentIndex = 1; segmentIndex <= pathSegments.size(); segmentIndex++) {
+            ParsedSegment segment = pathSegments.get(segmentIndex - 1);
+            SegmentTemplate template = segment.constraint() == null ? null : segment.constraint().template();
+            if (template != null) {
+                for (int parameterIndex = 0; parameterIndex < template.parametersCount(); parameterIndex++) {
+                    patternIndexes.put(template.parameterName(parameterIndex), segmentIndex);
+                }
+                if (segmentTemplates.isEmpty()) {
+                    segmentTemplates = new HashMap<>();
+                }
+                segmentTemplates.put(segmentIndex, template);
+            } else if (segment.isPattern()) {
+                patternIndexes.put(segment.name(), segmentIndex);
+            }
+        }
+        boolean endsWithCatchAll = !pathSegments.isEmpty() && pathSegments.get(pathSegments.size() - 1).isCatchAll();
+        return new IndexRouteLeaf<>(patternIndexes, route, endsWithCatchAll ? pathSegments.size() : 0, segmentTemplates);
+    }
+
+    /**
+     * Call the consumer for each route leaf of a routes index
+     */
+    public static <T extends HttpRoute> void forEachRouteLeaf(
+        @NotNull Map<String, IndexedRoutes<T>> indexedRoutes, @NotNull Consumer<IndexRouteLeaf<T>> leafConsumer
+    ) {
+        for (IndexedRoutes<T> rootIndex : indexedRoutes.values()) {
+            forEachRouteLeaf(rootIndex, leafConsumer);
+        }
+    }
+
+    private static <T extends HttpRoute> void forEachRouteLeaf(@NotNull IndexedRoutes<T> node, @NotNull Consumer<IndexRouteLeaf<T>> leafConsumer) {
+        if (node.getLastRoute() != null) {
+            leafConsumer.accept(node.getLastRoute());
+        }
+        for (IndexedRoutes<T> segment : node.getSegments().values()) {
+            forEachRouteLeaf(segment, leafConsumer);
+        }
+        if (node.getConstrainedPatterns() != null) {
+            for (IndexedRoutes<T> constrainedPattern : node.getConstrainedPatterns()) {
+                forEachRouteLeaf(constrainedPattern, leafConsumer);
+            }
+        }
+        if (node.getPattern() != null) {
+            forEachRouteLeaf(node.getPattern(), leafConsumer);
+        }
+        if (node.getCatchAll() != null) {
+            forEachRouteLeaf(node.getCatchAll(), leafConsumer);
+        }
+    }
+
     /**
      * Main indexation method
      */
@@ -112,4 +605,150 @@ public class SearchRouteIndexer {
         // 3. Returns the route index
         return routesIndex;
     }
+
+    /**
+     * Same as {@link #indexRoutes(Iterable)}, the segment and pattern names stored in the index being shared using a pool.
+     * When the routes are also validated by an {@link HttpRoutesIndex}, the same pool can be used by the two indexes, see {@link PathInterner}
+     */
+    public static <T extends HttpRoute> @NotNull Map<String, IndexedRoutes<T>> indexRoutes(@NotNull Iterable<T> routes, @NotNull PathInterner interner) {
+        Map<String, IndexedRoutes<T>> routesIndex = new HashMap<>();
+        for (T route : routes) {
+            addRouteToIndex(routesIndex, route, interner);
+        }
+        return routesIndex;
+    }
+
+    /**
+     * Create a compressed copy of a routes index: chains of nodes that have only one static segment and no route and no pattern
+     * are collapsed in a single node, see the compressed segments of {@link IndexedRoutes}.
+     * For example, with the routes <code>/api/v2/internal/admin/users/{id}</code> and <code>/api/v2/internal/admin/roles</code>,
+     * the node of the <code>api</code> segment has the compressed segments <code>["v2", "internal", "admin"]</code>.<br>
+     * <br>
+     * A compressed index contains fewer nodes, and a compressed node is searched by comparing the request segments
+     * with its compressed segments instead of looking up a child node for each segment.
+     * Routes can still be added to a compressed index using {@link #addRouteToIndex(Map, HttpRoute)}:
+     * compressed nodes are split when needed.<br>
+     * <br>
+     * The index passed as parameter is not modified.
+     */
+    public static <T extends HttpRoute> @NotNull Map<String, IndexedRoutes<T>> compressIndex(@NotNull Map<String, IndexedRoutes<T>> indexedRoutes) {
+        Map<String, IndexedRoutes<T>> compressedIndex = new HashMap<>();
+        for (Map.Entry<String, IndexedRoutes<T>> methodIndex : indexedRoutes.entrySet()) {
+            compressedIndex.put(methodIndex.getKey(), compressNode(methodIndex.getValue(), true));
+        }
+        return compressedIndex;
+    }
+
+    private static <T extends HttpRoute> @NotNull IndexedRoutes<T> compressNode(@NotNull IndexedRoutes<T> node, boolean rootNode) {
+        List<String> compressedSegments = new ArrayList<>();
+        if (node.getCompressedSegments() != null) {
+            compressedSegments.addAll(Arrays.asList(node.getCompressedSegments()));
+        }
+        IndexedRoutes<T> contentNode = node;
+        // the root node does not match any segment, so it cannot be compressed
+        while (!rootNode && contentNode.getLastRoute() == null && contentNode.getPattern() == null
+            && contentNode.getConstrainedPatterns() == null && contentNode.getCatchAll() == null && contentNode.getSegments().size() == 1) {
+            Map.Entry<String, IndexedRoutes<T>> onlySegment = contentNode.getSegments().entrySet().iterator().next();
+            compressedSegments.add(onlySegment.getKey());
+            contentNode = onlySegment.getValue();
+            if (contentNode.getCompressedSegments() != null) {
+                compressedSegments.addAll(Arrays.asList(contentNode.getCompressedSegments()));
+            }
+        }
+
+        SegmentTable<T> segments = new SegmentTable<>();
+        for (Map.Entry<String, IndexedRoutes<T>> segment : contentNode.getSegments().entrySet()) {
+            segments.put(segment.getKey(), compressNode(segment.getValue(), false));
+        }
+        IndexedRoutes<T> compressedNode = new IndexedRoutes<>(
+            contentNode.getLastRoute(),
+            contentNode.getDepth(),
+            segments,
+            contentNode.getPattern() == null ? null : compressNode(contentNode.getPattern(), false)
+        );
+        if (contentNode.getConstrainedPatterns() != null) {
+            List<IndexedRoutes<T>> constrainedPatterns = new ArrayList<>();
+            for (IndexedRoutes<T> constrainedPattern : contentNode.getConstrainedPatterns()) {
+                constrainedPatterns.add(compressNode(constrainedPattern, false));
+            }
+            compressedNode.setConstrainedPatterns(constrainedPatterns);
+        }
+        compressedNode.setCatchAll(contentNode.getCatchAll() == null ? null : compressNode(contentNode.getCatchAll(), false));
+        // the constraint applies to the segment of the first node, before the compressed segments
+        compressedNode.setConstraint(node.getConstraint());
+        compressedNode.setCompressedSegments(compressedSegments.isEmpty() ? null : compressedSegments.toArray(String[]::new));
+        return compressedNode;
+    }
+
+    /**
+     * Index routes using multiple threads of the common {@link java.util.concurrent.ForkJoinPool}.<br>
+     * <br>
+     * Route paths are parsed in parallel, then routes are grouped by HTTP method and by first segment:
+     * a sub-tree is built in parallel for each group, then the sub-trees are attached to the method root nodes.
+     * Routes of different groups cannot conflict, and the routes of a group are added in the order of the <code>routes</code> list,
+     * so like with {@link #indexRoutes(Iterable)}, if multiple routes have the same generic path, the first one is indexed.
+     * The resulting index is the same as the one created by {@link #indexRoutes(Iterable)}.<br>
+     * <br>
+     * This is useful only for large route tables, like more than 10 000 routes.
+     */
+    public static <T extends HttpRoute> @NotNull Map<String, IndexedRoutes<T>> indexRoutesInParallel(@NotNull List<T> routes) {
+        // 1. Parse paths
+        List<List<ParsedSegment>> routesSegments = routes
+            .parallelStream()
+            .map(route -> HttpRoutes.parsePathAsSegments(route.path()))
+            .toList();
+        // 2. Group routes by method and first segment, the routes order is kept inside each group
+        Map<RoutesGroup, List<Integer>> routesGroups = new HashMap<>();
+        for (int routeIndex = 0; routeIndex < routes.size(); routeIndex++) {
+            routesGroups
+                .computeIfAbsent(RoutesGroup.of(routes.get(routeIndex), routesSegments.get(routeIndex)), group -> new ArrayList<>())
+                .add(routeIndex);
+        }
+        // 3. Build a sub-tree for each group
+        List<Map<String, IndexedRoutes<T>>> groupsIndexes = routesGroups
+            .values()
+            .parallelStream()
+            .map(groupRoutesIndexes -> {
+                Map<String, IndexedRoutes<T>> groupIndex = new HashMap<>();
+                for (int routeIndex : groupRoutesIndexes) {
+                    addRouteToIndex(groupIndex, routes.get(routeIndex), routesSegments.get(routeIndex), false);
+                }
+                return groupIndex;
+            })
+            .toList();
+        // 4. Attach the sub-trees to the method root nodes
+        Map<String, IndexedRoutes<T>> routesIndex = new HashMap<>();
+        for (Map<String, IndexedRoutes<T>> groupIndex : groupsIndexes) {
+            for (Map.Entry<String, IndexedRoutes<T>> groupMethodIndex : groupIndex.entrySet()) {
+                IndexedRoutes<T> rootIndex = routesIndex.putIfAbsent(groupMethodIndex.getKey(), groupMethodIndex.getValue());
+                if (rootIndex != null) {
+                    // the group root node has only one child: the first segment of the group
+                    rootIndex.getSegments().putAll(groupMethodIndex.getValue().getSegments());
+                    if (groupMethodIndex.getValue().getPattern() != null) {
+                        rootIndex.setPattern(groupMethodIndex.getValue().getPattern());
+                    }
+                    if (groupMethodIndex.getValue().getConstrainedPatterns() != null) {
+                        rootIndex.setConstrainedPatterns(groupMethodIndex.getValue().getConstrainedPatterns());
+                    }
+                    if (groupMethodIndex.getValue().getCatchAll() != null) {
+                        rootIndex.setCatchAll(groupMethodIndex.getValue().getCatchAll());
+                    }
+                }
+            }
+        }
+        return routesIndex;
+    }
+
+    /**
+     * Routes that share the same HTTP method and the same first segment.
+     * All pattern first segments are in the same group, whatever the pattern name and the pattern constraint.
+     */
+    private record RoutesGroup(@NotNull String method, @Nullable String firstSegment) {
+        static @NotNull RoutesGroup of(@NotNull HttpRoute route, @NotNull List<ParsedSegment> pathSegments) {
+            if (pathSegments.isEmpty() || pathSegments.get(0).isPattern()) {
+                return new RoutesGroup(route.method(), null);
+            }
+            return new RoutesGroup(route.method(), pathSegments.get(0).name());
+        }
+    }
 }
@@ -0,0 +1,323 @@
+package com.coreoz.http.routes.router.index;
+
+import com.coreoz.http.routes.router.HttpRoute;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The static segments of an {@link IndexedRoutes} node: a {@link Map} of segment names to child nodes
+ * in which a child can be found using a slice of the request path, see {@link #get(CharSequence, int, int)}.
+ * So searching a route does not require creating a {@link String} for each request path segment.<br>
+ * <br>
+ * The lookup strategy is chosen for each node depending on the number of segments:
+ * <pre>
+ * - up to {@value #LINEAR_SCAN_MAX_SIZE} segments: hashes and names are stored in packed arrays that are scanned linearly
+ * - more segments: an open addressing hash table with linear probing, with a load factor lower than 0.5
+ * </pre>
+ * Segment hashes are the same as {@link String#hashCode()}, so they are computed only once for each request path segment.<br>
+ * <br>
+ * This class is not thread safe: once a table is read by other threads, it must not be modified anymore.
+ * @param <T> The type of {@link HttpRoute} stored in the routes index
+ */
+public final class SegmentTable<T extends HttpRoute> extends AbstractMap<String, IndexedRoutes<T>> {
+    static final int LINEAR_SCAN_MAX_SIZE = 8;
+    private static final int INITIAL_CAPACITY = 2;
+
+    // in linear scan mode, entries are stored from index 0 to size - 1.
+    // in hash table mode, arrays are the table slots and empty slots have a null name
+    private String[] names;
+    private int[] hashes;
+    private IndexedRoutes<T>[] children;
+    private int size;
+    private boolean hashTable;
+
+    public SegmentTable() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create a table containing the segments of an existing {@link Map}
+     */
+    public SegmentTable(@NotNull Map<String, IndexedRoutes<T>> segments) {
+        allocate(segments.size() <= LINEAR_SCAN_MAX_SIZE ? Math.max(INITIAL_CAPACITY, segments.size()) : hashTableCapacity(segments.size()));
+        hashTable = segments.size() > LINEAR_SCAN_MAX_SIZE;
+        for (Map.Entry<String, IndexedRoutes<T>> segment : segments.entrySet()) {
+            put(segment.getKey(), segment.getValue());
+        }
+    }
+
+    /**
+     * Returns the table of segments, the table itself if segments is already a {@link SegmentTable}
+     */
+    static <T extends HttpRoute> @NotNull SegmentTable<T> of(@NotNull Map<String, IndexedRoutes<T>> segments) {
+        if (segments instanceof SegmentTable<T> segmentTable) {
+            return segmentTable;
+        }
+        return new SegmentTable<>(segments);
+    }
+
+    /**
+     * Find the child node of a segment, without creating a {@link String} for the segment
+     * @param path The request path, or any {@link CharSequence} containing the segment name
+     * @param start The index of the first character of the segment name
+     * @param end The index following the last character of the segment name
+     * @return The child node, or null if there is no segment with this name
+     */
+    public @Nullable IndexedRoutes<T> get(@NotNull CharSequence path, int start, int end) {
+        if (size == 0) {
+            return null;
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + path.charAt(i);
+        }
+        int index = hashTable ? findSlot(hash, path, start, end) : findIndex(hash, path, start, end);
+        return index < 0 ? null : children[index];
+    }
+
+    @Override
+    public @Nullable IndexedRoutes<T> get(@Nullable Object name) {
+        if (!(name instanceof String segmentName)) {
+            return null;
+        }
+        return get(segmentName, 0, segmentName.length());
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object name) {
+        return get(name) != null;
+    }
+
+    @Override
+    public @Nullable IndexedRoutes<T> put(@NotNull String name, @NotNull IndexedRoutes<T> child) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(child);
+        int hash = name.hashCode();
+        int index = hashTable ? findSlot(hash, name, 0, name.length()) : findIndex(hash, name, 0, name.length());
+        if (index >= 0) {
+            IndexedRoutes<T> previousChild = children[index];
+            children[index] = child;
+            return previousChild;
+        }
+
+        if (hashTable) {
+            if ((size + 1) * 2 > names.length) {
+                rehash(names.length * 2);
+            }
+            insertInHashTable(name, hash, child);
+        } else if (size < LINEAR_SCAN_MAX_SIZE) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, names.length * 2);
+                hashes = Arrays.copyOf(hashes, hashes.length * 2);
+                children = Arrays.copyOf(children, children.length * 2);
+            }
+            names[size] = name;
+            hashes[size] = hash;
+            children[size] = child;
+        } else {
+            rehash(hashTableCapacity(size + 1));
+            insertInHashTable(name, hash, child);
+        }
+        size++;
+        return null;
+    }
+
+    @Override
+    public @Nullable IndexedRoutes<T> remove(@Nullable Object name) {
+        if (!(name instanceof String segmentName)) {
+            return null;
+        }
+        int hash = segmentName.hashCode();
+        if (!hashTable) {
+            int index = findIndex(hash, segmentName, 0, segmentName.length());
+            if (index < 0) {
+                return null;
+            }
+            IndexedRoutes<T> removedChild = children[index];
+            int movedCount = size - index - 1;
+            System.arraycopy(names, index + 1, names, index, movedCount);
+            System.arraycopy(hashes, index + 1, hashes, index, movedCount);
+            System.arraycopy(children, index + 1, children, index, movedCount);
+            size--;
+            names[size] = null;
+            children[size] = null;
+            return removedChild;
+        }
+
+        int slot = findSlot(hash, segmentName, 0, segmentName.length());
+        if (slot < 0) {
+            return null;
+        }
+        IndexedRoutes<T> removedChild = children[slot];
+        removeFromHashTable(slot);
+        size--;
+        return removedChild;
+    }
+
+    @Override
+    public void clear() {
+        hashTable = false;
+        size = 0;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public @NotNull Set<Entry<String, IndexedRoutes<T>>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public @NotNull Iterator<Entry<String, IndexedRoutes<T>>> iterator() {
+                return new Iterator<>() {
+                    private int nextIndex = nextEntryIndex(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return nextIndex >= 0;
+                    }
+
+                    @Override
+                    public Entry<String, IndexedRoutes<T>> next() {
+                        if (nextIndex < 0) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, IndexedRoutes<T>> entry = new SimpleImmutableEntry<>(names[nextIndex], children[nextIndex]);
+                        nextIndex = nextEntryIndex(nextIndex + 1);
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Returns true if segments are stored in a hash table, false if they are scanned linearly
+     */
+    boolean isHashTable() {
+        return hashTable;
+    }
+
+    private int nextEntryIndex(int fromIndex) {
+        int entriesEnd = hashTable ? names.length : size;
+        for (int index = fromIndex; index < entriesEnd; index++) {
+            if (names[index] != null) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private int findIndex(int hash, @NotNull CharSequence path, int start, int end) {
+        for (int index = 0; index < size; index++) {
+            if (hashes[index] == hash && nameEquals(names[index], path, start, end)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private int findSlot(int hash, @NotNull CharSequence path, int start, int end) {
+        int mask = names.length - 1;
+        for (int slot = spreadHash(hash) & mask; names[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && nameEquals(names[slot], path, start, end)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insertInHashTable(@NotNull String name, int hash, @NotNull IndexedRoutes<T> child) {
+        int mask = names.length - 1;
+        int slot = spreadHash(hash) & mask;
+        while (names[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        names[slot] = name;
+        hashes[slot] = hash;
+        children[slot] = child;
+    }
+
+    /**
+     * Empty a slot and move back the following entries of the probe sequence, so no tombstone is needed
+     */
+    private void removeFromHashTable(int removedSlot) {
+        int mask = names.length - 1;
+        int emptySlot = removedSlot;
+        names[emptySlot] = null;
+        children[emptySlot] = null;
+        for (int slot = (emptySlot + 1) & mask; names[slot] != null; slot = (slot + 1) & mask) {
+            int idealSlot = spreadHash(hashes[slot]) & mask;
+            // the entry can be moved if its ideal slot is not between the empty slot and its current slot
+            if (((slot - idealSlot) & mask) >= ((slot - emptySlot) & mask)) {
+                names[emptySlot] = names[slot];
+                hashes[emptySlot] = hashes[slot];
+                children[emptySlot] = children[slot];
+                names[slot] = null;
+                children[slot] = null;
+                emptySlot = slot;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        String[] previousNames = names;
+        int[] previousHashes = hashes;
+        IndexedRoutes<T>[] previousChildren = children;
+        int previousEntriesEnd = hashTable ? previousNames.length : size;
+        allocate(capacity);
+        hashTable = true;
+        for (int index = 0; index < previousEntriesEnd; index++) {
+            if (previousNames[index] != null) {
+                insertInHashTable(previousNames[index], previousHashes[index], previousChildren[index]);
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void allocate(int capacity) {
+        names = new String[capacity];
+        hashes = new int[capacity];
+        children = new IndexedRoutes[capacity];
+    }
+
+    /**
+     * Returns a power of two capacity for which the load factor is lower than 0.5
+     */
+    private static int hashTableCapacity(int size) {
+        return Integer.highestOneBit(size) << 2;
+    }
+
+    private static int spreadHash(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean nameEquals(@NotNull String name, @NotNull CharSequence path, int start, int end) {
+        int length = end - start;
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != path.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,89 @@
+package com.coreoz.http.routes.router.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds, with a bounded relative error and a fixed memory footprint.<br>
+ * <br>
+ * Durations lower than {@value #LINEAR_BUCKETS_COUNT} nanoseconds have their own bucket.
+ * Above, each power of 2 range is split in {@value #SUB_BUCKETS_COUNT} buckets of equal width,
+ * so a duration is stored with a relative error lower than 12.5%: this is the layout used by HdrHistogram.<br>
+ * <br>
+ * This class is thread safe, recording a duration does not take any lock.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKETS_BITS = 3;
+    private static final int SUB_BUCKETS_COUNT = 1 << SUB_BUCKETS_BITS;
+    private static final int LINEAR_BUCKETS_COUNT = SUB_BUCKETS_COUNT * 2;
+    // the highest bucket is the one of Long.MAX_VALUE
+    private static final int BUCKETS_COUNT = bucketIndex(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKETS_COUNT);
+
+    /**
+     * Record a duration
+     * @param durationNanos The duration in nanoseconds, negative durations are recorded as 0
+     */
+    public void record(long durationNanos) {
+        bucketCounts.incrementAndGet(bucketIndex(Math.max(0, durationNanos)));
+    }
+
+    /**
+     * Returns the number of recorded durations
+     */
+    public long count() {
+        long count = 0;
+        for (int bucketIndex = 0; bucketIndex < BUCKETS_COUNT; bucketIndex++) {
+            count += bucketCounts.get(bucketIndex);
+        }
+        return count;
+    }
+
+    /**
+     * Returns an upper bound of a percentile of the recorded durations
+     * @param percentile The percentile, between 0 and 100, e.g. 99 for the 99th percentile
+     * @return The duration in nanoseconds, or 0 if no duration has been recorded
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100: " + percentile);
+        }
+        long[] counts = new long[BUCKETS_COUNT];
+        long count = 0;
+        for (int bucketIndex = 0; bucketIndex < BUCKETS_COUNT; bucketIndex++) {
+            counts[bucketIndex] = bucketCounts.get(bucketIndex);
+            count += counts[bucketIndex];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long cumulatedCount = 0;
+        for (int bucketIndex = 0; bucketIndex < BUCKETS_COUNT; bucketIndex++) {
+            cumulatedCount += counts[bucketIndex];
+            if (cumulatedCount >= rank) {
+                return bucketUpperBound(bucketIndex);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private static int bucketIndex(long durationNanos) {
+        if (durationNanos < LINEAR_BUCKETS_COUNT) {
+            return (int) durationNanos;
+        }
+        // the SUB_BUCKETS_BITS + 1 highest bits of the duration are kept
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(durationNanos) - SUB_BUCKETS_BITS;
+        return (shift << SUB_BUCKETS_BITS) + (int) (durationNanos >>> shift);
+    }
+
+    private static long bucketUpperBound(int bucketIndex) {
+        if (bucketIndex < LINEAR_BUCKETS_COUNT) {
+            return bucketIndex;
+        }
+        int shift = (bucketIndex >>> SUB_BUCKETS_BITS) - 1;
+        long highestBits = (bucketIndex & (SUB_BUCKETS_COUNT - 1)) + SUB_BUCKETS_COUNT;
+        // for the last bucket, the shift overflows to Long.MIN_VALUE, so the upper bound is Long.MAX_VALUE
+        return ((highestBits + 1) << shift) - 1;
+    }
+}
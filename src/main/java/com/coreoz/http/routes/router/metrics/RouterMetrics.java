@@ -0,0 +1,124 @@
+package com.coreoz.http.routes.router.metrics;
+
+import com.coreoz.http.routes.router.HttpRoute;
+import com.coreoz.http.routes.router.index.IndexRouteLeaf;
+import com.coreoz.http.routes.router.search.RouteMatcher;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link SearchListener} that aggregates the searches of a router:<br>
+ * - the number of hits of each route, to find hot routes<br>
+ * - the number of searches that did not find any route, by HTTP method<br>
+ * - the number of branches explored and of backtracks, to find out whether the index shape makes searches expensive<br>
+ * - the search latency histogram<br>
+ * <br>
+ * Counters are {@link LongAdder}s, so threads searching routes concurrently do not contend on the same counter.
+ * Route hits are counted by route, so they are kept when the index is compressed or compiled.<br>
+ * <br>
+ * This class is thread safe.
+ * @param <T> The type of {@link HttpRoute} stored in the router
+ */
+public class RouterMetrics<T extends HttpRoute> implements SearchListener<T> {
+    private final @NotNull Map<T, LongAdder> routeHitCounts = new ConcurrentHashMap<>();
+    private final @NotNull Map<String, LongAdder> missCountsByMethod = new ConcurrentHashMap<>();
+    private final @NotNull Function<Object, LongAdder> counterFactory = key -> new LongAdder();
+    private final @NotNull LongAdder searchCount = new LongAdder();
+    private final @NotNull LongAdder exploredBranchesCount = new LongAdder();
+    private final @NotNull LongAdder backtracksCount = new LongAdder();
+    private final @NotNull LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+    @Override
+    public void onSearch(@NotNull String method, @NotNull RouteMatcher<T> matcher, long durationNanos) {
+        searchCount.increment();
+        IndexRouteLeaf<T> matchingRouteLeaf = matcher.matchingRouteLeaf();
+        if (matchingRouteLeaf != null) {
+            counter(routeHitCounts, matchingRouteLeaf.httpRoute()).increment();
+        } else {
+            counter(missCountsByMethod, method).increment();
+        }
+        exploredBranchesCount.add(matcher.exploredBranchesCount());
+        backtracksCount.add(matcher.backtracksCount());
+        latencyHistogram.record(durationNanos);
+    }
+
+    private <K> @NotNull LongAdder counter(@NotNull Map<K, LongAdder> counters, @NotNull K key) {
+        // get() does not lock, whereas computeIfAbsent() may lock even if the counter exists
+        LongAdder counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        return counters.computeIfAbsent(key, counterFactory);
+    }
+
+    /**
+     * Returns the number of searches that found the route
+     * @param route The route, as it has been added to the router
+     */
+    public long hitCount(@NotNull T route) {
+        LongAdder hitCount = routeHitCounts.get(route);
+        return hitCount == null ? 0 : hitCount.sum();
+    }
+
+    /**
+     * Returns the number of searches that found each route, routes that have never been found are absent
+     */
+    public @NotNull Map<T, Long> hitCounts() {
+        return sums(routeHitCounts);
+    }
+
+    /**
+     * Returns the number of searches that did not find any route for an HTTP method
+     */
+    public long missCount(@NotNull String method) {
+        LongAdder missCount = missCountsByMethod.get(method);
+        return missCount == null ? 0 : missCount.sum();
+    }
+
+    /**
+     * Returns the number of searches that did not find any route by HTTP method
+     */
+    public @NotNull Map<String, Long> missCounts() {
+        return sums(missCountsByMethod);
+    }
+
+    /**
+     * Returns the number of searches
+     */
+    public long searchCount() {
+        return searchCount.sum();
+    }
+
+    /**
+     * Returns the total number of branches explored by searches, see {@link RouteMatcher#exploredBranchesCount()}
+     */
+    public long exploredBranchesCount() {
+        return exploredBranchesCount.sum();
+    }
+
+    /**
+     * Returns the total number of backtracks made by searches, see {@link RouteMatcher#backtracksCount()}
+     */
+    public long backtracksCount() {
+        return backtracksCount.sum();
+    }
+
+    /**
+     * Returns the histogram of search durations
+     */
+    public @NotNull LatencyHistogram latencyHistogram() {
+        return latencyHistogram;
+    }
+
+    private static <K> @NotNull Map<K, Long> sums(@NotNull Map<K, LongAdder> counters) {
+        return counters
+            .entrySet()
+            .stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, counter -> counter.getValue().sum()));
+    }
+}
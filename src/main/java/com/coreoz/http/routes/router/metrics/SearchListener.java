@@ -0,0 +1,27 @@
+package com.coreoz.http.routes.router.metrics;
+
+import com.coreoz.http.routes.router.HttpRoute;
+import com.coreoz.http.routes.router.search.RouteMatcher;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A listener called after each search made by a router, to export router metrics to a monitoring system.<br>
+ * <br>
+ * {@link RouterMetrics} is an implementation that aggregates hits, misses and latencies.
+ * Other implementations can forward searches to any metrics library, this project does not depend on any.<br>
+ * <br>
+ * The listener is called by the searching thread, so it must be thread safe and it should not block.
+ * @param <T> The type of {@link HttpRoute} stored in the router
+ */
+@FunctionalInterface
+public interface SearchListener<T extends HttpRoute> {
+    /**
+     * Called after a search.
+     * The matcher must not be kept after the call, because it is reused for the next search.
+     * @param method The HTTP method of the search
+     * @param matcher The search result: the matching route leaf, or null if no route has been found,
+     *                as well as {@link RouteMatcher#exploredBranchesCount()} and {@link RouteMatcher#backtracksCount()}
+     * @param durationNanos The duration of the search in nanoseconds
+     */
+    void onSearch(@NotNull String method, @NotNull RouteMatcher<T> matcher, long durationNanos);
+}
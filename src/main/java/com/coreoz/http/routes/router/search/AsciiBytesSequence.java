@@ -0,0 +1,143 @@
+package com.coreoz.http.routes.router.search;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A reusable {@link CharSequence} view of bytes, used to search routes directly in a request line read from the network,
+ * without decoding it as a {@link String}.<br>
+ * <br>
+ * Each byte is read as one character: this is the ISO-8859-1 decoding, so ASCII bytes are read as the same ASCII characters.
+ * Request targets are usually percent-encoded, so they contain only ASCII bytes and are matched like the decoded {@link String} would be.
+ * However, a route path containing non-ASCII characters is never matched by a request target that is not percent-encoded.<br>
+ * <br>
+ * The view does not copy the bytes: they must not be modified while the view is used.
+ * A view is not thread safe: it is owned by a {@link RouteMatcher}, see {@link RouteMatcher#requestBytes()}.
+ */
+public final class AsciiBytesSequence implements CharSequence {
+    private static final String[] STANDARD_METHODS = {"GET", "HEAD", "POST", "PUT", "DELETE", "PATCH", "OPTIONS", "TRACE", "CONNECT"};
+
+    private byte[] bytes;
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+
+    /**
+     * View bytes of an array
+     * @param bytes The array containing the bytes
+     * @param offset The offset in the array of the first byte
+     * @param length The number of bytes
+     * @return This view
+     */
+    public @NotNull AsciiBytesSequence wrap(byte @NotNull [] bytes, int offset, int length) {
+        checkRange(bytes.length, offset, length);
+        this.bytes = bytes;
+        this.buffer = null;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    /**
+     * View bytes of a buffer. The position and the limit of the buffer are neither used nor modified.
+     * @param buffer The buffer containing the bytes, it can be a heap buffer or a direct buffer
+     * @param offset The absolute index in the buffer of the first byte
+     * @param length The number of bytes
+     * @return This view
+     */
+    public @NotNull AsciiBytesSequence wrap(@NotNull ByteBuffer buffer, int offset, int length) {
+        checkRange(buffer.capacity(), offset, length);
+        if (buffer.hasArray()) {
+            return wrap(buffer.array(), buffer.arrayOffset() + offset, length);
+        }
+        this.bytes = null;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    /**
+     * Returns the offset of the first byte in the wrapped array or buffer.
+     * Offsets in this view, like {@link RouteMatcher#segmentStart(int)}, are converted to offsets in the array or buffer by adding this offset.<br>
+     * <br>
+     * For a heap {@link ByteBuffer}, this offset is in the backing array of the buffer,
+     * so the buffer offset is this offset minus {@link ByteBuffer#arrayOffset()}.
+     */
+    public int offset() {
+        return offset;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        }
+        if (bytes != null) {
+            return (char) (bytes[offset + index] & 0xFF);
+        }
+        return (char) (buffer.get(offset + index) & 0xFF);
+    }
+
+    /**
+     * Returns the content of the view as an HTTP method.
+     * Standard HTTP methods are returned as {@link String} constants, so no object is allocated for them.
+     */
+    public @NotNull String toMethod() {
+        for (String standardMethod : STANDARD_METHODS) {
+            if (contentEquals(standardMethod)) {
+                return standardMethod;
+            }
+        }
+        return toString();
+    }
+
+    private boolean contentEquals(@NotNull String value) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a copy of a part of the view as a {@link String}
+     */
+    @Override
+    public @NotNull CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") out of bounds for length " + length);
+        }
+        if (bytes != null) {
+            return new String(bytes, offset + start, end - start, StandardCharsets.ISO_8859_1);
+        }
+        byte[] copiedBytes = new byte[end - start];
+        buffer.get(offset + start, copiedBytes);
+        return new String(copiedBytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Returns a copy of the view as a {@link String}
+     */
+    @Override
+    public @NotNull String toString() {
+        return subSequence(0, length).toString();
+    }
+
+    private static void checkRange(int capacity, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > capacity - length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length + ") out of bounds for length " + capacity);
+        }
+    }
+}
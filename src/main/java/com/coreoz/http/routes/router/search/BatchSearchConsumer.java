@@ -0,0 +1,20 @@
+package com.coreoz.http.routes.router.search;
+
+import com.coreoz.http.routes.router.HttpRoute;
+import com.coreoz.http.routes.router.index.IndexRouteLeaf;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Receive the results of a batch search, see {@link BatchSearchEngine}
+ * @param <T> The type of {@link HttpRoute} stored in the routes index
+ */
+@FunctionalInterface
+public interface BatchSearchConsumer<T extends HttpRoute> {
+    /**
+     * Called once for each searched request
+     * @param requestIndex The index of the request in the searched methods and paths arrays
+     * @param matchingRouteLeaf The route found for the request, or null if no route matches the request.
+     *                          If parameter values are needed, they can be read using a {@link RouteMatcher}
+     */
+    void accept(int requestIndex, @Nullable IndexRouteLeaf<T> matchingRouteLeaf);
+}
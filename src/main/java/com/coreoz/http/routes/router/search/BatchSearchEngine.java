@@ -0,0 +1,179 @@
+package com.coreoz.http.routes.router.search;
+
+import com.coreoz.http.routes.router.HttpRoute;
+import com.coreoz.http.routes.router.index.IndexedRoutes;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Search routes for many requests at once, e.g. to replay access logs.<br>
+ * <br>
+ * Requests are searched one by one with {@link SearchRouteEngine}, reusing the same {@link RouteMatcher},
+ * so no object is allocated for each request.
+ * Grouping requests sharing the same path prefix to search the index tree once per group has been measured slower
+ * than searching requests one by one, the lookups saved not paying for the grouping.<br>
+ * <br>
+ * Large batches are split in chunks of {@value #CHUNK_SIZE} requests that can be searched in parallel in a {@link ForkJoinPool}.
+ */
+public class BatchSearchEngine {
+    static final int CHUNK_SIZE = 16_384;
+
+    /**
+     * Search routes for a batch of requests in the current thread.
+     * Results are passed to the consumer in the order of the requests.
+     * @param routesIndex The routes index by HTTP method: <code>{GET: IndexedRoutes, POST: IndexedRoutes, ...}</code>
+     * @param methods The HTTP methods of the requests
+     * @param paths The paths of the requests, the array must have the same length as <code>methods</code>
+     * @param consumer The consumer called once for each request
+     */
+    public static <T extends HttpRoute> void searchAll(
+        @NotNull Map<String, IndexedRoutes<T>> routesIndex,
+        @NotNull String @NotNull [] methods,
+        @NotNull CharSequence @NotNull [] paths,
+        @NotNull BatchSearchConsumer<T> consumer
+    ) {
+        searchAll(routesIndex, methods, paths, PathNormalization.DEFAULT, consumer);
+    }
+
+    /**
+     * Search routes for a batch of requests in the current thread.
+     * Results are passed to the consumer in the order of the requests.
+     * @param routesIndex The routes index by HTTP method: <code>{GET: IndexedRoutes, POST: IndexedRoutes, ...}</code>
+     * @param methods The HTTP methods of the requests
+     * @param paths The paths of the requests, the array must have the same length as <code>methods</code>
+     * @param pathNormalization The rules used to delimit the segments of the paths, see {@link PathNormalization}
+     * @param consumer The consumer called once for each request
+     */
+    public static <T extends HttpRoute> void searchAll(
+        @NotNull Map<String, IndexedRoutes<T>> routesIndex,
+        @NotNull String @NotNull [] methods,
+        @NotNull CharSequence @NotNull [] paths,
+        @NotNull PathNormalization pathNormalization,
+        @NotNull BatchSearchConsumer<T> consumer
+    ) {
+        checkRequests(methods, paths);
+        searchRange(routesIndex, methods, paths, pathNormalization, consumer, 0, methods.length);
+    }
+
+    /**
+     * Search routes for a batch of requests, chunks of requests are searched in parallel using the pool.
+     * The consumer must be thread safe: it is called concurrently from the pool threads,
+     * and results are not passed in the order of the requests.
+     * @param routesIndex The routes index by HTTP method: <code>{GET: IndexedRoutes, POST: IndexedRoutes, ...}</code>
+     * @param methods The HTTP methods of the requests
+     * @param paths The paths of the requests, the array must have the same length as <code>methods</code>
+     * @param consumer The consumer called once for each request
+     * @param pool The pool used to search requests, e.g. {@link ForkJoinPool#commonPool()}
+     */
+    public static <T extends HttpRoute> void searchAll(
+        @NotNull Map<String, IndexedRoutes<T>> routesIndex,
+        @NotNull String @NotNull [] methods,
+        @NotNull CharSequence @NotNull [] paths,
+        @NotNull BatchSearchConsumer<T> consumer,
+        @NotNull ForkJoinPool pool
+    ) {
+        searchAll(routesIndex, methods, paths, PathNormalization.DEFAULT, consumer, pool);
+    }
+
+    /**
+     * Search routes for a batch of requests, chunks of requests are searched in parallel using the pool.
+     * The consumer must be thread safe: it is called concurrently from the pool threads,
+     * and results are not passed in the order of the requests.
+     * @param routesIndex The routes index by HTTP method: <code>{GET: IndexedRoutes, POST: IndexedRoutes, ...}</code>
+     * @param methods The HTTP methods of the requests
+     * @param paths The paths of the requests, the array must have the same length as <code>methods</code>
+     * @param pathNormalization The rules used to delimit the segments of the paths, see {@link PathNormalization}
+     * @param consumer The consumer called once for each request
+     * @param pool The pool used to search requests, e.g. {@link ForkJoinPool#commonPool()}
+     */
+    public static <T extends HttpRoute> void searchAll(
+        @NotNull Map<String, IndexedRoutes<T>> routesIndex,
+        @NotNull String @NotNull [] methods,
+        @NotNull CharSequence @NotNull [] paths,
+        @NotNull PathNormalization pathNormalization,
+        @NotNull BatchSearchConsumer<T> consumer,
+        @NotNull ForkJoinPool pool
+    ) {
+        checkRequests(methods, paths);
+        pool.invoke(new BatchSearchTask<>(routesIndex, methods, paths, pathNormalization, consumer, 0, methods.length));
+    }
+
+    private static void checkRequests(@NotNull String @NotNull [] methods, @NotNull CharSequence @NotNull [] paths) {
+        if (methods.length != paths.length) {
+            throw new IllegalArgumentException(
+                "Methods and paths arrays must have the same length, but methods length is "
+                    + methods.length + " and paths length is " + paths.length
+            );
+        }
+    }
+
+    // tasks are never serialized
+    @SuppressWarnings("serial")
+    private static class BatchSearchTask<T extends HttpRoute> extends RecursiveAction {
+        private final @NotNull Map<String, IndexedRoutes<T>> routesIndex;
+        private final @NotNull String @NotNull [] methods;
+        private final @NotNull CharSequence @NotNull [] paths;
+        private final @NotNull PathNormalization pathNormalization;
+        private final @NotNull BatchSearchConsumer<T> consumer;
+        private final int from;
+        private final int to;
+
+        BatchSearchTask(
+            @NotNull Map<String, IndexedRoutes<T>> routesIndex,
+            @NotNull String @NotNull [] methods,
+            @NotNull CharSequence @NotNull [] paths,
+            @NotNull PathNormalization pathNormalization,
+            @NotNull BatchSearchConsumer<T> consumer,
+            int from,
+            int to
+        ) {
+            this.routesIndex = routesIndex;
+            this.methods = methods;
+            this.paths = paths;
+            this.pathNormalization = pathNormalization;
+            this.consumer = consumer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                searchRange(routesIndex, methods, paths, pathNormalization, consumer, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                new BatchSearchTask<>(routesIndex, methods, paths, pathNormalization, consumer, from, middle),
+                new BatchSearchTask<>(routesIndex, methods, paths, pathNormalization, consumer, middle, to)
+            );
+        }
+    }
+
+    /**
+     * Search the requests from the index <code>from</code> included to the index <code>to</code> excluded,
+     * results are passed to the consumer in the order of the requests
+     */
+    private static <T extends HttpRoute> void searchRange(
+        @NotNull Map<String, IndexedRoutes<T>> routesIndex,
+        @NotNull String @NotNull [] methods,
+        @NotNull CharSequence @NotNull [] paths,
+        @NotNull PathNormalization pathNormalization,
+        @NotNull BatchSearchConsumer<T> consumer,
+        int from,
+        int to
+    ) {
+        RouteMatcher<T> matcher = new RouteMatcher<>();
+        for (int requestIndex = from; requestIndex < to; requestIndex++) {
+            IndexedRoutes<T> methodIndex = routesIndex.get(methods[requestIndex]);
+            if (methodIndex != null && SearchRouteEngine.searchRoute(methodIndex, paths[requestIndex], pathNormalization, matcher)) {
+                consumer.accept(requestIndex, matcher.matchingRouteLeaf());
+            } else {
+                consumer.accept(requestIndex, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.coreoz.http.routes.router.search;
+
+import com.coreoz.http.routes.parsing.SegmentTemplate;
+import com.coreoz.http.routes.router.index.IndexRouteLeaf;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A request path for which a route has been found, with the offsets of its segments.
+ * Parameter values can be read from the request path using the segment positions of {@link IndexRouteLeaf#routePatternIndexes()}.<br>
+ * <br>
+ * See {@link RawMatchingRoute} and {@link RouteMatcher}
+ */
+public interface MatchedPath {
+    /**
+     * Returns the path used to find the route
+     */
+    @NotNull CharSequence requestPath();
+
+    /**
+     * Returns the offset in the request path of the first character of a segment
+     * @param segmentPosition The segment position, starting at 1 like in {@link IndexRouteLeaf#routePatternIndexes()}
+     */
+    int segmentStart(int segmentPosition);
+
+    /**
+     * Returns the offset in the request path following the last character of a segment,
+     * or of the last segment for the catch-all pattern of the route, see {@link IndexRouteLeaf#catchAllPosition()}
+     * @param segmentPosition The segment position, starting at 1 like in {@link IndexRouteLeaf#routePatternIndexes()}
+     */
+    int segmentEnd(int segmentPosition);
+
+    /**
+     * Returns the route found for the request path, or null if no route has been found
+     */
+    @Nullable IndexRouteLeaf<?> matchingRouteLeaf();
+
+    /**
+     * Returns the offset in the request path of the first character of a parameter value.
+     * For a pattern of a partial segment, the offset is found in the segment using its template, see {@link IndexRouteLeaf#segmentTemplates()}.
+     * @param patternName The pattern name, e.g. <code>userId</code> for the route <code>/users/{userId}</code>
+     * @return The offset, or -1 if no route has been found or if the route does not contain the pattern name
+     */
+    default int parameterStart(@NotNull String patternName) {
+        IndexRouteLeaf<?> matchingRouteLeaf = matchingRouteLeaf();
+        Integer segmentPosition = matchingRouteLeaf == null ? null : matchingRouteLeaf.routePatternIndexes().get(patternName);
+        if (segmentPosition == null) {
+            return -1;
+        }
+        SegmentTemplate template = matchingRouteLeaf.segmentTemplates().get(segmentPosition);
+        if (template == null) {
+            return segmentStart(segmentPosition);
+        }
+        return template.parameterStart(requestPath(), segmentStart(segmentPosition), segmentEnd(segmentPosition), template.parameterIndex(patternName));
+    }
+
+    /**
+     * Returns the offset in the request path following the last character of a parameter value,
+     * see {@link #parameterStart(String)}
+     * @param patternName The pattern name, e.g. <code>userId</code> for the route <code>/users/{userId}</code>
+     * @return The offset, or -1 if no route has been found or if the route does not contain the pattern name
+     */
+    default int parameterEnd(@NotNull String patternName) {
+        IndexRouteLeaf<?> matchingRouteLeaf = matchingRouteLeaf();
+        Integer segmentPosition = matchingRouteLeaf == null ? null : matchingRouteLeaf.routePatternIndexes().get(patternName);
+        if (segmentPosition == null) {
+            return -1;
+        }
+        SegmentTemplate template = matchingRouteLeaf.segmentTemplates().get(segmentPosition);
+        if (template == null) {
+            return segmentEnd(segmentPosition);
+        }
+        return template.parameterEnd(requestPath(), segmentStart(segmentPosition), segmentEnd(segmentPosition), template.parameterIndex(patternName));
+    }
+}
@@ -0,0 +1,158 @@
+package com.coreoz.http.routes.router.search;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The rules used to delimit the segments of a request path during a search, see {@link RouteMatcher#reset(CharSequence, PathNormalization)}.<br>
+ * <br>
+ * Request paths are normalized during the scan that delimits their segments: the request path is never copied,
+ * segment offsets just skip the ignored characters. Parameter values are decoded only when they are extracted as a {@link String}.
+ * @param ignoreQueryAndFragment True to end the path at the first <code>?</code> or <code>#</code> character,
+ *                               so the request target can be searched without removing its query string first
+ * @param trailingSlash How a slash at the end of the path is matched
+ * @param collapseEmptySegments True to skip empty segments, so <code>/users//123</code> is matched like <code>/users/123</code>.
+ *                              Else empty segments are kept: <code>/users//123</code> has 3 segments, the second one being empty
+ * @param decodeParameterValues True to percent-decode parameter values extracted as a {@link String},
+ *                              e.g. by {@link RouteMatcher#parameterValue(String)}.
+ *                              Static segments are always matched against the raw request path,
+ *                              and segment offsets always refer to the raw request path
+ */
+public record PathNormalization(
+    boolean ignoreQueryAndFragment,
+    @NotNull TrailingSlash trailingSlash,
+    boolean collapseEmptySegments,
+    boolean decodeParameterValues
+) {
+    /**
+     * The default rules, which are the same as <code>requestPath.substring(1).split("/")</code>:
+     * trailing slashes are ignored, empty segments are kept, and nothing is decoded
+     */
+    public static final PathNormalization DEFAULT = new PathNormalization(false, TrailingSlash.IGNORE, false, false);
+    /**
+     * Rules to search a request target as it is received: the query string and the fragment are ignored,
+     * trailing slashes and empty segments are ignored, and parameter values are decoded
+     */
+    public static final PathNormalization REQUEST_TARGET = new PathNormalization(true, TrailingSlash.IGNORE, true, true);
+
+    // the lowest code point for each UTF-8 sequence length, lower code points are overlong encodings
+    private static final int[] MIN_CODE_POINTS = {0, 0, 0x80, 0x800, 0x10000};
+
+    /**
+     * How a slash at the end of the request path is matched
+     */
+    public enum TrailingSlash {
+        /**
+         * Trailing slashes are ignored: <code>/users/</code> is matched like <code>/users</code>
+         */
+        IGNORE,
+        /**
+         * A trailing slash is an empty last segment: <code>/users/</code> does not match <code>/users</code>,
+         * but it matches <code>/users/{id}</code> with an empty <code>id</code>
+         */
+        EMPTY_SEGMENT,
+    }
+
+    /**
+     * Returns a part of a path as a {@link String}, percent-decoded if <code>decode</code> is true
+     */
+    static @NotNull String segmentValue(@NotNull CharSequence path, int start, int end, boolean decode) {
+        if (!decode || !isEncoded(path, start, end)) {
+            return path.subSequence(start, end).toString();
+        }
+        StringBuilder decodedValue = new StringBuilder(end - start);
+        appendDecoded(decodedValue, path, start, end);
+        return decodedValue.toString();
+    }
+
+    /**
+     * Append a part of a path to a {@link StringBuilder}, percent-encoded characters being decoded as UTF-8.
+     * Invalid percent-encoded sequences are appended as they are.
+     */
+    static void appendDecoded(@NotNull StringBuilder destination, @NotNull CharSequence path, int start, int end) {
+        int charIndex = start;
+        while (charIndex < end) {
+            int firstByte = percentEncodedByte(path, charIndex, end);
+            if (firstByte < 0) {
+                destination.append(path.charAt(charIndex));
+                charIndex++;
+                continue;
+            }
+            int sequenceLength = utf8SequenceLength(firstByte);
+            int codePoint = sequenceLength == 1 ? firstByte : firstByte & (0x3F >> (sequenceLength - 1));
+            for (int byteIndex = 1; byteIndex < sequenceLength && codePoint >= 0; byteIndex++) {
+                int continuationByte = percentEncodedByte(path, charIndex + byteIndex * 3, end);
+                codePoint = continuationByte >= 0x80 && continuationByte < 0xC0 ? codePoint << 6 | continuationByte & 0x3F : -1;
+            }
+            if (sequenceLength == 0 || codePoint < MIN_CODE_POINTS[sequenceLength] || !Character.isValidCodePoint(codePoint)
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+                // not UTF-8: the percent character is kept as it is
+                destination.append('%');
+                charIndex++;
+                continue;
+            }
+            destination.appendCodePoint(codePoint);
+            charIndex += sequenceLength * 3;
+        }
+    }
+
+    /**
+     * Returns the number of bytes of the UTF-8 sequence starting with the byte,
+     * or 0 if the byte cannot start a UTF-8 sequence: a continuation byte, or a byte that is never used in UTF-8
+     */
+    private static int utf8SequenceLength(int firstByte) {
+        if (firstByte < 0x80) {
+            return 1;
+        }
+        if (firstByte >= 0xC2 && firstByte < 0xE0) {
+            return 2;
+        }
+        if (firstByte >= 0xE0 && firstByte < 0xF0) {
+            return 3;
+        }
+        if (firstByte >= 0xF0 && firstByte < 0xF8) {
+            return 4;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns true if a part of a path contains a percent-encoded character
+     */
+    static boolean isEncoded(@NotNull CharSequence path, int start, int end) {
+        for (int charIndex = start; charIndex < end; charIndex++) {
+            if (path.charAt(charIndex) == '%') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the byte encoded as <code>%XX</code> at the index, or -1 if there is no percent-encoded byte at the index
+     */
+    private static int percentEncodedByte(@NotNull CharSequence path, int index, int end) {
+        if (index + 2 >= end || path.charAt(index) != '%') {
+            return -1;
+        }
+        int highDigit = hexDigit(path.charAt(index + 1));
+        int lowDigit = hexDigit(path.charAt(index + 2));
+        return highDigit < 0 || lowDigit < 0 ? -1 : highDigit << 4 | lowDigit;
+    }
+
+    /**
+     * Returns the value of an ASCII hexadecimal digit, or -1 if the character is not one.<br>
+     * Unlike {@link Character#digit(char, int)}, non-ASCII digits, like the Arabic-Indic or the fullwidth digits, are rejected
+     */
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
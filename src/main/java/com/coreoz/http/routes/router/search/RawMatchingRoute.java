@@ -4,23 +4,184 @@ import com.coreoz.http.routes.HttpRoutes;
 import com.coreoz.http.routes.router.HttpRoute;
 import com.coreoz.http.routes.router.index.IndexRouteLeaf;
 import com.coreoz.http.routes.router.index.IndexedRoutes;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 
 /**
  * A route that has been found in the {@link IndexedRoutes} containing raw index object and raw parameter positions.<br>
  * <br>
+ * Parameter values are not extracted during the search: they are stored as offsets in the request path,
+ * and they are only materialized as {@link String} when {@link #parameterValue(String)} is called.
+ * To avoid allocating objects, values can be copied directly using {@link #appendParameterValue(StringBuilder, String)}.<br>
+ * <br>
  * See also {@link HttpRoutes#toMatchingRoute(RawMatchingRoute)}
  * @param matchingRouteLeaf The index leaf containing the base route and the route patterns values
- * @param parameterByIndex The pattern values used to find the route. For example, for the route
+ * @param requestPath The path used to find the route
+ * @param segmentsOffsets The start and end offsets in the request path of each segment, indexed by segment position:
+ *                        <code>[start segment 1, end segment 1, start segment 2, ...]</code>.
+ *                        For example, for the route <code>/users/{userId}</code> and the path <code>/users/123</code>,
+ *                        the offsets are <code>[1, 6, 7, 10]</code>, so <code>userId</code> (at position 2) is <code>123</code>
+ * @param decodeParameterValues True if parameter values extracted using {@link #parameterValue(String)}
+ *                              or {@link #appendParameterValue(StringBuilder, String)} are percent-decoded,
+ *                              see {@link PathNormalization#decodeParameterValues()}
  * @param <T> The type of {@link HttpRoute} stored in the routes index. It can be accessed from the matching route
  *           and contains custom data
  */
-public record RawMatchingRoute<T extends HttpRoute>(IndexRouteLeaf<T> matchingRouteLeaf, Map<Integer, String> parameterByIndex) {
+public record RawMatchingRoute<T extends HttpRoute>(
+    @NotNull IndexRouteLeaf<T> matchingRouteLeaf,
+    @NotNull CharSequence requestPath,
+    int @NotNull [] segmentsOffsets,
+    boolean decodeParameterValues
+) implements MatchedPath {
+    /**
+     * Create a matching route whose parameter values are not decoded
+     */
+    public RawMatchingRoute(@NotNull IndexRouteLeaf<T> matchingRouteLeaf, @NotNull CharSequence requestPath, int @NotNull [] segmentsOffsets) {
+        this(matchingRouteLeaf, requestPath, segmentsOffsets, false);
+    }
+
+    /**
+     * Create a matching route from parameter values indexed by their segment positions
+     * @param parameterByIndex The pattern values used to find the route, indexed by segment position starting at 1
+     * @deprecated The request path and the segments offsets should be provided instead
+     */
+    @Deprecated
+    public RawMatchingRoute(@NotNull IndexRouteLeaf<T> matchingRouteLeaf, @NotNull Map<Integer, String> parameterByIndex) {
+        this(matchingRouteLeaf, joinParameters(parameterByIndex), parametersOffsets(parameterByIndex));
+    }
+
     /**
      * @see HttpRoutes#toMatchingRoute(RawMatchingRoute)
      */
     public MatchingRoute<T> toMatchingRoute() {
         return HttpRoutes.toMatchingRoute(this);
     }
+
+    /**
+     * Returns the offset in the request path of the first character of a segment
+     * @param segmentPosition The segment position, starting at 1 like in {@link IndexRouteLeaf#routePatternIndexes()}
+     */
+    @Override
+    public int segmentStart(int segmentPosition) {
+        return segmentsOffsets[(segmentPosition - 1) * 2];
+    }
+
+    /**
+     * Returns the offset in the request path following the last character of a segment.
+     * For the catch-all pattern of the route, see {@link IndexRouteLeaf#catchAllPosition()},
+     * this is the offset following the last character of the last segment.
+     * @param segmentPosition The segment position, starting at 1 like in {@link IndexRouteLeaf#routePatternIndexes()}
+     */
+    @Override
+    public int segmentEnd(int segmentPosition) {
+        if (segmentPosition == matchingRouteLeaf.catchAllPosition()) {
+            return segmentsOffsets[segmentsOffsets.length - 1];
+        }
+        return segmentsOffsets[(segmentPosition - 1) * 2 + 1];
+    }
+
+    /**
+     * Extract the value of a parameter. This method creates a new {@link String}.
+     * @param patternName The pattern name, e.g. <code>userId</code> for the route <code>/users/{userId}</code>
+     * @return The parameter value, or null if the route does not contain the pattern name
+     */
+    public @Nullable String parameterValue(@NotNull String patternName) {
+        int parameterStart = parameterStart(patternName);
+        if (parameterStart < 0) {
+            return null;
+        }
+        return PathNormalization.segmentValue(requestPath, parameterStart, parameterEnd(patternName), decodeParameterValues);
+    }
+
+    /**
+     * Append the value of a parameter to a {@link StringBuilder} without creating intermediate objects
+     * @param patternName The pattern name, e.g. <code>userId</code> for the route <code>/users/{userId}</code>
+     * @return True if the value has been appended, false if the route does not contain the pattern name
+     */
+    public boolean appendParameterValue(@NotNull StringBuilder destination, @NotNull String patternName) {
+        int parameterStart = parameterStart(patternName);
+        if (parameterStart < 0) {
+            return false;
+        }
+        if (decodeParameterValues) {
+            PathNormalization.appendDecoded(destination, requestPath, parameterStart, parameterEnd(patternName));
+        } else {
+            destination.append(requestPath, parameterStart, parameterEnd(patternName));
+        }
+        return true;
+    }
+
+    /**
+     * Returns the parameter values indexed by their segment positions, starting at 1.
+     * This method creates a new {@link Map} each time it is called.
+     * @deprecated Use {@link #parameterValue(String)} or {@link #appendParameterValue(StringBuilder, String)} instead
+     */
+    @Deprecated
+    public @NotNull Map<Integer, String> parameterByIndex() {
+        Map<Integer, String> parameterByIndex = new HashMap<>();
+        for (Integer segmentPosition : matchingRouteLeaf.routePatternIndexes().values()) {
+            parameterByIndex.put(
+                segmentPosition,
+                requestPath.subSequence(segmentStart(segmentPosition), segmentEnd(segmentPosition)).toString()
+            );
+        }
+        return parameterByIndex;
+    }
+
+    /**
+     * Two matching routes are equal if they have the same leaf, the same request path content and the same segments offsets
+     */
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof RawMatchingRoute<?> otherRoute
+            && decodeParameterValues == otherRoute.decodeParameterValues
+            && matchingRouteLeaf.equals(otherRoute.matchingRouteLeaf)
+            && CharSequence.compare(requestPath, otherRoute.requestPath) == 0
+            && Arrays.equals(segmentsOffsets, otherRoute.segmentsOffsets));
+    }
+
+    @Override
+    public int hashCode() {
+        // the hash code of the request path content, computed like String.hashCode()
+        int requestPathHash = 0;
+        for (int charIndex = 0; charIndex < requestPath.length(); charIndex++) {
+            requestPathHash = 31 * requestPathHash + requestPath.charAt(charIndex);
+        }
+        return Objects.hash(matchingRouteLeaf, requestPathHash, Arrays.hashCode(segmentsOffsets), decodeParameterValues);
+    }
+
+    @Override
+    public String toString() {
+        return "RawMatchingRoute[matchingRouteLeaf=" + matchingRouteLeaf
+            + ", requestPath=" + requestPath
+            + ", segmentsOffsets=" + Arrays.toString(segmentsOffsets)
+            + ", decodeParameterValues=" + decodeParameterValues + "]";
+    }
+
+    private static @NotNull String joinParameters(@NotNull Map<Integer, String> parameterByIndex) {
+        return String.join("/", new TreeMap<>(parameterByIndex).values());
+    }
+
+    /**
+     * Compute the offsets of the parameter values in the string created by {@link #joinParameters(Map)}.
+     * Positions that are not in the Map are empty segments.
+     */
+    private static int @NotNull [] parametersOffsets(@NotNull Map<Integer, String> parameterByIndex) {
+        int maxPosition = parameterByIndex.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        int[] segmentsOffsets = new int[maxPosition * 2];
+        int offset = 0;
+        for (Map.Entry<Integer, String> parameter : new TreeMap<>(parameterByIndex).entrySet()) {
+            int segmentIndex = parameter.getKey() - 1;
+            segmentsOffsets[segmentIndex * 2] = offset;
+            segmentsOffsets[segmentIndex * 2 + 1] = offset + parameter.getValue().length();
+            offset += parameter.getValue().length() + 1;
+        }
+        return segmentsOffsets;
+    }
 }
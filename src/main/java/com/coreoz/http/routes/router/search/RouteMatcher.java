@@ -0,0 +1,296 @@
+package com.coreoz.http.routes.router.search;
+
+import com.coreoz.http.routes.parsing.PatternConstraint;
+import com.coreoz.http.routes.router.HttpRoute;
+import com.coreoz.http.routes.router.compiled.CompiledRouter;
+import com.coreoz.http.routes.router.index.IndexRouteLeaf;
+import com.coreoz.http.routes.router.index.IndexedRoutes;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * A reusable search context used to search a route without allocating objects.<br>
+ * <br>
+ * The matcher holds the request path, the offsets of the request path segments and the matching route leaf.
+ * Parameter values are not extracted during the search: they are read using segment offsets
+ * in the request path, and they are only materialized as {@link String} if {@link #parameterValue(String)} is called.<br>
+ * <br>
+ * Usage:
+ * <pre>
+ * RouteMatcher&lt;MyRoute&gt; matcher = new RouteMatcher&lt;&gt;(); // can be reused for each request handled by a thread
+ * if (router.searchRoute("GET", "/users/123", matcher)) {
+ *     MyRoute route = matcher.matchingRouteLeaf().httpRoute();
+ * }
+ * </pre>
+ * To search a request line read as bytes without decoding it, see {@link #requestBytes()}.<br>
+ * A matcher is not thread safe: it should be owned by a thread or by a connection.
+ * @param <T> The type of {@link HttpRoute} stored in the routes index
+ */
+public class RouteMatcher<T extends HttpRoute> implements MatchedPath {
+    private static final int DEFAULT_SEGMENTS_CAPACITY = 16;
+
+    private CharSequence requestPath = "";
+    private PathNormalization pathNormalization = PathNormalization.DEFAULT;
+    // start and end offsets of each segment: [start segment 1, end segment 1, start segment 2, ...]
+    private int[] segmentsOffsets = new int[DEFAULT_SEGMENTS_CAPACITY * 2];
+    private int segmentsCount;
+    private IndexRouteLeaf<T> matchingRouteLeaf;
+    private Set<String> allowedMethods = Set.of();
+    private int exploredBranchesCount;
+    private int backtracksCount;
+    private final AsciiBytesSequence requestBytes = new AsciiBytesSequence();
+
+    /**
+     * Prepare the matcher for a new search: the request path segments are delimited and the previous result is cleared.<br>
+     * <br>
+     * Segments are delimited the same way as <code>requestPath.substring(1).split("/")</code> would do it:
+     * trailing slashes are ignored, and empty segments between two slashes are kept.
+     * @param requestPath The path to search (that must start with a slash: "/")
+     */
+    public void reset(@NotNull CharSequence requestPath) {
+        reset(requestPath, PathNormalization.DEFAULT);
+    }
+
+    /**
+     * Prepare the matcher for a new search: the request path segments are delimited and the previous result is cleared.<br>
+     * <br>
+     * Segments are delimited in a single pass over the request path, following the normalization rules:
+     * the request path is not copied, ignored characters are just left out of the segment offsets.
+     * @param requestPath The path to search (that must start with a slash: "/")
+     * @param pathNormalization The rules used to delimit segments, see {@link PathNormalization}
+     */
+    public void reset(@NotNull CharSequence requestPath, @NotNull PathNormalization pathNormalization) {
+        this.requestPath = requestPath;
+        this.pathNormalization = pathNormalization;
+        this.matchingRouteLeaf = null;
+        this.allowedMethods = Set.of();
+        this.segmentsCount = 0;
+        this.exploredBranchesCount = 0;
+        this.backtracksCount = 0;
+
+        int pathEnd = requestPath.length();
+        int segmentStart = 1;
+        for (int i = 1; i < pathEnd; i++) {
+            char pathChar = requestPath.charAt(i);
+            if (pathChar == '/') {
+                if (i > segmentStart || !pathNormalization.collapseEmptySegments()) {
+                    addSegment(segmentStart, i);
+                }
+                segmentStart = i + 1;
+            } else if ((pathChar == '?' || pathChar == '#') && pathNormalization.ignoreQueryAndFragment()) {
+                pathEnd = i;
+            }
+        }
+        if (pathEnd <= 1) {
+            // "/" is a path with one empty segment
+            addSegment(1, 1);
+            return;
+        }
+        if (pathNormalization.trailingSlash() == PathNormalization.TrailingSlash.EMPTY_SEGMENT) {
+            addSegment(segmentStart, pathEnd);
+        } else {
+            if (segmentStart < pathEnd) {
+                addSegment(segmentStart, pathEnd);
+            }
+            // trailing slashes are ignored
+            while (segmentsCount > 0 && segmentsOffsets[segmentsCount * 2 - 2] == segmentsOffsets[segmentsCount * 2 - 1]) {
+                segmentsCount--;
+            }
+            if (segmentsCount == 0 && pathNormalization.collapseEmptySegments()) {
+                // a path made only of slashes is the root path
+                addSegment(1, 1);
+            }
+        }
+    }
+
+    private void addSegment(int start, int end) {
+        if (segmentsOffsets.length < (segmentsCount + 1) * 2) {
+            segmentsOffsets = Arrays.copyOf(segmentsOffsets, segmentsOffsets.length * 2);
+        }
+        segmentsOffsets[segmentsCount * 2] = start;
+        segmentsOffsets[segmentsCount * 2 + 1] = end;
+        segmentsCount++;
+    }
+
+    /**
+     * Find the static child of the node matching the segment of the request path
+     * @param segmentIndex The segment index, starting at 0
+     */
+    @Nullable IndexedRoutes<T> findStaticSegment(@NotNull IndexedRoutes<T> indexedRoutes, int segmentIndex) {
+        return indexedRoutes.getSegments().get(
+            requestPath,
+            segmentsOffsets[segmentIndex * 2],
+            segmentsOffsets[segmentIndex * 2 + 1]
+        );
+    }
+
+    /**
+     * Verify that the segments of the request path match the compressed segments of the node, if the node is compressed
+     * @param segmentIndex The index of the first segment following the segment of the node, starting at 0
+     */
+    boolean matchesCompressedSegments(@NotNull IndexedRoutes<T> indexedRoutes, int segmentIndex) {
+        return indexedRoutes.matchesCompressedSegments(requestPath, segmentsOffsets, segmentIndex, segmentsCount - segmentIndex);
+    }
+
+    /**
+     * Verify that the segment of the request path matches a pattern constraint
+     * @param segmentIndex The segment index, starting at 0
+     */
+    boolean matchesConstraint(@NotNull PatternConstraint constraint, int segmentIndex) {
+        return constraint.matches(requestPath, segmentsOffsets[segmentIndex * 2], segmentsOffsets[segmentIndex * 2 + 1]);
+    }
+
+    void countExploredBranch() {
+        exploredBranchesCount++;
+    }
+
+    void countBacktrack() {
+        backtracksCount++;
+    }
+
+    /**
+     * Returns the number of index nodes visited below the root by the last search made using {@link SearchRouteEngine}.
+     * Searches made by other engines do not count branches, so 0 is returned.
+     */
+    public int exploredBranchesCount() {
+        return exploredBranchesCount;
+    }
+
+    /**
+     * Returns the number of times the last search made using {@link SearchRouteEngine} has left a static segment branch
+     * without finding a route, to try the pattern segment branch.
+     * Searches made by other engines do not count backtracks, so 0 is returned.
+     */
+    public int backtracksCount() {
+        return backtracksCount;
+    }
+
+    /**
+     * Store the result of the search, this is used by search engines
+     */
+    public void setMatchingRouteLeaf(@Nullable IndexRouteLeaf<T> matchingRouteLeaf) {
+        this.matchingRouteLeaf = matchingRouteLeaf;
+    }
+
+    /**
+     * Returns the route found by the last search, or null if no route was found
+     */
+    @Override
+    public @Nullable IndexRouteLeaf<T> matchingRouteLeaf() {
+        return matchingRouteLeaf;
+    }
+
+    /**
+     * Store the HTTP methods allowed for the request path, this is used by search engines
+     */
+    public void setAllowedMethods(@NotNull Set<String> allowedMethods) {
+        this.allowedMethods = allowedMethods;
+    }
+
+    /**
+     * Returns the HTTP methods for which a route matches the path of the last search,
+     * if the last search has been made using {@link CompiledRouter#resolve(String, CharSequence, RouteMatcher)}
+     * and no route has been found for the searched method.
+     * Else an empty set is returned.
+     */
+    public @NotNull Set<String> allowedMethods() {
+        return allowedMethods;
+    }
+
+    /**
+     * Returns the view of bytes owned by this matcher, used to search a route in a request line read as bytes
+     * without allocating objects, e.g. by {@link CompiledRouter#searchRoute(byte[], int, int, int, int, RouteMatcher)}.<br>
+     * <br>
+     * After such a search, the request path is this view: segment offsets are relative to the start of the path,
+     * so the byte range of a parameter value in the request line is from
+     * <code>requestBytes().offset() + segmentStart(position)</code> to <code>requestBytes().offset() + segmentEnd(position)</code>.
+     */
+    public @NotNull AsciiBytesSequence requestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * Returns the path used in the last search
+     */
+    @Override
+    public @NotNull CharSequence requestPath() {
+        return requestPath;
+    }
+
+    /**
+     * Returns the number of segments of the request path
+     */
+    public int segmentsCount() {
+        return segmentsCount;
+    }
+
+    /**
+     * Returns the offset in the request path of the first character of a segment
+     * @param segmentPosition The segment position, starting at 1 like in {@link IndexRouteLeaf#routePatternIndexes()}
+     */
+    @Override
+    public int segmentStart(int segmentPosition) {
+        return segmentsOffsets[(segmentPosition - 1) * 2];
+    }
+
+    /**
+     * Returns the offset in the request path following the last character of a segment.
+     * For the catch-all pattern of the matching route, see {@link IndexRouteLeaf#catchAllPosition()},
+     * this is the offset following the last character of the last segment.
+     * @param segmentPosition The segment position, starting at 1 like in {@link IndexRouteLeaf#routePatternIndexes()}
+     */
+    @Override
+    public int segmentEnd(int segmentPosition) {
+        if (matchingRouteLeaf != null && segmentPosition == matchingRouteLeaf.catchAllPosition()) {
+            return segmentsOffsets[segmentsCount * 2 - 1];
+        }
+        return segmentsOffsets[(segmentPosition - 1) * 2 + 1];
+    }
+
+    /**
+     * Returns the rules used to delimit the segments of the request path during the last search
+     */
+    public @NotNull PathNormalization pathNormalization() {
+        return pathNormalization;
+    }
+
+    /**
+     * Extract the value of a parameter of the matching route.
+     * This method creates a new {@link String}, to avoid this, offsets can be used directly
+     * with {@link #parameterStart(String)} and {@link #parameterEnd(String)}.<br>
+     * The value is percent-decoded if {@link PathNormalization#decodeParameterValues()} is enabled,
+     * whereas offsets always refer to the raw request path.
+     * @param patternName The pattern name, e.g. <code>userId</code> for the route <code>/users/{userId}</code>
+     * @return The parameter value, or null if no route matched or if the matching route does not contain the pattern name
+     */
+    public @Nullable String parameterValue(@NotNull String patternName) {
+        int parameterStart = parameterStart(patternName);
+        if (parameterStart < 0) {
+            return null;
+        }
+        return PathNormalization.segmentValue(
+            requestPath, parameterStart, parameterEnd(patternName), pathNormalization.decodeParameterValues()
+        );
+    }
+
+    /**
+     * Creates a {@link RawMatchingRoute} from the result of the last search.
+     * Contrary to the matcher, the created object can be kept after the next search.
+     * @return The matching route, or null if no route was found
+     */
+    public @Nullable RawMatchingRoute<T> toRawMatchingRoute() {
+        if (matchingRouteLeaf == null) {
+            return null;
+        }
+        return new RawMatchingRoute<>(
+            matchingRouteLeaf,
+            // the request path may be a mutable CharSequence, for a String this is a no-op
+            requestPath.toString(),
+            Arrays.copyOf(segmentsOffsets, segmentsCount * 2),
+            pathNormalization.decodeParameterValues()
+        );
+    }
+}
@@ -1,15 +1,11 @@
 package com.coreoz.http.routes.router.search;
 
 import com.coreoz.http.routes.router.HttpRoute;
+import com.coreoz.http.routes.router.index.IndexRouteLeaf;
 import com.coreoz.http.routes.router.index.IndexedRoutes;
-import com.coreoz.http.routes.HttpRoutes;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,60 +16,128 @@ import java.util.Optional;
  * - /users/1234                        -> /users/{id}
  * - /users/1234/addresses              -> /users/{id}/addresses
  * - /users/1234/addresses/5678         -> /users/{id}/addresses/{idAddress}
+ * - /items/42                          -> /items/{id:int}
+ * - /items/blue-chair                  -> /items/{slug}
+ * - /static/css/main.css               -> /static/{path...}
  * </pre>
  */
 public class SearchRouteEngine {
     /**
-     * Perform the search in the index.
+     * Perform the search in the index.<br>
+     * <br>
+     * The index is explored depth-first: for each segment, the static segment is tried before the pattern segment,
+     * and if no route is found in the static segment branch, the search backtracks to the pattern segment branch.
+     * So static segments always have precedence over pattern segments, starting from the first segment of the path.<br>
+     * <br>
+     * The number of branches explored and of backtracks made during the search are counted in the matcher,
+     * see {@link RouteMatcher#exploredBranchesCount()}.
      * @param routesIndex The route index
      * @param requestPath The path to search (that must start with a slash: "/")
      * @return The optional route that has been found
      */
     public static <T extends HttpRoute> @NotNull Optional<RawMatchingRoute<T>> searchRoute(@NotNull IndexedRoutes<T> routesIndex, @NotNull String requestPath) {
-        ArrayDeque<String> requestElements = new ArrayDeque<>(Arrays.asList(requestPath.substring(1).split(HttpRoutes.SEGMENT_SEPARATOR)));
-        List<SearchSegment<T>> segmentOptions = new ArrayList<>();
-        segmentOptions.add(new SearchSegment<>(
-            routesIndex,
-            requestElements,
-            new HashMap<>()
-        ));
+        RouteMatcher<T> matcher = new RouteMatcher<>();
+        if (!searchRoute(routesIndex, requestPath, matcher)) {
+            return Optional.empty();
+        }
+        return Optional.of(matcher.toRawMatchingRoute());
+    }
 
-        while (!segmentOptions.isEmpty()) {
-            SearchSegment<T> currentRouteOption = segmentOptions.remove(0);
-            IndexedRoutes<T> indexedRoutes = currentRouteOption.indexedRoutes();
+    /**
+     * Perform the search in the index without allocating objects.<br>
+     * <br>
+     * The request path is walked using character offsets, and the result is stored in the {@link RouteMatcher}
+     * that can be reused for the next search.
+     * @param routesIndex The route index
+     * @param requestPath The path to search (that must start with a slash: "/")
+     * @param matcher The search context, that will contain the matching route if a route is found
+     * @return True if a route has been found, else false
+     */
+    public static <T extends HttpRoute> boolean searchRoute(
+        @NotNull IndexedRoutes<T> routesIndex, @NotNull CharSequence requestPath, @NotNull RouteMatcher<T> matcher
+    ) {
+        return searchRoute(routesIndex, requestPath, PathNormalization.DEFAULT, matcher);
+    }
 
-            if (currentRouteOption.requestRemainingSegments().isEmpty() && indexedRoutes.getLastRoute() != null) {
-                return Optional.of(
-                    new RawMatchingRoute<>(
-                        indexedRoutes.getLastRoute(),
-                        currentRouteOption.params()
-                    )
-                );
-            }
+    /**
+     * Perform the search in the index without allocating objects,
+     * the request path segments being delimited following the normalization rules.
+     * @param routesIndex The route index
+     * @param requestPath The path to search (that must start with a slash: "/")
+     * @param pathNormalization The rules used to delimit the request path segments, see {@link PathNormalization}
+     * @param matcher The search context, that will contain the matching route if a route is found
+     * @return True if a route has been found, else false
+     */
+    public static <T extends HttpRoute> boolean searchRoute(
+        @NotNull IndexedRoutes<T> routesIndex,
+        @NotNull CharSequence requestPath,
+        @NotNull PathNormalization pathNormalization,
+        @NotNull RouteMatcher<T> matcher
+    ) {
+        matcher.reset(requestPath, pathNormalization);
+        IndexRouteLeaf<T> matchingRouteLeaf = searchRouteLeaf(routesIndex, 0, matcher);
+        matcher.setMatchingRouteLeaf(matchingRouteLeaf);
+        return matchingRouteLeaf != null;
+    }
 
-            if (!currentRouteOption.requestRemainingSegments().isEmpty()) {
-                String currentPathSegment = currentRouteOption.requestRemainingSegments().remove();
-                if (indexedRoutes.getSegments().get(currentPathSegment) != null) {
-                    segmentOptions.add(toSearchSegment(indexedRoutes.getSegments().get(currentPathSegment), currentRouteOption));
-                }
-                if (indexedRoutes.getPattern() != null) {
-                    currentRouteOption.params().put(currentRouteOption.indexedRoutes().getDepth() + 1, currentPathSegment);
-                    segmentOptions.add(toSearchSegment(indexedRoutes.getPattern(), currentRouteOption));
+    /**
+     * Depth-first search: the static segment is always tried before the pattern segments,
+     * the constrained pattern segments are tried before the pattern segment that accepts any value,
+     * and the catch-all pattern is tried last.
+     * The recursion depth is bounded by the depth of the index, whatever the request path length is.
+     */
+    private static <T extends HttpRoute> @Nullable IndexRouteLeaf<T> searchRouteLeaf(
+        @NotNull IndexedRoutes<T> indexedRoutes, int segmentIndex, @NotNull RouteMatcher<T> matcher
+    ) {
+        if (segmentIndex == matcher.segmentsCount()) {
+            return indexedRoutes.getLastRoute();
+        }
+        IndexedRoutes<T> staticSegment = matcher.findStaticSegment(indexedRoutes, segmentIndex);
+        if (staticSegment != null) {
+            IndexRouteLeaf<T> matchingRouteLeaf = searchChildRouteLeaf(staticSegment, segmentIndex + 1, matcher);
+            if (matchingRouteLeaf != null) {
+                return matchingRouteLeaf;
+            }
+            matcher.countBacktrack();
+        }
+        List<IndexedRoutes<T>> constrainedPatterns = indexedRoutes.getConstrainedPatterns();
+        if (constrainedPatterns != null) {
+            for (int i = 0; i < constrainedPatterns.size(); i++) {
+                IndexedRoutes<T> constrainedPattern = constrainedPatterns.get(i);
+                if (matcher.matchesConstraint(constrainedPattern.getConstraint(), segmentIndex)) {
+                    IndexRouteLeaf<T> matchingRouteLeaf = searchChildRouteLeaf(constrainedPattern, segmentIndex + 1, matcher);
+                    if (matchingRouteLeaf != null) {
+                        return matchingRouteLeaf;
+                    }
+                    matcher.countBacktrack();
                 }
-                segmentOptions
-                    .sort(Comparator.comparingLong((SearchSegment<T> searchSegment) -> searchSegment.indexedRoutes().getRating())
-                    .reversed());
             }
-
         }
-        return Optional.empty();
+        if (indexedRoutes.getPattern() != null) {
+            IndexRouteLeaf<T> matchingRouteLeaf = searchChildRouteLeaf(indexedRoutes.getPattern(), segmentIndex + 1, matcher);
+            if (matchingRouteLeaf != null || indexedRoutes.getCatchAll() == null) {
+                return matchingRouteLeaf;
+            }
+            matcher.countBacktrack();
+        }
+        if (indexedRoutes.getCatchAll() != null) {
+            // the catch-all pattern matches all the remaining segments, and there is at least one remaining segment
+            matcher.countExploredBranch();
+            return indexedRoutes.getCatchAll().getLastRoute();
+        }
+        return null;
     }
 
-    private static <T extends HttpRoute> @NotNull SearchSegment<T> toSearchSegment(@NotNull IndexedRoutes<T> indexedRoutes, @NotNull SearchSegment<T> currentSegmentOption) {
-        return new SearchSegment<>(
-            indexedRoutes,
-            currentSegmentOption.requestRemainingSegments().clone(),
-            currentSegmentOption.params()
-        );
+    /**
+     * Search in a child node, after having verified its compressed segments if the index is compressed
+     */
+    private static <T extends HttpRoute> @Nullable IndexRouteLeaf<T> searchChildRouteLeaf(
+        @NotNull IndexedRoutes<T> childRoutes, int segmentIndex, @NotNull RouteMatcher<T> matcher
+    ) {
+        matcher.countExploredBranch();
+        if (!matcher.matchesCompressedSegments(childRoutes, segmentIndex)) {
+            return null;
+        }
+        return searchRouteLeaf(childRoutes, segmentIndex + childRoutes.compressedSegmentsCount(), matcher);
     }
 }
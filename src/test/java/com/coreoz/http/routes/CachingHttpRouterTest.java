@@ -0,0 +1,108 @@
+package com.coreoz.http.routes;
+
+import com.coreoz.http.routes.router.MockHttpRoute;
+import com.coreoz.http.routes.router.cache.CacheStats;
+import com.coreoz.http.routes.router.search.PathNormalization;
+import com.coreoz.http.routes.router.search.RawMatchingRoute;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+public class CachingHttpRouterTest {
+    @Test
+    public void searchRoute__verify_that_repeated_searches_are_cache_hits() {
+        CachingHttpRouter<MockHttpRoute> router = new CachingHttpRouter<>(new HttpRouter<>(List.of(
+            new MockHttpRoute("1", "GET", "/users/{id}", "/users")
+        )), 10);
+
+        Optional<RawMatchingRoute<MockHttpRoute>> firstSearch = router.searchRoute("GET", "/users/123");
+        Optional<RawMatchingRoute<MockHttpRoute>> secondSearch = router.searchRoute("GET", "/users/123");
+
+        Assertions.assertThat(firstSearch).isPresent();
+        Assertions.assertThat(secondSearch).isSameAs(firstSearch);
+        Assertions.assertThat(secondSearch.get().parameterValue("id")).isEqualTo("123");
+        Assertions.assertThat(router.stats()).isEqualTo(new CacheStats(1, 1, 0));
+    }
+
+    @Test
+    public void searchRoute__verify_that_not_found_results_are_cached() {
+        CachingHttpRouter<MockHttpRoute> router = new CachingHttpRouter<>(new HttpRouter<>(List.of(
+            new MockHttpRoute("1", "GET", "/users/{id}", "/users")
+        )), 10);
+
+        Assertions.assertThat(router.searchRoute("GET", "/unknown")).isEmpty();
+        Assertions.assertThat(router.searchRoute("GET", "/unknown")).isEmpty();
+        Assertions.assertThat(router.searchRoute("POST", "/users/123")).isEmpty();
+        Assertions.assertThat(router.stats()).isEqualTo(new CacheStats(1, 2, 0));
+    }
+
+    @Test
+    public void searchRoute__verify_that_cached_results_are_invalidated_when_a_route_is_added() {
+        HttpRouter<MockHttpRoute> httpRouter = new HttpRouter<>(List.of(
+            new MockHttpRoute("1", "GET", "/users/{id}", "/users")
+        ));
+        CachingHttpRouter<MockHttpRoute> router = new CachingHttpRouter<>(httpRouter, 10);
+        Assertions.assertThat(router.searchRoute("GET", "/users/me")).get().extracting(route -> route.matchingRouteLeaf().httpRoute().routeId()).isEqualTo("1");
+        Assertions.assertThat(router.searchRoute("GET", "/orders")).isEmpty();
+
+        router.addRoute(new MockHttpRoute("2", "GET", "/orders", "/orders"));
+        httpRouter.addRoute(new MockHttpRoute("3", "GET", "/users/me", "/users/me"));
+
+        Assertions.assertThat(router.searchRoute("GET", "/orders")).get().extracting(route -> route.matchingRouteLeaf().httpRoute().routeId()).isEqualTo("2");
+        Assertions.assertThat(router.searchRoute("GET", "/users/me")).get().extracting(route -> route.matchingRouteLeaf().httpRoute().routeId()).isEqualTo("3");
+        Assertions.assertThat(router.stats().hitCount()).isZero();
+    }
+
+    @Test
+    public void searchRoute__verify_that_cached_results_are_invalidated_when_the_path_normalization_changes() {
+        HttpRouter<MockHttpRoute> httpRouter = new HttpRouter<>(List.of(
+            new MockHttpRoute("1", "GET", "/u/{id}", "/users")
+        ));
+        CachingHttpRouter<MockHttpRoute> router = new CachingHttpRouter<>(httpRouter, 10);
+        Assertions.assertThat(router.searchRoute("GET", "/u//1")).isEmpty();
+
+        httpRouter.setPathNormalization(PathNormalization.REQUEST_TARGET);
+
+        Assertions.assertThat(router.searchRoute("GET", "/u//1")).get().extracting(route -> route.parameterValue("id")).isEqualTo("1");
+        Assertions.assertThat(router.stats().hitCount()).isZero();
+    }
+
+    @Test
+    public void searchRoute__verify_that_frequently_searched_paths_stay_cached_during_a_flood_of_distinct_paths() {
+        CachingHttpRouter<MockHttpRoute> router = new CachingHttpRouter<>(new HttpRouter<>(List.of(
+            new MockHttpRoute("1", "GET", "/users/{id}", "/users")
+        )), 10);
+        for (int round = 0; round < 3; round++) {
+            for (int userIndex = 0; userIndex < 10; userIndex++) {
+                router.searchRoute("GET", "/users/" + userIndex);
+            }
+        }
+        CacheStats statsBeforeFlood = router.stats();
+        Assertions.assertThat(statsBeforeFlood.hitCount()).isEqualTo(20);
+
+        for (int floodIndex = 0; floodIndex < 1000; floodIndex++) {
+            router.searchRoute("GET", "/flood-" + floodIndex);
+            router.searchRoute("GET", "/users/" + (floodIndex % 10));
+        }
+
+        Assertions.assertThat(router.stats().hitCount()).isEqualTo(statsBeforeFlood.hitCount() + 1000);
+        Assertions.assertThat(router.stats().evictionCount()).isZero();
+    }
+
+    @Test
+    public void searchRoute__verify_that_the_cache_size_is_bounded() {
+        CachingHttpRouter<MockHttpRoute> router = new CachingHttpRouter<>(new HttpRouter<>(List.of(
+            new MockHttpRoute("1", "GET", "/users/{id}", "/users")
+        )), 10);
+        for (int round = 0; round < 5; round++) {
+            for (int userIndex = 0; userIndex < 100; userIndex++) {
+                router.searchRoute("GET", "/users/" + userIndex);
+            }
+        }
+
+        Assertions.assertThat(router.stats().evictionCount()).isPositive();
+        Assertions.assertThat(router.stats().hitCount() + router.stats().missCount()).isEqualTo(500);
+    }
+}
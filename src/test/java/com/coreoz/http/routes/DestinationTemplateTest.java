@@ -0,0 +1,97 @@
+package com.coreoz.http.routes;
+
+import com.coreoz.http.routes.router.MockHttpRoute;
+import com.coreoz.http.routes.router.search.RawMatchingRoute;
+import com.coreoz.http.routes.router.search.RouteMatcher;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class DestinationTemplateTest {
+    @Test
+    public void appendTo__verify_that_pattern_values_are_copied_from_the_request_path() {
+        DestinationTemplate template = DestinationTemplate.compile("/users/{userId}/orders/{orderId}", "/users-orders/{orderId}/details/{userId}");
+        RouteMatcher<MockHttpRoute> matcher = search("/users/{userId}/orders/{orderId}", "/users/123/orders/456");
+
+        StringBuilder destinationPath = new StringBuilder("http://backend");
+        template.appendTo(destinationPath, matcher);
+
+        Assertions.assertThat(destinationPath.toString()).isEqualTo("http://backend/users-orders/456/details/123");
+        Assertions.assertThat(template.destinationLength(matcher)).isEqualTo("/users-orders/456/details/123".length());
+    }
+
+    @Test
+    public void destinationPath__verify_that_the_result_is_the_same_as_computeDestinationRoute() {
+        List<String[]> routerAndDestinationPaths = List.of(
+            new String[]{"/users/{userId}", "/"},
+            new String[]{"/users/{userId}", "/{userId}"},
+            new String[]{"/users/{userId}/addresses", "/{userId}/addresses/"},
+            new String[]{"/a/{x}/b/{x}", "/c/{x}"},
+            new String[]{"/static/path", "/other/static/path"}
+        );
+        for (String[] routerAndDestinationPath : routerAndDestinationPaths) {
+            String requestPath = routerAndDestinationPath[0].replace("{userId}", "42").replace("{x}", "value-" + routerAndDestinationPath[0].length());
+            RawMatchingRoute<MockHttpRoute> matchingRoute = search(routerAndDestinationPath[0], requestPath).toRawMatchingRoute();
+
+            Assertions
+                .assertThat(DestinationTemplate.compile(routerAndDestinationPath[0], routerAndDestinationPath[1]).destinationPath(matchingRoute))
+                .isEqualTo(HttpRoutes.computeDestinationRoute(matchingRoute, HttpRoutes.parsePathAsSegments(routerAndDestinationPath[1])).destinationPath());
+        }
+    }
+
+    @Test
+    public void writeTo__verify_that_the_destination_path_is_written_to_buffers() {
+        DestinationTemplate template = DestinationTemplate.compile("/files/{name}", "/storage/{name}/content");
+        RouteMatcher<MockHttpRoute> matcher = search("/files/{name}", "/files/résumé%20v2");
+
+        CharBuffer charBuffer = CharBuffer.allocate(64);
+        template.writeTo(charBuffer, matcher);
+        ByteBuffer byteBuffer = ByteBuffer.allocate(64);
+        template.writeTo(byteBuffer, matcher);
+
+        Assertions.assertThat(charBuffer.flip().toString()).isEqualTo("/storage/résumé%20v2/content");
+        Assertions
+            .assertThat(StandardCharsets.UTF_8.decode(byteBuffer.flip()).toString())
+            .isEqualTo("/storage/résumé%20v2/content");
+    }
+
+    @Test
+    public void appendTo__verify_that_a_catch_all_value_is_copied_as_a_single_range() {
+        DestinationTemplate template = DestinationTemplate.compile("/legacy/{rest...}", "/v1/{rest...}");
+        RouteMatcher<MockHttpRoute> matcher = search("/legacy/{rest...}", "/legacy/users/42/orders?page=2");
+
+        Assertions.assertThat(template.destinationPath(matcher)).isEqualTo("/v1/users/42/orders?page=2");
+        Assertions.assertThat(template.destinationLength(matcher)).isEqualTo("/v1/users/42/orders?page=2".length());
+    }
+
+    @Test
+    public void appendTo__verify_that_partial_segment_values_are_copied() {
+        DestinationTemplate template = DestinationTemplate.compile("/v{version}/files/{name}.{ext}", "/files/{ext}/{name}-v{version}");
+        RouteMatcher<MockHttpRoute> matcher = search("/v{version}/files/{name}.{ext}", "/v2/files/archive.tar.gz");
+        CharBuffer charBuffer = CharBuffer.allocate(64);
+        template.writeTo(charBuffer, matcher);
+
+        Assertions.assertThat(template.destinationPath(matcher)).isEqualTo("/files/gz/archive.tar-v2");
+        Assertions.assertThat(template.destinationLength(matcher)).isEqualTo("/files/gz/archive.tar-v2".length());
+        Assertions.assertThat(charBuffer.flip().toString()).isEqualTo("/files/gz/archive.tar-v2");
+    }
+
+    @Test
+    public void compile__verify_that_unknown_pattern_names_are_rejected() {
+        Assertions
+            .assertThatThrownBy(() -> DestinationTemplate.compile("/users/{userId}/addresses", "/{id}/addresses"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("{id}");
+    }
+
+    private static RouteMatcher<MockHttpRoute> search(String routerPath, String requestPath) {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(List.of(new MockHttpRoute("1", "GET", routerPath, routerPath)));
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+        Assertions.assertThat(router.searchRoute("GET", requestPath, matcher)).isTrue();
+        return matcher;
+    }
+}
@@ -0,0 +1,231 @@
+package com.coreoz.http.routes;
+
+import com.coreoz.http.routes.router.MockHttpRoute;
+import com.coreoz.http.routes.router.RandomRoutes;
+import com.coreoz.http.routes.router.RoutesDiff;
+import com.coreoz.http.routes.router.search.RouteMatcher;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HttpRouterConcurrentTest {
+    private static final int READERS_COUNT = 4;
+    private static final int ADDED_ROUTES_COUNT = 3000;
+    private static final int INITIAL_ROUTES_COUNT = 50;
+
+    @Test
+    public void addRoute__verify_that_added_routes_are_found_while_routes_are_searched_concurrently() throws InterruptedException {
+        List<MockHttpRoute> initialRoutes = new ArrayList<>();
+        for (int i = 0; i < INITIAL_ROUTES_COUNT; i++) {
+            initialRoutes.add(new MockHttpRoute("initial-" + i, "GET", "/added/{group}/initial" + i, ""));
+        }
+        HttpRouter<MockHttpRoute> router = HttpRouter.concurrent(initialRoutes);
+
+        // routes with an index lower than publishedRoutesCount must always be found by readers
+        AtomicInteger publishedRoutesCount = new AtomicInteger();
+        AtomicBoolean writerDone = new AtomicBoolean();
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(READERS_COUNT + 1);
+
+        for (int readerIndex = 0; readerIndex < READERS_COUNT; readerIndex++) {
+            int seed = readerIndex;
+            executor.submit(() -> {
+                Random random = new Random(seed);
+                RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+                awaitQuietly(start);
+                try {
+                    while (!writerDone.get() && failures.isEmpty()) {
+                        readRoutes(router, matcher, random, publishedRoutesCount.get(), failures);
+                    }
+                } catch (RuntimeException e) {
+                    failures.add("Search failed: " + e);
+                }
+            });
+        }
+        executor.submit(() -> {
+            awaitQuietly(start);
+            for (int i = 0; i < ADDED_ROUTES_COUNT && failures.isEmpty(); i++) {
+                // alternate static and pattern children to copy both kinds of nodes
+                String path = i % 2 == 0 ? "/added/s" + i + "/{param}" : "/added/{group}/s" + i + "/{param}";
+                MockHttpRoute route = new MockHttpRoute("added-" + i, "GET", path, "");
+                if (router.addRoute(route) != route) {
+                    failures.add("Route " + route + " has not been added");
+                }
+                publishedRoutesCount.set(i + 1);
+            }
+            writerDone.set(true);
+        });
+
+        start.countDown();
+        executor.shutdown();
+        Assertions.assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        Assertions.assertThat(failures).isEmpty();
+        Assertions.assertThat(router.searchRoute("GET", "/added/s0/v")).isPresent();
+        Assertions.assertThat(router.searchRoute("GET", "/added/g/s" + (ADDED_ROUTES_COUNT - 1) + "/v")).isPresent();
+    }
+
+    @Test
+    public void addRoute__verify_that_an_existing_route_is_returned_and_not_replaced() {
+        MockHttpRoute existingRoute = new MockHttpRoute("1", "GET", "/test/{id}", "");
+        HttpRouter<MockHttpRoute> router = HttpRouter.concurrent(List.of(existingRoute));
+
+        Assertions.assertThat(router.addRoute(new MockHttpRoute("2", "GET", "/test/{other}", ""))).isSameAs(existingRoute);
+        Assertions.assertThat(router.searchRoute("GET", "/test/abc").map(route -> route.matchingRouteLeaf().httpRoute())).contains(existingRoute);
+    }
+
+    @Test
+    public void removeRoute__verify_that_removed_and_replaced_routes_are_published() {
+        HttpRouter<MockHttpRoute> router = HttpRouter.concurrent(List.of(
+            new MockHttpRoute("users", "GET", "/users/{id}", ""),
+            new MockHttpRoute("orders", "GET", "/users/{id}/orders", "")
+        ));
+        long generation = router.generation();
+
+        Assertions.assertThat(router.removeRoute("orders")).extracting(MockHttpRoute::routeId).isEqualTo("orders");
+        Assertions.assertThat(router.removeRoute("orders")).isNull();
+        Assertions.assertThat(router.searchRoute("GET", "/users/1/orders")).isEmpty();
+        MockHttpRoute newUsersRoute = new MockHttpRoute("users-v2", "GET", "/users/{userId}", "");
+        Assertions.assertThat(router.replaceRoute(newUsersRoute)).extracting(MockHttpRoute::routeId).isEqualTo("users");
+        Assertions.assertThat(router.replaceRoute(new MockHttpRoute("orders", "GET", "/users/{id}/orders", ""))).isNull();
+        Assertions.assertThat(router.searchRoute("GET", "/users/1").orElseThrow().toMatchingRoute().parameterValues()).containsEntry("userId", "1");
+        Assertions.assertThat(router.generation()).isEqualTo(generation + 2);
+
+        // the identifiers index follows the replaced routes
+        Assertions.assertThat(router.removeRoute("users")).isNull();
+        Assertions.assertThat(router.removeRoute("users-v2")).isSameAs(newUsersRoute);
+        Assertions.assertThat(router.searchRoute("GET", "/users/1")).isEmpty();
+        Assertions.assertThat(router.addRoute(newUsersRoute)).isSameAs(newUsersRoute);
+        Assertions.assertThat(router.removeRoute("users-v2")).isSameAs(newUsersRoute);
+    }
+
+    @Test
+    public void reload__verify_that_only_the_changes_are_applied_and_reported() {
+        MockHttpRoute users = new MockHttpRoute("users", "GET", "/users/{id}", "/users/{id}");
+        MockHttpRoute orders = new MockHttpRoute("orders", "GET", "/users/{id}/orders", "/orders");
+        MockHttpRoute files = new MockHttpRoute("files", "GET", "/files/{name}", "/files");
+        HttpRouter<MockHttpRoute> router = HttpRouter.concurrent(List.of(users, orders, files));
+        long generation = router.generation();
+
+        MockHttpRoute newOrders = new MockHttpRoute("orders", "GET", "/users/{userId}/orders", "/v2/orders");
+        MockHttpRoute movedFiles = new MockHttpRoute("files", "GET", "/files/{name}.{ext}", "/files");
+        MockHttpRoute roles = new MockHttpRoute("roles", "GET", "/roles", "/roles");
+        MockHttpRoute duplicateRoles = new MockHttpRoute("roles-copy", "GET", "/roles", "/roles");
+        RoutesDiff<MockHttpRoute> routesDiff = router.reload(List.of(users, newOrders, movedFiles, roles, duplicateRoles));
+
+        Assertions.assertThat(routesDiff.addedRoutes()).containsExactly(movedFiles, roles);
+        Assertions.assertThat(routesDiff.removedRoutes()).containsExactly(files);
+        Assertions.assertThat(routesDiff.replacedRoutes()).containsExactly(newOrders);
+        Assertions.assertThat(routesDiff.ignoredRoutes()).containsExactly(duplicateRoles);
+        Assertions.assertThat(routesDiff.unchangedRoutesCount()).isEqualTo(1);
+        Assertions.assertThat(router.generation()).isEqualTo(generation + 1);
+        Assertions.assertThat(router.searchRoute("GET", "/users/1/orders").orElseThrow().toMatchingRoute().parameterValues()).containsEntry("userId", "1");
+        Assertions.assertThat(router.searchRoute("GET", "/files/a")).isEmpty();
+        Assertions.assertThat(router.searchRoute("GET", "/files/a.txt")).get().extracting(route -> route.matchingRouteLeaf().httpRoute()).isEqualTo(movedFiles);
+
+        RoutesDiff<MockHttpRoute> sameRoutesDiff = router.reload(List.of(users, newOrders, movedFiles, roles));
+        Assertions.assertThat(sameRoutesDiff.hasChanges()).isFalse();
+        Assertions.assertThat(sameRoutesDiff.unchangedRoutesCount()).isEqualTo(4);
+        Assertions.assertThat(router.generation()).isEqualTo(generation + 1);
+    }
+
+    @Test
+    public void reload__verify_that_a_reloaded_router_finds_the_same_routes_as_a_new_router() {
+        Random random = new Random(20240601);
+        for (int routeSetIndex = 0; routeSetIndex < 200; routeSetIndex++) {
+            List<MockHttpRoute> initialRoutes = distinctPathRoutes(RandomRoutes.randomRoutes(random, 20), "");
+            HttpRouter<MockHttpRoute> router = routeSetIndex % 2 == 0 ? HttpRouter.concurrent(initialRoutes) : new HttpRouter<>(initialRoutes);
+            // the new routes keep, change or drop each initial route, and add routes having other identifiers
+            List<MockHttpRoute> newRoutes = new ArrayList<>();
+            for (MockHttpRoute route : initialRoutes) {
+                int change = random.nextInt(3);
+                if (change == 0) {
+                    newRoutes.add(route);
+                } else if (change == 1) {
+                    newRoutes.add(new MockHttpRoute(route.routeId(), route.method(), route.downstreamPath(), "/changed"));
+                }
+            }
+            newRoutes.addAll(distinctPathRoutes(RandomRoutes.randomRoutes(random, 10), "new-"));
+            newRoutes = distinctPathRoutes(newRoutes, "");
+            HttpRouter<MockHttpRoute> expectedRouter = new HttpRouter<>(newRoutes);
+
+            router.reload(newRoutes);
+            for (int requestIndex = 0; requestIndex < 100; requestIndex++) {
+                String requestPath = RandomRoutes.randomRequestPath(random);
+                Assertions
+                    .assertThat(router.searchRoute("GET", requestPath).map(route -> route.toMatchingRoute()))
+                    .as("Search of %s in %s reloaded with %s", requestPath, initialRoutes, newRoutes)
+                    .isEqualTo(expectedRouter.searchRoute("GET", requestPath).map(route -> route.toMatchingRoute()));
+            }
+        }
+    }
+
+    /**
+     * Returns the first route of each generic path, identifiers being prefixed by <code>routeIdPrefix</code>
+     */
+    private static List<MockHttpRoute> distinctPathRoutes(List<MockHttpRoute> routes, String routeIdPrefix) {
+        Map<String, MockHttpRoute> routesByGenericPath = new LinkedHashMap<>();
+        for (MockHttpRoute route : routes) {
+            routesByGenericPath.putIfAbsent(
+                HttpRoutes.parsePath(route.downstreamPath()).genericPath(),
+                new MockHttpRoute(routeIdPrefix + route.routeId(), route.method(), route.downstreamPath(), route.upstreamPath())
+            );
+        }
+        return new ArrayList<>(routesByGenericPath.values());
+    }
+
+    private static void readRoutes(
+        HttpRouter<MockHttpRoute> router, RouteMatcher<MockHttpRoute> matcher, Random random, int publishedRoutesCount, Queue<String> failures
+    ) {
+        int initialRouteIndex = random.nextInt(INITIAL_ROUTES_COUNT);
+        verifyRoute(router, matcher, "/added/g/initial" + initialRouteIndex, "initial-" + initialRouteIndex, "group", "g", failures);
+
+        if (publishedRoutesCount > 0) {
+            int routeIndex = random.nextInt(publishedRoutesCount);
+            if (routeIndex % 2 == 0) {
+                verifyRoute(router, matcher, "/added/s" + routeIndex + "/v", "added-" + routeIndex, "param", "v", failures);
+            } else {
+                verifyRoute(router, matcher, "/added/g/s" + routeIndex + "/v", "added-" + routeIndex, "param", "v", failures);
+            }
+        }
+    }
+
+    private static void verifyRoute(
+        HttpRouter<MockHttpRoute> router, RouteMatcher<MockHttpRoute> matcher, String path,
+        String expectedRouteId, String parameterName, String expectedParameterValue, Queue<String> failures
+    ) {
+        if (!router.searchRoute("GET", path, matcher)) {
+            failures.add("No route found for " + path);
+            return;
+        }
+        String routeId = matcher.matchingRouteLeaf().httpRoute().routeId();
+        if (!expectedRouteId.equals(routeId)) {
+            failures.add("Route " + routeId + " found for " + path + " instead of " + expectedRouteId);
+        }
+        String parameterValue = matcher.parameterValue(parameterName);
+        if (!expectedParameterValue.equals(parameterValue)) {
+            failures.add("Parameter " + parameterName + "=" + parameterValue + " found for " + path);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
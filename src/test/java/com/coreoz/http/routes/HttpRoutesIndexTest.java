@@ -6,7 +6,11 @@ import org.assertj.core.api.Assertions;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 import static com.coreoz.http.routes.RoutesMocks.makeParsedRoute;
 
@@ -66,4 +70,39 @@ public class HttpRoutesIndexTest {
         Assertions.assertThat(routesValidator.addRoute(makeParsedRoute())).isNotNull();
         Assertions.assertThat(routesValidator.addRoute(makeParsedRoute())).isNull();
     }
+
+    @Test
+    public void merge__verify_that_existing_routes_are_kept_and_duplicates_are_reported() {
+        HttpRoutesIndex<MockHttpRoute> routesIndex = new HttpRoutesIndex<>();
+        routesIndex.addRoute(new MockHttpRoute("a", "GET", "/route/{arg}", "a"));
+        HttpRoutesIndex<MockHttpRoute> otherRoutesIndex = new HttpRoutesIndex<>();
+        otherRoutesIndex.addRoute(new MockHttpRoute("b", "GET", "/route/{other-arg}", "b"));
+        otherRoutesIndex.addRoute(new MockHttpRoute("c", "POST", "/route/{arg}", "c"));
+
+        List<String> duplicateRouteIds = new ArrayList<>();
+        routesIndex.merge(otherRoutesIndex, duplicateRoute -> duplicateRouteIds.add(duplicateRoute.routeDefinition().routeId()));
+
+        Assertions.assertThat(duplicateRouteIds).containsExactly("b");
+        Assertions.assertThat(routesIndex.findRoute("/route/{arg}", "GET").routeDefinition().routeId()).isEqualTo("a");
+        Assertions.assertThat(routesIndex.findRoute("/route/{arg}", "POST").routeDefinition().routeId()).isEqualTo("c");
+    }
+
+    @Test
+    public void collector__verify_that_parallel_streams_keep_the_first_route_and_report_duplicates() {
+        List<MockHttpRoute> routes = IntStream
+            .range(0, 10_000)
+            .mapToObj(index -> new MockHttpRoute(String.valueOf(index), "GET", "/route-" + (index % 1000) + "/{arg-" + index + "}", "a"))
+            .toList();
+        Set<String> duplicateRouteIds = ConcurrentHashMap.newKeySet();
+
+        HttpRoutesIndex<MockHttpRoute> routesIndex = routes
+            .parallelStream()
+            .map(HttpRoutes::parseRoute)
+            .collect(HttpRoutesIndex.collector(duplicateRoute -> duplicateRouteIds.add(duplicateRoute.routeDefinition().routeId())));
+
+        Assertions.assertThat(duplicateRouteIds).hasSize(9_000);
+        for (int index = 0; index < 1000; index++) {
+            Assertions.assertThat(routesIndex.findRoute("/route-" + index + "/{arg}", "GET").routeDefinition().routeId()).isEqualTo(String.valueOf(index));
+        }
+    }
 }
@@ -3,6 +3,11 @@ package com.coreoz.http.routes;
 import com.coreoz.http.routes.parsing.ParsedPath;
 import com.coreoz.http.routes.parsing.ParsedRoute;
 import com.coreoz.http.routes.parsing.ParsedSegment;
+import com.coreoz.http.routes.parsing.PathInterner;
+import com.coreoz.http.routes.parsing.PatternConstraint;
+import com.coreoz.http.routes.parsing.SegmentTemplate;
+import com.coreoz.http.routes.router.MockHttpRoute;
+import com.coreoz.http.routes.router.search.RawMatchingRoute;
 import org.assertj.core.api.Assertions;
 import org.junit.Test;
 
@@ -28,6 +33,33 @@ public class HttpRoutesTest {
         );
     }
 
+    @Test
+    public void parsePathAsSegments__verify_that_trailing_slashes_and_the_first_character_are_ignored() {
+        Assertions.assertThat(HttpRoutes.parsePathAsSegments("/test/other//")).containsExactly(
+            new ParsedSegment("test", false),
+            new ParsedSegment("other", false)
+        );
+        Assertions.assertThat(HttpRoutes.parsePathAsSegments("abcd")).containsExactly(new ParsedSegment("bcd", false));
+        Assertions.assertThat(HttpRoutes.parsePathAsSegments("a")).isEmpty();
+        Assertions.assertThat(HttpRoutes.parsePathAsSegments("///")).isEmpty();
+        Assertions.assertThat(HttpRoutes.parsePath("/test/other/").genericPath()).isEqualTo("/test/other");
+        Assertions.assertThat(HttpRoutes.parsePath("///").genericPath()).isEqualTo("/");
+    }
+
+    @Test
+    public void parsePath__verify_that_strings_are_shared_using_the_interner() {
+        PathInterner interner = new PathInterner();
+        ParsedPath userPath = HttpRoutes.parsePath("/users/{id:int}", interner);
+        ParsedPath addressesPath = HttpRoutes.parsePath("/users/{id:int}/addresses", interner);
+        ParsedPath otherUserPath = HttpRoutes.parsePath(new String("/users/{userId:int}"), interner);
+
+        Assertions.assertThat(addressesPath.segments().get(0).name()).isSameAs(userPath.segments().get(0).name());
+        Assertions.assertThat(addressesPath.segments().get(1).name()).isSameAs(userPath.segments().get(1).name());
+        Assertions.assertThat(otherUserPath.genericPath()).isEqualTo("/users/{:int}").isSameAs(userPath.genericPath());
+        Assertions.assertThat(HttpRoutes.parsePath("/users/me", interner).genericPath()).isSameAs(HttpRoutes.parsePath("/users/me", interner).genericPath());
+        Assertions.assertThat(HttpRoutes.parsePath("/users/{id:int}").genericPath()).isNotSameAs(userPath.genericPath());
+    }
+
     @Test
     public void parsePathAsSegments__verify_that_an_empty_pattern_returns_an_empty_pattern_segment() {
         Assertions.assertThat(HttpRoutes.parsePathAsSegments("/test/{}/other")).containsExactly(
@@ -37,6 +69,77 @@ public class HttpRoutesTest {
         );
     }
 
+    @Test
+    public void parsePathAsSegments__verify_that_a_pattern_constraint_follows_the_pattern_name() {
+        Assertions.assertThat(HttpRoutes.parsePathAsSegments("/items/{id:int}/{code:[A-Z]{3}}/{name:}")).containsExactly(
+            new ParsedSegment("items", false),
+            new ParsedSegment("id", true, PatternConstraint.parse("int")),
+            new ParsedSegment("code", true, PatternConstraint.parse("[A-Z]{3}")),
+            new ParsedSegment("name", true)
+        );
+    }
+
+    @Test
+    public void parsePathAsSegments__verify_that_a_constraint_followed_by_another_pattern_is_a_partial_segment() {
+        Assertions
+            .assertThatThrownBy(() -> HttpRoutes.parsePathAsSegments("/files/{name:int}.{ext}"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Constraints are not supported in the parameters of the partial segment");
+        Assertions.assertThat(HttpRoutes.parsePathAsSegments("/files/{name:\\{[a-z]+}")).containsExactly(
+            new ParsedSegment("files", false),
+            new ParsedSegment("name", true, PatternConstraint.parse("\\{[a-z]+"))
+        );
+    }
+
+    @Test
+    public void parsePath__verify_that_the_generic_path_keeps_pattern_constraints() {
+        Assertions.assertThat(HttpRoutes.parsePath("/items/{id:int}/{slug}").genericPath()).isEqualTo("/items/{:int}/{}");
+        Assertions.assertThat(HttpRoutes.parsePath("/items/{itemId:int}/{name}").genericPath()).isEqualTo("/items/{:int}/{}");
+    }
+
+    @Test
+    public void parsePathAsSegments__verify_that_catch_all_patterns_are_recognized() {
+        Assertions.assertThat(HttpRoutes.parsePathAsSegments("/legacy/{rest...}")).containsExactly(
+            new ParsedSegment("legacy", false),
+            new ParsedSegment("rest", true, null, true)
+        );
+        Assertions.assertThat(HttpRoutes.parsePathAsSegments("/static/**")).containsExactly(
+            new ParsedSegment("static", false),
+            new ParsedSegment("**", true, null, true)
+        );
+        Assertions.assertThat(HttpRoutes.parsePath("/static/**").genericPath()).isEqualTo("/static/{...}");
+        Assertions.assertThat(HttpRoutes.parsePath("/static/{path...}").genericPath()).isEqualTo("/static/{...}");
+    }
+
+    @Test
+    public void computeDestinationRoute__verify_that_a_catch_all_value_is_copied_with_its_separators() {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(List.of(
+            new MockHttpRoute("legacy", "GET", "/legacy/{rest...}", "/v1/{rest...}")
+        ));
+        Assertions
+            .assertThat(HttpRoutes.computeDestinationRoute(
+                router.searchRoute("GET", "/legacy/users/42/orders").orElseThrow(),
+                HttpRoutes.parsePathAsSegments("/v1/{rest...}")
+            ).destinationPath())
+            .isEqualTo("/v1/users/42/orders");
+    }
+
+    @Test
+    public void computeDestinationRoute__verify_that_partial_segment_values_are_copied() {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(List.of(
+            new MockHttpRoute("files", "GET", "/v{version}/files/{name}.{ext}", "/files/{ext}/{name}-v{version}")
+        ));
+        RawMatchingRoute<MockHttpRoute> matchingRoute = router.searchRoute("GET", "/v2/files/archive.tar.gz").orElseThrow();
+
+        Assertions
+            .assertThat(HttpRoutes.computeDestinationRoute(matchingRoute, HttpRoutes.parsePathAsSegments("/files/{ext}/{name}-v{version}")).destinationPath())
+            .isEqualTo("/files/gz/archive.tar-v2");
+        Assertions.assertThat(HttpRoutes.parsePath("/v{version}/files/{name}.{ext}").genericPath()).isEqualTo("/v{}/files/{}.{}");
+        Assertions
+            .assertThat(HttpRoutes.serializeParsedPath(HttpRoutes.parsePathAsSegments("/v{version}/files/{name}.{ext}"), name -> "<" + name + ">"))
+            .isEqualTo("/v<version>/files/<name>.<ext>");
+    }
+
     @Test
     public void parsePathAsSegments__verify_that_an_unclosed_start_pattern_is_parsed_as_a_regular_segment() {
         Assertions.assertThat(HttpRoutes.parsePathAsSegments("/test/{unclosed-pattern/other")).containsExactly(
@@ -56,12 +159,26 @@ public class HttpRoutesTest {
     }
 
     @Test
-    public void parsePathAsSegments__verify_that_an_inside_pattern_is_parsed_as_a_regular_segment() {
-        Assertions.assertThat(HttpRoutes.parsePathAsSegments("/test/unclosed-{middle}-pattern/other")).containsExactly(
+    public void parsePathAsSegments__verify_that_an_inside_pattern_is_parsed_as_a_partial_segment() {
+        List<ParsedSegment> segments = HttpRoutes.parsePathAsSegments("/test/unclosed-{middle}-pattern/other");
+        Assertions.assertThat(segments).containsExactly(
             new ParsedSegment("test", false),
-            new ParsedSegment("unclosed-{middle}-pattern", false),
+            new ParsedSegment("unclosed-{middle}-pattern", true, PatternConstraint.of(SegmentTemplate.parse("unclosed-{middle}-pattern"))),
             new ParsedSegment("other", false)
         );
+        Assertions.assertThat(segments.get(1).constraint().definition()).isEqualTo("unclosed-{}-pattern");
+    }
+
+    @Test
+    public void parsePathAsSegments__verify_that_invalid_partial_segments_are_rejected() {
+        Assertions
+            .assertThatThrownBy(() -> HttpRoutes.parsePathAsSegments("/files/{name}{ext}"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("{name}{ext}");
+        Assertions
+            .assertThatThrownBy(() -> HttpRoutes.parsePathAsSegments("/files/{name:int}.json"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("{name:int}.json");
     }
 
     @Test
@@ -0,0 +1,37 @@
+package com.coreoz.http.routes.parsing;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PathInternerTest {
+    @Test
+    public void intern__verify_that_equal_strings_are_returned_once() {
+        PathInterner interner = new PathInterner();
+        String users = interner.intern("/users/123", 1, 6);
+
+        Assertions.assertThat(users).isEqualTo("users");
+        Assertions.assertThat(interner.intern("/v1/users", 4, 9)).isSameAs(users);
+        Assertions.assertThat(interner.intern(new StringBuilder("users"), 0, 5)).isSameAs(users);
+        Assertions.assertThat(interner.intern(new String("users"))).isSameAs(users);
+        Assertions.assertThat(interner.intern("/users/123", 1, 5)).isEqualTo("user");
+        Assertions.assertThat(interner.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void intern__verify_that_strings_are_kept_when_the_pool_grows() {
+        PathInterner interner = new PathInterner();
+        List<String> strings = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            strings.add(interner.intern("segment-" + i));
+        }
+
+        Assertions.assertThat(interner.size()).isEqualTo(1000);
+        for (int i = 0; i < 1000; i++) {
+            String path = "/segment-" + i;
+            Assertions.assertThat(interner.intern(path, 1, path.length())).isSameAs(strings.get(i));
+        }
+    }
+}
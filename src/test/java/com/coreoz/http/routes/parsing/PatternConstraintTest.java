@@ -0,0 +1,124 @@
+package com.coreoz.http.routes.parsing;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+public class PatternConstraintTest {
+    @Test
+    public void matches__verify_that_int_and_long_values_must_be_in_the_range_of_the_type() {
+        PatternConstraint intConstraint = PatternConstraint.parse("int");
+        Assertions.assertThat(matches(intConstraint, "0", "42", "-7", "2147483647", "-2147483648")).containsOnly(true);
+        Assertions.assertThat(matches(intConstraint, "", "-", "4a", "+4", "2147483648", "-2147483649", "12345678901")).containsOnly(false);
+
+        PatternConstraint longConstraint = PatternConstraint.parse("long");
+        Assertions.assertThat(matches(longConstraint, "2147483648", "9223372036854775807", "-9223372036854775808")).containsOnly(true);
+        Assertions.assertThat(matches(longConstraint, "9223372036854775808", "-9223372036854775809", "1.5")).containsOnly(false);
+    }
+
+    @Test
+    public void matches__verify_that_uuids_are_matched_in_any_case() {
+        PatternConstraint uuidConstraint = PatternConstraint.parse("uuid");
+        Assertions
+            .assertThat(matches(uuidConstraint, "123e4567-e89b-12d3-a456-426614174000", "123E4567-E89B-12D3-A456-426614174000"))
+            .containsOnly(true);
+        Assertions
+            .assertThat(matches(uuidConstraint, "123e4567e89b12d3a456426614174000", "123e4567-e89b-12d3-a456-42661417400g", "123e4567-e89b-12d3-a456-4266141740000"))
+            .containsOnly(false);
+    }
+
+    @Test
+    public void matches__verify_that_character_classes_are_matched_without_regular_expressions() {
+        PatternConstraint slug = PatternConstraint.parse("[a-z0-9-]+");
+        Assertions.assertThat(slug.type()).isEqualTo(PatternConstraint.Type.CHARACTER_CLASS);
+        Assertions.assertThat(matches(slug, "blue-chair", "42")).containsOnly(true);
+        Assertions.assertThat(matches(slug, "", "Blue", "chair_1", "café")).containsOnly(false);
+
+        PatternConstraint code = PatternConstraint.parse("[^.]{2,3}");
+        Assertions.assertThat(code.type()).isEqualTo(PatternConstraint.Type.CHARACTER_CLASS);
+        Assertions.assertThat(matches(code, "ab", "aéc")).containsOnly(true);
+        Assertions.assertThat(matches(code, "a", "a.b", "abcd")).containsOnly(false);
+
+        PatternConstraint year = PatternConstraint.parse("\\d{4}");
+        Assertions.assertThat(year.type()).isEqualTo(PatternConstraint.Type.CHARACTER_CLASS);
+        Assertions.assertThat(matches(year, "2024")).containsOnly(true);
+        Assertions.assertThat(matches(year, "202", "20245", "20a4")).containsOnly(false);
+    }
+
+    @Test
+    public void matches__verify_that_lengths_and_regular_expressions_are_matched() {
+        PatternConstraint length = PatternConstraint.parse("length(2,4)");
+        Assertions.assertThat(matches(length, "ab", "a/bc")).containsOnly(true);
+        Assertions.assertThat(matches(length, "a", "abcde")).containsOnly(false);
+        Assertions.assertThat(matches(PatternConstraint.parse("length(3)"), "", "abc")).containsOnly(true);
+
+        PatternConstraint regex = PatternConstraint.parse("v\\d+(-beta)?");
+        Assertions.assertThat(regex.type()).isEqualTo(PatternConstraint.Type.REGEX);
+        Assertions.assertThat(matches(regex, "v1", "v12-beta")).containsOnly(true);
+        Assertions.assertThat(matches(regex, "v", "1", "v1-alpha")).containsOnly(false);
+        // the segment is matched in the request path without being extracted
+        Assertions.assertThat(regex.matches("/api/v2/users", 5, 7)).isTrue();
+        Assertions.assertThat(regex.matches("/api/v2/users", 5, 6)).isFalse();
+    }
+
+    @Test
+    public void parse__verify_that_invalid_constraints_are_rejected() {
+        Assertions.assertThatThrownBy(() -> PatternConstraint.parse("length(4,2)")).isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> PatternConstraint.parse("length(a)")).isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> PatternConstraint.parse("[a-z")).isInstanceOf(PatternSyntaxException.class);
+    }
+
+    @Test
+    public void compareTo__verify_that_constraints_are_ordered_by_type_then_by_definition() {
+        List<PatternConstraint> constraints = List.of(
+            PatternConstraint.parse("length(8)"),
+            PatternConstraint.parse("v\\d+"),
+            PatternConstraint.parse("[a-z]+"),
+            PatternConstraint.parse("[0-9]+"),
+            PatternConstraint.parse("long"),
+            PatternConstraint.parse("int"),
+            PatternConstraint.parse("uuid")
+        );
+        Assertions
+            .assertThat(constraints.stream().sorted().map(PatternConstraint::definition))
+            .containsExactly("uuid", "int", "long", "[0-9]+", "[a-z]+", "v\\d+", "length(8)");
+        Assertions.assertThat(PatternConstraint.parse("int")).isEqualTo(PatternConstraint.parse("int"));
+    }
+
+    @Test
+    public void covers__verify_that_constraints_accepting_more_values_cover_the_other_constraints() {
+        Assertions.assertThat(PatternConstraint.parse("long").covers(PatternConstraint.parse("int"))).isTrue();
+        Assertions.assertThat(PatternConstraint.parse("int").covers(PatternConstraint.parse("long"))).isFalse();
+        Assertions.assertThat(PatternConstraint.parse("[a-z0-9]+").covers(PatternConstraint.parse("[a-c]{2,4}"))).isTrue();
+        Assertions.assertThat(PatternConstraint.parse("[a-z0-9]{2,}").covers(PatternConstraint.parse("[a-c]+"))).isFalse();
+        Assertions.assertThat(PatternConstraint.parse("[0-9a-fA-F-]+").covers(PatternConstraint.parse("uuid"))).isTrue();
+        Assertions.assertThat(PatternConstraint.parse("[0-9-]+").covers(PatternConstraint.parse("int"))).isTrue();
+        Assertions.assertThat(PatternConstraint.parse("[^.]+").covers(PatternConstraint.parse("[a-z]+"))).isTrue();
+        Assertions.assertThat(PatternConstraint.parse("[^.]+").covers(PatternConstraint.parse("[^.-]+"))).isTrue();
+        Assertions.assertThat(PatternConstraint.parse("[a-z]+").covers(PatternConstraint.parse("[^.]+"))).isFalse();
+        Assertions.assertThat(PatternConstraint.parse("length(1,11)").covers(PatternConstraint.parse("int"))).isTrue();
+        Assertions.assertThat(PatternConstraint.parse("length(1,10)").covers(PatternConstraint.parse("int"))).isFalse();
+        // regular expressions are only known to cover themselves
+        Assertions.assertThat(PatternConstraint.parse(".+").covers(PatternConstraint.parse("[a-z]+"))).isFalse();
+        Assertions.assertThat(PatternConstraint.parse(".+").covers(PatternConstraint.parse(".+"))).isTrue();
+        // a pattern without constraint matches any segment
+        Assertions.assertThat(PatternConstraint.parse("[^/]*").covers(null)).isTrue();
+        Assertions.assertThat(PatternConstraint.parse("[^/]+").covers(null)).isFalse();
+    }
+
+    @Test
+    public void mayOverlap__verify_that_constraints_with_different_lengths_or_characters_are_disjoint() {
+        Assertions.assertThat(PatternConstraint.parse("uuid").mayOverlap(PatternConstraint.parse("int"))).isFalse();
+        Assertions.assertThat(PatternConstraint.parse("length(3)").mayOverlap(PatternConstraint.parse("[a-z]{4}"))).isFalse();
+        Assertions.assertThat(PatternConstraint.parse("[a-z]+").mayOverlap(PatternConstraint.parse("[0-9]+"))).isFalse();
+        Assertions.assertThat(PatternConstraint.parse("[a-z]*").mayOverlap(PatternConstraint.parse("[0-9]*"))).isTrue();
+        Assertions.assertThat(PatternConstraint.parse("[a-z]+").mayOverlap(PatternConstraint.parse("[^0-9]+"))).isTrue();
+        Assertions.assertThat(PatternConstraint.parse("int").mayOverlap(PatternConstraint.parse("v\\d+"))).isTrue();
+    }
+
+    private static List<Boolean> matches(PatternConstraint constraint, String... values) {
+        return List.of(values).stream().map(value -> constraint.matches(value, 0, value.length())).toList();
+    }
+}
@@ -0,0 +1,74 @@
+package com.coreoz.http.routes.parsing;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class SegmentTemplateTest {
+    @Test
+    public void parse__verify_that_literal_parts_and_parameters_are_separated() {
+        SegmentTemplate template = SegmentTemplate.parse("img-{name}.{ext}");
+
+        Assertions.assertThat(template).isNotNull();
+        Assertions.assertThat(template.parametersCount()).isEqualTo(2);
+        Assertions.assertThat(template.parameterName(0)).isEqualTo("name");
+        Assertions.assertThat(template.parameterName(1)).isEqualTo("ext");
+        Assertions.assertThat(template.literal(0)).isEqualTo("img-");
+        Assertions.assertThat(template.literal(1)).isEqualTo(".");
+        Assertions.assertThat(template.literal(2)).isEmpty();
+        Assertions.assertThat(template.literalsLength()).isEqualTo(5);
+        Assertions.assertThat(template.genericDefinition()).isEqualTo("img-{}.{}");
+        Assertions.assertThat(SegmentTemplate.parse("static")).isNull();
+        Assertions.assertThat(SegmentTemplate.parse("{a{b}.json").genericDefinition()).isEqualTo("{a{}.json");
+    }
+
+    @Test
+    public void matches__verify_that_the_last_occurrence_of_a_separator_is_used() {
+        SegmentTemplate template = SegmentTemplate.parse("{name}.{ext}");
+
+        Assertions.assertThat(parameterValues(template, "archive.tar.gz")).containsExactly("archive.tar", "gz");
+        Assertions.assertThat(parameterValues(template, "a.b")).containsExactly("a", "b");
+        // the last parameter keeps at least one character
+        Assertions.assertThat(parameterValues(template, "a..")).containsExactly("a", ".");
+        Assertions.assertThat(template.matches("a.", 0, 2)).isFalse();
+        Assertions.assertThat(template.matches(".b", 0, 2)).isFalse();
+        Assertions.assertThat(template.matches("ab", 0, 2)).isFalse();
+    }
+
+    @Test
+    public void matches__verify_that_each_parameter_has_at_least_one_character() {
+        SegmentTemplate template = SegmentTemplate.parse("v{major}-{minor}-{patch}.tgz");
+
+        Assertions.assertThat(parameterValues(template, "v1-2-3.tgz")).containsExactly("1", "2", "3");
+        Assertions.assertThat(parameterValues(template, "v1-2-3-rc-1.tgz")).containsExactly("1-2-3", "rc", "1");
+        Assertions.assertThat(template.matches("v1--3.tgz", 0, 9)).isFalse();
+        Assertions.assertThat(template.matches("v1-2-3.zip", 0, 10)).isFalse();
+        Assertions.assertThat(template.matches("w1-2-3.tgz", 0, 10)).isFalse();
+        // only the segment between the offsets is matched
+        Assertions.assertThat(parameterValues(template, "/p/v1-2-3.tgz/q", 3, 13)).containsExactly("1", "2", "3");
+    }
+
+    @Test
+    public void parse__verify_that_invalid_templates_are_rejected() {
+        Assertions
+            .assertThatThrownBy(() -> SegmentTemplate.parse("{name}{ext}"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("separated");
+        Assertions
+            .assertThatThrownBy(() -> SegmentTemplate.parse("{id:int}.json"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Constraints");
+    }
+
+    private static String[] parameterValues(SegmentTemplate template, String segment) {
+        return parameterValues(template, segment, 0, segment.length());
+    }
+
+    private static String[] parameterValues(SegmentTemplate template, String path, int start, int end) {
+        Assertions.assertThat(template.matches(path, start, end)).as("Match of %s", path).isTrue();
+        String[] values = new String[template.parametersCount()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = path.substring(template.parameterStart(path, start, end, i), template.parameterEnd(path, start, end, i));
+        }
+        return values;
+    }
+}
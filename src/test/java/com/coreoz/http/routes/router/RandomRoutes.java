@@ -0,0 +1,59 @@
+package com.coreoz.http.routes.router;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generate random routes and request paths for property based tests
+ */
+public class RandomRoutes {
+    private static final String[] ROUTE_SEGMENTS = {"a", "b", "c", "{x}", "{y}", "{z}"};
+    private static final String[] REQUEST_SEGMENTS = {"a", "b", "c", "d", ""};
+
+    public static List<MockHttpRoute> randomRoutes(Random random, int routesCount) {
+        return randomRoutes(random, routesCount, ROUTE_SEGMENTS);
+    }
+
+    public static List<MockHttpRoute> randomRoutes(Random random, int routesCount, String[] routeSegments) {
+        List<MockHttpRoute> routes = new ArrayList<>();
+        for (int routeIndex = 0; routeIndex < routesCount; routeIndex++) {
+            String path = randomPath(random, routeSegments, 1, 0);
+            routes.add(new MockHttpRoute(String.valueOf(routeIndex), "GET", path, path));
+        }
+        return routes;
+    }
+
+    /**
+     * Generate random routes, a third of them ending with the catch-all segment
+     */
+    public static List<MockHttpRoute> randomRoutesWithCatchAll(Random random, int routesCount, String[] routeSegments, String catchAllSegment) {
+        List<MockHttpRoute> routes = new ArrayList<>();
+        for (int routeIndex = 0; routeIndex < routesCount; routeIndex++) {
+            String path = randomPath(random, routeSegments, 1, 0);
+            if (random.nextInt(3) == 0) {
+                path += "/" + catchAllSegment;
+            }
+            routes.add(new MockHttpRoute(String.valueOf(routeIndex), "GET", path, path));
+        }
+        return routes;
+    }
+
+    public static String randomRequestPath(Random random) {
+        return randomRequestPath(random, REQUEST_SEGMENTS);
+    }
+
+    public static String randomRequestPath(Random random, String[] requestSegments) {
+        return randomPath(random, requestSegments, 0, 2);
+    }
+
+    private static String randomPath(Random random, String[] segments, int segmentsMin, int trailingSlashesMax) {
+        int segmentsCount = segmentsMin + random.nextInt(6 - segmentsMin);
+        StringBuilder path = new StringBuilder();
+        for (int i = 0; i < segmentsCount; i++) {
+            path.append('/').append(segments[random.nextInt(segments.length)]);
+        }
+        path.append("/".repeat(random.nextInt(trailingSlashesMax + 1)));
+        return path.isEmpty() ? "/" : path.toString();
+    }
+}
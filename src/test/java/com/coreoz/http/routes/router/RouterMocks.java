@@ -29,7 +29,6 @@ public class RouterMocks {
             Map.of(),
             new MockHttpRoute("1", "GET", "/test/chose", "/test/chose")
         ),
-            1L << 62 | 1L << 61 | 1L << 60,
             2,
             Map.of(),
             null
@@ -40,7 +39,6 @@ public class RouterMocks {
                     Map.of(),
                     new MockHttpRoute("2", "GET", "/test/bidule/chose", "/test/bidule/chose")
             ),
-            1L << 62 | 1L << 61 | 1L << 60 | 1L << 59,
             3,
             Map.of(),
             null
@@ -51,7 +49,6 @@ public class RouterMocks {
                     Map.of("truc", 2, "bidule",3),
                     new MockHttpRoute("3", "GET", "/test/{truc}/{bidule}", "/test/{truc}/{bidule}")
             ),
-            1L << 62 | 1L << 61,
             3,
             Map.of(),
             null
@@ -62,7 +59,6 @@ public class RouterMocks {
                     Map.of("truc", 2),
                     new MockHttpRoute("6", "GET", "/test/{truc}/machin/truc", "/test/{truc}/machin/truc")
             ),
-            1L << 62 | 1L << 61 | 1L << 59 | 1L << 58,
             4,
             Map.of(),
             null
@@ -72,7 +68,6 @@ public class RouterMocks {
                     Map.of("truc", 2, "chose", 4),
                     new MockHttpRoute("5", "GET", "/test/{truc}/machin/{chose}", "/test/{chose}/machin/{truc}")
             ),
-            1L << 62 | 1L << 61 | 1L << 59,
             4,
             Map.of(),
             null
@@ -82,7 +77,6 @@ public class RouterMocks {
                     Map.of("truc", 2),
                     new MockHttpRoute("4", "GET", "/test/{truc}/machin", "/test/{truc}/machin")
             ),
-            1L << 62 | 1L << 61 | 1L << 59,
             3,
             Map.of("truc", testTrucMachinTrucSegment),
             testTrucMachinChosePattern
@@ -90,7 +84,6 @@ public class RouterMocks {
 
     public static IndexedRoutes<MockHttpRoute>biduleSegments = new IndexedRoutes<>(
             null,
-            1L << 62 | 1L << 61 | 1L << 60,
             2,
             Map.of("chose", testBiduleChoseSegment),
             null
@@ -98,7 +91,6 @@ public class RouterMocks {
 
     public static IndexedRoutes<MockHttpRoute>testPattern = new IndexedRoutes<>(
             null,
-            1L << 62 | 1L << 61,
             2,
             Map.of("machin", testTrucMachinSegment),
             testTrucBidulePattern
@@ -106,7 +98,6 @@ public class RouterMocks {
 
     public static IndexedRoutes<MockHttpRoute>testSegments = new IndexedRoutes<>(
             null,
-            1L << 62 | 1L << 61,
             1,
             Map.of("bidule", biduleSegments, "chose", choseSegment),
             testPattern
@@ -117,7 +108,6 @@ public class RouterMocks {
                     Map.of("truc", 2),
                     new MockHttpRoute("8", "PUT", "/test/{truc}", "/test/{truc}")
             ),
-            1L << 62 | 1L << 61,
             2,
             Map.of(),
             null
@@ -128,7 +118,6 @@ public class RouterMocks {
                     Map.of(),
                     new MockHttpRoute("7", "PUT", "/test/chouette", "/test/chouette-found")
             ),
-            1L << 62 | 1L << 61 | 1L << 60,
             2,
             Map.of(),
             null
@@ -139,7 +128,6 @@ public class RouterMocks {
                     Map.of(),
                     new MockHttpRoute("9", "PUT", "/test/machinchouette", "/test/machinchouette-found")
             ),
-            1L << 62 | 1L << 61 | 1L << 60,
             2,
             Map.of(),
             null
@@ -147,7 +135,6 @@ public class RouterMocks {
 
     public static IndexedRoutes<MockHttpRoute>putTestSegment = new IndexedRoutes<>(
             null,
-            1L << 62 | 1L << 61,
             1,
             Map.of("machinchouette", putMachinChouetteSegment, "chouette", putChouetteSegment),
             putTestPattern
@@ -156,14 +143,12 @@ public class RouterMocks {
     public static Map<String, IndexedRoutes<MockHttpRoute>> indexedRoutesByMethod = Map.of(
             "GET", new IndexedRoutes<>(
                     null,
-                    1L << 62,
                     0,
                     Map.of("test", testSegments),
                     null
             ),
             "PUT", new IndexedRoutes<>(
                     null,
-                    1L << 62,
                     0,
                     Map.of("test", putTestSegment),
                     null
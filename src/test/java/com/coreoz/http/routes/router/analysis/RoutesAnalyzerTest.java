@@ -0,0 +1,132 @@
+package com.coreoz.http.routes.router.analysis;
+
+import com.coreoz.http.routes.HttpRouter;
+import com.coreoz.http.routes.router.MockHttpRoute;
+import com.coreoz.http.routes.router.RandomRoutes;
+import com.coreoz.http.routes.router.index.SearchRouteIndexer;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class RoutesAnalyzerTest {
+    @Test
+    public void analyze__verify_that_a_static_segment_overlapping_a_pattern_is_not_shadowing() {
+        MockHttpRoute me = route("me", "/users/me");
+        MockHttpRoute user = route("user", "/users/{id}");
+        MockHttpRoute orders = route("orders", "/users/{id}/orders");
+
+        RoutesAnalysis<MockHttpRoute> analysis = RoutesAnalyzer.analyze(List.of(me, user, orders));
+
+        Assertions.assertThat(analysis.overlaps()).containsExactly(new RouteOverlap<>(me, user, false, false));
+        Assertions.assertThat(analysis.shadowedRoutes()).isEmpty();
+    }
+
+    @Test
+    public void analyze__verify_that_routes_covered_by_a_preferred_route_are_shadowed() {
+        MockHttpRoute intItem = route("int", "/items/{id:int}");
+        MockHttpRoute longItem = route("long", "/items/{id:long}");
+        MockHttpRoute anyVersion = route("any-version", "/api/{version:[a-z0-9]+}/{rest...}");
+        MockHttpRoute users = route("users", "/api/{version:[a-z]+}/users");
+        MockHttpRoute duplicate = route("duplicate", "/items/{itemId:int}");
+
+        RoutesAnalysis<MockHttpRoute> analysis = RoutesAnalyzer.analyze(List.of(intItem, longItem, anyVersion, users, duplicate));
+
+        Assertions.assertThat(analysis.overlaps()).containsExactlyInAnyOrder(
+            new RouteOverlap<>(intItem, duplicate, true, false),
+            // int values are tried first, so the long route is still used for the values that are not int values
+            new RouteOverlap<>(intItem, longItem, false, false),
+            new RouteOverlap<>(anyVersion, users, true, true)
+        );
+        Assertions.assertThat(analysis.shadowedRoutes()).containsExactlyInAnyOrder(duplicate, users);
+    }
+
+    @Test
+    public void analyze__verify_that_catch_all_routes_overlap_the_longer_routes() {
+        MockHttpRoute files = route("files", "/files/{path...}");
+        MockHttpRoute raw = route("raw", "/files/{name}/raw");
+        MockHttpRoute file = route("file", "/files/{name}");
+
+        RoutesAnalysis<MockHttpRoute> analysis = RoutesAnalyzer.analyze(List.of(files, raw, file));
+
+        Assertions.assertThat(analysis.overlaps()).containsExactlyInAnyOrder(
+            new RouteOverlap<>(raw, files, false, false),
+            new RouteOverlap<>(file, files, false, false)
+        );
+    }
+
+    @Test
+    public void analyze__verify_that_constraints_of_the_same_type_are_ambiguous() {
+        MockHttpRoute letters = route("letters", "/f/{name:[a-z]+}");
+        MockHttpRoute hexadecimal = route("hexadecimal", "/f/{name:[a-f0-9]+}");
+        MockHttpRoute digits = route("digits", "/f/{name:[0-9]+}");
+
+        RoutesAnalysis<MockHttpRoute> analysis = RoutesAnalyzer.analyze(List.of(letters, hexadecimal, digits));
+
+        Assertions.assertThat(analysis.overlaps()).containsExactlyInAnyOrder(
+            new RouteOverlap<>(digits, hexadecimal, false, true),
+            new RouteOverlap<>(hexadecimal, letters, false, true)
+        );
+        Assertions.assertThat(analysis.ambiguousOverlaps()).hasSize(2);
+    }
+
+    @Test
+    public void analyze__verify_that_a_compressed_index_is_rejected() {
+        Assertions
+            .assertThatThrownBy(() -> RoutesAnalyzer.analyze(SearchRouteIndexer.compressIndex(SearchRouteIndexer.indexRoutes(List.of(
+                route("a", "/services/billing/{id}"),
+                route("b", "/services/billing/{id}/invoices")
+            )))))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("compressed");
+    }
+
+    /**
+     * Property based test: for randomized route sets and request paths, each route matching a request path
+     * must be reported as overlapping the route returned by the router, and shadowed routes must never be returned
+     */
+    @Test
+    public void analyze__verify_that_all_the_routes_matching_the_same_request_are_reported() {
+        Random random = new Random(20240611);
+        String[] routeSegments = {"a", "b", "1", "{x}", "{n:int}", "{s:[a-c]+}", "{t:[^.]*}", "{v}.{e}"};
+        String[] requestSegments = {"a", "b", "1", "a.b", "", "abc"};
+        for (int routeSetIndex = 0; routeSetIndex < 200; routeSetIndex++) {
+            List<MockHttpRoute> routes = RandomRoutes.randomRoutesWithCatchAll(random, 12, routeSegments, "{rest...}");
+            HttpRouter<MockHttpRoute> router = new HttpRouter<>(routes);
+            List<HttpRouter<MockHttpRoute>> routeRouters = routes.stream().map(route -> new HttpRouter<>(List.of(route))).toList();
+            RoutesAnalysis<MockHttpRoute> analysis = RoutesAnalyzer.analyze(routes);
+            // routes with the same generic path as another route are only reported as shadowed by this route
+            Set<MockHttpRoute> indexedRoutes = new HashSet<>();
+            SearchRouteIndexer.forEachRouteLeaf(SearchRouteIndexer.indexRoutes(routes), leaf -> indexedRoutes.add(leaf.httpRoute()));
+            Set<List<String>> overlaps = new HashSet<>();
+            for (RouteOverlap<MockHttpRoute> overlap : analysis.overlaps()) {
+                overlaps.add(List.of(overlap.preferredRoute().routeId(), overlap.otherRoute().routeId()));
+            }
+
+            for (int requestIndex = 0; requestIndex < 100; requestIndex++) {
+                String requestPath = RandomRoutes.randomRequestPath(random, requestSegments);
+                MockHttpRoute matchingRoute = router.searchRoute("GET", requestPath).map(route -> route.matchingRouteLeaf().httpRoute()).orElse(null);
+                if (matchingRoute == null) {
+                    continue;
+                }
+                Assertions.assertThat(analysis.shadowedRoutes()).as("Search of %s in %s", requestPath, routes).doesNotContain(matchingRoute);
+                for (int routeIndex = 0; routeIndex < routes.size(); routeIndex++) {
+                    MockHttpRoute route = routes.get(routeIndex);
+                    if (route != matchingRoute && indexedRoutes.contains(route) && routeRouters.get(routeIndex).searchRoute("GET", requestPath).isPresent()) {
+                        Assertions
+                            .assertThat(overlaps)
+                            .as("Search of %s in %s", requestPath, routes)
+                            .contains(List.of(matchingRoute.routeId(), route.routeId()));
+                    }
+                }
+            }
+        }
+    }
+
+    private static MockHttpRoute route(String routeId, String path) {
+        return new MockHttpRoute(routeId, "GET", path, path);
+    }
+}
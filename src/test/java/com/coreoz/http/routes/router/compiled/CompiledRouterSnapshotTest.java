@@ -0,0 +1,141 @@
+package com.coreoz.http.routes.router.compiled;
+
+import com.coreoz.http.routes.HttpRouter;
+import com.coreoz.http.routes.router.MockHttpRoute;
+import com.coreoz.http.routes.router.RandomRoutes;
+import com.coreoz.http.routes.router.search.RawMatchingRoute;
+import com.coreoz.http.routes.router.search.RouteMatcher;
+import org.assertj.core.api.Assertions;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class CompiledRouterSnapshotTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void load__verify_that_a_loaded_router_finds_the_same_routes_as_the_saved_router() throws IOException {
+        List<MockHttpRoute> routes = new ArrayList<>(RandomRoutes.randomRoutes(new Random(3), 200, new String[]{"a", "b", "c", "é", "{x}", "{y}"}));
+        for (int i = 0; i < 100; i++) {
+            routes.add(new MockHttpRoute("tenant-" + i, "GET", "/t/tenant-" + i + "/items/{itemId}", "/items/{itemId}"));
+        }
+        routes.add(new MockHttpRoute("purge", "PURGE", "/t/{tenant}", "/purge/{tenant}"));
+        routes.add(new MockHttpRoute("item-id", "GET", "/t/{tenant}/items/{itemId:int}", "/items/{itemId}"));
+        routes.add(new MockHttpRoute("item-code", "GET", "/t/{tenant}/items/{code:[a-z]{3}}", "/codes/{code}"));
+        routes.add(new MockHttpRoute("files", "GET", "/t/{tenant}/files/{path...}", "/files/{path...}"));
+        routes.add(new MockHttpRoute("exports", "GET", "/t/{tenant}/exports/{name}.{ext}", "/exports/{name}.{ext}"));
+        CompiledRouter<MockHttpRoute> router = new HttpRouter<>(routes).freeze();
+        Path snapshotFile = temporaryFolder.newFile().toPath();
+
+        CompiledRouterSnapshot.write(router, snapshotFile, new MockHttpRouteCodec());
+        CompiledRouter<MockHttpRoute> loadedRouter = CompiledRouterSnapshot.load(snapshotFile, new MockHttpRouteCodec());
+
+        List<String> requestPaths = new ArrayList<>(List.of("/t/tenant-42/items/7", "/t/tenant-100/items/7", "/t/other", "/t/tenant-100/items/abc", "/t/tenant-100/items/abcd", "/t/tenant-100/files/a/b.txt", "/t/tenant-100/exports/a.b.csv"));
+        Random random = new Random(5);
+        for (int i = 0; i < 500; i++) {
+            requestPaths.add(RandomRoutes.randomRequestPath(random, new String[]{"a", "b", "c", "é", "d", ""}));
+        }
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+        for (String method : List.of("GET", "POST", "PURGE", "DELETE")) {
+            for (String requestPath : requestPaths) {
+                Assertions
+                    .assertThat(loadedRouter.searchRoute(method, requestPath).map(RawMatchingRoute::toMatchingRoute))
+                    .as("Search of %s %s", method, requestPath)
+                    .isEqualTo(router.searchRoute(method, requestPath).map(RawMatchingRoute::toMatchingRoute));
+                RouteResolution resolution = router.resolve(method, requestPath, matcher);
+                Set<String> allowedMethods = matcher.allowedMethods();
+                Assertions.assertThat(loadedRouter.resolve(method, requestPath, matcher)).isEqualTo(resolution);
+                Assertions.assertThat(matcher.allowedMethods()).isEqualTo(allowedMethods);
+            }
+        }
+    }
+
+    @Test
+    public void load__verify_that_routes_can_be_found_by_their_identifier() throws IOException {
+        List<MockHttpRoute> routes = List.of(
+            new MockHttpRoute("users", "GET", "/users/{id}", "/users/{id}"),
+            new MockHttpRoute("orders", "GET", "/orders", "/orders")
+        );
+        Map<String, MockHttpRoute> routesById = routes.stream().collect(Collectors.toMap(MockHttpRoute::routeId, Function.identity()));
+        Path snapshotFile = temporaryFolder.newFile().toPath();
+        RouteCodec<MockHttpRoute> routeIdCodec = new RouteCodec<>() {
+            @Override
+            public byte @NotNull [] encode(@NotNull MockHttpRoute route) {
+                return new byte[0];
+            }
+
+            @Override
+            public @NotNull MockHttpRoute decode(@NotNull String routeId, @NotNull ByteBuffer payload) {
+                return routesById.get(routeId);
+            }
+        };
+
+        CompiledRouterSnapshot.write(new HttpRouter<>(routes).freeze(), snapshotFile, routeIdCodec);
+        CompiledRouter<MockHttpRoute> loadedRouter = CompiledRouterSnapshot.load(snapshotFile, routeIdCodec);
+
+        Assertions.assertThat(loadedRouter.searchRoute("GET", "/users/123")).get().satisfies(route -> {
+            Assertions.assertThat(route.matchingRouteLeaf().httpRoute()).isSameAs(routes.get(0));
+            Assertions.assertThat(route.parameterValue("id")).isEqualTo("123");
+        });
+    }
+
+    @Test
+    public void load__verify_that_invalid_snapshots_are_rejected() throws IOException {
+        Path snapshotFile = temporaryFolder.newFile().toPath();
+        CompiledRouterSnapshot.write(
+            new HttpRouter<>(List.of(new MockHttpRoute("users", "GET", "/users/{id}", "/users/{id}"))).freeze(),
+            snapshotFile,
+            new MockHttpRouteCodec()
+        );
+        byte[] snapshot = Files.readAllBytes(snapshotFile);
+
+        Files.write(snapshotFile, Arrays.copyOf(snapshot, snapshot.length - 3));
+        Assertions
+            .assertThatThrownBy(() -> CompiledRouterSnapshot.load(snapshotFile, new MockHttpRouteCodec()))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("truncated");
+
+        byte[] otherVersionSnapshot = snapshot.clone();
+        otherVersionSnapshot[7] = (byte) (CompiledRouterSnapshot.FORMAT_VERSION + 1);
+        Files.write(snapshotFile, otherVersionSnapshot);
+        Assertions
+            .assertThatThrownBy(() -> CompiledRouterSnapshot.load(snapshotFile, new MockHttpRouteCodec()))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("format version");
+
+        Files.write(snapshotFile, "not a snapshot".getBytes(StandardCharsets.UTF_8));
+        Assertions
+            .assertThatThrownBy(() -> CompiledRouterSnapshot.load(snapshotFile, new MockHttpRouteCodec()))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("not a router snapshot");
+    }
+
+    private static class MockHttpRouteCodec implements RouteCodec<MockHttpRoute> {
+        @Override
+        public byte @NotNull [] encode(@NotNull MockHttpRoute route) {
+            return String.join("\n", route.method(), route.downstreamPath(), route.upstreamPath()).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public @NotNull MockHttpRoute decode(@NotNull String routeId, @NotNull ByteBuffer payload) {
+            String[] fields = StandardCharsets.UTF_8.decode(payload).toString().split("\n");
+            return new MockHttpRoute(routeId, fields[0], fields[1], fields[2]);
+        }
+    }
+}
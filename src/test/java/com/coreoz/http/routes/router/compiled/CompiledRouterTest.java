@@ -0,0 +1,283 @@
+package com.coreoz.http.routes.router.compiled;
+
+import com.coreoz.http.routes.HttpRouter;
+import com.coreoz.http.routes.router.MockHttpRoute;
+import com.coreoz.http.routes.router.RandomRoutes;
+import com.coreoz.http.routes.router.RouterMocks;
+import com.coreoz.http.routes.router.index.IndexedRoutes;
+import com.coreoz.http.routes.router.index.SearchRouteIndexer;
+import com.coreoz.http.routes.router.search.RawMatchingRoute;
+import com.coreoz.http.routes.router.search.RouteMatcher;
+import com.coreoz.http.routes.router.search.SearchRouteEngine;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+public class CompiledRouterTest {
+    @Test
+    public void searchRoute__verify_that_routes_are_found_with_their_parameters() {
+        CompiledRouter<MockHttpRoute> router = new HttpRouter<>(RouterMocks.endpointsTest()).freeze();
+
+        Assertions.assertThat(router.searchRoute("GET", "/test/chose").map(this::routeId)).contains("1");
+        Assertions.assertThat(router.searchRoute("PUT", "/test/chouette").map(this::routeId)).contains("7");
+        Assertions.assertThat(router.searchRoute("PUT", "/test/wildcard-route").map(this::routeId)).contains("8");
+        RawMatchingRoute<MockHttpRoute> matchingRoute = router.searchRoute("GET", "/test/bidule/machin/aaaa").orElse(null);
+        Assertions.assertThat(matchingRoute).isNotNull();
+        Assertions.assertThat(routeId(matchingRoute)).isEqualTo("5");
+        Assertions.assertThat(matchingRoute.toMatchingRoute().parameterValues()).containsExactlyInAnyOrderEntriesOf(Map.of(
+            "truc", "bidule",
+            "chose", "aaaa"
+        ));
+    }
+
+    @Test
+    public void searchRoute__verify_that_missing_routes_and_methods_are_not_found() {
+        CompiledRouter<MockHttpRoute> router = new HttpRouter<>(RouterMocks.endpointsTest()).freeze();
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+
+        Assertions.assertThat(router.searchRoute("GET", "/test/chose", matcher)).isTrue();
+        Assertions.assertThat(router.searchRoute("GET", "/test/param", matcher)).isFalse();
+        Assertions.assertThat(matcher.matchingRouteLeaf()).isNull();
+        Assertions.assertThat(router.searchRoute("DELETE", "/test/chose", matcher)).isFalse();
+    }
+
+    @Test
+    public void searchRoute__verify_that_routes_added_after_the_compilation_are_not_visible() {
+        HttpRouter<MockHttpRoute> httpRouter = new HttpRouter<>(RouterMocks.endpointsTest());
+        CompiledRouter<MockHttpRoute> router = httpRouter.freeze();
+        httpRouter.addRoute(new MockHttpRoute("10", "GET", "/new-route", "/new-route"));
+
+        Assertions.assertThat(httpRouter.searchRoute("GET", "/new-route")).isPresent();
+        Assertions.assertThat(router.searchRoute("GET", "/new-route")).isEmpty();
+    }
+
+    @Test
+    public void searchRoute__verify_that_wide_nodes_are_searched_correctly() {
+        List<MockHttpRoute> routes = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            routes.add(new MockHttpRoute(String.valueOf(i), "GET", "/t/tenant-" + i + "/items", "/"));
+        }
+        CompiledRouter<MockHttpRoute> router = new HttpRouter<>(routes).freeze();
+
+        for (int i = 0; i < 5000; i++) {
+            Assertions.assertThat(router.searchRoute("GET", "/t/tenant-" + i + "/items").map(this::routeId)).contains(String.valueOf(i));
+        }
+        Assertions.assertThat(router.searchRoute("GET", "/t/tenant-5000/items")).isEmpty();
+    }
+
+    @Test
+    public void searchRoute__verify_that_results_are_the_same_as_the_search_engine() {
+        Random random = new Random(7);
+        String[] routeSegments = {"a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "{x}", "{y}"};
+        String[] requestSegments = {"a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "l", ""};
+        for (int routeSetIndex = 0; routeSetIndex < 300; routeSetIndex++) {
+            List<MockHttpRoute> routes = RandomRoutes.randomRoutes(random, 60, routeSegments);
+            Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(routes);
+            CompiledRouter<MockHttpRoute> router = CompiledRouter.compile(index);
+
+            for (int requestIndex = 0; requestIndex < 200; requestIndex++) {
+                String requestPath = RandomRoutes.randomRequestPath(random, requestSegments);
+                Optional<RawMatchingRoute<MockHttpRoute>> expected = SearchRouteEngine.searchRoute(index.get("GET"), requestPath);
+                Optional<RawMatchingRoute<MockHttpRoute>> actual = router.searchRoute("GET", requestPath);
+
+                Assertions
+                    .assertThat(actual.map(this::routeId))
+                    .as("Search of %s in %s", requestPath, routes)
+                    .isEqualTo(expected.map(this::routeId));
+                actual.ifPresent(route -> Assertions
+                    .assertThat(route.toMatchingRoute().parameterValues())
+                    .isEqualTo(expected.get().toMatchingRoute().parameterValues())
+                );
+            }
+        }
+    }
+
+    @Test
+    public void searchRoute__verify_that_constrained_patterns_are_searched_like_the_search_engine() {
+        Random random = new Random(11);
+        String[] routeSegments = {"a", "b", "1", "{x}", "{n:int}", "{w:[a-c]+}", "{l:length(2,3)}"};
+        String[] requestSegments = {"a", "b", "c", "ab", "1", "-12", "abcd", ""};
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+        for (int routeSetIndex = 0; routeSetIndex < 300; routeSetIndex++) {
+            List<MockHttpRoute> routes = RandomRoutes.randomRoutes(random, 30, routeSegments);
+            Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(routes);
+            CompiledRouter<MockHttpRoute> router = CompiledRouter.compile(SearchRouteIndexer.compressIndex(index));
+
+            for (int requestIndex = 0; requestIndex < 100; requestIndex++) {
+                String requestPath = RandomRoutes.randomRequestPath(random, requestSegments);
+                Optional<RawMatchingRoute<MockHttpRoute>> expected = SearchRouteEngine.searchRoute(index.get("GET"), requestPath);
+
+                Assertions
+                    .assertThat(router.searchRoute("GET", requestPath).map(RawMatchingRoute::toMatchingRoute))
+                    .as("Search of %s in %s", requestPath, routes)
+                    .isEqualTo(expected.map(RawMatchingRoute::toMatchingRoute));
+                Assertions
+                    .assertThat(router.resolve("GET", requestPath, matcher))
+                    .isEqualTo(expected.isPresent() ? RouteResolution.FOUND : RouteResolution.NOT_FOUND);
+            }
+        }
+    }
+
+    @Test
+    public void searchRoute__verify_that_catch_all_patterns_are_searched_like_the_search_engine() {
+        Random random = new Random(12);
+        String[] routeSegments = {"a", "b", "{x}", "{n:int}"};
+        String[] requestSegments = {"a", "b", "c", "1", ""};
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+        for (int routeSetIndex = 0; routeSetIndex < 300; routeSetIndex++) {
+            List<MockHttpRoute> routes = RandomRoutes.randomRoutesWithCatchAll(random, 20, routeSegments, "{rest...}");
+            Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(routes);
+            CompiledRouter<MockHttpRoute> router = CompiledRouter.compile(SearchRouteIndexer.compressIndex(index));
+
+            for (int requestIndex = 0; requestIndex < 100; requestIndex++) {
+                String requestPath = RandomRoutes.randomRequestPath(random, requestSegments);
+                Optional<RawMatchingRoute<MockHttpRoute>> expected = SearchRouteEngine.searchRoute(index.get("GET"), requestPath);
+
+                Assertions
+                    .assertThat(router.searchRoute("GET", requestPath).map(RawMatchingRoute::toMatchingRoute))
+                    .as("Search of %s in %s", requestPath, routes)
+                    .isEqualTo(expected.map(RawMatchingRoute::toMatchingRoute));
+                Assertions
+                    .assertThat(router.resolve("GET", requestPath, matcher))
+                    .isEqualTo(expected.isPresent() ? RouteResolution.FOUND : RouteResolution.NOT_FOUND);
+            }
+        }
+    }
+
+    @Test
+    public void searchRoute__verify_that_partial_segments_are_searched_like_the_search_engine() {
+        Random random = new Random(13);
+        String[] routeSegments = {"a", "a.b", "{x}", "{n:int}", "{p}.{q}", "{p}.b", "v{v}", "{p}-{q}.{r}"};
+        String[] requestSegments = {"a", "a.b", "a.b.c", "1", "v1", "v", "a-b.c", ".b", ""};
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+        for (int routeSetIndex = 0; routeSetIndex < 300; routeSetIndex++) {
+            List<MockHttpRoute> routes = RandomRoutes.randomRoutes(random, 30, routeSegments);
+            Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(routes);
+            CompiledRouter<MockHttpRoute> router = CompiledRouter.compile(SearchRouteIndexer.compressIndex(index));
+
+            for (int requestIndex = 0; requestIndex < 100; requestIndex++) {
+                String requestPath = RandomRoutes.randomRequestPath(random, requestSegments);
+                Optional<RawMatchingRoute<MockHttpRoute>> expected = SearchRouteEngine.searchRoute(index.get("GET"), requestPath);
+
+                Assertions
+                    .assertThat(router.searchRoute("GET", requestPath).map(RawMatchingRoute::toMatchingRoute))
+                    .as("Search of %s in %s", requestPath, routes)
+                    .isEqualTo(expected.map(RawMatchingRoute::toMatchingRoute));
+                Assertions
+                    .assertThat(router.resolve("GET", requestPath, matcher))
+                    .isEqualTo(expected.isPresent() ? RouteResolution.FOUND : RouteResolution.NOT_FOUND);
+            }
+        }
+    }
+
+    @Test
+    public void resolve__verify_that_catch_all_patterns_provide_allowed_methods() {
+        CompiledRouter<MockHttpRoute> router = new HttpRouter<>(List.of(
+            new MockHttpRoute("1", "GET", "/static/{path...}", "/"),
+            new MockHttpRoute("2", "PUT", "/static/**", "/")
+        )).freeze();
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+
+        Assertions.assertThat(router.resolve("HEAD", "/static/css/main.css", matcher)).isEqualTo(RouteResolution.FOUND);
+        Assertions.assertThat(matcher.parameterValue("path")).isEqualTo("css/main.css");
+        Assertions.assertThat(router.resolve("DELETE", "/static/css/main.css", matcher)).isEqualTo(RouteResolution.METHOD_NOT_ALLOWED);
+        Assertions.assertThat(matcher.allowedMethods()).containsExactlyInAnyOrder("GET", "HEAD", "PUT");
+    }
+
+    @Test
+    public void resolve__verify_that_the_route_or_the_allowed_methods_are_found() {
+        CompiledRouter<MockHttpRoute> router = new HttpRouter<>(List.of(
+            new MockHttpRoute("1", "GET", "/users/{id}", "/"),
+            new MockHttpRoute("2", "PUT", "/users/{userId}", "/"),
+            new MockHttpRoute("3", "PURGE", "/users/{id}", "/"),
+            new MockHttpRoute("4", "POST", "/users/me", "/")
+        )).freeze();
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+
+        Assertions.assertThat(router.resolve("PUT", "/users/123", matcher)).isEqualTo(RouteResolution.FOUND);
+        Assertions.assertThat(matcher.matchingRouteLeaf().httpRoute().routeId()).isEqualTo("2");
+        Assertions.assertThat(matcher.parameterValue("userId")).isEqualTo("123");
+
+        Assertions.assertThat(router.resolve("DELETE", "/users/123", matcher)).isEqualTo(RouteResolution.METHOD_NOT_ALLOWED);
+        Assertions.assertThat(matcher.matchingRouteLeaf()).isNull();
+        Assertions.assertThat(matcher.allowedMethods()).containsExactlyInAnyOrder("GET", "HEAD", "PUT", "PURGE");
+
+        // both /users/me and /users/{id} match the path
+        Assertions.assertThat(router.resolve("OPTIONS", "/users/me", matcher)).isEqualTo(RouteResolution.METHOD_NOT_ALLOWED);
+        Assertions.assertThat(matcher.allowedMethods()).containsExactlyInAnyOrder("GET", "HEAD", "PUT", "PURGE", "POST");
+
+        Assertions.assertThat(router.resolve("GET", "/orders/123", matcher)).isEqualTo(RouteResolution.NOT_FOUND);
+        Assertions.assertThat(matcher.allowedMethods()).isEmpty();
+        Assertions.assertThat(router.resolve("UNKNOWN", "/users/123", matcher)).isEqualTo(RouteResolution.METHOD_NOT_ALLOWED);
+    }
+
+    @Test
+    public void resolve__verify_that_head_requests_fall_back_to_get_routes() {
+        CompiledRouter<MockHttpRoute> router = new HttpRouter<>(List.of(
+            new MockHttpRoute("1", "GET", "/users/me", "/"),
+            new MockHttpRoute("2", "HEAD", "/users/{id}", "/"),
+            new MockHttpRoute("3", "GET", "/orders/{id}", "/")
+        )).freeze();
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+
+        Assertions.assertThat(router.resolve("HEAD", "/orders/123", matcher)).isEqualTo(RouteResolution.FOUND);
+        Assertions.assertThat(matcher.matchingRouteLeaf().httpRoute().routeId()).isEqualTo("3");
+        // an explicit HEAD route is preferred
+        Assertions.assertThat(router.resolve("HEAD", "/users/me", matcher)).isEqualTo(RouteResolution.FOUND);
+        Assertions.assertThat(matcher.matchingRouteLeaf().httpRoute().routeId()).isEqualTo("2");
+        Assertions.assertThat(router.searchRoute("HEAD", "/orders/123", matcher)).isFalse();
+    }
+
+    @Test
+    public void resolve__verify_that_results_are_the_same_as_a_search_for_each_method() {
+        Random random = new Random(11);
+        String[] methods = {"GET", "HEAD", "POST", "PURGE"};
+        for (int routeSetIndex = 0; routeSetIndex < 300; routeSetIndex++) {
+            List<MockHttpRoute> routes = RandomRoutes
+                .randomRoutes(random, 30)
+                .stream()
+                .map(route -> new MockHttpRoute(route.routeId(), methods[random.nextInt(methods.length)], route.path(), route.path()))
+                .toList();
+            Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(routes);
+            CompiledRouter<MockHttpRoute> router = CompiledRouter.compile(index);
+            RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+
+            for (int requestIndex = 0; requestIndex < 100; requestIndex++) {
+                String requestPath = RandomRoutes.randomRequestPath(random);
+                Map<String, String> expectedRouteIdByMethod = new HashMap<>();
+                for (String method : methods) {
+                    Optional
+                        .ofNullable(index.get(method))
+                        .flatMap(methodIndex -> SearchRouteEngine.searchRoute(methodIndex, requestPath))
+                        .ifPresent(route -> expectedRouteIdByMethod.put(method, routeId(route)));
+                    Assertions
+                        .assertThat(router.searchRoute(method, requestPath).map(this::routeId))
+                        .as("Search of %s %s in %s", method, requestPath, routes)
+                        .isEqualTo(Optional.ofNullable(expectedRouteIdByMethod.get(method)));
+                }
+
+                RouteResolution resolution = router.resolve("DELETE", requestPath, matcher);
+                Set<String> expectedAllowedMethods = new HashSet<>(expectedRouteIdByMethod.keySet());
+                if (expectedAllowedMethods.contains("GET")) {
+                    expectedAllowedMethods.add("HEAD");
+                }
+                Assertions
+                    .assertThat(resolution)
+                    .isEqualTo(expectedAllowedMethods.isEmpty() ? RouteResolution.NOT_FOUND : RouteResolution.METHOD_NOT_ALLOWED);
+                Assertions.assertThat(matcher.allowedMethods()).isEqualTo(expectedAllowedMethods);
+            }
+        }
+    }
+
+    private String routeId(RawMatchingRoute<MockHttpRoute> matchingRoute) {
+        return matchingRoute.matchingRouteLeaf().httpRoute().routeId();
+    }
+}
@@ -1,12 +1,16 @@
 package com.coreoz.http.routes.router.index;
 
 import com.coreoz.http.routes.router.MockHttpRoute;
+import com.coreoz.http.routes.router.RandomRoutes;
 import com.coreoz.http.routes.router.RouterMocks;
 import org.assertj.core.api.Assertions;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 public class SearchRouteIndexerTest {
 
@@ -35,4 +39,231 @@ public class SearchRouteIndexerTest {
         Assertions.assertThat(existingEndpoint.httpRoute().routeId()).isEqualTo("1");
         Assertions.assertThat(index).hasSize(1);
     }
+
+    @Test
+    public void indexRoutesInParallel__check_that_the_index_is_the_same_as_a_sequential_indexation() {
+        Random random = new Random(20240310);
+        for (int routeSetIndex = 0; routeSetIndex < 100; routeSetIndex++) {
+            List<MockHttpRoute> routes = RandomRoutes
+                .randomRoutes(random, 200)
+                .stream()
+                .map(route -> new MockHttpRoute(route.routeId(), random.nextBoolean() ? "GET" : "POST", route.path(), route.path()))
+                .toList();
+            Assertions
+                .assertThat(SearchRouteIndexer.indexRoutesInParallel(routes))
+                .isEqualTo(SearchRouteIndexer.indexRoutes(routes));
+        }
+    }
+
+    @Test
+    public void indexRoutesInParallel__check_that_the_first_added_route_is_indexed() {
+        Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutesInParallel(List.of(
+            new MockHttpRoute("1", "GET", "/test/{a}", "/test"),
+            new MockHttpRoute("2", "GET", "/other", "/other"),
+            new MockHttpRoute("3", "GET", "/test/{b}", "/test")
+        ));
+        Assertions.assertThat(index.get("GET").getSegments().get("test").getPattern().getLastRoute().httpRoute().routeId()).isEqualTo("1");
+    }
+
+    @Test
+    public void compressIndex__check_that_chains_of_static_segments_are_collapsed() {
+        Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.compressIndex(SearchRouteIndexer.indexRoutes(List.of(
+            new MockHttpRoute("1", "GET", "/api/v2/internal/admin/users/{id}", "/users"),
+            new MockHttpRoute("2", "GET", "/api/v2/internal/admin/roles", "/roles")
+        )));
+
+        IndexedRoutes<MockHttpRoute> apiNode = index.get("GET").getSegments().get("api");
+        Assertions.assertThat(apiNode.getCompressedSegments()).containsExactly("v2", "internal", "admin");
+        Assertions.assertThat(apiNode.getDepth()).isEqualTo(4);
+        Assertions.assertThat(apiNode.getSegments()).containsOnlyKeys("users", "roles");
+        Assertions.assertThat(apiNode.getSegments().get("roles").getCompressedSegments()).isNull();
+        Assertions.assertThat(apiNode.getSegments().get("users").getPattern().getLastRoute().httpRoute().routeId()).isEqualTo("1");
+    }
+
+    @Test
+    public void addRouteToIndex__check_that_compressed_nodes_are_split() {
+        List<MockHttpRoute> routes = List.of(
+            new MockHttpRoute("1", "GET", "/api/v2/internal/admin/users/{id}", "/users"),
+            new MockHttpRoute("2", "GET", "/api/v2/internal/admin/roles", "/roles"),
+            new MockHttpRoute("3", "GET", "/api/v2/public", "/public"),
+            new MockHttpRoute("4", "GET", "/api/v2/internal", "/internal"),
+            new MockHttpRoute("5", "GET", "/api/v2/{version}/admin", "/admin")
+        );
+        Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.compressIndex(SearchRouteIndexer.indexRoutes(routes.subList(0, 2)));
+        for (MockHttpRoute route : routes.subList(2, routes.size())) {
+            Assertions.assertThat(SearchRouteIndexer.addRouteToIndex(index, route).httpRoute()).isSameAs(route);
+        }
+
+        IndexedRoutes<MockHttpRoute> apiNode = index.get("GET").getSegments().get("api");
+        Assertions.assertThat(apiNode.getCompressedSegments()).containsExactly("v2");
+        Assertions.assertThat(apiNode.getSegments()).containsOnlyKeys("internal", "public");
+        Assertions.assertThat(apiNode.getSegments().get("internal").getLastRoute().httpRoute().routeId()).isEqualTo("4");
+        Assertions
+            .assertThat(SearchRouteIndexer.compressIndex(index))
+            .isEqualTo(SearchRouteIndexer.compressIndex(SearchRouteIndexer.indexRoutes(routes)));
+    }
+
+    @Test
+    public void addRouteToIndex__check_that_a_compressed_index_with_added_routes_is_the_same_as_a_compressed_index_of_all_routes() {
+        Random random = new Random(20240318);
+        String[] routeSegments = {"a", "b", "c", "d", "{x}"};
+        for (int routeSetIndex = 0; routeSetIndex < 300; routeSetIndex++) {
+            List<MockHttpRoute> routes = RandomRoutes.randomRoutes(random, 12, routeSegments);
+            Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.compressIndex(SearchRouteIndexer.indexRoutes(routes.subList(0, 4)));
+            for (MockHttpRoute route : routes.subList(4, routes.size())) {
+                SearchRouteIndexer.addRouteToIndex(index, route);
+            }
+            Assertions
+                .assertThat(SearchRouteIndexer.compressIndex(index))
+                .as("Index of %s", routes)
+                .isEqualTo(SearchRouteIndexer.compressIndex(SearchRouteIndexer.indexRoutes(routes)));
+        }
+    }
+
+    @Test
+    public void indexRoutes__check_that_constrained_patterns_are_indexed_in_the_same_way_whatever_the_indexing_method() {
+        Random random = new Random(20240412);
+        String[] routeSegments = {"a", "b", "{x}", "{n:int}", "{w:[a-c]+}", "{u:uuid}"};
+        for (int routeSetIndex = 0; routeSetIndex < 300; routeSetIndex++) {
+            List<MockHttpRoute> routes = RandomRoutes.randomRoutes(random, 12, routeSegments);
+            Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(routes);
+            Assertions.assertThat(SearchRouteIndexer.indexRoutesInParallel(routes)).as("Index of %s", routes).isEqualTo(index);
+
+            Map<String, IndexedRoutes<MockHttpRoute>> compressedIndex = SearchRouteIndexer.compressIndex(SearchRouteIndexer.indexRoutes(routes.subList(0, 4)));
+            Map<String, IndexedRoutes<MockHttpRoute>> copyOnWriteIndex = new HashMap<>(SearchRouteIndexer.indexRoutes(routes.subList(0, 4)));
+            for (MockHttpRoute route : routes.subList(4, routes.size())) {
+                SearchRouteIndexer.addRouteToIndex(compressedIndex, route);
+                SearchRouteIndexer.addRouteToIndexCopyOnWrite(copyOnWriteIndex, route);
+            }
+            Assertions
+                .assertThat(SearchRouteIndexer.compressIndex(compressedIndex))
+                .as("Index of %s", routes)
+                .isEqualTo(SearchRouteIndexer.compressIndex(index));
+            Assertions.assertThat(copyOnWriteIndex).as("Index of %s", routes).isEqualTo(index);
+        }
+    }
+
+    @Test
+    public void indexRoutes__check_that_catch_all_patterns_are_indexed_in_the_same_way_whatever_the_indexing_method() {
+        Random random = new Random(20240413);
+        String[] routeSegments = {"a", "b", "{x}", "{n:int}"};
+        for (int routeSetIndex = 0; routeSetIndex < 300; routeSetIndex++) {
+            List<MockHttpRoute> routes = RandomRoutes.randomRoutesWithCatchAll(random, 12, routeSegments, "{rest...}");
+            Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(routes);
+            Assertions.assertThat(SearchRouteIndexer.indexRoutesInParallel(routes)).as("Index of %s", routes).isEqualTo(index);
+
+            Map<String, IndexedRoutes<MockHttpRoute>> compressedIndex = SearchRouteIndexer.compressIndex(SearchRouteIndexer.indexRoutes(routes.subList(0, 4)));
+            Map<String, IndexedRoutes<MockHttpRoute>> copyOnWriteIndex = new HashMap<>(SearchRouteIndexer.indexRoutes(routes.subList(0, 4)));
+            for (MockHttpRoute route : routes.subList(4, routes.size())) {
+                SearchRouteIndexer.addRouteToIndex(compressedIndex, route);
+                SearchRouteIndexer.addRouteToIndexCopyOnWrite(copyOnWriteIndex, route);
+            }
+            Assertions
+                .assertThat(SearchRouteIndexer.compressIndex(compressedIndex))
+                .as("Index of %s", routes)
+                .isEqualTo(SearchRouteIndexer.compressIndex(index));
+            Assertions.assertThat(copyOnWriteIndex).as("Index of %s", routes).isEqualTo(index);
+        }
+    }
+
+    @Test
+    public void removeRouteFromIndex__check_that_the_index_is_the_same_as_an_index_of_the_remaining_routes() {
+        Random random = new Random(20240502);
+        String[] routeSegments = {"a", "b", "c", "{x}", "{n:int}", "{p}.{q}"};
+        for (int routeSetIndex = 0; routeSetIndex < 300; routeSetIndex++) {
+            List<MockHttpRoute> routes = RandomRoutes.randomRoutesWithCatchAll(random, 12, routeSegments, "{rest...}");
+            Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(routes);
+            List<MockHttpRoute> indexedRoutes = new ArrayList<>();
+            SearchRouteIndexer.forEachRouteLeaf(index, leaf -> indexedRoutes.add(leaf.httpRoute()));
+            List<MockHttpRoute> removedRoutes = indexedRoutes.subList(0, indexedRoutes.size() / 2);
+            List<MockHttpRoute> remainingRoutes = indexedRoutes.subList(indexedRoutes.size() / 2, indexedRoutes.size());
+            Map<String, IndexedRoutes<MockHttpRoute>> expectedIndex = SearchRouteIndexer.indexRoutes(remainingRoutes);
+
+            Map<String, IndexedRoutes<MockHttpRoute>> compressedIndex = SearchRouteIndexer.compressIndex(index);
+            Map<String, IndexedRoutes<MockHttpRoute>> copyOnWriteIndex = new HashMap<>(index);
+            for (MockHttpRoute route : removedRoutes) {
+                Assertions.assertThat(SearchRouteIndexer.removeRouteFromIndexCopyOnWrite(copyOnWriteIndex, route)).isNotNull();
+                Assertions.assertThat(SearchRouteIndexer.removeRouteFromIndex(compressedIndex, route)).isNotNull();
+            }
+            Assertions.assertThat(copyOnWriteIndex).as("Index of %s without %s", routes, removedRoutes).isEqualTo(expectedIndex);
+            Assertions
+                .assertThat(SearchRouteIndexer.compressIndex(compressedIndex))
+                .as("Index of %s without %s", routes, removedRoutes)
+                .isEqualTo(SearchRouteIndexer.compressIndex(expectedIndex));
+            // the nodes of the previous version of the index are not modified
+            Assertions.assertThat(index).as("Index of %s", routes).isEqualTo(SearchRouteIndexer.indexRoutes(routes));
+
+            for (MockHttpRoute route : removedRoutes) {
+                SearchRouteIndexer.removeRouteFromIndex(index, route);
+            }
+            Assertions.assertThat(index).as("Index of %s without %s", routes, removedRoutes).isEqualTo(expectedIndex);
+        }
+    }
+
+    @Test
+    public void removeRouteFromIndex__check_that_a_route_having_another_identifier_is_not_removed() {
+        Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(List.of(new MockHttpRoute("1", "GET", "/users/{id}", "/")));
+
+        Assertions.assertThat(SearchRouteIndexer.removeRouteFromIndex(index, new MockHttpRoute("2", "GET", "/users/{userId}", "/"))).isNull();
+        Assertions.assertThat(SearchRouteIndexer.removeRouteFromIndex(index, new MockHttpRoute("1", "GET", "/users", "/"))).isNull();
+        Assertions.assertThat(SearchRouteIndexer.removeRouteFromIndex(index, new MockHttpRoute("1", "POST", "/users/{id}", "/"))).isNull();
+        Assertions.assertThat(SearchRouteIndexer.removeRouteFromIndex(index, new MockHttpRoute("1", "GET", "/users/{userId}", "/"))).isNotNull();
+        Assertions.assertThat(index).isEmpty();
+    }
+
+    @Test
+    public void replaceRouteInIndex__check_that_only_the_route_leaf_is_replaced() {
+        Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(List.of(
+            new MockHttpRoute("1", "GET", "/users/{id}/files/{name}.{ext}", "/"),
+            new MockHttpRoute("2", "GET", "/users/{id}", "/")
+        ));
+        Map<String, IndexedRoutes<MockHttpRoute>> copyOnWriteIndex = new HashMap<>(index);
+        MockHttpRoute newRoute = new MockHttpRoute("3", "GET", "/users/{userId}/files/{file}.{type}", "/");
+
+        IndexRouteLeaf<MockHttpRoute> replacedLeaf = SearchRouteIndexer.replaceRouteInIndexCopyOnWrite(copyOnWriteIndex, newRoute);
+        Assertions.assertThat(replacedLeaf.httpRoute().routeId()).isEqualTo("1");
+        Assertions.assertThat(SearchRouteIndexer.replaceRouteInIndex(index, newRoute)).isEqualTo(replacedLeaf);
+        Assertions.assertThat(copyOnWriteIndex).isEqualTo(index);
+        Assertions.assertThat(index).isEqualTo(SearchRouteIndexer.indexRoutes(List.of(newRoute, new MockHttpRoute("2", "GET", "/users/{id}", "/"))));
+        Assertions.assertThat(SearchRouteIndexer.replaceRouteInIndex(index, new MockHttpRoute("4", "GET", "/users", "/"))).isNull();
+        Assertions.assertThat(SearchRouteIndexer.replaceRouteInIndex(index, new MockHttpRoute("4", "GET", "/users/{id}/files", "/"))).isNull();
+    }
+
+    @Test
+    public void addRouteToIndex__check_that_constrained_patterns_are_sorted_by_precedence() {
+        Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(List.of(
+            new MockHttpRoute("1", "GET", "/items/{slug:[a-z]+}", "/"),
+            new MockHttpRoute("2", "GET", "/items/{id:long}", "/"),
+            new MockHttpRoute("3", "GET", "/items/{id:int}", "/"),
+            new MockHttpRoute("4", "GET", "/items/{itemId:int}", "/"),
+            new MockHttpRoute("5", "GET", "/items/{name}", "/")
+        ));
+        IndexedRoutes<MockHttpRoute> itemsNode = index.get("GET").getSegments().get("items");
+        Assertions
+            .assertThat(itemsNode.getConstrainedPatterns())
+            .extracting(node -> node.getConstraint().definition() + ":" + node.getLastRoute().httpRoute().routeId())
+            .containsExactly("int:3", "long:2", "[a-z]+:1");
+        Assertions.assertThat(itemsNode.getPattern().getLastRoute().httpRoute().routeId()).isEqualTo("5");
+    }
+
+    @Test
+    public void addRouteToIndex__verify_that_compressed_nodes_are_split_at_any_depth() {
+        for (int depth : new int[]{62, 63, 64, 127, 128, 200}) {
+            String prefix = "/s".repeat(depth - 1);
+            List<MockHttpRoute> routes = List.of(
+                new MockHttpRoute("1", "GET", prefix + "/x" + "/t".repeat(5), "/"),
+                new MockHttpRoute("2", "GET", prefix + "/y" + "/t".repeat(5), "/"),
+                new MockHttpRoute("3", "GET", prefix + "/{p}", "/")
+            );
+            Map<String, IndexedRoutes<MockHttpRoute>> compressedIndex = SearchRouteIndexer.compressIndex(SearchRouteIndexer.indexRoutes(routes.subList(0, 1)));
+            SearchRouteIndexer.addRouteToIndex(compressedIndex, routes.get(1));
+            SearchRouteIndexer.addRouteToIndex(compressedIndex, routes.get(2));
+
+            // added routes are not compressed
+            Assertions
+                .assertThat(SearchRouteIndexer.compressIndex(compressedIndex))
+                .as("Depth %d", depth)
+                .isEqualTo(SearchRouteIndexer.compressIndex(SearchRouteIndexer.indexRoutes(routes)));
+        }
+    }
 }
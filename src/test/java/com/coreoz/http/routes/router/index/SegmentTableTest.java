@@ -0,0 +1,66 @@
+package com.coreoz.http.routes.router.index;
+
+import com.coreoz.http.routes.router.MockHttpRoute;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class SegmentTableTest {
+    @Test
+    public void get__verify_that_segments_are_found_using_a_request_path_slice() {
+        SegmentTable<MockHttpRoute> table = new SegmentTable<>();
+        IndexedRoutes<MockHttpRoute> users = node();
+        table.put("users", users);
+        table.put("", node());
+
+        Assertions.assertThat(table.get("/api/users/123", 5, 10)).isSameAs(users);
+        Assertions.assertThat(table.get("/api/user/123", 5, 9)).isNull();
+        Assertions.assertThat(table.get("/api//123", 5, 5)).isSameAs(table.get(""));
+    }
+
+    @Test
+    public void put__verify_that_the_strategy_changes_to_a_hash_table_for_wide_nodes() {
+        SegmentTable<MockHttpRoute> table = new SegmentTable<>();
+        for (int i = 0; i < SegmentTable.LINEAR_SCAN_MAX_SIZE; i++) {
+            table.put("segment-" + i, node());
+        }
+        Assertions.assertThat(table.isHashTable()).isFalse();
+
+        table.put("segment-wide", node());
+        Assertions.assertThat(table.isHashTable()).isTrue();
+        Assertions.assertThat(table).hasSize(SegmentTable.LINEAR_SCAN_MAX_SIZE + 1);
+        Assertions.assertThat(table.get("segment-0")).isNotNull();
+        Assertions.assertThat(new SegmentTable<>(new HashMap<>(table)).isHashTable()).isTrue();
+    }
+
+    @Test
+    public void operations__verify_that_the_table_behaves_like_a_hash_map() {
+        Random random = new Random(20240201);
+        for (int round = 0; round < 50; round++) {
+            SegmentTable<MockHttpRoute> table = new SegmentTable<>();
+            Map<String, IndexedRoutes<MockHttpRoute>> expected = new HashMap<>();
+            int namesCount = 1 + random.nextInt(200);
+            for (int operation = 0; operation < 2000; operation++) {
+                String name = "s" + random.nextInt(namesCount);
+                if (random.nextInt(3) == 0) {
+                    Assertions.assertThat(table.remove(name)).isSameAs(expected.remove(name));
+                } else {
+                    IndexedRoutes<MockHttpRoute> child = node();
+                    Assertions.assertThat(table.put(name, child)).isSameAs(expected.put(name, child));
+                }
+                String searchedName = "s" + random.nextInt(namesCount);
+                String requestPath = "/a/" + searchedName + "/b";
+                Assertions.assertThat(table.get(requestPath, 3, 3 + searchedName.length())).isSameAs(expected.get(searchedName));
+            }
+            Assertions.assertThat(table).isEqualTo(expected);
+            Assertions.assertThat(table.hashCode()).isEqualTo(expected.hashCode());
+        }
+    }
+
+    private static IndexedRoutes<MockHttpRoute> node() {
+        return new IndexedRoutes<>(null, 0, new SegmentTable<>(), null);
+    }
+}
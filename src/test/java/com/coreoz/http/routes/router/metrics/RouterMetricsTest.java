@@ -0,0 +1,84 @@
+package com.coreoz.http.routes.router.metrics;
+
+import com.coreoz.http.routes.HttpRouter;
+import com.coreoz.http.routes.router.MockHttpRoute;
+import com.coreoz.http.routes.router.search.RouteMatcher;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class RouterMetricsTest {
+    private static final MockHttpRoute USER_ROUTE = new MockHttpRoute("1", "GET", "/users/{id}", "/users/{id}");
+    private static final MockHttpRoute USER_ORDERS_ROUTE = new MockHttpRoute("2", "GET", "/users/me/orders", "/users/me/orders");
+
+    @Test
+    public void onSearch__verify_that_hits_and_misses_are_counted() {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(List.of(USER_ROUTE, USER_ORDERS_ROUTE));
+        RouterMetrics<MockHttpRoute> metrics = new RouterMetrics<>();
+        router.setSearchListener(metrics);
+
+        router.searchRoute("GET", "/users/123");
+        router.searchRoute("GET", "/users/456", new RouteMatcher<>());
+        router.searchRoute("GET", "/users/me/orders");
+        router.searchRoute("GET", "/unknown");
+        router.searchRoute("POST", "/users/123");
+
+        Assertions.assertThat(metrics.searchCount()).isEqualTo(5);
+        Assertions.assertThat(metrics.hitCount(USER_ROUTE)).isEqualTo(2);
+        Assertions.assertThat(metrics.hitCounts()).isEqualTo(Map.of(USER_ROUTE, 2L, USER_ORDERS_ROUTE, 1L));
+        Assertions.assertThat(metrics.missCount("GET")).isEqualTo(1);
+        Assertions.assertThat(metrics.missCounts()).isEqualTo(Map.of("GET", 1L, "POST", 1L));
+        Assertions.assertThat(metrics.latencyHistogram().count()).isEqualTo(5);
+    }
+
+    @Test
+    public void onSearch__verify_that_explored_branches_and_backtracks_are_counted() {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(List.of(USER_ROUTE, USER_ORDERS_ROUTE));
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+        RouterMetrics<MockHttpRoute> metrics = new RouterMetrics<>();
+        router.setSearchListener(metrics);
+
+        // users -> me, then backtrack from me to {id}
+        Assertions.assertThat(router.searchRoute("GET", "/users/me", matcher)).isTrue();
+        Assertions.assertThat(matcher.exploredBranchesCount()).isEqualTo(3);
+        Assertions.assertThat(matcher.backtracksCount()).isEqualTo(1);
+        Assertions.assertThat(router.searchRoute("GET", "/users/me/orders", matcher)).isTrue();
+        Assertions.assertThat(matcher.exploredBranchesCount()).isEqualTo(3);
+        Assertions.assertThat(matcher.backtracksCount()).isZero();
+
+        Assertions.assertThat(metrics.exploredBranchesCount()).isEqualTo(6);
+        Assertions.assertThat(metrics.backtracksCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void setSearchListener__verify_that_searches_are_not_instrumented_once_disabled() {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(List.of(USER_ROUTE));
+        RouterMetrics<MockHttpRoute> metrics = new RouterMetrics<>();
+        router.setSearchListener(metrics);
+        router.searchRoute("GET", "/users/123");
+
+        router.setSearchListener(null);
+        router.searchRoute("GET", "/users/123");
+
+        Assertions.assertThat(metrics.searchCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void percentile__verify_that_percentiles_are_upper_bounds_with_a_bounded_error() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long durationNanos = 1; durationNanos <= 1000; durationNanos++) {
+            histogram.record(durationNanos);
+        }
+        histogram.record(Long.MAX_VALUE);
+
+        Assertions.assertThat(histogram.count()).isEqualTo(1001);
+        Assertions.assertThat(histogram.percentile(0)).isEqualTo(1);
+        Assertions.assertThat(histogram.percentile(1)).isEqualTo(11);
+        Assertions.assertThat(histogram.percentile(50)).isBetween(501L, (long) (501 * 1.125));
+        Assertions.assertThat(histogram.percentile(99)).isBetween(991L, (long) (991 * 1.125));
+        Assertions.assertThat(histogram.percentile(100)).isEqualTo(Long.MAX_VALUE);
+        Assertions.assertThat(new LatencyHistogram().percentile(99)).isZero();
+    }
+}
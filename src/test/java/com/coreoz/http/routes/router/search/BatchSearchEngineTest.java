@@ -0,0 +1,186 @@
+package com.coreoz.http.routes.router.search;
+
+import com.coreoz.http.routes.router.MockHttpRoute;
+import com.coreoz.http.routes.router.RandomRoutes;
+import com.coreoz.http.routes.router.index.IndexRouteLeaf;
+import com.coreoz.http.routes.router.index.IndexedRoutes;
+import com.coreoz.http.routes.router.index.SearchRouteIndexer;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class BatchSearchEngineTest {
+    private static final String[] METHODS = {"GET", "POST", "DELETE"};
+
+    @Test
+    public void searchAll__verify_that_results_are_the_same_as_searching_requests_one_by_one() {
+        Random random = new Random(20240305);
+        for (int routeSetIndex = 0; routeSetIndex < 200; routeSetIndex++) {
+            Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(randomRoutes(random, 40));
+            int requestsCount = 300;
+            String[] methods = new String[requestsCount];
+            String[] paths = new String[requestsCount];
+            for (int i = 0; i < requestsCount; i++) {
+                methods[i] = METHODS[random.nextInt(METHODS.length)];
+                paths[i] = RandomRoutes.randomRequestPath(random);
+            }
+
+            List<Integer> requestIndexes = new ArrayList<>();
+            BatchSearchEngine.searchAll(index, methods, paths, (requestIndex, matchingRouteLeaf) -> {
+                requestIndexes.add(requestIndex);
+                Assertions
+                    .assertThat(routeId(matchingRouteLeaf))
+                    .as("Search of %s %s", methods[requestIndex], paths[requestIndex])
+                    .isEqualTo(expectedRouteId(index, methods[requestIndex], paths[requestIndex]));
+            });
+            Assertions.assertThat(requestIndexes).hasSize(requestsCount).isSorted();
+        }
+    }
+
+    @Test
+    public void searchAll__verify_that_constrained_patterns_are_searched_like_requests_one_by_one() {
+        Random random = new Random(20240412);
+        String[] routeSegments = {"a", "b", "{x}", "{n:int}", "{w:[a-c]+}"};
+        String[] requestSegments = {"a", "b", "c", "ab", "1", "-12", ""};
+        for (int routeSetIndex = 0; routeSetIndex < 200; routeSetIndex++) {
+            Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(RandomRoutes.randomRoutes(random, 30, routeSegments));
+            int requestsCount = 200;
+            String[] methods = new String[requestsCount];
+            String[] paths = new String[requestsCount];
+            for (int i = 0; i < requestsCount; i++) {
+                methods[i] = "GET";
+                paths[i] = RandomRoutes.randomRequestPath(random, requestSegments);
+            }
+
+            BatchSearchEngine.searchAll(index, methods, paths, (requestIndex, matchingRouteLeaf) -> Assertions
+                .assertThat(routeId(matchingRouteLeaf))
+                .as("Search of %s", paths[requestIndex])
+                .isEqualTo(expectedRouteId(index, methods[requestIndex], paths[requestIndex]))
+            );
+        }
+    }
+
+    @Test
+    public void searchAll__verify_that_catch_all_patterns_are_searched_like_requests_one_by_one() {
+        Random random = new Random(20240413);
+        String[] routeSegments = {"a", "b", "{x}", "{n:int}"};
+        String[] requestSegments = {"a", "b", "c", "1", ""};
+        for (int routeSetIndex = 0; routeSetIndex < 200; routeSetIndex++) {
+            Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(
+                RandomRoutes.randomRoutesWithCatchAll(random, 20, routeSegments, "**")
+            );
+            int requestsCount = 200;
+            String[] methods = new String[requestsCount];
+            String[] paths = new String[requestsCount];
+            for (int i = 0; i < requestsCount; i++) {
+                methods[i] = "GET";
+                paths[i] = RandomRoutes.randomRequestPath(random, requestSegments);
+            }
+
+            BatchSearchEngine.searchAll(index, methods, paths, (requestIndex, matchingRouteLeaf) -> Assertions
+                .assertThat(routeId(matchingRouteLeaf))
+                .as("Search of %s", paths[requestIndex])
+                .isEqualTo(expectedRouteId(index, methods[requestIndex], paths[requestIndex]))
+            );
+        }
+    }
+
+    @Test
+    public void searchAll__verify_that_large_batches_are_searched_in_parallel() {
+        Random random = new Random(42);
+        Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(randomRoutes(random, 60));
+        int requestsCount = BatchSearchEngine.CHUNK_SIZE * 3 + 17;
+        String[] methods = new String[requestsCount];
+        String[] paths = new String[requestsCount];
+        for (int i = 0; i < requestsCount; i++) {
+            methods[i] = METHODS[random.nextInt(METHODS.length)];
+            paths[i] = RandomRoutes.randomRequestPath(random);
+        }
+
+        AtomicReferenceArray<String> results = new AtomicReferenceArray<>(requestsCount);
+        BatchSearchEngine.searchAll(
+            index,
+            methods,
+            paths,
+            (requestIndex, matchingRouteLeaf) -> results.set(requestIndex, String.valueOf(routeId(matchingRouteLeaf))),
+            ForkJoinPool.commonPool()
+        );
+        for (int i = 0; i < requestsCount; i++) {
+            Assertions.assertThat(results.get(i)).isEqualTo(String.valueOf(expectedRouteId(index, methods[i], paths[i])));
+        }
+    }
+
+    @Test
+    public void searchAll__verify_that_large_batches_are_searched_in_parallel_with_the_path_normalization() {
+        Random random = new Random(43);
+        Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(randomRoutes(random, 60));
+        int requestsCount = BatchSearchEngine.CHUNK_SIZE * 2 + 5;
+        String[] methods = new String[requestsCount];
+        String[] paths = new String[requestsCount];
+        for (int i = 0; i < requestsCount; i++) {
+            methods[i] = METHODS[random.nextInt(METHODS.length)];
+            paths[i] = RandomRoutes.randomRequestPath(random) + "?page=" + i;
+        }
+
+        AtomicReferenceArray<String> results = new AtomicReferenceArray<>(requestsCount);
+        BatchSearchEngine.searchAll(
+            index,
+            methods,
+            paths,
+            PathNormalization.REQUEST_TARGET,
+            (requestIndex, matchingRouteLeaf) -> results.set(requestIndex, String.valueOf(routeId(matchingRouteLeaf))),
+            ForkJoinPool.commonPool()
+        );
+        for (int i = 0; i < requestsCount; i++) {
+            String expectedRouteId = expectedRouteId(index, methods[i], paths[i], PathNormalization.REQUEST_TARGET);
+            Assertions.assertThat(results.get(i)).isEqualTo(String.valueOf(expectedRouteId));
+        }
+    }
+
+    @Test
+    public void searchAll__verify_that_arrays_must_have_the_same_length() {
+        Assertions
+            .assertThatThrownBy(() -> BatchSearchEngine.searchAll(Map.of(), new String[]{"GET"}, new String[0], (requestIndex, leaf) -> {}))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<MockHttpRoute> randomRoutes(Random random, int routesCount) {
+        return RandomRoutes
+            .randomRoutes(random, routesCount)
+            .stream()
+            .map(route -> new MockHttpRoute(route.routeId(), METHODS[random.nextInt(2)], route.path(), route.path()))
+            .toList();
+    }
+
+    private static String expectedRouteId(Map<String, IndexedRoutes<MockHttpRoute>> index, String method, String path) {
+        IndexedRoutes<MockHttpRoute> methodIndex = index.get(method);
+        if (methodIndex == null) {
+            return null;
+        }
+        return SearchRouteEngine
+            .searchRoute(methodIndex, path)
+            .map(route -> route.matchingRouteLeaf().httpRoute().routeId())
+            .orElse(null);
+    }
+
+    private static String expectedRouteId(
+        Map<String, IndexedRoutes<MockHttpRoute>> index, String method, String path, PathNormalization pathNormalization
+    ) {
+        IndexedRoutes<MockHttpRoute> methodIndex = index.get(method);
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+        if (methodIndex == null || !SearchRouteEngine.searchRoute(methodIndex, path, pathNormalization, matcher)) {
+            return null;
+        }
+        return matcher.matchingRouteLeaf().httpRoute().routeId();
+    }
+
+    private static String routeId(IndexRouteLeaf<MockHttpRoute> matchingRouteLeaf) {
+        return matchingRouteLeaf == null ? null : matchingRouteLeaf.httpRoute().routeId();
+    }
+}
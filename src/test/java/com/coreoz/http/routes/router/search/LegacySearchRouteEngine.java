@@ -0,0 +1,88 @@
+package com.coreoz.http.routes.router.search;
+
+import com.coreoz.http.routes.HttpRoutes;
+import com.coreoz.http.routes.router.HttpRoute;
+import com.coreoz.http.routes.router.index.IndexedRoutes;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The first implementation of {@link SearchRouteEngine}, based on a work list sorted by rating.<br>
+ * It is kept to verify that the depth-first search returns the same results.<br>
+ * <br>
+ * The rating of a node has a bit for each static segment leading to the node, the bit <code>62 - depth</code>,
+ * so nodes with static segments closer to the root are searched first.
+ */
+class LegacySearchRouteEngine {
+    private static final int MAX_LONG_OFFSET_FOR_POSITIVE_NUMBERS = 62;
+
+    // the legacy search collects parameter values by segment position, as the deprecated constructor expects
+    @SuppressWarnings("deprecation")
+    static <T extends HttpRoute> @NotNull Optional<RawMatchingRoute<T>> searchRoute(@NotNull IndexedRoutes<T> routesIndex, @NotNull String requestPath) {
+        ArrayDeque<String> requestElements = new ArrayDeque<>(Arrays.asList(requestPath.substring(1).split(HttpRoutes.SEGMENT_SEPARATOR)));
+        List<SearchSegment<T>> segmentOptions = new ArrayList<>();
+        segmentOptions.add(new SearchSegment<>(
+            routesIndex,
+            1L << MAX_LONG_OFFSET_FOR_POSITIVE_NUMBERS,
+            requestElements,
+            new HashMap<>()
+        ));
+
+        while (!segmentOptions.isEmpty()) {
+            SearchSegment<T> currentRouteOption = segmentOptions.remove(0);
+            IndexedRoutes<T> indexedRoutes = currentRouteOption.indexedRoutes();
+
+            if (currentRouteOption.requestRemainingSegments().isEmpty() && indexedRoutes.getLastRoute() != null) {
+                return Optional.of(
+                    new RawMatchingRoute<>(
+                        indexedRoutes.getLastRoute(),
+                        currentRouteOption.params()
+                    )
+                );
+            }
+
+            if (!currentRouteOption.requestRemainingSegments().isEmpty()) {
+                String currentPathSegment = currentRouteOption.requestRemainingSegments().remove();
+                if (indexedRoutes.getSegments().get(currentPathSegment) != null) {
+                    IndexedRoutes<T> segmentRoutes = indexedRoutes.getSegments().get(currentPathSegment);
+                    segmentOptions.add(toSearchSegment(
+                        segmentRoutes,
+                        currentRouteOption.rating() | 1L << (MAX_LONG_OFFSET_FOR_POSITIVE_NUMBERS - segmentRoutes.getDepth()),
+                        currentRouteOption
+                    ));
+                }
+                if (indexedRoutes.getPattern() != null) {
+                    currentRouteOption.params().put(currentRouteOption.indexedRoutes().getDepth() + 1, currentPathSegment);
+                    segmentOptions.add(toSearchSegment(indexedRoutes.getPattern(), currentRouteOption.rating(), currentRouteOption));
+                }
+                segmentOptions
+                    .sort(Comparator.comparingLong((SearchSegment<T> searchSegment) -> searchSegment.rating())
+                    .reversed());
+            }
+
+        }
+        return Optional.empty();
+    }
+
+    private static <T extends HttpRoute> @NotNull SearchSegment<T> toSearchSegment(
+        @NotNull IndexedRoutes<T> indexedRoutes, long rating, @NotNull SearchSegment<T> currentSegmentOption
+    ) {
+        return new SearchSegment<>(
+            indexedRoutes,
+            rating,
+            currentSegmentOption.requestRemainingSegments().clone(),
+            currentSegmentOption.params()
+        );
+    }
+
+    private record SearchSegment<T extends HttpRoute>(IndexedRoutes<T> indexedRoutes, long rating, ArrayDeque<String> requestRemainingSegments, Map<Integer, String> params) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.coreoz.http.routes.router.search;
+
+import com.coreoz.http.routes.HttpRouter;
+import com.coreoz.http.routes.HttpRoutes;
+import com.coreoz.http.routes.router.MockHttpRoute;
+import com.coreoz.http.routes.router.RouterMocks;
+import com.coreoz.http.routes.router.index.IndexRouteLeaf;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class RawMatchingRouteTest {
+    @Test
+    public void searchRoute__verify_that_parameters_are_stored_as_request_path_offsets() {
+        RawMatchingRoute<MockHttpRoute> matchingRoute = new HttpRouter<>(RouterMocks.endpointsTest())
+            .searchRoute("GET", "/test/bidule/machin/aaaa")
+            .orElseThrow();
+
+        Assertions.assertThat(matchingRoute.requestPath()).isEqualTo("/test/bidule/machin/aaaa");
+        Assertions.assertThat(matchingRoute.segmentsOffsets()).containsExactly(1, 5, 6, 12, 13, 19, 20, 24);
+        Assertions.assertThat(matchingRoute.parameterValue("truc")).isEqualTo("bidule");
+        Assertions.assertThat(matchingRoute.parameterValue("unknown")).isNull();
+    }
+
+    @Test
+    public void appendParameterValue__verify_that_the_value_is_appended_only_for_existing_patterns() {
+        RawMatchingRoute<MockHttpRoute> matchingRoute = new HttpRouter<>(RouterMocks.endpointsTest())
+            .searchRoute("GET", "/test/bidule/machin/aaaa")
+            .orElseThrow();
+        StringBuilder destination = new StringBuilder("/");
+
+        Assertions.assertThat(matchingRoute.appendParameterValue(destination, "chose")).isTrue();
+        Assertions.assertThat(matchingRoute.appendParameterValue(destination, "unknown")).isFalse();
+        Assertions.assertThat(destination).hasToString("/aaaa");
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void constructor__verify_that_parameters_indexed_by_position_are_still_supported() {
+        IndexRouteLeaf<MockHttpRoute> leaf = new IndexRouteLeaf<>(
+            Map.of("userId", 2, "orderId", 4),
+            new MockHttpRoute("1", "GET", "/users/{userId}/orders/{orderId}", "/{userId}/{orderId}")
+        );
+        RawMatchingRoute<MockHttpRoute> matchingRoute = new RawMatchingRoute<>(leaf, Map.of(2, "123", 4, "456"));
+
+        Assertions.assertThat(matchingRoute.parameterByIndex()).isEqualTo(Map.of(2, "123", 4, "456"));
+        Assertions.assertThat(matchingRoute.toMatchingRoute().parameterValues()).isEqualTo(Map.of("userId", "123", "orderId", "456"));
+        Assertions
+            .assertThat(HttpRoutes.computeDestinationRoute(matchingRoute, HttpRoutes.parsePathAsSegments("/{userId}/{orderId}")).destinationPath())
+            .isEqualTo("/123/456");
+    }
+
+    @Test
+    public void equals__verify_that_two_searches_of_the_same_path_are_equal() {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(RouterMocks.endpointsTest());
+        RawMatchingRoute<MockHttpRoute> matchingRoute = router.searchRoute("GET", "/test/bidule/machin/aaaa").orElseThrow();
+        RawMatchingRoute<MockHttpRoute> sameMatchingRoute = router.searchRoute("GET", "/test/bidule/machin/aaaa").orElseThrow();
+        RawMatchingRoute<MockHttpRoute> otherMatchingRoute = router.searchRoute("GET", "/test/bidule/machin/bbbb").orElseThrow();
+
+        Assertions.assertThat(sameMatchingRoute).isEqualTo(matchingRoute).hasSameHashCodeAs(matchingRoute);
+        Assertions.assertThat(otherMatchingRoute).isNotEqualTo(matchingRoute);
+        Assertions.assertThat(matchingRoute.toString()).contains("segmentsOffsets=[1, 5, 6, 12, 13, 19, 20, 24]");
+    }
+}
@@ -0,0 +1,252 @@
+package com.coreoz.http.routes.router.search;
+
+import com.coreoz.http.routes.HttpRouter;
+import com.coreoz.http.routes.HttpRoutes;
+import com.coreoz.http.routes.router.MockHttpRoute;
+import com.coreoz.http.routes.router.RouterMocks;
+import com.coreoz.http.routes.router.compiled.CompiledRouter;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class RouteMatcherTest {
+    @Test
+    public void reset__verify_that_segments_are_delimited_like_a_split_on_slash() {
+        Assertions.assertThat(segments("/test/chose")).containsExactly("test", "chose");
+        Assertions.assertThat(segments("/test//other")).containsExactly("test", "", "other");
+        Assertions.assertThat(segments("/test/other//")).containsExactly("test", "other");
+        Assertions.assertThat(segments("//test")).containsExactly("", "test");
+        Assertions.assertThat(segments("/")).containsExactly("");
+        Assertions.assertThat(segments("//")).isEmpty();
+    }
+
+    @Test
+    public void reset__verify_that_the_query_string_and_the_fragment_are_ignored() {
+        PathNormalization ignoreQuery = new PathNormalization(true, PathNormalization.TrailingSlash.IGNORE, false, false);
+        Assertions.assertThat(segments("/test/chose?a=b/c", ignoreQuery)).containsExactly("test", "chose");
+        Assertions.assertThat(segments("/test/chose#a/b?c", ignoreQuery)).containsExactly("test", "chose");
+        Assertions.assertThat(segments("/test/?a=b", ignoreQuery)).containsExactly("test");
+        Assertions.assertThat(segments("/?a=b", ignoreQuery)).containsExactly("");
+        Assertions.assertThat(segments("/test/chose?a=b", PathNormalization.DEFAULT)).containsExactly("test", "chose?a=b");
+    }
+
+    @Test
+    public void reset__verify_that_empty_segments_are_collapsed() {
+        PathNormalization collapse = new PathNormalization(false, PathNormalization.TrailingSlash.IGNORE, true, false);
+        Assertions.assertThat(segments("/test//other", collapse)).containsExactly("test", "other");
+        Assertions.assertThat(segments("//test///other//", collapse)).containsExactly("test", "other");
+        Assertions.assertThat(segments("//", collapse)).containsExactly("");
+        Assertions.assertThat(segments("/", collapse)).containsExactly("");
+    }
+
+    @Test
+    public void reset__verify_that_a_trailing_slash_can_be_an_empty_segment() {
+        PathNormalization emptySegment = new PathNormalization(false, PathNormalization.TrailingSlash.EMPTY_SEGMENT, false, false);
+        Assertions.assertThat(segments("/test/", emptySegment)).containsExactly("test", "");
+        Assertions.assertThat(segments("/test", emptySegment)).containsExactly("test");
+        Assertions.assertThat(segments("/", emptySegment)).containsExactly("");
+
+        PathNormalization emptySegmentCollapsed = new PathNormalization(true, PathNormalization.TrailingSlash.EMPTY_SEGMENT, true, false);
+        Assertions.assertThat(segments("/test//?a=b", emptySegmentCollapsed)).containsExactly("test", "");
+    }
+
+    @Test
+    public void parameterValue__verify_that_values_are_percent_decoded_as_utf8() {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(List.of(new MockHttpRoute("1", "GET", "/users/{name}", "/backend/{name}")));
+        router.setPathNormalization(PathNormalization.REQUEST_TARGET);
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+
+        Assertions.assertThat(router.searchRoute("GET", "/users//J%C3%A9r%C3%B4me%20%F0%9F%98%80/?details=true", matcher)).isTrue();
+        Assertions.assertThat(matcher.parameterValue("name")).isEqualTo("J\u00e9r\u00f4me \uD83D\uDE00");
+        Assertions.assertThat(matcher.toRawMatchingRoute().toMatchingRoute().parameterValues()).containsEntry("name", "J\u00e9r\u00f4me \uD83D\uDE00");
+        // invalid sequences are kept as they are
+        Assertions.assertThat(router.searchRoute("GET", "/users/100%25%2x%C3%28%C0%AF%ED%A0%80%", matcher)).isTrue();
+        Assertions.assertThat(matcher.parameterValue("name")).isEqualTo("100%%2x%C3(%C0%AF%ED%A0%80%");
+        // rewritten paths stay encoded
+        Assertions.assertThat(router.searchRoute("GET", "/users/a%2Fb", matcher)).isTrue();
+        Assertions.assertThat(matcher.parameterValue("name")).isEqualTo("a/b");
+        Assertions.assertThat(router.searchRoute("GET", "/users/a%2Fb").orElseThrow().toMatchingRoute().parameterValues()).containsEntry("name", "a/b");
+        Assertions
+            .assertThat(HttpRoutes.computeDestinationRoute(router.searchRoute("GET", "/users/a%2Fb").orElseThrow(), HttpRoutes.parsePathAsSegments("/backend/{name}")).destinationPath())
+            .isEqualTo("/backend/a%2Fb");
+    }
+
+    @Test
+    public void parameterValue__verify_that_bytes_that_cannot_start_a_utf8_sequence_are_kept() {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(List.of(new MockHttpRoute("1", "GET", "/u/{id}", "/backend/{id}")));
+        router.setPathNormalization(PathNormalization.REQUEST_TARGET);
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+
+        for (String value : List.of("%F8%80%80", "%FF%80%80", "%F5%80%80%80")) {
+            Assertions.assertThat(router.searchRoute("GET", "/u/" + value, matcher)).isTrue();
+            Assertions.assertThat(matcher.parameterValue("id")).isEqualTo(value);
+        }
+    }
+
+    @Test
+    public void parameterValue__verify_that_only_ascii_hexadecimal_digits_are_decoded() {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(List.of(new MockHttpRoute("1", "GET", "/u/{id}", "/backend/{id}")));
+        router.setPathNormalization(PathNormalization.REQUEST_TARGET);
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+
+        for (String value : List.of("%\u0661\u0661", "%\uFF21\uFF21", "%4\uFF11")) {
+            Assertions.assertThat(router.searchRoute("GET", "/u/" + value, matcher)).isTrue();
+            Assertions.assertThat(matcher.parameterValue("id")).isEqualTo(value);
+        }
+        Assertions.assertThat(router.searchRoute("GET", "/u/%4a%4A", matcher)).isTrue();
+        Assertions.assertThat(matcher.parameterValue("id")).isEqualTo("JJ");
+    }
+
+    @Test
+    public void searchRoute__verify_that_compiled_routers_normalize_paths_like_routers() {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(RouterMocks.endpointsTest());
+        router.setPathNormalization(PathNormalization.REQUEST_TARGET);
+        CompiledRouter<MockHttpRoute> compiledRouter = router.freeze();
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+
+        for (String path : List.of("/test//bidule/machin/aa%61a/?x=1", "/test/chose#top", "/other?x=1", "//?x")) {
+            Optional<String> routeId = router.searchRoute("GET", path).map(route -> route.matchingRouteLeaf().httpRoute().routeId());
+            Assertions.assertThat(compiledRouter.searchRoute("GET", path, matcher)).as(path).isEqualTo(routeId.isPresent());
+            Assertions.assertThat(compiledRouter.searchRoute("GET", path).map(route -> route.matchingRouteLeaf().httpRoute().routeId())).as(path).isEqualTo(routeId);
+        }
+        Assertions.assertThat(compiledRouter.searchRoute("GET", "/test//bidule/machin/aa%61a/?x=1", matcher)).isTrue();
+        Assertions.assertThat(matcher.parameterValue("chose")).isEqualTo("aaaa");
+        Assertions.assertThat(compiledRouter.withPathNormalization(PathNormalization.DEFAULT).searchRoute("GET", "/test/chose?x=1", matcher)).isFalse();
+    }
+
+    @Test
+    public void searchRoute__verify_that_parameter_values_are_read_from_the_request_path() {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(RouterMocks.endpointsTest());
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+
+        Assertions.assertThat(router.searchRoute("GET", "/test/bidule/machin/aaaa", matcher)).isTrue();
+        Assertions.assertThat(matcher.matchingRouteLeaf().httpRoute().routeId()).isEqualTo("5");
+        Assertions.assertThat(matcher.parameterValue("truc")).isEqualTo("bidule");
+        Assertions.assertThat(matcher.parameterValue("chose")).isEqualTo("aaaa");
+        Assertions.assertThat(matcher.parameterValue("unknown")).isNull();
+    }
+
+    @Test
+    public void searchRoute__verify_that_a_reused_matcher_does_not_keep_the_previous_result() {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(RouterMocks.endpointsTest());
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+
+        Assertions.assertThat(router.searchRoute("GET", "/test/chose", matcher)).isTrue();
+        Assertions.assertThat(router.searchRoute("GET", "/other", matcher)).isFalse();
+        Assertions.assertThat(matcher.matchingRouteLeaf()).isNull();
+        Assertions.assertThat(router.searchRoute("DELETE", "/test/chose", matcher)).isFalse();
+        Assertions.assertThat(matcher.matchingRouteLeaf()).isNull();
+    }
+
+    @Test
+    public void searchRoute__verify_that_a_successful_search_does_not_allocate() {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(RouterMocks.endpointsTest());
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+        String[] paths = {"/test/chose", "/test/bidule/machin/aaaa", "/test/param/machin", "/test/bidule/chose"};
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // warm up, so the allocation measure is not polluted by class loading
+        int matchesCount = searchAll(router, matcher, paths, 10_000);
+        long allocatedBytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        matchesCount += searchAll(router, matcher, paths, 10_000);
+        long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBytesBefore;
+
+        Assertions.assertThat(matchesCount).isEqualTo(2 * 10_000 * paths.length);
+        Assertions.assertThat(allocatedBytes).isZero();
+    }
+
+    @Test
+    public void searchRoute__verify_that_a_request_line_read_as_bytes_matches_like_a_string() {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(RouterMocks.endpointsTest());
+        CompiledRouter<MockHttpRoute> compiledRouter = router.freeze();
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+        byte[] requestLine = "GET /test/bidule/machin/aaaa HTTP/1.1".getBytes(StandardCharsets.US_ASCII);
+
+        Assertions.assertThat(router.searchRoute(requestLine, 0, 3, 4, 24, matcher)).isTrue();
+        Assertions.assertThat(matcher.matchingRouteLeaf().httpRoute().routeId()).isEqualTo("5");
+        Assertions.assertThat(matcher.parameterValue("chose")).isEqualTo("aaaa");
+        Assertions.assertThat(compiledRouter.searchRoute(requestLine, 0, 3, 4, 24, matcher)).isTrue();
+        Assertions.assertThat(matcher.matchingRouteLeaf().httpRoute().routeId()).isEqualTo("5");
+
+        Assertions.assertThat(router.searchRoute(requestLine, 0, 3, 4, 11, matcher)).isFalse();
+        Assertions.assertThat(router.searchRoute("PUT /test/chouette".getBytes(StandardCharsets.US_ASCII), 0, 3, 4, 14, matcher)).isTrue();
+        Assertions.assertThat(matcher.matchingRouteLeaf().httpRoute().routeId()).isEqualTo("7");
+        Assertions.assertThat(router.searchRoute("PURGE /test/chouette".getBytes(StandardCharsets.US_ASCII), 0, 5, 6, 14, matcher)).isFalse();
+    }
+
+    @Test
+    public void searchRoute__verify_that_parameter_values_are_byte_ranges_of_the_request_line() {
+        HttpRouter<MockHttpRoute> router = new HttpRouter<>(RouterMocks.endpointsTest());
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+        byte[] requestLineBytes = "GET /test/bidule/machin/aaaa HTTP/1.1".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer requestLine = ByteBuffer.allocateDirect(requestLineBytes.length).put(requestLineBytes);
+
+        Assertions.assertThat(router.searchRoute(requestLine, 0, 3, 4, 24, matcher)).isTrue();
+        int chosePosition = matcher.matchingRouteLeaf().routePatternIndexes().get("chose");
+        int choseStart = matcher.requestBytes().offset() + matcher.segmentStart(chosePosition);
+        int choseEnd = matcher.requestBytes().offset() + matcher.segmentEnd(chosePosition);
+        Assertions.assertThat(new String(requestLineBytes, choseStart, choseEnd - choseStart, StandardCharsets.US_ASCII)).isEqualTo("aaaa");
+        Assertions.assertThat(matcher.toRawMatchingRoute().parameterValue("truc")).isEqualTo("bidule");
+    }
+
+    @Test
+    public void searchRoute__verify_that_a_successful_search_of_bytes_does_not_allocate() {
+        CompiledRouter<MockHttpRoute> router = new HttpRouter<>(RouterMocks.endpointsTest()).freeze();
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+        byte[] requestLine = "GET /test/bidule/machin/aaaa HTTP/1.1".getBytes(StandardCharsets.US_ASCII);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // warm up, so the allocation measure is not polluted by class loading
+        int matchesCount = searchAll(router, matcher, requestLine, 10_000);
+        long allocatedBytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        matchesCount += searchAll(router, matcher, requestLine, 10_000);
+        long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBytesBefore;
+
+        Assertions.assertThat(matchesCount).isEqualTo(2 * 10_000);
+        Assertions.assertThat(allocatedBytes).isZero();
+    }
+
+    private static int searchAll(CompiledRouter<MockHttpRoute> router, RouteMatcher<MockHttpRoute> matcher, byte[] requestLine, int iterations) {
+        int matchesCount = 0;
+        for (int i = 0; i < iterations; i++) {
+            if (router.searchRoute(requestLine, 0, 3, 4, 24, matcher)) {
+                matchesCount++;
+            }
+        }
+        return matchesCount;
+    }
+
+    private static int searchAll(HttpRouter<MockHttpRoute> router, RouteMatcher<MockHttpRoute> matcher, String[] paths, int iterations) {
+        int matchesCount = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (String path : paths) {
+                if (router.searchRoute("GET", path, matcher)) {
+                    matchesCount++;
+                }
+            }
+        }
+        return matchesCount;
+    }
+
+    private static List<String> segments(String path) {
+        return segments(path, PathNormalization.DEFAULT);
+    }
+
+    private static List<String> segments(String path, PathNormalization pathNormalization) {
+        RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+        matcher.reset(path, pathNormalization);
+        List<String> segments = new ArrayList<>();
+        for (int position = 1; position <= matcher.segmentsCount(); position++) {
+            segments.add(path.substring(matcher.segmentStart(position), matcher.segmentEnd(position)));
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,94 @@
+package com.coreoz.http.routes.router.search;
+
+import com.coreoz.http.routes.HttpRouter;
+import com.coreoz.http.routes.router.MockHttpRoute;
+import com.coreoz.http.routes.router.RandomRoutes;
+import com.coreoz.http.routes.router.compiled.CompiledRouter;
+import com.coreoz.http.routes.router.index.IndexedRoutes;
+import com.coreoz.http.routes.router.index.SearchRouteIndexer;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Property based test: for randomized route sets and request paths, the depth-first search must return
+ * the same result as the legacy search based on a work list sorted by rating.
+ */
+public class SearchRouteEngineRandomizedTest {
+    private static final int ROUTE_SETS_COUNT = 500;
+    private static final int ROUTES_PER_SET = 30;
+    private static final int REQUESTS_PER_SET = 200;
+
+    @Test
+    public void searchRoute__verify_that_results_are_the_same_as_the_rating_ordered_search() {
+        Random random = new Random(20240117);
+        for (int routeSetIndex = 0; routeSetIndex < ROUTE_SETS_COUNT; routeSetIndex++) {
+            List<MockHttpRoute> routes = RandomRoutes.randomRoutes(random, ROUTES_PER_SET);
+            IndexedRoutes<MockHttpRoute> index = SearchRouteIndexer.indexRoutes(routes).get("GET");
+
+            for (int requestIndex = 0; requestIndex < REQUESTS_PER_SET; requestIndex++) {
+                String requestPath = RandomRoutes.randomRequestPath(random);
+                Optional<RawMatchingRoute<MockHttpRoute>> expected = LegacySearchRouteEngine.searchRoute(index, requestPath);
+                Optional<RawMatchingRoute<MockHttpRoute>> actual = SearchRouteEngine.searchRoute(index, requestPath);
+
+                Assertions
+                    .assertThat(actual.map(route -> route.matchingRouteLeaf().httpRoute().routeId()))
+                    .as("Search of %s in %s", requestPath, routes)
+                    .isEqualTo(expected.map(route -> route.matchingRouteLeaf().httpRoute().routeId()));
+                actual.ifPresent(route -> Assertions
+                    .assertThat(route.toMatchingRoute().parameterValues())
+                    .as("Parameters of %s in %s", requestPath, routes)
+                    .isEqualTo(expected.get().toMatchingRoute().parameterValues())
+                );
+            }
+        }
+    }
+
+    @Test
+    public void searchRoute__verify_that_results_are_the_same_in_a_compressed_index() {
+        Random random = new Random(20240319);
+        String[] routeSegments = {"a", "b", "c", "d", "{x}"};
+        for (int routeSetIndex = 0; routeSetIndex < ROUTE_SETS_COUNT; routeSetIndex++) {
+            List<MockHttpRoute> routes = RandomRoutes.randomRoutes(random, 8, routeSegments);
+            Map<String, IndexedRoutes<MockHttpRoute>> index = SearchRouteIndexer.indexRoutes(routes);
+            // half of the routes are added after the compression to verify that compressed nodes are correctly split
+            Map<String, IndexedRoutes<MockHttpRoute>> compressedIndex = SearchRouteIndexer.compressIndex(SearchRouteIndexer.indexRoutes(routes.subList(0, 4)));
+            for (MockHttpRoute route : routes.subList(4, routes.size())) {
+                SearchRouteIndexer.addRouteToIndex(compressedIndex, route);
+            }
+            CompiledRouter<MockHttpRoute> compiledRouter = new HttpRouter<>(compressedIndex).freeze();
+            RouteMatcher<MockHttpRoute> matcher = new RouteMatcher<>();
+
+            String[] methods = new String[REQUESTS_PER_SET];
+            String[] requestPaths = new String[REQUESTS_PER_SET];
+            for (int requestIndex = 0; requestIndex < REQUESTS_PER_SET; requestIndex++) {
+                methods[requestIndex] = "GET";
+                requestPaths[requestIndex] = RandomRoutes.randomRequestPath(random);
+                Optional<RawMatchingRoute<MockHttpRoute>> expected = SearchRouteEngine.searchRoute(index.get("GET"), requestPaths[requestIndex]);
+                Optional<RawMatchingRoute<MockHttpRoute>> actual = SearchRouteEngine.searchRoute(compressedIndex.get("GET"), requestPaths[requestIndex]);
+
+                Assertions
+                    .assertThat(actual.map(RawMatchingRoute::toMatchingRoute))
+                    .as("Search of %s in %s", requestPaths[requestIndex], routes)
+                    .isEqualTo(expected.map(RawMatchingRoute::toMatchingRoute));
+                compiledRouter.searchRoute("GET", requestPaths[requestIndex], matcher);
+                Assertions
+                    .assertThat(Optional.ofNullable(matcher.matchingRouteLeaf()).map(leaf -> leaf.httpRoute().routeId()))
+                    .as("Compiled search of %s in %s", requestPaths[requestIndex], routes)
+                    .isEqualTo(expected.map(route -> route.matchingRouteLeaf().httpRoute().routeId()));
+            }
+            BatchSearchEngine.searchAll(compressedIndex, methods, requestPaths, (requestIndex, matchingRouteLeaf) -> Assertions
+                .assertThat(Optional.ofNullable(matchingRouteLeaf).map(leaf -> leaf.httpRoute().routeId()))
+                .as("Batch search of %s in %s", requestPaths[requestIndex], routes)
+                .isEqualTo(SearchRouteEngine
+                    .searchRoute(index.get("GET"), requestPaths[requestIndex])
+                    .map(route -> route.matchingRouteLeaf().httpRoute().routeId())
+                )
+            );
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.assertj.core.api.Assertions;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -87,6 +88,118 @@ public class SearchRouteEngineTest {
         Assertions.assertThat(resultRoute.destinationPath()).isEqualTo("/test/wildcard-route");
     }
 
+    @Test
+    public void searchRoute__check_that_constrained_patterns_are_tried_between_static_segments_and_patterns() {
+        IndexedRoutes<MockHttpRoute> index = SearchRouteIndexer.indexRoutes(List.of(
+            new MockHttpRoute("slug", "GET", "/items/{slug}", "/items/{slug}"),
+            new MockHttpRoute("word", "GET", "/items/{word:[a-z]+}", "/items/{word}"),
+            new MockHttpRoute("id", "GET", "/items/{id:int}", "/items/{id}"),
+            new MockHttpRoute("new", "GET", "/items/new", "/items/new"),
+            new MockHttpRoute("long-details", "GET", "/items/{id:long}/details", "/items/{id}/details")
+        )).get("GET");
+
+        Assertions.assertThat(searchRouteId(index, "/items/new")).contains("new");
+        Assertions.assertThat(searchRouteId(index, "/items/42")).contains("id");
+        Assertions.assertThat(searchRouteId(index, "/items/chair")).contains("word");
+        Assertions.assertThat(searchRouteId(index, "/items/blue-chair")).contains("slug");
+        Assertions.assertThat(searchRouteId(index, "/items/4294967296")).contains("slug");
+        // the int branch does not contain the details route, so the search backtracks to the long branch
+        Assertions.assertThat(searchRouteId(index, "/items/42/details")).contains("long-details");
+        Assertions.assertThat(SearchRouteEngine.searchRoute(index, "/items/42").orElseThrow().toMatchingRoute().parameterValues()).containsEntry("id", "42");
+    }
+
+    @Test
+    public void searchRoute__check_that_a_catch_all_pattern_has_the_lowest_precedence_and_captures_the_remaining_path() {
+        IndexedRoutes<MockHttpRoute> index = SearchRouteIndexer.indexRoutes(List.of(
+            new MockHttpRoute("static", "GET", "/static/**", "/"),
+            new MockHttpRoute("favicon", "GET", "/static/favicon.ico", "/"),
+            new MockHttpRoute("css", "GET", "/static/{file}/css", "/"),
+            new MockHttpRoute("legacy", "GET", "/legacy/{rest...}", "/")
+        )).get("GET");
+
+        Assertions.assertThat(searchRouteId(index, "/static/favicon.ico")).contains("favicon");
+        Assertions.assertThat(searchRouteId(index, "/static/main/css")).contains("css");
+        Assertions.assertThat(searchRouteId(index, "/static/main/js")).contains("static");
+        Assertions.assertThat(searchRouteId(index, "/static/favicon.ico/16")).contains("static");
+        // the catch-all pattern matches at least one segment
+        Assertions.assertThat(searchRouteId(index, "/static")).isEmpty();
+        RawMatchingRoute<MockHttpRoute> legacyRoute = SearchRouteEngine.searchRoute(index, "/legacy/a//b/c/").orElseThrow();
+        Assertions.assertThat(legacyRoute.parameterValue("rest")).isEqualTo("a//b/c");
+        Assertions.assertThat(legacyRoute.toMatchingRoute().parameterValues()).containsExactly(Map.entry("rest", "a//b/c"));
+    }
+
+    @Test
+    public void searchRoute__check_that_partial_segments_are_tried_before_constrained_patterns() {
+        IndexedRoutes<MockHttpRoute> index = SearchRouteIndexer.indexRoutes(List.of(
+            new MockHttpRoute("file", "GET", "/files/{file}", "/"),
+            new MockHttpRoute("name-ext", "GET", "/files/{name}.{ext}", "/"),
+            new MockHttpRoute("json", "GET", "/files/{name}.json", "/"),
+            new MockHttpRoute("id", "GET", "/files/{id:int}", "/"),
+            new MockHttpRoute("readme", "GET", "/files/README.md", "/"),
+            new MockHttpRoute("version", "GET", "/api/v{version}/users", "/")
+        )).get("GET");
+
+        Assertions.assertThat(searchRouteId(index, "/files/README.md")).contains("readme");
+        Assertions.assertThat(searchRouteId(index, "/files/data.json")).contains("json");
+        Assertions.assertThat(searchRouteId(index, "/files/data.csv")).contains("name-ext");
+        Assertions.assertThat(searchRouteId(index, "/files/42")).contains("id");
+        Assertions.assertThat(searchRouteId(index, "/files/.csv")).contains("file");
+        Assertions.assertThat(searchRouteId(index, "/api/v2/users")).contains("version");
+        Assertions.assertThat(searchRouteId(index, "/api/v/users")).isEmpty();
+
+        RawMatchingRoute<MockHttpRoute> fileRoute = SearchRouteEngine.searchRoute(index, "/files/archive.tar.gz").orElseThrow();
+        Assertions.assertThat(fileRoute.toMatchingRoute().parameterValues()).containsOnly(Map.entry("name", "archive.tar"), Map.entry("ext", "gz"));
+        Assertions.assertThat(fileRoute.parameterStart("ext")).isEqualTo("/files/archive.tar.".length());
+        Assertions.assertThat(fileRoute.parameterEnd("ext")).isEqualTo("/files/archive.tar.gz".length());
+        Assertions.assertThat(fileRoute.parameterStart("unknown")).isEqualTo(-1);
+    }
+
+    @Test
+    public void addRouteToIndex__check_that_a_catch_all_pattern_must_be_the_last_segment() {
+        Assertions
+            .assertThatThrownBy(() -> SearchRouteIndexer.indexRoutes(List.of(new MockHttpRoute("1", "GET", "/legacy/{rest...}/details", "/"))))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("{rest...}");
+    }
+
+    private static Optional<String> searchRouteId(IndexedRoutes<MockHttpRoute> index, String path) {
+        return SearchRouteEngine.searchRoute(index, path).map(route -> route.matchingRouteLeaf().httpRoute().routeId());
+    }
+
+    @Test
+    public void searchRoute__verify_that_a_static_segment_has_precedence_over_a_pattern_at_any_depth() {
+        for (int depth : new int[]{62, 63, 64, 127, 128, 200}) {
+            String staticPath = deepPath(depth - 1, "x", 5);
+            String patternPath = deepPath(depth - 1, "{p}", 5);
+            IndexedRoutes<MockHttpRoute> index = SearchRouteIndexer.indexRoutes(List.of(
+                new MockHttpRoute("pattern", "GET", patternPath, "/"),
+                new MockHttpRoute("static", "GET", staticPath, "/")
+            )).get("GET");
+
+            Assertions.assertThat(searchRouteId(index, staticPath)).as("Depth %d", depth).contains("static");
+            Assertions.assertThat(searchRouteId(index, deepPath(depth - 1, "y", 5))).as("Depth %d", depth).contains("pattern");
+        }
+    }
+
+    @Test
+    public void searchRoute__verify_that_the_first_different_segment_decides_the_precedence() {
+        // the static segment at depth 10 has precedence over all the deeper static segments
+        IndexedRoutes<MockHttpRoute> index = SearchRouteIndexer.compressIndex(SearchRouteIndexer.indexRoutes(List.of(
+            new MockHttpRoute("deep", "GET", deepPath(9, "{p}", 0) + deepPath(190, "x", 0), "/"),
+            new MockHttpRoute("shallow", "GET", deepPath(9, "x", 0) + deepPath(190, "{p}", 0), "/")
+        ))).get("GET");
+
+        Assertions.assertThat(searchRouteId(index, deepPath(9, "x", 0) + deepPath(190, "x", 0))).contains("shallow");
+        Assertions.assertThat(searchRouteId(index, deepPath(9, "y", 0) + deepPath(190, "x", 0))).contains("deep");
+    }
+
+    /**
+     * Returns a path made of <code>prefixLength</code> "s" segments, then the segment, then <code>suffixLength</code> "t" segments
+     */
+    private static String deepPath(int prefixLength, String segment, int suffixLength) {
+        return "/s".repeat(prefixLength) + "/" + segment + "/t".repeat(suffixLength);
+    }
+
     private static DestinationRoute toDestinationRoute(RawMatchingRoute<MockHttpRoute> matchingRoute) {
         return HttpRoutes.computeDestinationRoute(
             matchingRoute,